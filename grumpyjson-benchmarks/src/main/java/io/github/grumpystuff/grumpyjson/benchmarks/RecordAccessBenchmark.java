@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.benchmarks;
+
+import io.github.grumpystuff.grumpyjson.builtin.record.RecordInfo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the way {@link RecordInfo} constructs records and reads their components with plain reflection
+ * ({@link Constructor#newInstance(Object...)} and {@link Method#invoke(Object, Object...)}), which is what it used
+ * before. {@link RecordInfo} is measured both with method handles and with a generated accessor class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordAccessBenchmark {
+
+    /**
+     * A small DTO, similar to the ones in the demo.
+     *
+     * @param id ...
+     * @param name ...
+     * @param price ...
+     * @param available ...
+     */
+    public record Product(long id, String name, int price, boolean available) {}
+
+    private Product product;
+    private Object[] arguments;
+
+    private Constructor<?> reflectiveConstructor;
+    private Method[] reflectiveGetters;
+
+    private RecordInfo recordInfo;
+    private List<RecordInfo.ComponentInfo> componentInfos;
+
+    private RecordInfo generatedRecordInfo;
+    private List<RecordInfo.ComponentInfo> generatedComponentInfos;
+
+    /**
+     * Creates the reflective objects and the {@link RecordInfo} to compare.
+     *
+     * @throws Exception on errors
+     */
+    @Setup
+    public void setup() throws Exception {
+        product = new Product(42, "widget", 1999, true);
+        arguments = new Object[] {42L, "widget", 1999, true};
+
+        RecordComponent[] components = Product.class.getRecordComponents();
+        Class<?>[] componentTypes = new Class<?>[components.length];
+        reflectiveGetters = new Method[components.length];
+        for (int i = 0; i < components.length; i++) {
+            componentTypes[i] = components[i].getType();
+            reflectiveGetters[i] = components[i].getAccessor();
+            reflectiveGetters[i].setAccessible(true);
+        }
+        reflectiveConstructor = Product.class.getDeclaredConstructor(componentTypes);
+        reflectiveConstructor.setAccessible(true);
+
+        recordInfo = new RecordInfo(Product.class);
+        componentInfos = recordInfo.getComponentInfos();
+
+        generatedRecordInfo = new RecordInfo(Product.class, true);
+        if (!generatedRecordInfo.isAccessorGenerated()) {
+            throw new IllegalStateException("could not generate accessor class");
+        }
+        generatedComponentInfos = generatedRecordInfo.getComponentInfos();
+    }
+
+    /**
+     * @return the new record
+     * @throws Exception on errors
+     */
+    @Benchmark
+    public Object constructReflective() throws Exception {
+        return reflectiveConstructor.newInstance(arguments);
+    }
+
+    /**
+     * @return the new record
+     * @throws Exception on errors
+     */
+    @Benchmark
+    public Object constructRecordInfo() throws Exception {
+        return recordInfo.invokeConstructor(arguments);
+    }
+
+    /**
+     * @return the new record
+     * @throws Exception on errors
+     */
+    @Benchmark
+    public Object constructGenerated() throws Exception {
+        return generatedRecordInfo.invokeConstructor(arguments);
+    }
+
+    /**
+     * @param blackhole consumes the component values
+     * @throws Exception on errors
+     */
+    @Benchmark
+    public void readComponentsReflective(Blackhole blackhole) throws Exception {
+        for (Method getter : reflectiveGetters) {
+            blackhole.consume(getter.invoke(product));
+        }
+    }
+
+    /**
+     * @param blackhole consumes the component values
+     */
+    @Benchmark
+    public void readComponentsRecordInfo(Blackhole blackhole) {
+        for (RecordInfo.ComponentInfo componentInfo : componentInfos) {
+            blackhole.consume(componentInfo.invokeGetter(product));
+        }
+    }
+
+    /**
+     * @param blackhole consumes the component values
+     */
+    @Benchmark
+    public void readComponentsGenerated(Blackhole blackhole) {
+        for (RecordInfo.ComponentInfo componentInfo : generatedComponentInfos) {
+            blackhole.consume(componentInfo.invokeGetter(product));
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.benchmarks;
+
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.builtin.ListConverter;
+import io.github.grumpystuff.grumpyjson.builtin.StringConverter;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the run-time lookup of serializers and deserializers in a sealed {@link JsonRegistries}, with many threads
+ * looking up the same keys concurrently, as in a server that handles many requests of the same kind. Serializer
+ * lookups happen for every list element and map value, so their cost adds up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+public class RegistryLookupBenchmark {
+
+    /**
+     * A small DTO, similar to the ones in the demo.
+     *
+     * @param id ...
+     * @param name ...
+     */
+    public record Product(long id, String name) {}
+
+    private JsonRegistries registries;
+    private Type listOfProducts;
+
+    /**
+     * Creates and seals the registries, and resolves all keys once so the benchmarks only measure cached lookups.
+     *
+     * @throws Exception on errors
+     */
+    @Setup
+    public void setup() throws Exception {
+        registries = JsonRegistries.createDefault();
+        registries.registerDualConverter(new StringConverter());
+        registries.registerDualConverter(new ListConverter(registries));
+        registries.seal();
+        listOfProducts = new TypeToken<List<Product>>() {}.getType();
+        serializerForString();
+        serializerForRecord();
+        deserializerForClass();
+        deserializerForParameterizedType();
+    }
+
+    /**
+     * Looks up the serializer for a standard type.
+     *
+     * @return the serializer
+     * @throws Exception on errors
+     */
+    @Benchmark
+    public JsonSerializer<?> serializerForString() throws Exception {
+        return registries.getSerializer(String.class);
+    }
+
+    /**
+     * Looks up the serializer for an auto-generated record converter.
+     *
+     * @return the serializer
+     * @throws Exception on errors
+     */
+    @Benchmark
+    public JsonSerializer<?> serializerForRecord() throws Exception {
+        return registries.getSerializer(Product.class);
+    }
+
+    /**
+     * Looks up the deserializer for a class.
+     *
+     * @return the deserializer
+     * @throws Exception on errors
+     */
+    @Benchmark
+    public JsonDeserializer deserializerForClass() throws Exception {
+        return registries.getDeserializer(Product.class);
+    }
+
+    /**
+     * Looks up the deserializer for a parameterized type.
+     *
+     * @return the deserializer
+     * @throws Exception on errors
+     */
+    @Benchmark
+    public JsonDeserializer deserializerForParameterizedType() throws Exception {
+        return registries.getDeserializer(listOfProducts);
+    }
+
+}
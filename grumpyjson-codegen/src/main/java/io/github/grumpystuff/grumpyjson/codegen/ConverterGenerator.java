@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.codegen;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Generates Java source code for JSON converters for the records in a package, at build time. The generated
+ * converters do the same as the ones that get auto-generated at run-time, but call the record accessors and the
+ * canonical constructor directly, so no reflection is needed at run-time, and the work to set up a converter on
+ * first use is reduced to creating an object.
+ * <p>
+ * The records are found by scanning the compiled classes, so there is no need to mark them in any way. This means
+ * that the generator must run after compiling the records, and the generated sources must be compiled afterwards,
+ * e.g. in a separate module or a second compiler run. Besides a converter class for each record, a class called
+ * {@value #REGISTRATION_CLASS_NAME} gets generated that registers all of them:
+ * <pre>
+ * JsonEngine engine = new GsonBasedJsonEngine();
+ * GeneratedJsonConverters.register(engine);
+ * </pre>
+ * <p>
+ * Records are skipped (and reported) if the generated code could not refer to them or their component types, such as
+ * private nested records, as well as generic records. These keep using the converters auto-generated at run-time.
+ * <p>
+ * The generator can be run from the command line; see {@link #main(String[])}.
+ */
+public final class ConverterGenerator {
+
+    /**
+     * The simple name of the generated class that registers all generated converters.
+     */
+    public static final String REGISTRATION_CLASS_NAME = "GeneratedJsonConverters";
+
+    /**
+     * The result of generating converters.
+     *
+     * @param sources the generated sources, mapped from the simple name of the generated class
+     * @param skippedRecords messages about records for which no converter was generated, and why
+     */
+    public record Result(Map<String, String> sources, List<String> skippedRecords) {
+
+        /**
+         * Constructor.
+         *
+         * @param sources the generated sources, mapped from the simple name of the generated class
+         * @param skippedRecords messages about records for which no converter was generated, and why
+         */
+        public Result {
+            Objects.requireNonNull(sources, "sources");
+            Objects.requireNonNull(skippedRecords, "skippedRecords");
+
+            sources = Collections.unmodifiableMap(new TreeMap<>(sources));
+            skippedRecords = List.copyOf(skippedRecords);
+        }
+
+    }
+
+    private final String packageName;
+    private final boolean ignoreUnknownProperties;
+
+    /**
+     * Constructor.
+     *
+     * @param packageName the package to scan for records. The generated classes are placed in the same package, so
+     * they can access package-private records. Subpackages are not scanned.
+     * @param ignoreUnknownProperties to let the generated converters ignore unknown properties during
+     * deserialization instead of throwing an exception
+     * @throws IllegalArgumentException if the package name is empty
+     */
+    public ConverterGenerator(String packageName, boolean ignoreUnknownProperties) {
+        Objects.requireNonNull(packageName, "packageName");
+        if (packageName.isEmpty()) {
+            throw new IllegalArgumentException("records in the unnamed package are not supported");
+        }
+
+        this.packageName = packageName;
+        this.ignoreUnknownProperties = ignoreUnknownProperties;
+    }
+
+    /**
+     * Finds the records in the package of this generator among the compiled classes in the specified directory.
+     *
+     * @param classesDirectory the directory that contains the compiled classes, such as target/classes
+     * @param classLoader the class loader to load the classes with. It must be able to load the classes from the
+     * directory as well as the classes they depend on.
+     * @return the record classes, ordered by name
+     * @throws IOException on I/O errors while scanning the directory
+     * @throws ClassNotFoundException if a class cannot be loaded
+     */
+    public List<Class<?>> findRecords(Path classesDirectory, ClassLoader classLoader)
+            throws IOException, ClassNotFoundException {
+        Objects.requireNonNull(classesDirectory, "classesDirectory");
+        Objects.requireNonNull(classLoader, "classLoader");
+
+        Path packageDirectory = classesDirectory.resolve(packageName.replace('.', '/'));
+        if (!Files.isDirectory(packageDirectory)) {
+            return List.of();
+        }
+        List<String> classNames = new ArrayList<>();
+        try (Stream<Path> files = Files.list(packageDirectory)) {
+            files.forEach(file -> {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(".class") && !fileName.equals("module-info.class")) {
+                    String simpleBinaryName = fileName.substring(0, fileName.length() - ".class".length());
+                    classNames.add(packageName + '.' + simpleBinaryName);
+                }
+            });
+        }
+        Collections.sort(classNames);
+        List<Class<?>> result = new ArrayList<>();
+        for (String className : classNames) {
+            Class<?> clazz = Class.forName(className, false, classLoader);
+            if (clazz.isRecord()) {
+                result.add(clazz);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generates the sources for the specified records.
+     *
+     * @param recordClasses the records to generate converters for. They must be located in the package of this
+     * generator.
+     * @return the result
+     */
+    public Result generate(List<Class<?>> recordClasses) {
+        Objects.requireNonNull(recordClasses, "recordClasses");
+
+        Map<String, String> sources = new HashMap<>();
+        List<String> skippedRecords = new ArrayList<>();
+        List<String> converterClassNames = new ArrayList<>();
+        for (Class<?> recordClass : recordClasses) {
+            if (!recordClass.isRecord()) {
+                throw new IllegalArgumentException("not a record: " + recordClass);
+            }
+            if (!recordClass.getPackageName().equals(packageName)) {
+                throw new IllegalArgumentException("record " + recordClass + " is not in package " + packageName);
+            }
+            String reason = getReasonToSkip(recordClass);
+            if (reason != null) {
+                skippedRecords.add(recordClass.getName() + ": " + reason);
+                continue;
+            }
+            String converterClassName = getConverterClassName(recordClass);
+            RecordConverterSourceWriter writer = new RecordConverterSourceWriter(packageName, converterClassName,
+                    recordClass, ignoreUnknownProperties);
+            sources.put(converterClassName, writer.write());
+            converterClassNames.add(converterClassName);
+        }
+        if (!converterClassNames.isEmpty()) {
+            sources.put(REGISTRATION_CLASS_NAME, new RegistrationSourceWriter(packageName, REGISTRATION_CLASS_NAME,
+                    converterClassNames).write());
+        }
+        return new Result(sources, skippedRecords);
+    }
+
+    /**
+     * Finds the records in the classes directory, generates converters for them, and writes the sources to the
+     * output directory, in the subdirectory for the package. Existing files are overwritten.
+     *
+     * @param classesDirectory the directory that contains the compiled classes, such as target/classes
+     * @param classLoader the class loader to load the classes with. It must be able to load the classes from the
+     * directory as well as the classes they depend on.
+     * @param outputDirectory the root directory for the generated sources
+     * @return the result
+     * @throws IOException on I/O errors
+     * @throws ClassNotFoundException if a class cannot be loaded
+     */
+    public Result generate(Path classesDirectory, ClassLoader classLoader, Path outputDirectory)
+            throws IOException, ClassNotFoundException {
+        Objects.requireNonNull(outputDirectory, "outputDirectory");
+
+        Result result = generate(findRecords(classesDirectory, classLoader));
+        Path packageDirectory = outputDirectory.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(packageDirectory);
+        for (Map.Entry<String, String> entry : result.sources().entrySet()) {
+            Path file = packageDirectory.resolve(entry.getKey() + ".java");
+            Files.writeString(file, entry.getValue(), StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the simple name of the converter class generated for a record. Nested records get the names of their
+     * enclosing classes as a prefix, e.g. {@code Outer_InnerJsonConverter}.
+     *
+     * @param recordClass the record
+     * @return the class name
+     */
+    public static String getConverterClassName(Class<?> recordClass) {
+        Objects.requireNonNull(recordClass, "recordClass");
+
+        StringBuilder builder = new StringBuilder(recordClass.getSimpleName());
+        for (Class<?> c = recordClass.getEnclosingClass(); c != null; c = c.getEnclosingClass()) {
+            builder.insert(0, c.getSimpleName() + "_");
+        }
+        return builder.append("JsonConverter").toString();
+    }
+
+    private String getReasonToSkip(Class<?> recordClass) {
+        if (recordClass.getTypeParameters().length > 0) {
+            return "generic records are not supported";
+        }
+        if (!TypeSourceRenderer.isAccessibleFrom(recordClass, packageName)) {
+            return "not accessible from generated code";
+        }
+        for (var component : recordClass.getRecordComponents()) {
+            if (!TypeSourceRenderer.isRenderable(component.getGenericType(), packageName)) {
+                return "type of component " + component.getName() + " cannot be referred to from generated code";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Command-line entry point. Arguments:
+     * <pre>
+     * classesDirectory packageName outputDirectory [--ignore-unknown-properties]
+     * </pre>
+     * The classes directory gets added to the class path automatically, but the classes the records depend on must
+     * be on the class path of the JVM running this method. Skipped records are reported on standard error.
+     *
+     * @param args the command-line arguments
+     * @throws Exception on errors
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3 || args.length > 4 || (args.length == 4 && !args[3].equals("--ignore-unknown-properties"))) {
+            System.err.println("usage: java " + ConverterGenerator.class.getName() +
+                    " classesDirectory packageName outputDirectory [--ignore-unknown-properties]");
+            System.exit(1);
+        }
+        Path classesDirectory = Path.of(args[0]);
+        ConverterGenerator generator = new ConverterGenerator(args[1], args.length == 4);
+        URL[] urls = {classesDirectory.toUri().toURL()};
+        try (URLClassLoader classLoader = new URLClassLoader(urls, ConverterGenerator.class.getClassLoader())) {
+            Result result = generator.generate(classesDirectory, classLoader, Path.of(args[2]));
+            for (String skippedRecord : result.skippedRecords()) {
+                System.err.println("skipped " + skippedRecord);
+            }
+            System.out.println("generated " + result.sources().size() + " classes");
+        }
+    }
+
+}
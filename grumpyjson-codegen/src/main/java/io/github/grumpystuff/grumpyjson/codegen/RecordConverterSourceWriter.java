@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.codegen;
+
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+
+/**
+ * Writes the source code of a converter for a single record. The generated code follows the behavior of the
+ * run-time RecordConverter, including its error messages, but accesses the record directly.
+ * <p>
+ * NOT PUBLIC API
+ */
+final class RecordConverterSourceWriter {
+
+    private final String packageName;
+    private final String className;
+    private final Class<?> recordClass;
+    private final boolean ignoreUnknownProperties;
+    private final RecordComponent[] components;
+    private final String recordTypeName;
+    private final StringBuilder builder = new StringBuilder();
+
+    RecordConverterSourceWriter(String packageName, String className, Class<?> recordClass,
+                                boolean ignoreUnknownProperties) {
+        this.packageName = packageName;
+        this.className = className;
+        this.recordClass = recordClass;
+        this.ignoreUnknownProperties = ignoreUnknownProperties;
+        this.components = recordClass.getRecordComponents();
+        this.recordTypeName = recordClass.getCanonicalName();
+    }
+
+    String write() {
+        line("// generated by grumpyjson-codegen from " + recordClass.getName() + " -- do not edit");
+        line("package " + packageName + ";");
+        line("");
+        line("import io.github.grumpystuff.grumpyjson.ExceptionMessages;");
+        line("import io.github.grumpystuff.grumpyjson.FieldErrorNode;");
+        line("import io.github.grumpystuff.grumpyjson.JsonProviders;");
+        line("import io.github.grumpystuff.grumpyjson.TypeToken;");
+        line("import io.github.grumpystuff.grumpyjson.deserialize.AbortedDeserializationException;");
+        line("import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;");
+        line("import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;");
+        line("import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;");
+        line("import io.github.grumpystuff.grumpyjson.json_model.JsonElement;");
+        line("import io.github.grumpystuff.grumpyjson.json_model.JsonObject;");
+        line("import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;");
+        line("import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;");
+        line("import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;");
+        line("import io.github.grumpystuff.grumpyjson.serialize.PreEncodedName;");
+        line("import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;");
+        line("");
+        line("import java.io.IOException;");
+        line("import java.lang.reflect.Type;");
+        line("import java.util.Map;");
+        line("import java.util.Objects;");
+        line("import java.util.concurrent.atomic.AtomicReferenceArray;");
+        line("");
+        line("/**");
+        line(" * Converts {@link " + recordTypeName + "} to and from JSON. Generated at build time, so it needs no");
+        line(" * reflection at run-time.");
+        line(" */");
+        line("@SuppressWarnings(\"unused\")");
+        line("public final class " + className + " implements StreamingJsonSerializer<" + recordTypeName +
+                ">, JsonDeserializer {");
+        line("");
+        writeConstants();
+        writeConstructor();
+        writeSupportMethods();
+        writeSerialize();
+        writeSerializeTo();
+        writeDeserialize();
+        writeDeserializeFrom();
+        writeHelpers();
+        line("}");
+        return builder.toString();
+    }
+
+    private void writeConstants() {
+        line("    private static final int COMPONENT_COUNT = " + components.length + ";");
+        line("");
+        line("    private static final String[] NAMES = {");
+        for (RecordComponent component : components) {
+            line("        \"" + component.getName() + "\",");
+        }
+        line("    };");
+        line("");
+        line("    private static final PreEncodedName[] PRE_ENCODED_NAMES = {");
+        for (RecordComponent component : components) {
+            line("        PreEncodedName.of(\"" + component.getName() + "\"),");
+        }
+        line("    };");
+        line("");
+        line("    private static final Type[] TYPES = {");
+        for (RecordComponent component : components) {
+            line("        " + TypeSourceRenderer.renderTypeExpression(component.getGenericType()) + ",");
+        }
+        line("    };");
+        line("");
+        line("    private final JsonProviders providers;");
+        line("");
+        line("    // fetched on first use, since the providers may not be ready when this converter is created; racy but");
+        line("    // idempotent, and the atomic array publishes each deserializer safely to other threads");
+        line("    private final AtomicReferenceArray<JsonDeserializer> deserializers =");
+        line("            new AtomicReferenceArray<>(COMPONENT_COUNT);");
+        line("");
+    }
+
+    private void writeConstructor() {
+        line("    /**");
+        line("     * Constructor.");
+        line("     *");
+        line("     * @param providers the JSON providers -- needed to fetch the converters for the component types");
+        line("     */");
+        line("    public " + className + "(JsonProviders providers) {");
+        line("        Objects.requireNonNull(providers, \"providers\");");
+        line("");
+        line("        this.providers = providers;");
+        line("    }");
+        line("");
+    }
+
+    private void writeSupportMethods() {
+        line("    @Override");
+        line("    public boolean supportsClassForSerialization(Class<?> clazz) {");
+        line("        Objects.requireNonNull(clazz, \"clazz\");");
+        line("");
+        line("        return clazz == " + recordTypeName + ".class;");
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public boolean supportsTypeForDeserialization(Type type) {");
+        line("        Objects.requireNonNull(type, \"type\");");
+        line("");
+        line("        return type == " + recordTypeName + ".class;");
+        line("    }");
+        line("");
+    }
+
+    private void writeSerialize() {
+        line("    @Override");
+        line("    public JsonElement serialize(" + recordTypeName + " record) throws JsonSerializationException {");
+        line("        Objects.requireNonNull(record, \"value\"); // called value in the interface");
+        line("");
+        line("        JsonObject.Builder builder = new JsonObject.Builder(COMPONENT_COUNT);");
+        line("        FieldErrorNode errorNode = null;");
+        for (int i = 0; i < components.length; i++) {
+            line("        errorNode = serializeComponent(builder, " + i + ", record." +
+                    components[i].getName() + "(), errorNode);");
+        }
+        line("        if (errorNode != null) {");
+        line("            throw new JsonSerializationException(errorNode);");
+        line("        }");
+        line("        return builder.build();");
+        line("    }");
+        line("");
+    }
+
+    private void writeSerializeTo() {
+        line("    @Override");
+        line("    public void serializeTo(" + recordTypeName + " record, JsonTokenSink sink)");
+        line("            throws JsonSerializationException, IOException {");
+        line("        Objects.requireNonNull(record, \"value\"); // called value in the interface");
+        line("        Objects.requireNonNull(sink, \"sink\");");
+        line("");
+        line("        sink.beginObject();");
+        for (int i = 0; i < components.length; i++) {
+            line("        serializeComponentTo(" + i + ", record." + components[i].getName() + "(), sink);");
+        }
+        line("        sink.endObject();");
+        line("    }");
+        line("");
+    }
+
+    private void writeDeserialize() {
+        line("    @Override");
+        line("    public " + recordTypeName + " deserialize(JsonElement json, Type recordType)");
+        line("            throws JsonDeserializationException {");
+        line("        Objects.requireNonNull(json, \"json\");");
+        line("        Objects.requireNonNull(recordType, \"recordType\");");
+        line("");
+        line("        Map<String, JsonElement> jsonProperties = json.deserializerExpectsObject();");
+        line("        int numberOfPresentKnownProperties = 0;");
+        line("        Object[] fieldValues = new Object[COMPONENT_COUNT];");
+        line("        FieldErrorNode errorNode = null;");
+        line("        for (int i = 0; i < COMPONENT_COUNT; i++) {");
+        line("            JsonElement propertyJson = jsonProperties.get(NAMES[i]);");
+        line("            if (propertyJson != null) {");
+        line("                numberOfPresentKnownProperties++;");
+        line("            }");
+        line("            try {");
+        line("                JsonDeserializer deserializer = getDeserializer(i);");
+        line("                if (propertyJson == null) {");
+        line("                    fieldValues[i] = deserializer.deserializeAbsent(TYPES[i]);");
+        line("                } else {");
+        line("                    fieldValues[i] = deserializer.deserialize(propertyJson, TYPES[i]);");
+        line("                }");
+        line("            } catch (JsonDeserializationException e) {");
+        line("                errorNode = e.getFieldErrorNode().in(NAMES[i]).and(errorNode);");
+        line("            } catch (Exception e) {");
+        line("                errorNode = FieldErrorNode.create(e).in(NAMES[i]).and(errorNode);");
+        line("            }");
+        line("        }");
+        if (!ignoreUnknownProperties) {
+            line("        if (numberOfPresentKnownProperties != jsonProperties.size()) {");
+            line("            for (String name : jsonProperties.keySet()) {");
+            line("                if (getComponentIndex(name) < 0) {");
+            line("                    errorNode = FieldErrorNode.create(ExceptionMessages.UNEXPECTED_PROPERTY).in(name)");
+            line("                        .and(errorNode);");
+            line("                }");
+            line("            }");
+            line("        }");
+        }
+        line("        if (errorNode != null) {");
+        line("            throw new JsonDeserializationException(errorNode);");
+        line("        }");
+        line("        return construct(fieldValues);");
+        line("    }");
+        line("");
+    }
+
+    private void writeDeserializeFrom() {
+        line("    @Override");
+        line("    public " + recordTypeName + " deserializeFrom(JsonTokenSource source, Type recordType)");
+        line("            throws JsonDeserializationException, IOException {");
+        line("        Objects.requireNonNull(source, \"source\");");
+        line("        Objects.requireNonNull(recordType, \"recordType\");");
+        line("");
+        line("        source.beginObject();");
+        line("        Object[] fieldValues = new Object[COMPONENT_COUNT];");
+        line("        boolean[] present = new boolean[COMPONENT_COUNT];");
+        line("        FieldErrorNode[] componentErrorNodes = new FieldErrorNode[COMPONENT_COUNT];");
+        line("        FieldErrorNode errorNode = null;");
+        line("        while (source.hasNext()) {");
+        line("            String name = source.nextName();");
+        line("            int index = getComponentIndex(name);");
+        line("            if (index < 0) {");
+        line("                source.skipValue();");
+        if (!ignoreUnknownProperties) {
+            line("                errorNode = FieldErrorNode.create(ExceptionMessages.UNEXPECTED_PROPERTY).in(name)");
+            line("                    .and(errorNode);");
+        }
+        line("                continue;");
+        line("            }");
+        line("            present[index] = true;");
+        line("            componentErrorNodes[index] = null;");
+        line("            boolean consumed = false;");
+        line("            try {");
+        line("                JsonDeserializer deserializer = getDeserializer(index);");
+        line("                consumed = true;");
+        line("                fieldValues[index] = deserializer.deserializeFrom(source, TYPES[index]);");
+        line("            } catch (JsonDeserializationException e) {");
+        line("                componentErrorNodes[index] = e.getFieldErrorNode().in(name);");
+        line("            } catch (IOException e) {");
+        line("                throw e;");
+        line("            } catch (AbortedDeserializationException e) {");
+        line("                throw e.in(name);");
+        line("            } catch (Exception e) {");
+        line("                if (consumed) {");
+        line("                    throw new AbortedDeserializationException(FieldErrorNode.create(e).in(name));");
+        line("                }");
+        line("                source.skipValue();");
+        line("                componentErrorNodes[index] = FieldErrorNode.create(e).in(name);");
+        line("            }");
+        line("        }");
+        line("        source.endObject();");
+        line("        for (int i = 0; i < COMPONENT_COUNT; i++) {");
+        line("            if (!present[i]) {");
+        line("                try {");
+        line("                    fieldValues[i] = getDeserializer(i).deserializeAbsent(TYPES[i]);");
+        line("                } catch (JsonDeserializationException e) {");
+        line("                    componentErrorNodes[i] = e.getFieldErrorNode().in(NAMES[i]);");
+        line("                } catch (Exception e) {");
+        line("                    componentErrorNodes[i] = FieldErrorNode.create(e).in(NAMES[i]);");
+        line("                }");
+        line("            }");
+        line("            if (componentErrorNodes[i] != null) {");
+        line("                errorNode = componentErrorNodes[i].and(errorNode);");
+        line("            }");
+        line("        }");
+        line("        if (errorNode != null) {");
+        line("            throw new JsonDeserializationException(errorNode);");
+        line("        }");
+        line("        return construct(fieldValues);");
+        line("    }");
+        line("");
+    }
+
+    private void writeHelpers() {
+        line("    private FieldErrorNode serializeComponent(JsonObject.Builder builder, int index, Object value,");
+        line("                                              FieldErrorNode errorNode) {");
+        line("        try {");
+        line("            if (value == null) {");
+        line("                throw new JsonSerializationException(\"field is null\");");
+        line("            }");
+        line("            providers.serializeOptional(value).ifPresent(json -> builder.add(NAMES[index], json));");
+        line("            return errorNode;");
+        line("        } catch (JsonSerializationException e) {");
+        line("            return e.getFieldErrorNode().in(NAMES[index]).and(errorNode);");
+        line("        } catch (Exception e) {");
+        line("            return FieldErrorNode.create(e).in(NAMES[index]).and(errorNode);");
+        line("        }");
+        line("    }");
+        line("");
+        line("    private void serializeComponentTo(int index, Object value, JsonTokenSink sink)");
+        line("            throws JsonSerializationException, IOException {");
+        line("        try {");
+        line("            if (value == null) {");
+        line("                throw new JsonSerializationException(\"field is null\");");
+        line("            }");
+        line("            providers.serializePropertyTo(PRE_ENCODED_NAMES[index], value, sink);");
+        line("        } catch (JsonSerializationException e) {");
+        line("            throw new JsonSerializationException(e.getFieldErrorNode().in(NAMES[index]));");
+        line("        } catch (IOException e) {");
+        line("            throw e;");
+        line("        } catch (Exception e) {");
+        line("            throw new JsonSerializationException(FieldErrorNode.create(e).in(NAMES[index]));");
+        line("        }");
+        line("    }");
+        line("");
+        line("    private JsonDeserializer getDeserializer(int index) throws NotRegisteredException {");
+        line("        JsonDeserializer deserializer = deserializers.get(index);");
+        line("        if (deserializer == null) {");
+        line("            deserializer = providers.getDeserializer(TYPES[index]);");
+        line("            deserializers.set(index, deserializer);");
+        line("        }");
+        line("        return deserializer;");
+        line("    }");
+        line("");
+        line("    private static int getComponentIndex(String name) {");
+        line("        switch (name) {");
+        for (int i = 0; i < components.length; i++) {
+            line("            case \"" + components[i].getName() + "\": return " + i + ";");
+        }
+        line("            default: return -1;");
+        line("        }");
+        line("    }");
+        line("");
+        line("    @SuppressWarnings(\"unchecked\")");
+        line("    private static " + recordTypeName + " construct(Object[] fieldValues) throws JsonDeserializationException {");
+        line("        try {");
+        line("            return new " + recordTypeName + "(");
+        for (int i = 0; i < components.length; i++) {
+            Type type = components[i].getGenericType();
+            line("                (" + TypeSourceRenderer.render(type) + ") fieldValues[" + i + "]" +
+                    (i < components.length - 1 ? "," : ""));
+        }
+        line("            );");
+        line("        } catch (RuntimeException e) {");
+        line("            // Like the run-time record converter, this reports exceptions from the constructor to the client, since");
+        line("            // they are expected to be related to the record arguments, which come from the client anyway.");
+        line("            throw new JsonDeserializationException(FieldErrorNode.create(e.getMessage()));");
+        line("        }");
+        line("    }");
+        line("");
+    }
+
+    private void line(String line) {
+        builder.append(line).append('\n');
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.codegen;
+
+import java.util.List;
+
+/**
+ * Writes the source code of the class that registers all generated converters.
+ * <p>
+ * NOT PUBLIC API
+ */
+final class RegistrationSourceWriter {
+
+    private final String packageName;
+    private final String className;
+    private final List<String> converterClassNames;
+
+    RegistrationSourceWriter(String packageName, String className, List<String> converterClassNames) {
+        this.packageName = packageName;
+        this.className = className;
+        this.converterClassNames = converterClassNames;
+    }
+
+    String write() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("// generated by grumpyjson-codegen -- do not edit\n");
+        builder.append("package ").append(packageName).append(";\n");
+        builder.append("\n");
+        builder.append("import io.github.grumpystuff.grumpyjson.JsonRegistries;\n");
+        builder.append("import io.github.grumpystuff.grumpyjson.StructuralJsonEngine;\n");
+        builder.append("\n");
+        builder.append("import java.util.Objects;\n");
+        builder.append("\n");
+        builder.append("/**\n");
+        builder.append(" * Registers the JSON converters generated at build time for the records in this package.\n");
+        builder.append(" */\n");
+        builder.append("public final class ").append(className).append(" {\n");
+        builder.append("\n");
+        builder.append("    // prevent instantiation\n");
+        builder.append("    private ").append(className).append("() {\n");
+        builder.append("    }\n");
+        builder.append("\n");
+        builder.append("    /**\n");
+        builder.append("     * Registers the generated converters with the specified engine.\n");
+        builder.append("     *\n");
+        builder.append("     * @param engine the engine\n");
+        builder.append("     */\n");
+        builder.append("    public static void register(StructuralJsonEngine engine) {\n");
+        builder.append("        Objects.requireNonNull(engine, \"engine\");\n");
+        builder.append("\n");
+        builder.append("        register(engine.getRegistries());\n");
+        builder.append("    }\n");
+        builder.append("\n");
+        builder.append("    /**\n");
+        builder.append("     * Registers the generated converters with the specified registries.\n");
+        builder.append("     *\n");
+        builder.append("     * @param registries the registries\n");
+        builder.append("     */\n");
+        builder.append("    public static void register(JsonRegistries registries) {\n");
+        builder.append("        Objects.requireNonNull(registries, \"registries\");\n");
+        builder.append("\n");
+        for (String converterClassName : converterClassNames) {
+            builder.append("        registries.registerDualConverter(new ").append(converterClassName)
+                    .append("(registries));\n");
+        }
+        builder.append("    }\n");
+        builder.append("\n");
+        builder.append("}\n");
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.codegen;
+
+import java.lang.reflect.*;
+
+/**
+ * Renders {@link Type}s as Java source code, and checks whether they can be referred to from generated code.
+ * <p>
+ * NOT PUBLIC API
+ */
+final class TypeSourceRenderer {
+
+    // prevent instantiation
+    private TypeSourceRenderer() {
+    }
+
+    /**
+     * Checks whether a class can be referred to by its canonical name from code in the specified package.
+     */
+    static boolean isAccessibleFrom(Class<?> clazz, String packageName) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        if (clazz.isPrimitive()) {
+            return true;
+        }
+        if (clazz.getCanonicalName() == null) {
+            // local, anonymous or hidden class
+            return false;
+        }
+        for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+            int modifiers = c.getModifiers();
+            if (Modifier.isPrivate(modifiers)) {
+                return false;
+            }
+            if (!Modifier.isPublic(modifiers) && !c.getPackageName().equals(packageName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a type can be rendered by {@link #render(Type)} and the result used in code in the specified
+     * package. Type variables cannot, since the generated code is not generic.
+     */
+    static boolean isRenderable(Type type, String packageName) {
+        if (type instanceof Class<?> c) {
+            return isAccessibleFrom(c, packageName);
+        } else if (type instanceof ParameterizedType p) {
+            if (!isRenderable(p.getRawType(), packageName)) {
+                return false;
+            }
+            for (Type argument : p.getActualTypeArguments()) {
+                if (!isRenderable(argument, packageName)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (type instanceof GenericArrayType a) {
+            return isRenderable(a.getGenericComponentType(), packageName);
+        } else if (type instanceof WildcardType w) {
+            for (Type bound : w.getUpperBounds()) {
+                if (!isRenderable(bound, packageName)) {
+                    return false;
+                }
+            }
+            for (Type bound : w.getLowerBounds()) {
+                if (!isRenderable(bound, packageName)) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Renders a type as it would be written in a declaration, e.g. {@code java.util.List<java.lang.String>}.
+     */
+    static String render(Type type) {
+        if (type instanceof Class<?> c) {
+            return c.getCanonicalName();
+        } else if (type instanceof ParameterizedType p) {
+            StringBuilder builder = new StringBuilder(render(p.getRawType()));
+            builder.append('<');
+            Type[] arguments = p.getActualTypeArguments();
+            for (int i = 0; i < arguments.length; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(render(arguments[i]));
+            }
+            return builder.append('>').toString();
+        } else if (type instanceof GenericArrayType a) {
+            return render(a.getGenericComponentType()) + "[]";
+        } else if (type instanceof WildcardType w) {
+            if (w.getLowerBounds().length > 0) {
+                return "? super " + render(w.getLowerBounds()[0]);
+            } else if (w.getUpperBounds().length > 0 && w.getUpperBounds()[0] != Object.class) {
+                return "? extends " + render(w.getUpperBounds()[0]);
+            } else {
+                return "?";
+            }
+        } else {
+            throw new IllegalArgumentException("cannot render type: " + type);
+        }
+    }
+
+    /**
+     * Renders an expression that evaluates to the specified type at run-time, e.g. {@code int.class} or
+     * {@code new TypeToken<java.util.List<java.lang.String>>() {}.getType()}.
+     */
+    static String renderTypeExpression(Type type) {
+        if (type instanceof Class<?> c) {
+            return c.getCanonicalName() + ".class";
+        } else {
+            return "new TypeToken<" + render(type) + ">() {}.getType()";
+        }
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.codegen;
+
+import io.github.grumpystuff.grumpyjson.ExceptionMessages;
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.StructuralJsonEngine;
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalField;
+import io.github.grumpystuff.grumpyjson.codegen.records.Person;
+import io.github.grumpystuff.grumpyjson.codegen.records.Team;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class ConverterGeneratorTest {
+
+    private static final String PACKAGE_NAME = Person.class.getPackageName();
+
+    @TempDir
+    Path temporaryDirectory;
+
+    @Test
+    public void testFindRecordsAndSkippedRecords() throws Exception {
+        ConverterGenerator generator = new ConverterGenerator(PACKAGE_NAME, false);
+        List<Class<?>> records = generator.findRecords(getClassesDirectory(), getClass().getClassLoader());
+        Assertions.assertTrue(records.contains(Person.class));
+        Assertions.assertTrue(records.contains(Team.class));
+        Assertions.assertTrue(records.contains(Team.Box.class));
+        Assertions.assertEquals(4, records.size());
+
+        ConverterGenerator.Result result = generator.generate(records);
+        Assertions.assertEquals(
+                List.of("GeneratedJsonConverters", "PersonJsonConverter", "TeamJsonConverter"),
+                new ArrayList<>(result.sources().keySet())
+        );
+        Assertions.assertEquals(2, result.skippedRecords().size());
+        Assertions.assertTrue(result.skippedRecords().get(0).startsWith(Team.Box.class.getName() + ": generic"));
+        Assertions.assertTrue(result.skippedRecords().get(1).startsWith(Team.class.getName() + "$Secret: not accessible"));
+    }
+
+    @Test
+    public void testUnnamedPackageIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConverterGenerator("", false));
+    }
+
+    @Test
+    public void testConverterClassName() {
+        Assertions.assertEquals("PersonJsonConverter", ConverterGenerator.getConverterClassName(Person.class));
+        Assertions.assertEquals("Team_BoxJsonConverter", ConverterGenerator.getConverterClassName(Team.Box.class));
+    }
+
+    @Test
+    public void testGeneratedConvertersBehaveLikeAutoGeneratedOnes() throws Exception {
+        try (URLClassLoader classLoader = compileGeneratedConverters(false)) {
+            GsonBasedJsonEngine reference = new GsonBasedJsonEngine();
+            reference.seal();
+            GsonBasedJsonEngine generated = createEngineWithGeneratedConverters(classLoader);
+            Assertions.assertTrue(generated.getRegistries().getSerializer(Person.class).getClass().getName()
+                    .endsWith("PersonJsonConverter"));
+            Assertions.assertTrue(generated.getRegistries().getDeserializer(Team.class).getClass().getName()
+                    .endsWith("TeamJsonConverter"));
+
+            Person alice = new Person("Alice", 30, List.of("a", "b"), OptionalField.ofValue(5));
+            Person bob = new Person("Bob", 40, List.of(), OptionalField.ofNothing());
+            Team team = new Team(alice, List.of(alice, bob), Map.of("x", 1), Team.Color.GREEN);
+            String teamJson = reference.serializeToString(team);
+            Assertions.assertEquals(teamJson, generated.serializeToString(team));
+            Assertions.assertEquals(reference.toJsonElement(team), generated.toJsonElement(team));
+            Assertions.assertEquals(team, generated.deserialize(teamJson, Team.class));
+            Assertions.assertEquals(team, generated.deserialize(reference.toJsonElement(team), Team.class));
+
+            // serialization errors
+            Person nullName = new Person(null, 1, List.of(), OptionalField.ofNothing());
+            assertSameSerializationError(reference, generated, nullName);
+            assertSameSerializationError(reference, generated, new Team(nullName, List.of(), Map.of(), Team.Color.RED));
+
+            // deserialization errors: missing, wrong-typed and unknown properties, and constructor exceptions
+            assertSameDeserializationErrors(reference, generated, "{}", Person.class);
+            assertSameDeserializationErrors(reference, generated,
+                    "{\"name\": 5, \"age\": 1, \"tags\": [], \"extra\": true}", Person.class);
+            assertSameDeserializationErrors(reference, generated,
+                    "{\"name\": \"x\", \"age\": -1, \"tags\": []}", Person.class);
+            assertSameDeserializationErrors(reference, generated,
+                    "{\"name\": \"x\", \"name\": 5, \"age\": 1, \"age\": 2, \"tags\": []}", Person.class);
+            assertSameDeserializationErrors(reference, generated,
+                    "{\"lead\": {}, \"members\": [{\"age\": \"x\"}], \"ratings\": {}, \"color\": \"BLUE\"}", Team.class);
+        }
+    }
+
+    @Test
+    public void testIgnoreUnknownProperties() throws Exception {
+        try (URLClassLoader classLoader = compileGeneratedConverters(true)) {
+            GsonBasedJsonEngine generated = createEngineWithGeneratedConverters(classLoader);
+            String json = "{\"name\": \"x\", \"age\": 1, \"tags\": [], \"extra\": true}";
+            Person expected = new Person("x", 1, List.of(), OptionalField.ofNothing());
+            Assertions.assertEquals(expected, generated.deserialize(json, Person.class));
+            Assertions.assertEquals(expected, generated.deserialize(generated.deserialize(json, JsonElement.class),
+                    Person.class));
+        }
+    }
+
+    @Test
+    public void testNoMoreReadingAfterOtherExceptions() throws Exception {
+        // fails without consuming the value, so the source is not at the next property afterwards
+        JsonDeserializer brokenColorDeserializer = new JsonDeserializer() {
+
+            @Override
+            public boolean supportsTypeForDeserialization(Type type) {
+                return type.equals(Team.Color.class);
+            }
+
+            @Override
+            public Object deserialize(JsonElement json, Type type) {
+                throw new IllegalStateException("broken");
+            }
+
+            @Override
+            public Object deserializeFrom(JsonTokenSource source, Type type) {
+                throw new IllegalStateException("broken");
+            }
+
+        };
+        try (URLClassLoader classLoader = compileGeneratedConverters(false)) {
+            GsonBasedJsonEngine reference = new GsonBasedJsonEngine();
+            reference.registerDeserializer(brokenColorDeserializer);
+            reference.seal();
+            GsonBasedJsonEngine generated = createEngineWithGeneratedConverters(classLoader, brokenColorDeserializer);
+            String json = "{\"color\": \"RED\", \"lead\": {}, \"members\": [], \"ratings\": {}}";
+            assertSameDeserializationErrors(reference, generated, json, Team.class);
+            Assertions.assertEquals(List.of(new FieldErrorNode.FlattenedError(ExceptionMessages.INTERNAL_ERROR,
+                    List.of("color"))), Assertions.assertThrows(JsonDeserializationException.class,
+                    () -> generated.deserialize(json, Team.class)).getFieldErrorNode().flatten());
+        }
+    }
+
+    private Path getClassesDirectory() throws Exception {
+        return Path.of(Person.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    /**
+     * Generates the converters for the test records, compiles them and returns a class loader that loads the
+     * compiled converters.
+     */
+    private URLClassLoader compileGeneratedConverters(boolean ignoreUnknownProperties) throws Exception {
+        ClassLoader testClassLoader = getClass().getClassLoader();
+        Path sourceDirectory = temporaryDirectory.resolve("sources");
+        Path outputDirectory = temporaryDirectory.resolve("classes");
+        Files.createDirectories(outputDirectory);
+        new ConverterGenerator(PACKAGE_NAME, ignoreUnknownProperties)
+                .generate(getClassesDirectory(), testClassLoader, sourceDirectory);
+
+        List<String> arguments = new ArrayList<>(List.of(
+                "-classpath", System.getProperty("java.class.path"),
+                "-d", outputDirectory.toString(),
+                "-Xlint:all", "-Werror"
+        ));
+        try (Stream<Path> files = Files.walk(sourceDirectory)) {
+            files.filter(file -> file.toString().endsWith(".java")).forEach(file -> arguments.add(file.toString()));
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assertions.assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[0])));
+
+        // The converters are in the package of the records, but loaded by a different class loader, so this only
+        // works for public records -- which are all that gets generated for the test records anyway.
+        return new URLClassLoader(new URL[] {outputDirectory.toUri().toURL()}, testClassLoader);
+    }
+
+    private static GsonBasedJsonEngine createEngineWithGeneratedConverters(ClassLoader classLoader,
+                                                                           JsonDeserializer... extraDeserializers)
+            throws Exception {
+        GsonBasedJsonEngine engine = new GsonBasedJsonEngine();
+        Class<?> registrationClass = classLoader.loadClass(PACKAGE_NAME + "." +
+                ConverterGenerator.REGISTRATION_CLASS_NAME);
+        registrationClass.getMethod("register", StructuralJsonEngine.class).invoke(null, engine);
+        for (JsonDeserializer deserializer : extraDeserializers) {
+            engine.registerDeserializer(deserializer);
+        }
+        engine.seal();
+        return engine;
+    }
+
+    private static void assertSameSerializationError(JsonEngine reference, JsonEngine generated, Object value) {
+        List<FieldErrorNode.FlattenedError> expected = Assertions.assertThrows(JsonSerializationException.class,
+                () -> reference.serializeToString(value)).getFieldErrorNode().flatten();
+        Assertions.assertEquals(expected, Assertions.assertThrows(JsonSerializationException.class,
+                () -> generated.serializeToString(value)).getFieldErrorNode().flatten());
+        Assertions.assertEquals(expected, Assertions.assertThrows(JsonSerializationException.class,
+                () -> generated.toJsonElement(value)).getFieldErrorNode().flatten());
+    }
+
+    private static void assertSameDeserializationErrors(JsonEngine reference, JsonEngine generated, String json,
+                                                        Class<?> clazz) {
+        List<FieldErrorNode.FlattenedError> expected = Assertions.assertThrows(JsonDeserializationException.class,
+                () -> reference.deserialize(json, clazz)).getFieldErrorNode().flatten();
+        Assertions.assertEquals(expected, Assertions.assertThrows(JsonDeserializationException.class,
+                () -> generated.deserialize(json, clazz)).getFieldErrorNode().flatten());
+    }
+
+}
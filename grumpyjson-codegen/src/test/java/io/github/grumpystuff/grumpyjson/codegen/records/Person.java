@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.codegen.records;
+
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalField;
+
+import java.util.List;
+
+public record Person(String name, int age, List<String> tags, OptionalField<Integer> score) {
+
+    public Person {
+        if (age < 0) {
+            throw new IllegalArgumentException("age must not be negative");
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.codegen.records;
+
+import java.util.List;
+import java.util.Map;
+
+public record Team(Person lead, List<Person> members, Map<String, Integer> ratings, Team.Color color) {
+
+    public enum Color {
+        RED, GREEN
+    }
+
+    public record Box<T>(T content) {}
+
+    private record Secret(String value) {}
+
+}
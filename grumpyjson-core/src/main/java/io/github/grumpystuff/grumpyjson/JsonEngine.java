@@ -12,11 +12,13 @@ import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.lang.reflect.Type;
+import java.util.Objects;
 
 /**
  * This class is the main entry point into the JSON conversion system.
@@ -115,6 +117,60 @@ public abstract class JsonEngine extends StructuralJsonEngine {
      */
     public abstract Object deserialize(InputStream source, Type type) throws JsonDeserializationException;
 
+    /**
+     * deserializes JSON from a byte array. As demanded by the MIME type application/json, the input must be UTF-8
+     * encoded.
+     *
+     * @param source the source bytes
+     * @param clazz the target type to deserialize to
+     * @return the deserialized value
+     * @param <T> the static target type
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public <T> T deserialize(byte[] source, Class<T> clazz) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.cast(deserialize(source, (Type) clazz));
+    }
+
+    /**
+     * deserializes JSON from a byte array. As demanded by the MIME type application/json, the input must be UTF-8
+     * encoded.
+     *
+     * @param source the source bytes
+     * @param typeToken a type token for the target type to deserialize to
+     * @return the deserialized value
+     * @param <T> the static target type
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public <T> T deserialize(byte[] source, TypeToken<T> typeToken) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(typeToken, "typeToken");
+
+        //noinspection unchecked
+        return (T) deserialize(source, typeToken.getType());
+    }
+
+    /**
+     * deserializes JSON from a byte array. As demanded by the MIME type application/json, the input must be UTF-8
+     * encoded.
+     * <p>
+     * The standard implementation reads the bytes through {@link #deserialize(InputStream, Type)}. Engines that
+     * parse bytes directly override this method.
+     *
+     * @param source the source bytes
+     * @param type the target type to deserialize to
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public Object deserialize(byte[] source, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return deserialize(new ByteArrayInputStream(source), type);
+    }
+
     /**
      * deserializes JSON from an {@link Reader}.
      *
@@ -1,5 +1,6 @@
 package io.github.grumpystuff.grumpyjson;
 
+import io.github.grumpystuff.grumpyjson.builtin.record.RecordConverter;
 import io.github.grumpystuff.grumpyjson.builtin.record.RecordConverterFactory;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializerRegistry;
@@ -8,6 +9,7 @@ import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializerRegistry;
 
 import java.lang.reflect.Type;
+import java.util.Collection;
 import java.util.Objects;
 
 /**
@@ -29,7 +31,20 @@ public record JsonRegistries(
      * @return the registries
      */
     public static JsonRegistries createDefault() {
-        RecordConverterFactory recordConverterFactory = new RecordConverterFactory();
+        return createDefault(new RecordConverter.Options(false));
+    }
+
+    /**
+     * Creates a default serializer/deserializer registry pair with built-in auto-generation for record converters.
+     * The auto-generated record converters use the specified options.
+     *
+     * @param recordConverterOptions the options for auto-generated record converters
+     * @return the registries
+     */
+    public static JsonRegistries createDefault(RecordConverter.Options recordConverterOptions) {
+        Objects.requireNonNull(recordConverterOptions, "recordConverterOptions");
+
+        RecordConverterFactory recordConverterFactory = new RecordConverterFactory(recordConverterOptions);
         JsonSerializerRegistry serializerRegistry = new JsonSerializerRegistry(recordConverterFactory);
         JsonDeserializerRegistry deserializerRegistry = new JsonDeserializerRegistry(recordConverterFactory);
         JsonRegistries registries = new JsonRegistries(serializerRegistry, deserializerRegistry);
@@ -108,6 +123,37 @@ public record JsonRegistries(
         return deserializerRegistry.getDeserializer(type);
     }
 
+    /**
+     * Fetches the serializers for the specified types and all types reachable from them, such as the components of
+     * records and the element types of lists, so they get auto-generated ahead of time instead of on first use.
+     * Nested types are only followed for the built-in record, list, map and helper type converters, not for custom
+     * converters. Types whose class is abstract, such as interfaces, are skipped if not supported directly, since their
+     * serializer depends on the run-time class. This is done in parallel, and must be called after sealing.
+     *
+     * @param types the types to prepare serializers for
+     * @throws NotRegisteredException if any reachable type is not supported. The message lists all such types.
+     */
+    public void prepareSerializers(Collection<? extends Type> types) throws NotRegisteredException {
+        Objects.requireNonNull(types, "types");
+
+        TypeGraphPreparer.prepare(this, true, types);
+    }
+
+    /**
+     * Fetches the deserializers for the specified types and all types reachable from them, such as the components of
+     * records and the element types of lists, so they get auto-generated ahead of time instead of on first use.
+     * Nested types are only followed for the built-in record, list, map and helper type converters, not for custom
+     * converters. This is done in parallel, and must be called after sealing.
+     *
+     * @param types the types to prepare deserializers for
+     * @throws NotRegisteredException if any reachable type is not supported. The message lists all such types.
+     */
+    public void prepareDeserializers(Collection<? extends Type> types) throws NotRegisteredException {
+        Objects.requireNonNull(types, "types");
+
+        TypeGraphPreparer.prepare(this, false, types);
+    }
+
     /**
      * Seals the registries, moving from the configuration phase to the run-time phase.
      */
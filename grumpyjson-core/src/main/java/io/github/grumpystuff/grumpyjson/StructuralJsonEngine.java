@@ -11,14 +11,19 @@ import io.github.grumpystuff.grumpyjson.builtin.*;
 import io.github.grumpystuff.grumpyjson.builtin.helper_types.FieldMustBeNullConverter;
 import io.github.grumpystuff.grumpyjson.builtin.helper_types.NullableFieldConverter;
 import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalFieldConverter;
+import io.github.grumpystuff.grumpyjson.deserialize.AbortedDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializerRegistry;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializerRegistry;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Objects;
 
@@ -44,7 +49,16 @@ public class StructuralJsonEngine {
         registerDualConverter(new BooleanConverter());
         registerDualConverter(new IntegerConverter());
         registerDualConverter(new LongConverter());
+        registerDualConverter(new DoubleConverter());
+        registerDualConverter(new FloatConverter());
+        registerDualConverter(new BigDecimalConverter());
+        registerDualConverter(new BigIntegerConverter());
         registerDualConverter(new StringConverter());
+        registerDualConverter(new IntArrayConverter());
+        registerDualConverter(new LongArrayConverter());
+        registerDualConverter(new DoubleArrayConverter());
+        registerDualConverter(new BooleanArrayConverter());
+        registerDualConverter(new ByteArrayConverter());
 
         // collection types
         registerDualConverter(new ListConverter(registries));
@@ -197,6 +211,29 @@ public class StructuralJsonEngine {
         return registries.deserialize(source, type);
     }
 
+    /**
+     * deserializes JSON that is read from a {@link JsonTokenSource}. Deserializers that override
+     * {@link JsonDeserializer#deserializeFrom(JsonTokenSource, Type)} build the result directly from the tokens. For
+     * other deserializers, the JSON gets read as a {@link JsonElement} first, then deserialized from that.
+     * <p>
+     * This method reads exactly one JSON value from the source. It does not check whether the source contains
+     * anything after that value.
+     *
+     * @param source the source to read the JSON from
+     * @param type the target type to deserialize to
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON does not match the target type
+     * @throws AbortedDeserializationException if a deserializer failed in a way that left the position of the source
+     * unspecified. Nothing more can be read from the source in that case.
+     * @throws IOException on syntax errors and I/O errors from the source
+     */
+    public final Object deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return registries.deserializeFrom(source, type);
+    }
+
     // -----------------------------------------------------------------------
     // serialize
     // -----------------------------------------------------------------------
@@ -214,4 +251,21 @@ public class StructuralJsonEngine {
         return registries.serialize(value);
     }
 
+    /**
+     * Turns a value into JSON and writes it to a {@link JsonTokenSink}. Serializers that implement
+     * {@link StreamingJsonSerializer} write their output directly to the sink. The output of other serializers gets
+     * built as a {@link JsonElement} first, then written to the sink.
+     *
+     * @param value the value to convert
+     * @param sink the sink to write the JSON to
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
+     * @throws IOException on I/O errors from the sink
+     */
+    public final void serializeTo(Object value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        registries.serializeTo(value, sink);
+    }
+
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson;
+
+import io.github.grumpystuff.grumpyjson.builtin.ListConverter;
+import io.github.grumpystuff.grumpyjson.builtin.MapConverter;
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.NullableFieldConverter;
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalFieldConverter;
+import io.github.grumpystuff.grumpyjson.builtin.record.RecordConverter;
+import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
+import io.github.grumpystuff.grumpyjson.util.TypeUtil;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Walks the graph of types reachable from a set of root types and fetches the converter for each of them from the
+ * registries, so they get auto-generated ahead of time and missing converters are detected. Types are handled in
+ * parallel in the common fork/join pool.
+ * <p>
+ * The graph is built from the type structure: The components of records, and the type arguments of other
+ * parameterized types such as {@code List<T>}. This is only done for types that are handled by the built-in converters
+ * which fetch converters for these nested types from the registries -- records, lists, maps, {@code OptionalField} and
+ * {@code NullableField}. A custom converter may handle the nested types in any way, or not at all, so types handled
+ * by custom converters are leaves of the graph.
+ * <p>
+ * NOT PUBLIC API
+ */
+final class TypeGraphPreparer {
+
+    private final JsonRegistries registries;
+    private final boolean serialization;
+    private final Set<Type> visited = ConcurrentHashMap.newKeySet();
+    private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+    private TypeGraphPreparer(JsonRegistries registries, boolean serialization) {
+        this.registries = registries;
+        this.serialization = serialization;
+    }
+
+    /**
+     * Prepares the converters for the specified root types and all types reachable from them.
+     *
+     * @param registries the registries to get the converters from. Must be sealed, otherwise an
+     * {@link IllegalStateException} is thrown.
+     * @param serialization true to prepare serializers, false to prepare deserializers
+     * @param rootTypes the root types
+     * @throws NotRegisteredException if any reachable type is not supported. The message lists all such types.
+     */
+    static void prepare(JsonRegistries registries, boolean serialization, Collection<? extends Type> rootTypes)
+            throws NotRegisteredException {
+        TypeGraphPreparer preparer = new TypeGraphPreparer(registries, serialization);
+        List<PrepareTask> tasks = new ArrayList<>();
+        for (Type rootType : rootTypes) {
+            Objects.requireNonNull(rootType, "rootTypes contains null");
+            if (preparer.visited.add(rootType)) {
+                tasks.add(preparer.new PrepareTask(rootType));
+            }
+        }
+        ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        if (!preparer.errors.isEmpty()) {
+            List<String> sortedErrors = new ArrayList<>(preparer.errors);
+            Collections.sort(sortedErrors);
+            throw new NotRegisteredException(String.join("\n", sortedErrors));
+        }
+    }
+
+    private final class PrepareTask extends RecursiveAction {
+
+        private final Type type;
+
+        PrepareTask(Type type) {
+            this.type = type;
+        }
+
+        @Override
+        protected void compute() {
+            List<PrepareTask> subtasks = new ArrayList<>();
+            for (Type nestedType : prepare(type)) {
+                if (visited.add(nestedType)) {
+                    subtasks.add(new PrepareTask(nestedType));
+                }
+            }
+            invokeAll(subtasks);
+        }
+
+    }
+
+    /**
+     * Prepares the converter for a single type and returns the nested types to prepare next.
+     */
+    private List<Type> prepare(Type type) {
+        try {
+            Object converter;
+            if (serialization) {
+                Class<?> rawClass = getRawClass(type);
+                if (rawClass == null) {
+                    // type variables and wildcards: the serializer depends on the run-time class
+                    return List.of();
+                }
+                if (!registries.supportsClassForSerialization(rawClass) && isOpen(rawClass)) {
+                    // the serializer depends on the run-time class, which may be supported
+                    return List.of();
+                }
+                converter = registries.getSerializer(rawClass);
+            } else {
+                converter = registries.getDeserializer(type);
+            }
+            return isStructural(converter) ? getNestedTypes(type) : List.of();
+        } catch (NotRegisteredException e) {
+            errors.add(e.getMessage());
+        } catch (IllegalStateException e) {
+            // registries not sealed -- this is a usage error, not a missing converter
+            throw e;
+        } catch (Exception e) {
+            errors.add("could not prepare " + (serialization ? "serializer" : "deserializer") + " for type " +
+                    type + ": " + e);
+        }
+        return List.of();
+    }
+
+    private static Class<?> getRawClass(Type type) {
+        if (type instanceof Class<?> c) {
+            return c;
+        } else if (type instanceof ParameterizedType p && p.getRawType() instanceof Class<?> c) {
+            return c;
+        } else {
+            return null;
+        }
+    }
+
+    private static boolean isOpen(Class<?> rawClass) {
+        return rawClass == Object.class || rawClass.isInterface() || Modifier.isAbstract(rawClass.getModifiers());
+    }
+
+    // the converters that fetch converters for the nested types from getNestedTypes()
+    private static boolean isStructural(Object converter) {
+        return converter instanceof RecordConverter<?> || converter instanceof ListConverter ||
+                converter instanceof MapConverter || converter instanceof OptionalFieldConverter ||
+                converter instanceof NullableFieldConverter;
+    }
+
+    private static List<Type> getNestedTypes(Type type) {
+        if (type instanceof Class<?> c && c.isRecord()) {
+            List<Type> result = new ArrayList<>();
+            for (RecordComponent component : c.getRecordComponents()) {
+                result.add(component.getGenericType());
+            }
+            return result;
+        } else if (type instanceof ParameterizedType p && p.getRawType() instanceof Class<?> c) {
+            if (c.isRecord()) {
+                TypeVariable<?>[] typeParameters = c.getTypeParameters();
+                Type[] typeArguments = p.getActualTypeArguments();
+                if (typeParameters.length != typeArguments.length) {
+                    throw new RuntimeException("type parameter/argument length mismatch for record " + c);
+                }
+                Map<String, Type> bindings = new HashMap<>();
+                for (int i = 0; i < typeParameters.length; i++) {
+                    bindings.put(typeParameters[i].getName(), typeArguments[i]);
+                }
+                List<Type> result = new ArrayList<>();
+                for (RecordComponent component : c.getRecordComponents()) {
+                    result.add(TypeUtil.replaceTypeVariables(component.getGenericType(), bindings));
+                }
+                return result;
+            } else {
+                return List.of(p.getActualTypeArguments());
+            }
+        } else {
+            return List.of();
+        }
+    }
+
+}
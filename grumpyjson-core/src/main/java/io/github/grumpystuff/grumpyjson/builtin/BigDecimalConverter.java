@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * A converter for {@link BigDecimal}.
+ * <p>
+ * This maps to and from JSON numbers without losing precision: The digits from the JSON text are used as they are,
+ * and serialization writes the value including its scale, so 1.50 stays 1.50.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class BigDecimalConverter implements StreamingJsonSerializer<BigDecimal>, JsonDeserializer {
+
+    /**
+     * Constructor
+     */
+    public BigDecimalConverter() {
+        // needed to silence Javadoc error because the implicit constructor doesn't have a doc comment
+    }
+
+    @Override
+    public boolean supportsTypeForDeserialization(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        return type.equals(BigDecimal.class);
+    }
+
+    @Override
+    public BigDecimal deserialize(JsonElement json, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(type, "type");
+
+        return toBigDecimal(json.deserializerExpectsNumber());
+    }
+
+    @Override
+    public BigDecimal deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return toBigDecimal(source.nextNumber());
+    }
+
+    static BigDecimal toBigDecimal(Number number) throws JsonDeserializationException {
+        if (number instanceof BigDecimal d) {
+            return d;
+        } else if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            return BigDecimal.valueOf(number.longValue());
+        } else if (number instanceof BigInteger i) {
+            return new BigDecimal(i);
+        } else {
+            // Double and Float return a short representation that reads back as the same value, so 0.1 stays 0.1
+            // and does not become the exact binary value. Other types, such as Gson's LazilyParsedNumber, return the original text.
+            try {
+                return new BigDecimal(number.toString());
+            } catch (NumberFormatException e) {
+                throw new JsonDeserializationException("invalid number: " + number);
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsClassForSerialization(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.equals(BigDecimal.class);
+    }
+
+    @Override
+    public JsonElement serialize(BigDecimal value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        return JsonNumber.of(value);
+    }
+
+    @Override
+    public void serializeTo(BigDecimal value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.numberValue(value);
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * A converter for {@link BigInteger}.
+ * <p>
+ * This maps to and from integral JSON numbers. Numbers with fractional digits are rejected, but an exponent or
+ * trailing zeros after the decimal point are accepted as long as the value is integral, e.g. 1.0 or 1e3.
+ * <p>
+ * Since the exponent allows a short JSON text to stand for a huge number, numbers with more than
+ * {@value #MAX_DIGITS} digits are rejected.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class BigIntegerConverter implements StreamingJsonSerializer<BigInteger>, JsonDeserializer {
+
+    /**
+     * The maximum number of digits of a deserialized value.
+     */
+    public static final int MAX_DIGITS = 10_000;
+
+    /**
+     * Constructor
+     */
+    public BigIntegerConverter() {
+        // needed to silence Javadoc error because the implicit constructor doesn't have a doc comment
+    }
+
+    @Override
+    public boolean supportsTypeForDeserialization(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        return type.equals(BigInteger.class);
+    }
+
+    @Override
+    public BigInteger deserialize(JsonElement json, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(type, "type");
+
+        return toBigInteger(json.deserializerExpectsNumber());
+    }
+
+    @Override
+    public BigInteger deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return toBigInteger(source.nextNumber());
+    }
+
+    private static BigInteger toBigInteger(Number number) throws JsonDeserializationException {
+        if (number instanceof BigInteger i) {
+            return i;
+        } else if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            return BigInteger.valueOf(number.longValue());
+        }
+
+        // Stripping trailing zeros first means that neither check below has to compute a power of ten, which would
+        // be expensive for numbers like 1e-999999999.
+        BigDecimal decimal = BigDecimalConverter.toBigDecimal(number).stripTrailingZeros();
+        if (decimal.scale() > 0) {
+            throw new JsonDeserializationException("value has unexpected fractional digits: " + number);
+        }
+        if ((long) decimal.precision() - decimal.scale() > MAX_DIGITS) {
+            throw new JsonDeserializationException("value out of bounds: " + number);
+        }
+        return decimal.toBigInteger();
+    }
+
+    @Override
+    public boolean supportsClassForSerialization(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.equals(BigInteger.class);
+    }
+
+    @Override
+    public JsonElement serialize(BigInteger value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        return JsonNumber.of(value);
+    }
+
+    @Override
+    public void serializeTo(BigInteger value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.numberValue(value);
+    }
+
+}
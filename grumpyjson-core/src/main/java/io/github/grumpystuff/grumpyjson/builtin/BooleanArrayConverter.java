@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
+import io.github.grumpystuff.grumpyjson.json_model.JsonBoolean;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A converter for the primitive array type boolean[].
+ * <p>
+ * This maps to and from JSON arrays of JSON booleans. Elements are never boxed: Deserialization collects them in a
+ * growing boolean[] buffer, and serialization writes them one by one.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class BooleanArrayConverter implements StreamingJsonSerializer<boolean[]>, JsonDeserializer {
+
+    private static final int INITIAL_BUFFER_SIZE = 16;
+
+    /**
+     * Constructor
+     */
+    public BooleanArrayConverter() {
+        // needed to silence Javadoc error because the implicit constructor doesn't have a doc comment
+    }
+
+    @Override
+    public boolean supportsTypeForDeserialization(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        return type.equals(boolean[].class);
+    }
+
+    @Override
+    public boolean[] deserialize(JsonElement json, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(type, "type");
+
+        List<JsonElement> jsonChildren = json.deserializerExpectsArray();
+        boolean[] result = new boolean[jsonChildren.size()];
+        FieldErrorNode errorNode = null;
+        for (int i = 0; i < result.length; i++) {
+            try {
+                result[i] = jsonChildren.get(i).deserializerExpectsBoolean();
+            } catch (JsonDeserializationException e) {
+                errorNode = e.getFieldErrorNode().in(Integer.toString(i)).and(errorNode);
+            }
+        }
+        if (errorNode != null) {
+            throw new JsonDeserializationException(errorNode);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean[] deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        source.beginArray();
+        boolean[] buffer = new boolean[INITIAL_BUFFER_SIZE];
+        int length = 0;
+        FieldErrorNode errorNode = null;
+        while (source.hasNext()) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, length * 2);
+            }
+            try {
+                buffer[length] = source.nextBoolean();
+            } catch (JsonDeserializationException e) {
+                errorNode = e.getFieldErrorNode().in(Integer.toString(length)).and(errorNode);
+            }
+            length++;
+        }
+        source.endArray();
+        if (errorNode != null) {
+            throw new JsonDeserializationException(errorNode);
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    @Override
+    public boolean supportsClassForSerialization(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.equals(boolean[].class);
+    }
+
+    @Override
+    public JsonElement serialize(boolean[] value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        JsonElement[] jsonChildren = new JsonElement[value.length];
+        for (int i = 0; i < value.length; i++) {
+            jsonChildren[i] = JsonBoolean.of(value[i]);
+        }
+        return JsonArray.of(jsonChildren);
+    }
+
+    @Override
+    public void serializeTo(boolean[] value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.beginArray();
+        for (int i = 0; i < value.length; i++) {
+            sink.booleanValue(value[i]);
+        }
+        sink.endArray();
+    }
+
+}
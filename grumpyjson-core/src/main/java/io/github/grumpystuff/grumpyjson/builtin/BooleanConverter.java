@@ -9,11 +9,14 @@ package io.github.grumpystuff.grumpyjson.builtin;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonBoolean;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Objects;
 
@@ -25,7 +28,7 @@ import java.util.Objects;
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
  */
-public final class BooleanConverter implements JsonSerializer<Boolean>, JsonDeserializer {
+public final class BooleanConverter implements StreamingJsonSerializer<Boolean>, JsonDeserializer {
 
     /**
      * Constructor
@@ -49,6 +52,14 @@ public final class BooleanConverter implements JsonSerializer<Boolean>, JsonDese
         return json.deserializerExpectsBoolean();
     }
 
+    @Override
+    public Boolean deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return source.nextBoolean();
+    }
+
     @Override
     public boolean supportsClassForSerialization(Class<?> clazz) {
         Objects.requireNonNull(clazz, "clazz");
@@ -63,4 +74,12 @@ public final class BooleanConverter implements JsonSerializer<Boolean>, JsonDese
         return JsonBoolean.of(value);
     }
 
+    @Override
+    public void serializeTo(Boolean value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.booleanValue(value);
+    }
+
 }
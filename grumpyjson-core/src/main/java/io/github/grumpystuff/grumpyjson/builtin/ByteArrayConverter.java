@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * A converter for the primitive array type byte[].
+ * <p>
+ * This maps to and from JSON strings that contain the standard Base64 encoding (RFC 4648) of the bytes. Output is
+ * padded; input is accepted with or without padding.
+ * When serializing to a token sink, the bytes are passed to {@link JsonTokenSink#base64Value(byte[])}, so sinks that
+ * write JSON text can encode them directly into their output.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class ByteArrayConverter implements StreamingJsonSerializer<byte[]>, JsonDeserializer {
+
+    /**
+     * Constructor
+     */
+    public ByteArrayConverter() {
+        // needed to silence Javadoc error because the implicit constructor doesn't have a doc comment
+    }
+
+    @Override
+    public boolean supportsTypeForDeserialization(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        return type.equals(byte[].class);
+    }
+
+    @Override
+    public byte[] deserialize(JsonElement json, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(type, "type");
+
+        return decode(json.deserializerExpectsString());
+    }
+
+    @Override
+    public byte[] deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return decode(source.nextString());
+    }
+
+    private static byte[] decode(String text) throws JsonDeserializationException {
+        try {
+            return Base64.getDecoder().decode(text);
+        } catch (IllegalArgumentException e) {
+            throw new JsonDeserializationException("invalid Base64 data");
+        }
+    }
+
+    @Override
+    public boolean supportsClassForSerialization(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.equals(byte[].class);
+    }
+
+    @Override
+    public JsonElement serialize(byte[] value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        return JsonString.of(Base64.getEncoder().encodeToString(value));
+    }
+
+    @Override
+    public void serializeTo(byte[] value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.base64Value(value);
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * A converter for the primitive type double and its boxed type, {@link Double}.
+ * <p>
+ * This maps to and from JSON numbers. When deserializing, the number is rounded to the nearest double, so precision
+ * may get lost, but numbers whose magnitude is too large for a double are rejected. NaN and infinity cannot be
+ * represented in JSON, so serializing them fails.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class DoubleConverter implements StreamingJsonSerializer<Double>, JsonDeserializer {
+
+    /**
+     * Constructor
+     */
+    public DoubleConverter() {
+        // needed to silence Javadoc error because the implicit constructor doesn't have a doc comment
+    }
+
+    @Override
+    public boolean supportsTypeForDeserialization(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        return type.equals(Double.TYPE) || type.equals(Double.class);
+    }
+
+    @Override
+    public Double deserialize(JsonElement json, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(type, "type");
+
+        return verifyBounds(json.deserializerExpectsDouble());
+    }
+
+    @Override
+    public Double deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return verifyBounds(source.nextDouble());
+    }
+
+    // JSON numbers are always finite, so an infinite result means that the magnitude was too large
+    static double verifyBounds(double value) throws JsonDeserializationException {
+        if (Double.isInfinite(value)) {
+            throw new JsonDeserializationException("value out of bounds");
+        }
+        return value;
+    }
+
+    @Override
+    public boolean supportsClassForSerialization(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.equals(Double.TYPE) || clazz.equals(Double.class);
+    }
+
+    @Override
+    public JsonElement serialize(Double value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        return JsonNumber.of(verifyFinite(value.doubleValue(), value));
+    }
+
+    @Override
+    public void serializeTo(Double value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.numberValue(verifyFinite(value.doubleValue(), value));
+    }
+
+    static double verifyFinite(double value, Object originalValue) throws JsonSerializationException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new JsonSerializationException("numeric values must be finite, found: " + originalValue);
+        }
+        return value;
+    }
+
+}
@@ -8,24 +8,31 @@ package io.github.grumpystuff.grumpyjson.builtin;
 
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
-import io.github.grumpystuff.grumpyjson.json_model.JsonString;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Objects;
 
 /**
  * A converter for enum types.
  * <p>
- * Converters of this type will be auto-generated for unknown enum types.
+ * Converters of this type will be auto-generated for unknown enum types. These use the names of the enum constants
+ * as they are. To use different names in JSON, register a converter with an {@link EnumNameMapping} manually.
+ * <p>
+ * All names are looked up in an {@link EnumLookupTable} that is built in advance, so neither deserialization nor
+ * serialization has to convert or allocate any strings.
  *
  * @param <T> the enum type to convert
  */
-public final class EnumConverter<T extends Enum<T>> implements JsonSerializer<T>, JsonDeserializer {
+public final class EnumConverter<T extends Enum<T>> implements StreamingJsonSerializer<T>, JsonDeserializer {
 
     private final Class<T> enumClass;
+    private final EnumLookupTable<T> lookupTable;
 
     /**
      * Constructor
@@ -33,9 +40,21 @@ public final class EnumConverter<T extends Enum<T>> implements JsonSerializer<T>
      * @param enumClass the enum class to parse
      */
     public EnumConverter(Class<T> enumClass) {
+        this(enumClass, EnumNameMapping.IDENTITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param enumClass the enum class to parse
+     * @param mapping the mapping from enum constants to the names used in JSON
+     */
+    public EnumConverter(Class<T> enumClass, EnumNameMapping mapping) {
         Objects.requireNonNull(enumClass, "enumClass");
+        Objects.requireNonNull(mapping, "mapping");
 
         this.enumClass = enumClass;
+        this.lookupTable = EnumLookupTable.of(enumClass, mapping);
     }
 
     @Override
@@ -50,12 +69,23 @@ public final class EnumConverter<T extends Enum<T>> implements JsonSerializer<T>
         Objects.requireNonNull(json, "json");
         Objects.requireNonNull(type, "type");
 
-        String text = json.deserializerExpectsString();
-        try {
-            return Enum.valueOf(enumClass, text);
-        } catch (IllegalArgumentException e) {
+        return lookUp(json.deserializerExpectsString());
+    }
+
+    @Override
+    public Object deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return lookUp(source.nextString());
+    }
+
+    private T lookUp(String text) throws JsonDeserializationException {
+        T result = lookupTable.get(text);
+        if (result == null) {
             throw new JsonDeserializationException("unknown value");
         }
+        return result;
     }
 
     @Override
@@ -69,7 +99,15 @@ public final class EnumConverter<T extends Enum<T>> implements JsonSerializer<T>
     public JsonElement serialize(T value) throws JsonSerializationException {
         Objects.requireNonNull(value, "value");
 
-        return JsonString.of(value.name());
+        return lookupTable.getJsonString(value);
+    }
+
+    @Override
+    public void serializeTo(T value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.stringValue(lookupTable.getPreEncodedString(value));
     }
 
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import io.github.grumpystuff.grumpyjson.serialize.PreEncodedString;
+
+import java.util.Objects;
+
+/**
+ * Maps between the constants of an enum and their external names, in both directions, with everything computed in
+ * advance: Looking up a constant by name is a hash table lookup that does not throw an exception for unknown names,
+ * unlike {@link Enum#valueOf(Class, String)}. For the opposite direction, the name is available as a {@link String},
+ * a {@link JsonString} and a {@link PreEncodedString}, so no conversion is needed to write it.
+ * <p>
+ * Tables are immutable. The table for the default mapping, {@link EnumNameMapping#IDENTITY}, is built only once per
+ * enum class and shared by all users, such as the JSON converter and the path / querystring parser for that enum.
+ *
+ * @param <T> the enum type
+ */
+public final class EnumLookupTable<T extends Enum<T>> {
+
+    private static final ClassValue<EnumLookupTable<?>> IDENTITY_TABLES = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        protected EnumLookupTable<?> computeValue(Class<?> type) {
+            return new EnumLookupTable(type, EnumNameMapping.IDENTITY);
+        }
+    };
+
+    private final Class<T> enumClass;
+    private final String[] names;
+    private final JsonString[] jsonStrings;
+    private final PreEncodedString[] preEncodedStrings;
+
+    // open addressing with linear probing; the table is at most half full, so probe sequences stay short
+    private final String[] slotNames;
+    private final Object[] slotConstants;
+    private final int mask;
+
+    private EnumLookupTable(Class<T> enumClass, EnumNameMapping mapping) {
+        T[] constants = enumClass.getEnumConstants();
+        if (constants == null) {
+            throw new IllegalArgumentException("not an enum class: " + enumClass);
+        }
+        this.enumClass = enumClass;
+        this.names = new String[constants.length];
+        this.jsonStrings = new JsonString[constants.length];
+        this.preEncodedStrings = new PreEncodedString[constants.length];
+        int size = Integer.highestOneBit(Math.max(constants.length, 1)) * 4;
+        this.slotNames = new String[size];
+        this.slotConstants = new Object[size];
+        this.mask = size - 1;
+        for (T constant : constants) {
+            String name = mapping.getExternalName(constant);
+            if (name == null) {
+                throw new IllegalArgumentException("enum name mapping returned null for " + constant);
+            }
+            int slot = findSlot(name);
+            if (slotNames[slot] != null) {
+                throw new IllegalArgumentException("enum name mapping returned the same name for " +
+                        slotConstants[slot] + " and " + constant + ": " + name);
+            }
+            slotNames[slot] = name;
+            slotConstants[slot] = constant;
+            names[constant.ordinal()] = name;
+            jsonStrings[constant.ordinal()] = JsonString.of(name);
+            preEncodedStrings[constant.ordinal()] = PreEncodedString.of(name);
+        }
+    }
+
+    /**
+     * Returns the table for the specified enum class that uses the names of the constants as they are.
+     *
+     * @param enumClass the enum class
+     * @return the lookup table
+     * @param <T> the enum type
+     */
+    public static <T extends Enum<T>> EnumLookupTable<T> of(Class<T> enumClass) {
+        Objects.requireNonNull(enumClass, "enumClass");
+
+        //noinspection unchecked
+        return (EnumLookupTable<T>) IDENTITY_TABLES.get(enumClass);
+    }
+
+    /**
+     * Returns a table for the specified enum class and name mapping.
+     *
+     * @param enumClass the enum class
+     * @param mapping the mapping from enum constants to external names
+     * @return the lookup table
+     * @param <T> the enum type
+     * @throws IllegalArgumentException if the mapping returns null, or the same name for two different constants
+     */
+    public static <T extends Enum<T>> EnumLookupTable<T> of(Class<T> enumClass, EnumNameMapping mapping) {
+        Objects.requireNonNull(enumClass, "enumClass");
+        Objects.requireNonNull(mapping, "mapping");
+
+        return mapping == EnumNameMapping.IDENTITY ? of(enumClass) : new EnumLookupTable<>(enumClass, mapping);
+    }
+
+    private int findSlot(String name) {
+        int hashCode = name.hashCode();
+        int slot = (hashCode ^ (hashCode >>> 16)) & mask;
+        while (slotNames[slot] != null && !slotNames[slot].equals(name)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the enum class
+     */
+    public Class<T> getEnumClass() {
+        return enumClass;
+    }
+
+    /**
+     * Returns the enum constant with the specified external name.
+     *
+     * @param name the external name
+     * @return the enum constant, or null if there is no constant with that name
+     */
+    public T get(String name) {
+        Objects.requireNonNull(name, "name");
+
+        //noinspection unchecked
+        return (T) slotConstants[findSlot(name)];
+    }
+
+    /**
+     * Returns the external name of an enum constant.
+     *
+     * @param constant the enum constant
+     * @return the external name
+     */
+    public String getName(T constant) {
+        Objects.requireNonNull(constant, "constant");
+
+        return names[constant.ordinal()];
+    }
+
+    /**
+     * Returns the external name of an enum constant as a JSON string.
+     *
+     * @param constant the enum constant
+     * @return the external name as a JSON string
+     */
+    public JsonString getJsonString(T constant) {
+        Objects.requireNonNull(constant, "constant");
+
+        return jsonStrings[constant.ordinal()];
+    }
+
+    /**
+     * Returns the external name of an enum constant in pre-encoded form.
+     *
+     * @param constant the enum constant
+     * @return the pre-encoded external name
+     */
+    public PreEncodedString getPreEncodedString(T constant) {
+        Objects.requireNonNull(constant, "constant");
+
+        return preEncodedStrings[constant.ordinal()];
+    }
+
+}
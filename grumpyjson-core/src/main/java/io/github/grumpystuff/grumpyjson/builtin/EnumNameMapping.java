@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import java.util.Locale;
+
+/**
+ * Maps enum constants to the names used for them externally, e.g. in JSON or in URLs. The mapping is applied once
+ * per constant when building an {@link EnumLookupTable}, not for every value that gets converted.
+ * <p>
+ * A mapping must produce a different name for each constant of an enum.
+ */
+@FunctionalInterface
+public interface EnumNameMapping {
+
+    /**
+     * Uses the name of the constant as it is, e.g. {@code FOO_BAR}. This is the default.
+     */
+    EnumNameMapping IDENTITY = Enum::name;
+
+    /**
+     * Uses the name of the constant in lowercase, e.g. {@code foo_bar} for {@code FOO_BAR}.
+     */
+    EnumNameMapping LOWERCASE = constant -> constant.name().toLowerCase(Locale.ROOT);
+
+    /**
+     * Uses the name of the constant in lowercase, with underscores replaced by dashes, e.g. {@code foo-bar} for
+     * {@code FOO_BAR}.
+     */
+    EnumNameMapping KEBAB_CASE = constant -> constant.name().toLowerCase(Locale.ROOT).replace('_', '-');
+
+    /**
+     * Returns the external name for an enum constant.
+     *
+     * @param constant the enum constant
+     * @return the external name
+     */
+    String getExternalName(Enum<?> constant);
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * A converter for the primitive type float and its boxed type, {@link Float}.
+ * <p>
+ * This maps to and from JSON numbers. When deserializing, the number is rounded to the nearest float, so precision
+ * may get lost, but numbers whose magnitude is too large for a float are rejected. When serializing, the decimal
+ * representation of the float from {@link Float#toString(float)} is written, not that of the corresponding double.
+ * It reads back as the same float, but before Java 19, it is not always the shortest such representation
+ * (JDK-4511638). NaN and infinity cannot be represented in JSON, so serializing them fails.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class FloatConverter implements StreamingJsonSerializer<Float>, JsonDeserializer {
+
+    /**
+     * Constructor
+     */
+    public FloatConverter() {
+        // needed to silence Javadoc error because the implicit constructor doesn't have a doc comment
+    }
+
+    @Override
+    public boolean supportsTypeForDeserialization(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        return type.equals(Float.TYPE) || type.equals(Float.class);
+    }
+
+    @Override
+    public Float deserialize(JsonElement json, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(type, "type");
+
+        double value = json.deserializerExpectsDouble();
+        float result = (float) value;
+        if (isBetweenFloats(value, result)) {
+            // rounding to double may have moved the number onto this midpoint, so round the exact number instead
+            result = json.deserializerExpectsNumber().floatValue();
+        }
+        return verifyBounds(result);
+    }
+
+    @Override
+    public Float deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return verifyBounds(source.nextFloat());
+    }
+
+    /**
+     * Checks whether a double lies exactly in the middle between two adjacent floats. Such a double gets rounded to
+     * the float with the even significand, which need not be the float nearest to the number that the double was
+     * rounded from. This is the only case in which rounding a number to double first, and then to float, differs
+     * from rounding it to float directly.
+     * <p>
+     * NOT PUBLIC API
+     *
+     * @param value the double
+     * @param rounded the double rounded to float
+     * @return true if the double lies exactly between two floats
+     */
+    public static boolean isBetweenFloats(double value, float rounded) {
+        if (value == rounded) {
+            return false;
+        }
+        float other = value > rounded ? Math.nextUp(rounded) : Math.nextDown(rounded);
+        // both floats have 24 significant bits at most, so their mean is exact as a double
+        return value == ((double) rounded + other) / 2;
+    }
+
+    // JSON numbers are always finite, so an infinite result means that the magnitude was too large
+    private static float verifyBounds(float value) throws JsonDeserializationException {
+        if (Float.isInfinite(value)) {
+            throw new JsonDeserializationException("value out of bounds");
+        }
+        return value;
+    }
+
+    @Override
+    public boolean supportsClassForSerialization(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.equals(Float.TYPE) || clazz.equals(Float.class);
+    }
+
+    @Override
+    public JsonElement serialize(Float value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        DoubleConverter.verifyFinite(value, value);
+        return JsonNumber.of((Number) value);
+    }
+
+    @Override
+    public void serializeTo(Float value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        // passing the boxed value keeps the float's own representation, e.g. 0.1 instead of 0.10000000149011612
+        DoubleConverter.verifyFinite(value, value);
+        sink.numberValue((Number) value);
+    }
+
+}
@@ -11,8 +11,10 @@ import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Objects;
 
@@ -22,7 +24,7 @@ import java.util.Objects;
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
  */
-public final class JsonElementConverter implements JsonSerializer<JsonElement>, JsonDeserializer {
+public final class JsonElementConverter implements StreamingJsonSerializer<JsonElement>, JsonDeserializer {
 
     /**
      * Constructor
@@ -60,4 +62,12 @@ public final class JsonElementConverter implements JsonSerializer<JsonElement>,
         return value;
     }
 
+    @Override
+    public void serializeTo(JsonElement value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.element(value);
+    }
+
 }
@@ -9,15 +9,19 @@ package io.github.grumpystuff.grumpyjson.builtin;
 import io.github.grumpystuff.grumpyjson.FieldErrorNode;
 import io.github.grumpystuff.grumpyjson.JsonProviders;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.AbortedDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 import io.github.grumpystuff.grumpyjson.util.TypeUtil;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,7 +34,7 @@ import java.util.Objects;
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
  */
-public final class ListConverter implements JsonSerializer<List<?>>, JsonDeserializer {
+public final class ListConverter implements StreamingJsonSerializer<List<?>>, JsonDeserializer {
 
     private final JsonProviders providers;
 
@@ -82,6 +86,50 @@ public final class ListConverter implements JsonSerializer<List<?>>, JsonDeseria
         return List.copyOf(resultChildren);
     }
 
+    @Override
+    public List<?> deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        // check like the tree-based path does, instead of relying on the source to report a mismatch the same way
+        if (source.peek() != JsonTokenSource.ValueType.ARRAY) {
+            source.readElement().deserializerExpectsArray();
+        }
+        source.beginArray();
+        Type elementType = TypeUtil.expectSingleParameterizedType(type, List.class);
+        JsonDeserializer elementDeserializer;
+        try {
+            elementDeserializer = providers.getDeserializer(elementType);
+        } catch (NotRegisteredException e) {
+            while (source.hasNext()) {
+                source.skipValue();
+            }
+            source.endArray();
+            throw new JsonDeserializationException(e.getMessage());
+        }
+        List<Object> resultChildren = new ArrayList<>();
+        FieldErrorNode errorNode = null;
+        for (int i = 0; source.hasNext(); i++) {
+            try {
+                resultChildren.add(elementDeserializer.deserializeFrom(source, elementType));
+            } catch (JsonDeserializationException e) {
+                errorNode = e.getFieldErrorNode().in(Integer.toString(i)).and(errorNode);
+            } catch (IOException e) {
+                throw e;
+            } catch (AbortedDeserializationException e) {
+                throw e.in(Integer.toString(i));
+            } catch (Exception e) {
+                // the position of the source is unspecified now, so we cannot read the remaining elements
+                throw new AbortedDeserializationException(FieldErrorNode.create(e).in(Integer.toString(i)));
+            }
+        }
+        source.endArray();
+        if (errorNode != null) {
+            throw new JsonDeserializationException(errorNode);
+        }
+        return List.copyOf(resultChildren);
+    }
+
     @Override
     public boolean supportsClassForSerialization(Class<?> clazz) {
         Objects.requireNonNull(clazz, "clazz");
@@ -110,4 +158,24 @@ public final class ListConverter implements JsonSerializer<List<?>>, JsonDeseria
         return JsonArray.of(jsonChildren);
     }
 
+    @Override
+    public void serializeTo(List<?> value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.beginArray();
+        for (int i = 0; i < value.size(); i++) {
+            try {
+                providers.serializeTo(value.get(i), sink);
+            } catch (JsonSerializationException e) {
+                throw new JsonSerializationException(e.getFieldErrorNode().in(Integer.toString(i)));
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new JsonSerializationException(FieldErrorNode.create(e).in(Integer.toString(i)));
+            }
+        }
+        sink.endArray();
+    }
+
 }
@@ -9,11 +9,14 @@ package io.github.grumpystuff.grumpyjson.builtin;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.json_model.JsonString;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
@@ -25,7 +28,7 @@ import java.util.Objects;
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
  */
-public final class LocalTimeConverter implements JsonSerializer<LocalTime>, JsonDeserializer {
+public final class LocalTimeConverter implements StreamingJsonSerializer<LocalTime>, JsonDeserializer {
 
     /**
      * Constructor
@@ -54,6 +57,19 @@ public final class LocalTimeConverter implements JsonSerializer<LocalTime>, Json
         }
     }
 
+    @Override
+    public LocalTime deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        String text = source.nextString();
+        try {
+            return LocalTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new JsonDeserializationException(e.getMessage());
+        }
+    }
+
     @Override
     public boolean supportsClassForSerialization(Class<?> clazz) {
         Objects.requireNonNull(clazz, "clazz");
@@ -68,4 +84,12 @@ public final class LocalTimeConverter implements JsonSerializer<LocalTime>, Json
         return JsonString.of(value.toString());
     }
 
+    @Override
+    public void serializeTo(LocalTime value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.stringValue(value.toString());
+    }
+
 }
@@ -9,11 +9,14 @@ package io.github.grumpystuff.grumpyjson.builtin;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Objects;
 
@@ -25,7 +28,7 @@ import java.util.Objects;
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
  */
-public final class LongConverter implements JsonSerializer<Long>, JsonDeserializer {
+public final class LongConverter implements StreamingJsonSerializer<Long>, JsonDeserializer {
 
     /**
      * Constructor
@@ -46,7 +49,15 @@ public final class LongConverter implements JsonSerializer<Long>, JsonDeserializ
         Objects.requireNonNull(json, "json");
         Objects.requireNonNull(type, "type");
 
-        return IntegralNumberDeserializationUtil.deserialize(json.deserializerExpectsNumber());
+        return json.deserializerExpectsLong();
+    }
+
+    @Override
+    public Long deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return source.nextLong();
     }
 
     @Override
@@ -63,4 +74,12 @@ public final class LongConverter implements JsonSerializer<Long>, JsonDeserializ
         return JsonNumber.of(value);
     }
 
+    @Override
+    public void serializeTo(Long value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.numberValue(value.longValue());
+    }
+
 }
@@ -9,19 +9,23 @@ package io.github.grumpystuff.grumpyjson.builtin;
 import io.github.grumpystuff.grumpyjson.FieldErrorNode;
 import io.github.grumpystuff.grumpyjson.JsonProviders;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.AbortedDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.json_model.JsonObject;
 import io.github.grumpystuff.grumpyjson.json_model.JsonString;
 import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 import io.github.grumpystuff.grumpyjson.util.TypeUtil;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -32,7 +36,7 @@ import java.util.Objects;
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
  */
-public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeserializer {
+public final class MapConverter implements StreamingJsonSerializer<Map<?, ?>>, JsonDeserializer {
 
     private final JsonProviders providers;
 
@@ -62,7 +66,7 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
         Objects.requireNonNull(type, "type");
 
         Map<String, JsonElement> jsonProperties = json.deserializerExpectsObject();
-        Type[] keyAndValueTypes = TypeUtil.expectParameterizedType(type, List.class, 2);
+        Type[] keyAndValueTypes = TypeUtil.expectParameterizedType(type, Map.class, 2);
         Type keyType = keyAndValueTypes[0];
         Type valueType = keyAndValueTypes[1];
         JsonDeserializer keyDeserializer, valueDeserializer;
@@ -94,6 +98,77 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
         return Map.copyOf(result);
     }
 
+    @Override
+    public Map<?, ?> deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        // check like the tree-based path does, instead of relying on the source to report a mismatch the same way
+        if (source.peek() != JsonTokenSource.ValueType.OBJECT) {
+            source.readElement().deserializerExpectsObject();
+        }
+        source.beginObject();
+        Type[] keyAndValueTypes = TypeUtil.expectParameterizedType(type, Map.class, 2);
+        Type keyType = keyAndValueTypes[0];
+        Type valueType = keyAndValueTypes[1];
+        JsonDeserializer keyDeserializer, valueDeserializer;
+        try {
+            keyDeserializer = providers.getDeserializer(keyType);
+            valueDeserializer = providers.getDeserializer(valueType);
+        } catch (NotRegisteredException e) {
+            while (source.hasNext()) {
+                source.nextName();
+                source.skipValue();
+            }
+            source.endObject();
+            throw new JsonDeserializationException(e.getMessage());
+        }
+        Map<Object, Object> result = new HashMap<>();
+        // the tree-based path only sees the last occurrence of a duplicate key, so a later occurrence replaces the
+        // error (or the absence of an error) from an earlier one
+        Map<String, FieldErrorNode> entryErrorNodes = new LinkedHashMap<>();
+        while (source.hasNext()) {
+            String keyText = source.nextName();
+            boolean isAtKey = true;
+            try {
+                Object key;
+                try {
+                    key = keyDeserializer.deserialize(JsonString.of(keyText), keyType);
+                } catch (Exception e) {
+                    // the value must be consumed even if the key is invalid
+                    source.skipValue();
+                    throw e;
+                }
+                isAtKey = false;
+                Object value = valueDeserializer.deserializeFrom(source, valueType);
+                result.put(key, value);
+                entryErrorNodes.remove(keyText);
+            } catch (JsonDeserializationException e) {
+                entryErrorNodes.put(keyText, e.getFieldErrorNode().in(buildFromJsonFieldName(isAtKey, keyText)));
+            } catch (IOException e) {
+                throw e;
+            } catch (AbortedDeserializationException e) {
+                throw e.in(buildFromJsonFieldName(isAtKey, keyText));
+            } catch (Exception e) {
+                if (!isAtKey) {
+                    // the position of the source is unspecified now, so we cannot read the remaining entries
+                    FieldErrorNode fieldErrorNode = FieldErrorNode.create(e).in(buildFromJsonFieldName(false, keyText));
+                    throw new AbortedDeserializationException(fieldErrorNode);
+                }
+                entryErrorNodes.put(keyText, FieldErrorNode.create(e).in(buildFromJsonFieldName(true, keyText)));
+            }
+        }
+        source.endObject();
+        FieldErrorNode errorNode = null;
+        for (FieldErrorNode entryErrorNode : entryErrorNodes.values()) {
+            errorNode = entryErrorNode.and(errorNode);
+        }
+        if (errorNode != null) {
+            throw new JsonDeserializationException(errorNode);
+        }
+        return Map.copyOf(result);
+    }
+
     @Override
     public boolean supportsClassForSerialization(Class<?> clazz) {
         Objects.requireNonNull(clazz, "clazz");
@@ -105,7 +180,7 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
     public JsonElement serialize(Map<?, ?> map) throws JsonSerializationException {
         Objects.requireNonNull(map, "value"); // called value in the interface
 
-        Map<String, JsonElement> jsonProperties = new HashMap<>();
+        JsonObject.Builder builder = new JsonObject.Builder(map.size());
         FieldErrorNode errorNode = null;
         for (Map.Entry<?, ?> entry : map.entrySet()) {
 
@@ -114,23 +189,11 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
             if (keyObject == null) {
                 throw new JsonSerializationException("map contains null key");
             }
-            JsonElement keyJson;
+            String keyText;
             try {
-                keyJson = providers.serialize(keyObject);
+                keyText = serializeKey(keyObject);
             } catch (JsonSerializationException e) {
-                errorNode = e.getFieldErrorNode().in("[" + keyObject + "]").and(errorNode);
-                continue;
-            } catch (Exception e) {
-                errorNode = FieldErrorNode.create(e).in("[" + keyObject + "]").and(errorNode);
-                continue;
-            }
-            String keyText;
-            if (keyJson instanceof JsonString s) {
-                keyText = s.getValue();
-            } else {
-                errorNode = FieldErrorNode.create("map key does not serialize to a JSON string")
-                    .in("[" + keyObject + "]")
-                    .and(errorNode);
+                errorNode = e.getFieldErrorNode().and(errorNode);
                 continue;
             }
             try {
@@ -140,7 +203,7 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
                     throw new JsonSerializationException("map contains null value");
                 }
                 JsonElement valueJson = providers.serialize(valueObject);
-                jsonProperties.put(keyText, valueJson);
+                builder.add(keyText, valueJson);
 
             } catch (JsonSerializationException e) {
                 errorNode = e.getFieldErrorNode().in(keyText).and(errorNode);
@@ -151,6 +214,56 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
         if (errorNode != null) {
             throw new JsonSerializationException(errorNode);
         }
-        return JsonObject.of(jsonProperties);
+        return builder.build();
+    }
+
+    @Override
+    public void serializeTo(Map<?, ?> map, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(map, "value"); // called value in the interface
+        Objects.requireNonNull(sink, "sink");
+
+        sink.beginObject();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String keyText = serializeKey(entry.getKey());
+            try {
+                Object valueObject = entry.getValue();
+                if (valueObject == null) {
+                    throw new JsonSerializationException("map contains null value");
+                }
+                sink.name(keyText);
+                providers.serializeTo(valueObject, sink);
+            } catch (JsonSerializationException e) {
+                throw new JsonSerializationException(e.getFieldErrorNode().in(keyText));
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new JsonSerializationException(FieldErrorNode.create(e).in(keyText));
+            }
+        }
+        sink.endObject();
+    }
+
+    /**
+     * Turns a map key into the text of the corresponding JSON property name. Errors already have the field path
+     * applied, except for null keys which do not have a meaningful path.
+     */
+    private String serializeKey(Object keyObject) throws JsonSerializationException {
+        if (keyObject == null) {
+            throw new JsonSerializationException("map contains null key");
+        }
+        JsonElement keyJson;
+        try {
+            keyJson = providers.serialize(keyObject);
+        } catch (JsonSerializationException e) {
+            throw new JsonSerializationException(e.getFieldErrorNode().in("[" + keyObject + "]"));
+        } catch (Exception e) {
+            throw new JsonSerializationException(FieldErrorNode.create(e).in("[" + keyObject + "]"));
+        }
+        if (keyJson instanceof JsonString s) {
+            return s.getValue();
+        } else {
+            throw new JsonSerializationException(FieldErrorNode.create("map key does not serialize to a JSON string")
+                .in("[" + keyObject + "]"));
+        }
     }
 }
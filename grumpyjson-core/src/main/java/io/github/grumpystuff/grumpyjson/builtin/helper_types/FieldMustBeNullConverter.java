@@ -9,11 +9,14 @@ package io.github.grumpystuff.grumpyjson.builtin.helper_types;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.json_model.JsonNull;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Objects;
 
@@ -23,7 +26,7 @@ import java.util.Objects;
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
  */
-public final class FieldMustBeNullConverter implements JsonSerializer<FieldMustBeNull>, JsonDeserializer {
+public final class FieldMustBeNullConverter implements StreamingJsonSerializer<FieldMustBeNull>, JsonDeserializer {
 
     /**
      * Constructor
@@ -48,6 +51,15 @@ public final class FieldMustBeNullConverter implements JsonSerializer<FieldMustB
         return FieldMustBeNull.INSTANCE;
     }
 
+    @Override
+    public FieldMustBeNull deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        source.nextNull();
+        return FieldMustBeNull.INSTANCE;
+    }
+
     @Override
     public boolean supportsClassForSerialization(Class<?> clazz) {
         Objects.requireNonNull(clazz, "clazz");
@@ -62,4 +74,12 @@ public final class FieldMustBeNullConverter implements JsonSerializer<FieldMustB
         return JsonNull.INSTANCE;
     }
 
+    @Override
+    public void serializeTo(FieldMustBeNull value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.nullValue();
+    }
+
 }
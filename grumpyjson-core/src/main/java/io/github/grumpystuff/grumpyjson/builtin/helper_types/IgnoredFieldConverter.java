@@ -9,10 +9,14 @@ package io.github.grumpystuff.grumpyjson.builtin.helper_types;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.PreEncodedName;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Objects;
 import java.util.Optional;
@@ -23,7 +27,7 @@ import java.util.Optional;
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
  */
-public final class IgnoredFieldConverter implements JsonSerializer<IgnoredField>, JsonDeserializer {
+public final class IgnoredFieldConverter implements StreamingJsonSerializer<IgnoredField>, JsonDeserializer {
 
     /**
      * Constructor.
@@ -46,6 +50,15 @@ public final class IgnoredFieldConverter implements JsonSerializer<IgnoredField>
         return IgnoredField.INSTANCE;
     }
 
+    @Override
+    public IgnoredField deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        source.skipValue();
+        return IgnoredField.INSTANCE;
+    }
+
     @Override
     public IgnoredField deserializeAbsent(Type type) {
         Objects.requireNonNull(type, "type");
@@ -74,4 +87,19 @@ public final class IgnoredFieldConverter implements JsonSerializer<IgnoredField>
         return Optional.empty();
     }
 
+    @Override
+    public void serializeTo(IgnoredField value, JsonTokenSink sink) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        throw new JsonSerializationException("found IgnoredField in a non-vanishable context");
+    }
+
+    @Override
+    public void serializePropertyTo(PreEncodedName name, IgnoredField value, JsonTokenSink sink) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+    }
+
 }
@@ -6,16 +6,21 @@
  */
 package io.github.grumpystuff.grumpyjson.builtin.helper_types;
 
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
 import io.github.grumpystuff.grumpyjson.JsonProviders;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.AbortedDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.json_model.JsonNull;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 import io.github.grumpystuff.grumpyjson.util.TypeUtil;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Objects;
 
@@ -25,7 +30,7 @@ import java.util.Objects;
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
  */
-public final class NullableFieldConverter implements JsonSerializer<NullableField<?>>, JsonDeserializer {
+public final class NullableFieldConverter implements StreamingJsonSerializer<NullableField<?>>, JsonDeserializer {
 
     private final JsonProviders providers;
 
@@ -66,6 +71,27 @@ public final class NullableFieldConverter implements JsonSerializer<NullableFiel
         }
     }
 
+    @Override
+    public NullableField<?> deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        Type innerType = TypeUtil.expectSingleParameterizedType(type, NullableField.class);
+        if (source.peek() == JsonTokenSource.ValueType.NULL) {
+            source.nextNull();
+            return NullableField.ofNull();
+        } else {
+            try {
+                return NullableField.ofValue(providers.deserializeFrom(source, innerType));
+            } catch (JsonDeserializationException | AbortedDeserializationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                // the position of the source is unspecified now
+                throw new AbortedDeserializationException(FieldErrorNode.create(e));
+            }
+        }
+    }
+
     @Override
     public boolean supportsClassForSerialization(Class<?> clazz) {
         Objects.requireNonNull(clazz, "clazz");
@@ -90,4 +116,22 @@ public final class NullableFieldConverter implements JsonSerializer<NullableFiel
         }
     }
 
+    @Override
+    public void serializeTo(NullableField<?> value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        if (value.isNull()) {
+            sink.nullValue();
+        } else {
+            try {
+                providers.serializeTo(value.getValueOrNull(), sink);
+            } catch (JsonSerializationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new JsonSerializationException(e);
+            }
+        }
+    }
+
 }
@@ -6,15 +6,21 @@
  */
 package io.github.grumpystuff.grumpyjson.builtin.helper_types;
 
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
 import io.github.grumpystuff.grumpyjson.JsonProviders;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.AbortedDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.PreEncodedName;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
 import io.github.grumpystuff.grumpyjson.util.TypeUtil;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Objects;
 import java.util.Optional;
@@ -25,7 +31,7 @@ import java.util.Optional;
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
  */
-public final class OptionalFieldConverter implements JsonSerializer<OptionalField<?>>, JsonDeserializer {
+public final class OptionalFieldConverter implements StreamingJsonSerializer<OptionalField<?>>, JsonDeserializer {
 
     private final JsonProviders providers;
 
@@ -61,6 +67,21 @@ public final class OptionalFieldConverter implements JsonSerializer<OptionalFiel
         }
     }
 
+    @Override
+    public OptionalField<?> deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        try {
+            return OptionalField.ofValue(providers.deserializeFrom(source, getInner(type)));
+        } catch (JsonDeserializationException | AbortedDeserializationException | IOException e) {
+            throw e;
+        } catch (Exception e) {
+            // the position of the source is unspecified now
+            throw new AbortedDeserializationException(FieldErrorNode.create(e));
+        }
+    }
+
     @Override
     public OptionalField<?> deserializeAbsent(Type type) {
         Objects.requireNonNull(type, "type");
@@ -100,6 +121,32 @@ public final class OptionalFieldConverter implements JsonSerializer<OptionalFiel
         }
     }
 
+    @Override
+    public void serializeTo(OptionalField<?> value, JsonTokenSink sink) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        throw new JsonSerializationException("found OptionalField in a non-vanishable context");
+    }
+
+    @Override
+    public void serializePropertyTo(PreEncodedName name, OptionalField<?> value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        if (!value.isAbsent()) {
+            try {
+                sink.name(name);
+                providers.serializeTo(value.getValueOrNothingAsNull(), sink);
+            } catch (JsonSerializationException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new JsonSerializationException(e);
+            }
+        }
+    }
+
     private Type getInner(Type outer) {
         Objects.requireNonNull(outer, "outer");
 
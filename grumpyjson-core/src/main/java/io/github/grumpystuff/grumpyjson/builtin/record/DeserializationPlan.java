@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.record;
+
+import io.github.grumpystuff.grumpyjson.JsonProviders;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The concrete type and the deserializer for each component of a record, resolved for a single concrete record type.
+ * A {@link RecordConverter} uses this to avoid resolving them again for each record it deserializes.
+ * <p>
+ * If resolving a component fails, the exception is stored and re-thrown when the deserializer for that component is
+ * requested, so the error gets reported for that component like without a plan. Such a plan is not complete and
+ * should not be cached, because the failure might be caused by the providers not being ready yet.
+ */
+final class DeserializationPlan {
+
+    private final Type[] concreteTypes;
+    private final JsonDeserializer[] deserializers;
+    private final Exception[] errors;
+    private final boolean complete;
+
+    private DeserializationPlan(Type[] concreteTypes, JsonDeserializer[] deserializers, Exception[] errors,
+                                boolean complete) {
+        this.concreteTypes = concreteTypes;
+        this.deserializers = deserializers;
+        this.errors = errors;
+        this.complete = complete;
+    }
+
+    /**
+     * Resolves the concrete types and deserializers for all components of a record.
+     *
+     * @param recordInfo the record to create a plan for
+     * @param recordType the concrete record type
+     * @param providers the providers to get the deserializers from
+     * @return the plan
+     */
+    static DeserializationPlan create(RecordInfo recordInfo, Type recordType, JsonProviders providers) {
+        Objects.requireNonNull(recordInfo, "recordInfo");
+        Objects.requireNonNull(recordType, "recordType");
+        Objects.requireNonNull(providers, "providers");
+
+        List<RecordInfo.ComponentInfo> componentInfos = recordInfo.getComponentInfos();
+        Type[] concreteTypes = new Type[componentInfos.size()];
+        JsonDeserializer[] deserializers = new JsonDeserializer[componentInfos.size()];
+        Exception[] errors = new Exception[componentInfos.size()];
+        boolean complete = true;
+        for (int i = 0; i < componentInfos.size(); i++) {
+            try {
+                concreteTypes[i] = componentInfos.get(i).getConcreteType(recordType);
+                deserializers[i] = providers.getDeserializer(concreteTypes[i]);
+            } catch (Exception e) {
+                errors[i] = e;
+                complete = false;
+            }
+        }
+        return new DeserializationPlan(concreteTypes, deserializers, errors, complete);
+    }
+
+    /**
+     * @return true if all components were resolved successfully, false if not
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Returns the concrete type of a component. Must only be called after {@link #getDeserializer(int)} has
+     * returned normally for the same component.
+     *
+     * @param index the component index
+     * @return the concrete type
+     */
+    Type getConcreteType(int index) {
+        return concreteTypes[index];
+    }
+
+    /**
+     * Returns the deserializer for a component.
+     *
+     * @param index the component index
+     * @return the deserializer
+     * @throws Exception if resolving the concrete type or the deserializer has failed
+     */
+    JsonDeserializer getDeserializer(int index) throws Exception {
+        if (errors[index] != null) {
+            throw errors[index];
+        }
+        return deserializers[index];
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.record;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The standard {@link RecordAccessor}, based on method handles. Works for all records.
+ */
+final class MethodHandleRecordAccessor implements RecordAccessor {
+
+    private final Map<String, Integer> componentIndicesByName;
+    private final MethodHandle[] getterHandles;
+    private final MethodHandle constructorHandle;
+
+    MethodHandleRecordAccessor(Class<?> recordClass) {
+        RecordComponent[] components = recordClass.getRecordComponents();
+        Class<?>[] rawComponentTypes = new Class<?>[components.length];
+        Map<String, Integer> componentIndicesByName = new HashMap<>();
+        getterHandles = new MethodHandle[components.length];
+        for (int i = 0; i < components.length; i++) {
+            RecordComponent component = components[i];
+            rawComponentTypes[i] = component.getType();
+            componentIndicesByName.put(component.getName(), i);
+            Method getter = component.getAccessor();
+            getter.setAccessible(true);
+            try {
+                // takes an Object and returns an Object, so it can be called with invokeExact
+                getterHandles[i] = MethodHandles.lookup().unreflect(getter)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("could not access getter " + getter);
+            }
+        }
+        this.componentIndicesByName = Map.copyOf(componentIndicesByName);
+
+        Constructor<?> constructor;
+        try {
+            constructor = recordClass.getDeclaredConstructor(rawComponentTypes);
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("could not find canonical constructor for record type " + recordClass);
+        }
+        try {
+            // takes an Object[] and returns an Object, so it can be called with invokeExact
+            constructorHandle = MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("could not access canonical constructor for record type " + recordClass);
+        }
+    }
+
+    @Override
+    public int getComponentIndex(String name) {
+        Integer index = componentIndicesByName.get(name);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public Object getComponentValue(Object record, int index) throws Throwable {
+        return (Object) getterHandles[index].invokeExact(record);
+    }
+
+    @Override
+    public Object construct(Object[] arguments) throws Throwable {
+        return (Object) constructorHandle.invokeExact(arguments);
+    }
+
+}
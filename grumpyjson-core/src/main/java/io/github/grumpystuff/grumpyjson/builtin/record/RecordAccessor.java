@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.record;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Low-level access to the components and the canonical constructor of a single record class. Components are
+ * identified by their index in {@link Class#getRecordComponents()}. Implementations do not check their arguments;
+ * this is done by {@link RecordInfo}.
+ * <p>
+ * This interface is public only because generated implementations are defined in the package of the record class.
+ */
+public interface RecordAccessor {
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param name the component name
+     * @return the index of the component with that name, or -1 if there is no such component
+     */
+    int getComponentIndex(String name);
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param record the record to read from
+     * @param index the component index
+     * @return the component value, boxed if its type is primitive
+     * @throws Throwable anything thrown by the accessor method
+     */
+    Object getComponentValue(Object record, int index) throws Throwable;
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param arguments the constructor arguments, boxed if their type is primitive
+     * @return the new record
+     * @throws Throwable anything thrown by the constructor
+     */
+    Object construct(Object[] arguments) throws Throwable;
+
+}
@@ -0,0 +1,518 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.record;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.*;
+
+/**
+ * Generates a {@link RecordAccessor} for a single record class as a hidden class, so components and the constructor
+ * are accessed by plain method calls instead of method handles. The generated class looks roughly like this:
+ * <pre>{@code
+ * public final class Foo$$GrumpyjsonAccessor implements RecordAccessor {
+ *     public int getComponentIndex(String name) {
+ *         switch (name) {
+ *             case "a": return 0;
+ *             case "b": return 1;
+ *             default: return -1;
+ *         }
+ *     }
+ *     public Object getComponentValue(Object record, int index) {
+ *         switch (index) {
+ *             case 0: return Integer.valueOf(((Foo) record).a());
+ *             case 1: return ((Foo) record).b();
+ *             default: throw new IndexOutOfBoundsException(index);
+ *         }
+ *     }
+ *     public Object construct(Object[] arguments) {
+ *         return new Foo(((Integer) arguments[0]).intValue(), (String) arguments[1]);
+ *     }
+ * }
+ * }</pre>
+ * <p>
+ * The class file is written by hand to avoid a dependency on a bytecode library. It uses class file version 49,
+ * which does not need stack map frames, so no frames have to be computed. The hidden class is defined as a nestmate
+ * of the record class, so it can call the canonical constructor even if that is private.
+ * <p>
+ * Generation fails with an {@link IllegalAccessException} for records whose component types are not accessible from
+ * the package of the record, and when the record class is not open to this library (for example, in a named module).
+ * Callers are expected to fall back to {@link MethodHandleRecordAccessor} in that case. Any other failure is a bug in
+ * the generator and is not meant to be caught.
+ */
+final class RecordAccessorGenerator {
+
+    private static final int CLASS_FILE_MAJOR_VERSION = 49;
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String STRING = "java/lang/String";
+    private static final String ACCESSOR_INTERFACE = RecordAccessor.class.getName().replace('.', '/');
+    private static final String INDEX_EXCEPTION = "java/lang/IndexOutOfBoundsException";
+
+    private RecordAccessorGenerator() {
+    }
+
+    /**
+     * Generates and instantiates an accessor for the specified record class.
+     *
+     * @param recordClass the record class
+     * @return the accessor
+     * @throws IllegalAccessException if the accessor cannot access the record class or one of its component types
+     */
+    static RecordAccessor generate(Class<?> recordClass) throws IllegalAccessException {
+        Objects.requireNonNull(recordClass, "recordClass");
+
+        RecordComponent[] components = recordClass.getRecordComponents();
+        for (RecordComponent component : components) {
+            checkAccessible(recordClass, component.getType());
+        }
+        byte[] classFile = new ClassFileBuilder(recordClass, components).build();
+        MethodHandles.Lookup recordLookup = MethodHandles.privateLookupIn(recordClass, MethodHandles.lookup());
+        MethodHandles.Lookup accessorLookup = recordLookup.defineHiddenClass(classFile, true,
+                MethodHandles.Lookup.ClassOption.NESTMATE);
+        try {
+            return (RecordAccessor) accessorLookup.findConstructor(accessorLookup.lookupClass(),
+                    MethodType.methodType(void.class)).invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException("could not instantiate generated accessor for " + recordClass, t);
+        }
+    }
+
+    private static void checkAccessible(Class<?> recordClass, Class<?> type) throws IllegalAccessException {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive() || Modifier.isPublic(type.getModifiers())) {
+            return;
+        }
+        if (type.getClassLoader() != recordClass.getClassLoader()
+                || !type.getPackageName().equals(recordClass.getPackageName())) {
+            throw new IllegalAccessException("component type " + type + " not accessible from " + recordClass);
+        }
+    }
+
+    /**
+     * The name of the class as used in a CONSTANT_Class entry. For array types, this is the descriptor.
+     */
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type) {
+        return type.descriptorString();
+    }
+
+    /**
+     * The wrapper class and the unboxing method for a primitive type.
+     */
+    private record Boxing(Class<?> wrapperType, String unboxMethod) {
+
+        static Boxing of(Class<?> primitiveType) {
+            String unboxMethod = primitiveType.getName() + "Value";
+            Class<?> wrapperType = switch (primitiveType.getName()) {
+                case "boolean" -> Boolean.class;
+                case "byte" -> Byte.class;
+                case "short" -> Short.class;
+                case "char" -> Character.class;
+                case "int" -> Integer.class;
+                case "long" -> Long.class;
+                case "float" -> Float.class;
+                case "double" -> Double.class;
+                default -> throw new IllegalArgumentException("not a primitive type: " + primitiveType);
+            };
+            return new Boxing(wrapperType, unboxMethod);
+        }
+
+    }
+
+    private static int slotSize(Class<?> type) {
+        return (type == long.class || type == double.class) ? 2 : 1;
+    }
+
+    private static final class ClassFileBuilder {
+
+        private final Class<?> recordClass;
+        private final RecordComponent[] components;
+        private final ConstantPool constantPool = new ConstantPool();
+
+        ClassFileBuilder(Class<?> recordClass, RecordComponent[] components) {
+            this.recordClass = recordClass;
+            this.components = components;
+        }
+
+        byte[] build() {
+            String recordName = internalName(recordClass);
+            int thisClass = constantPool.classRef(recordName + "$$GrumpyjsonAccessor");
+            int superClass = constantPool.classRef(OBJECT);
+            int accessorInterface = constantPool.classRef(ACCESSOR_INTERFACE);
+
+            ByteWriter methods = new ByteWriter();
+            methods.u2(4);
+            writeConstructor(methods);
+            writeGetComponentIndex(methods);
+            writeGetComponentValue(methods);
+            writeConstruct(methods);
+
+            ByteWriter out = new ByteWriter();
+            out.u4(0xCAFEBABE);
+            out.u2(0);
+            out.u2(CLASS_FILE_MAJOR_VERSION);
+            out.u2(constantPool.count);
+            out.bytes(constantPool.entries);
+            out.u2(Modifier.PUBLIC | Modifier.FINAL | 0x0020); // ACC_SUPER
+            out.u2(thisClass);
+            out.u2(superClass);
+            out.u2(1);
+            out.u2(accessorInterface);
+            out.u2(0); // fields
+            out.bytes(methods);
+            out.u2(0); // attributes
+            return out.toByteArray();
+        }
+
+        private void writeMethod(ByteWriter out, String name, String descriptor, int maxStack, int maxLocals,
+                                 ByteWriter code) {
+            out.u2(Modifier.PUBLIC);
+            out.u2(constantPool.utf8(name));
+            out.u2(constantPool.utf8(descriptor));
+            out.u2(1);
+            out.u2(constantPool.utf8("Code"));
+            out.u4(12 + code.size());
+            out.u2(maxStack);
+            out.u2(maxLocals);
+            out.u4(code.size());
+            out.bytes(code);
+            out.u2(0); // exception table
+            out.u2(0); // attributes
+        }
+
+        private void writeConstructor(ByteWriter out) {
+            ByteWriter code = new ByteWriter();
+            code.u1(Opcodes.ALOAD_0);
+            code.u1(Opcodes.INVOKESPECIAL);
+            code.u2(constantPool.methodRef(OBJECT, "<init>", "()V"));
+            code.u1(Opcodes.RETURN);
+            writeMethod(out, "<init>", "()V", 1, 1, code);
+        }
+
+        private void writeGetComponentIndex(ByteWriter out) {
+            Map<Integer, List<Integer>> indicesByHashCode = new TreeMap<>();
+            for (int i = 0; i < components.length; i++) {
+                int hashCode = components[i].getName().hashCode();
+                indicesByHashCode.computeIfAbsent(hashCode, ignored -> new ArrayList<>()).add(i);
+            }
+
+            ByteWriter code = new ByteWriter();
+            if (!indicesByHashCode.isEmpty()) {
+                code.u1(Opcodes.ALOAD_1);
+                code.u1(Opcodes.INVOKEVIRTUAL);
+                code.u2(constantPool.methodRef(STRING, "hashCode", "()I"));
+                int switchPosition = code.size();
+                code.u1(Opcodes.LOOKUPSWITCH);
+                code.align4();
+                int defaultPosition = code.size();
+                code.u4(0);
+                code.u4(indicesByHashCode.size());
+                int pairsPosition = code.size();
+                for (int hashCode : indicesByHashCode.keySet()) {
+                    code.u4(hashCode);
+                    code.u4(0);
+                }
+                int pairIndex = 0;
+                for (List<Integer> indices : indicesByHashCode.values()) {
+                    code.patchU4(pairsPosition + 8 * pairIndex + 4, code.size() - switchPosition);
+                    pairIndex++;
+                    for (int index : indices) {
+                        code.u1(Opcodes.ALOAD_1);
+                        code.u1(Opcodes.LDC_W);
+                        code.u2(constantPool.string(components[index].getName()));
+                        code.u1(Opcodes.INVOKEVIRTUAL);
+                        code.u2(constantPool.methodRef(STRING, "equals", "(Ljava/lang/Object;)Z"));
+                        int branchPosition = code.size();
+                        code.u1(Opcodes.IFEQ);
+                        code.u2(0);
+                        pushInt(code, index);
+                        code.u1(Opcodes.IRETURN);
+                        code.patchU2(branchPosition + 1, code.size() - branchPosition);
+                    }
+                    code.u1(Opcodes.ICONST_M1);
+                    code.u1(Opcodes.IRETURN);
+                }
+                code.patchU4(defaultPosition, code.size() - switchPosition);
+            }
+            code.u1(Opcodes.ICONST_M1);
+            code.u1(Opcodes.IRETURN);
+            writeMethod(out, "getComponentIndex", "(Ljava/lang/String;)I", 2, 2, code);
+        }
+
+        private void writeGetComponentValue(ByteWriter out) {
+            ByteWriter code = new ByteWriter();
+            int recordClassRef = constantPool.classRef(internalName(recordClass));
+            int switchPosition = -1;
+            int defaultPosition = -1;
+            int offsetsPosition = -1;
+            if (components.length > 0) {
+                code.u1(Opcodes.ILOAD_2);
+                switchPosition = code.size();
+                code.u1(Opcodes.TABLESWITCH);
+                code.align4();
+                defaultPosition = code.size();
+                code.u4(0);
+                code.u4(0);
+                code.u4(components.length - 1);
+                offsetsPosition = code.size();
+                for (int i = 0; i < components.length; i++) {
+                    code.u4(0);
+                }
+            }
+            for (int i = 0; i < components.length; i++) {
+                code.patchU4(offsetsPosition + 4 * i, code.size() - switchPosition);
+                RecordComponent component = components[i];
+                Class<?> type = component.getType();
+                code.u1(Opcodes.ALOAD_1);
+                code.u1(Opcodes.CHECKCAST);
+                code.u2(recordClassRef);
+                code.u1(Opcodes.INVOKEVIRTUAL);
+                code.u2(constantPool.methodRef(internalName(recordClass), component.getAccessor().getName(),
+                        "()" + descriptor(type)));
+                if (type.isPrimitive()) {
+                    Class<?> wrapperType = Boxing.of(type).wrapperType();
+                    code.u1(Opcodes.INVOKESTATIC);
+                    code.u2(constantPool.methodRef(internalName(wrapperType), "valueOf",
+                            "(" + descriptor(type) + ")" + descriptor(wrapperType)));
+                }
+                code.u1(Opcodes.ARETURN);
+            }
+            if (components.length > 0) {
+                code.patchU4(defaultPosition, code.size() - switchPosition);
+            }
+            code.u1(Opcodes.NEW);
+            code.u2(constantPool.classRef(INDEX_EXCEPTION));
+            code.u1(Opcodes.DUP);
+            code.u1(Opcodes.ILOAD_2);
+            code.u1(Opcodes.INVOKESPECIAL);
+            code.u2(constantPool.methodRef(INDEX_EXCEPTION, "<init>", "(I)V"));
+            code.u1(Opcodes.ATHROW);
+            writeMethod(out, "getComponentValue", "(Ljava/lang/Object;I)Ljava/lang/Object;", 3, 3, code);
+        }
+
+        private void writeConstruct(ByteWriter out) {
+            ByteWriter code = new ByteWriter();
+            StringBuilder constructorDescriptor = new StringBuilder("(");
+            int argumentSlots = 0;
+            code.u1(Opcodes.NEW);
+            code.u2(constantPool.classRef(internalName(recordClass)));
+            code.u1(Opcodes.DUP);
+            for (int i = 0; i < components.length; i++) {
+                Class<?> type = components[i].getType();
+                constructorDescriptor.append(descriptor(type));
+                argumentSlots += slotSize(type);
+                code.u1(Opcodes.ALOAD_1);
+                pushInt(code, i);
+                code.u1(Opcodes.AALOAD);
+                if (type.isPrimitive()) {
+                    Boxing boxing = Boxing.of(type);
+                    String wrapperName = internalName(boxing.wrapperType());
+                    code.u1(Opcodes.CHECKCAST);
+                    code.u2(constantPool.classRef(wrapperName));
+                    code.u1(Opcodes.INVOKEVIRTUAL);
+                    code.u2(constantPool.methodRef(wrapperName, boxing.unboxMethod(), "()" + descriptor(type)));
+                } else if (type != Object.class) {
+                    code.u1(Opcodes.CHECKCAST);
+                    code.u2(constantPool.classRef(internalName(type)));
+                }
+            }
+            constructorDescriptor.append(")V");
+            code.u1(Opcodes.INVOKESPECIAL);
+            code.u2(constantPool.methodRef(internalName(recordClass), "<init>", constructorDescriptor.toString()));
+            code.u1(Opcodes.ARETURN);
+            // the uninitialized record and its duplicate, the arguments so far, and the array and index to load from
+            int maxStack = 2 + argumentSlots + 2;
+            writeMethod(out, "construct", "([Ljava/lang/Object;)Ljava/lang/Object;", maxStack, 2, code);
+        }
+
+        private static void pushInt(ByteWriter code, int value) {
+            if (value <= 5) {
+                code.u1(Opcodes.ICONST_0 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                code.u1(Opcodes.BIPUSH);
+                code.u1(value);
+            } else {
+                code.u1(Opcodes.SIPUSH);
+                code.u2(value);
+            }
+        }
+
+    }
+
+    private static final class Opcodes {
+        static final int ICONST_M1 = 0x02;
+        static final int ICONST_0 = 0x03;
+        static final int BIPUSH = 0x10;
+        static final int SIPUSH = 0x11;
+        static final int LDC_W = 0x13;
+        static final int ILOAD_2 = 0x1c;
+        static final int ALOAD_0 = 0x2a;
+        static final int ALOAD_1 = 0x2b;
+        static final int AALOAD = 0x32;
+        static final int DUP = 0x59;
+        static final int IFEQ = 0x99;
+        static final int TABLESWITCH = 0xaa;
+        static final int LOOKUPSWITCH = 0xab;
+        static final int IRETURN = 0xac;
+        static final int ARETURN = 0xb0;
+        static final int RETURN = 0xb1;
+        static final int INVOKEVIRTUAL = 0xb6;
+        static final int INVOKESPECIAL = 0xb7;
+        static final int INVOKESTATIC = 0xb8;
+        static final int NEW = 0xbb;
+        static final int ATHROW = 0xbf;
+        static final int CHECKCAST = 0xc0;
+    }
+
+    /**
+     * Collects constant pool entries and re-uses identical ones.
+     */
+    private static final class ConstantPool {
+
+        private static final int UTF8 = 1;
+        private static final int CLASS = 7;
+        private static final int STRING = 8;
+        private static final int METHOD_REF = 10;
+        private static final int NAME_AND_TYPE = 12;
+
+        final ByteWriter entries = new ByteWriter();
+        final Map<String, Integer> indices = new HashMap<>();
+        int count = 1;
+
+        int utf8(String value) {
+            Integer existing = indices.get("U" + value);
+            if (existing != null) {
+                return existing;
+            }
+            entries.u1(UTF8);
+            entries.modifiedUtf8(value);
+            indices.put("U" + value, count);
+            return count++;
+        }
+
+        int classRef(String internalName) {
+            return reference("C" + internalName, CLASS, utf8(internalName), -1);
+        }
+
+        int string(String value) {
+            return reference("S" + value, STRING, utf8(value), -1);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            int classIndex = classRef(owner);
+            int nameAndTypeIndex = reference("N" + name + " " + descriptor, NAME_AND_TYPE, utf8(name),
+                    utf8(descriptor));
+            return reference("M" + owner + " " + name + " " + descriptor, METHOD_REF, classIndex, nameAndTypeIndex);
+        }
+
+        private int reference(String key, int tag, int first, int second) {
+            Integer existing = indices.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            entries.u1(tag);
+            entries.u2(first);
+            if (second >= 0) {
+                entries.u2(second);
+            }
+            indices.put(key, count);
+            return count++;
+        }
+
+    }
+
+    private static final class ByteWriter {
+
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void u1(int value) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void u2(int value) {
+            u1(value >> 8);
+            u1(value);
+        }
+
+        void u4(int value) {
+            u2(value >> 16);
+            u2(value);
+        }
+
+        void patchU2(int position, int value) {
+            buffer[position] = (byte) (value >> 8);
+            buffer[position + 1] = (byte) value;
+        }
+
+        void patchU4(int position, int value) {
+            patchU2(position, value >> 16);
+            patchU2(position + 2, value);
+        }
+
+        /**
+         * Pads with zero bytes to a multiple of four, as needed for the operands of switch instructions.
+         */
+        void align4() {
+            while (size % 4 != 0) {
+                u1(0);
+            }
+        }
+
+        void bytes(ByteWriter other) {
+            for (int i = 0; i < other.size; i++) {
+                u1(other.buffer[i]);
+            }
+        }
+
+        void modifiedUtf8(String value) {
+            int lengthPosition = size;
+            u2(0);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= 1 && c <= 0x7f) {
+                    u1(c);
+                } else if (c <= 0x7ff) {
+                    u1(0xc0 | (c >> 6));
+                    u1(0x80 | (c & 0x3f));
+                } else {
+                    u1(0xe0 | (c >> 12));
+                    u1(0x80 | ((c >> 6) & 0x3f));
+                    u1(0x80 | (c & 0x3f));
+                }
+            }
+            int length = size - lengthPosition - 2;
+            if (length > 0xffff) {
+                throw new IllegalArgumentException("constant too long");
+            }
+            patchU2(lengthPosition, length);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+    }
+
+}
@@ -9,17 +9,23 @@ package io.github.grumpystuff.grumpyjson.builtin.record;
 import io.github.grumpystuff.grumpyjson.ExceptionMessages;
 import io.github.grumpystuff.grumpyjson.FieldErrorNode;
 import io.github.grumpystuff.grumpyjson.JsonProviders;
+import io.github.grumpystuff.grumpyjson.deserialize.AbortedDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.json_model.JsonObject;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
-import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.StreamingJsonSerializer;
+import io.github.grumpystuff.grumpyjson.util.TypeUtil;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Maps a record class to and from a JSON object.
@@ -48,20 +54,44 @@ import java.util.*;
  *
  * @param <T> the record type
  */
-public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserializer {
+public final class RecordConverter<T> implements StreamingJsonSerializer<T>, JsonDeserializer {
 
     /**
      * Controls the behavior of a {@link RecordConverter}.
      *
      * @param ignoreUnknownProperties to ignore unknown properties during deserialization instead of throwing an exception
+     * @param generateAccessor to access the record through a class that gets generated at run-time, instead of through
+     * method handles. This makes conversion faster for records that are converted very often, but costs time and
+     * memory for each record class. If the class cannot access the record or its component types, method handles are
+     * used anyway.
      */
-    public record Options(boolean ignoreUnknownProperties) {
+    public record Options(boolean ignoreUnknownProperties, boolean generateAccessor) {
+
+        /**
+         * Creates options that do not generate an accessor class.
+         *
+         * @param ignoreUnknownProperties to ignore unknown properties during deserialization instead of throwing an
+         * exception
+         */
+        public Options(boolean ignoreUnknownProperties) {
+            this(ignoreUnknownProperties, false);
+        }
+
     }
 
     private final RecordInfo recordInfo;
     private final JsonProviders providers;
     private final Options options;
 
+    // the plan for the record class itself, which is used unless the record type is parameterized
+    private volatile DeserializationPlan classDeserializationPlan;
+
+    // Plans for parameterized record types. A record is usually used with only a few different type arguments, but
+    // the number of possible parameterized types is unlimited, so the number of cached plans is limited.
+    private static final int MAX_CACHED_PARAMETERIZED_PLANS = 64;
+    private final ConcurrentHashMap<Type, DeserializationPlan> parameterizedDeserializationPlans =
+            new ConcurrentHashMap<>();
+
     /**
      * Application code usually does not have to call this constructor because instances of this class will be
      * auto-generated for unknown records, and this constructor does not add any features on top of that.
@@ -86,7 +116,7 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
         Objects.requireNonNull(providers, "providers");
         Objects.requireNonNull(options, "options");
 
-        this.recordInfo = new RecordInfo(clazz);
+        this.recordInfo = new RecordInfo(clazz, options.generateAccessor());
         this.providers = providers;
         this.options = options;
     }
@@ -114,6 +144,7 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
         int numberOfPresentKnownProperties = 0;
         Object[] fieldValues = new Object[componentInfos.size()];
         FieldErrorNode errorNode = null;
+        DeserializationPlan plan = getDeserializationPlan(recordType);
 
         for (int i = 0; i < componentInfos.size(); i++) {
             RecordInfo.ComponentInfo componentInfo = componentInfos.get(i);
@@ -123,8 +154,8 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
                 numberOfPresentKnownProperties++;
             }
             try {
-                Type concreteFieldType = componentInfo.getConcreteType(recordType);
-                JsonDeserializer deserializer = providers.getDeserializer(concreteFieldType);
+                JsonDeserializer deserializer = plan.getDeserializer(i);
+                Type concreteFieldType = plan.getConcreteType(i);
                 if (propertyJson == null) {
                     fieldValues[i] = deserializer.deserializeAbsent(concreteFieldType);
                 } else {
@@ -153,6 +184,48 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
         if (errorNode != null) {
             throw new JsonDeserializationException(errorNode);
         }
+        return construct(fieldValues);
+    }
+
+    /**
+     * Returns the plan for deserializing the specified record type. Plans are built on first use, not in the
+     * constructor, so the providers can still be configured at that time, and are cached once all components could
+     * be resolved.
+     * <p>
+     * Parameterized types are cached by equality, not identity. Different instances for the same type, such as one
+     * from a field declaration and one built by {@link TypeUtil#replaceTypeVariables}, share a plan.
+     */
+    private DeserializationPlan getDeserializationPlan(Type recordType) {
+        // if multiple threads build a plan for the same type, they will build equivalent plans, so it does not
+        // matter which one wins
+        if (recordType instanceof Class<?>) {
+            DeserializationPlan plan = classDeserializationPlan;
+            if (plan == null) {
+                plan = DeserializationPlan.create(recordInfo, recordType, providers);
+                if (plan.isComplete()) {
+                    classDeserializationPlan = plan;
+                }
+            }
+            return plan;
+        } else {
+            DeserializationPlan plan = parameterizedDeserializationPlans.get(recordType);
+            if (plan == null) {
+                plan = DeserializationPlan.create(recordInfo, recordType, providers);
+                if (plan.isComplete()) {
+                    // Inserting under the lock keeps the size check and the insertion atomic, so the limit is never
+                    // exceeded. Lookups above do not take the lock, and insertions are rare.
+                    synchronized (parameterizedDeserializationPlans) {
+                        if (parameterizedDeserializationPlans.size() < MAX_CACHED_PARAMETERIZED_PLANS) {
+                            parameterizedDeserializationPlans.putIfAbsent(recordType, plan);
+                        }
+                    }
+                }
+            }
+            return plan;
+        }
+    }
+
+    private T construct(Object[] fieldValues) throws JsonDeserializationException {
         try {
             //noinspection unchecked
             return (T) recordInfo.invokeConstructor(fieldValues);
@@ -167,6 +240,78 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
         }
     }
 
+    @Override
+    public T deserializeFrom(JsonTokenSource source, Type recordType) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(recordType, "recordType");
+
+        source.beginObject();
+        List<RecordInfo.ComponentInfo> componentInfos = recordInfo.getComponentInfos();
+        Object[] fieldValues = new Object[componentInfos.size()];
+        boolean[] present = new boolean[componentInfos.size()];
+
+        // Errors are stored per component, not aggregated right away, so that if a property appears twice, the
+        // last occurrence wins. This is consistent with building a JsonObject and then deserializing that.
+        FieldErrorNode[] componentErrorNodes = new FieldErrorNode[componentInfos.size()];
+        FieldErrorNode errorNode = null;
+        DeserializationPlan plan = getDeserializationPlan(recordType);
+
+        while (source.hasNext()) {
+            String name = source.nextName();
+            int index = recordInfo.getComponentIndex(name);
+            if (index < 0) {
+                source.skipValue();
+                if (!options.ignoreUnknownProperties()) {
+                    errorNode = FieldErrorNode.create(ExceptionMessages.UNEXPECTED_PROPERTY).in(name).and(errorNode);
+                }
+                continue;
+            }
+            present[index] = true;
+            componentErrorNodes[index] = null;
+            boolean consumed = false;
+            try {
+                JsonDeserializer deserializer = plan.getDeserializer(index);
+                consumed = true;
+                fieldValues[index] = deserializer.deserializeFrom(source, plan.getConcreteType(index));
+            } catch (JsonDeserializationException e) {
+                componentErrorNodes[index] = e.getFieldErrorNode().in(name);
+            } catch (IOException e) {
+                throw e;
+            } catch (AbortedDeserializationException e) {
+                throw e.in(name);
+            } catch (Exception e) {
+                if (consumed) {
+                    // the position of the source is unspecified now, so we cannot read the remaining properties
+                    throw new AbortedDeserializationException(FieldErrorNode.create(e).in(name));
+                }
+                source.skipValue();
+                componentErrorNodes[index] = FieldErrorNode.create(e).in(name);
+            }
+        }
+        source.endObject();
+
+        for (int i = 0; i < componentInfos.size(); i++) {
+            if (!present[i]) {
+                RecordInfo.ComponentInfo componentInfo = componentInfos.get(i);
+                try {
+                    fieldValues[i] = plan.getDeserializer(i).deserializeAbsent(plan.getConcreteType(i));
+                } catch (JsonDeserializationException e) {
+                    componentErrorNodes[i] = e.getFieldErrorNode().in(componentInfo.getName());
+                } catch (Exception e) {
+                    componentErrorNodes[i] = FieldErrorNode.create(e).in(componentInfo.getName());
+                }
+            }
+            if (componentErrorNodes[i] != null) {
+                errorNode = componentErrorNodes[i].and(errorNode);
+            }
+        }
+
+        if (errorNode != null) {
+            throw new JsonDeserializationException(errorNode);
+        }
+        return construct(fieldValues);
+    }
+
     @Override
     public boolean supportsClassForSerialization(Class<?> clazz) {
         Objects.requireNonNull(clazz, "clazz");
@@ -178,7 +323,8 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
     public JsonElement serialize(T record) {
         Objects.requireNonNull(record, "value"); // called value in the interface
 
-        Map<String, JsonElement> jsonProperties = new HashMap<>();
+        // properties are added in declaration order, which is the order they get written in
+        JsonObject.Builder builder = new JsonObject.Builder(recordInfo.getComponentInfos().size());
         FieldErrorNode errorNode = null;
         for (RecordInfo.ComponentInfo componentInfo : recordInfo.getComponentInfos()) {
             String name = componentInfo.getName();
@@ -188,7 +334,7 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
                     throw new JsonSerializationException("field is null");
                 }
                 Optional<JsonElement> optionalJson = providers.serializeOptional(value);
-                optionalJson.ifPresent(jsonElement -> jsonProperties.put(name, jsonElement));
+                optionalJson.ifPresent(jsonElement -> builder.add(name, jsonElement));
             } catch (JsonSerializationException e) {
                 errorNode = e.getFieldErrorNode().in(name).and(errorNode);
             } catch (Exception e) {
@@ -198,7 +344,32 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
         if (errorNode != null) {
             throw new JsonSerializationException(errorNode);
         }
-        return JsonObject.of(jsonProperties);
+        return builder.build();
+    }
+
+    @Override
+    public void serializeTo(T record, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(record, "value"); // called value in the interface
+        Objects.requireNonNull(sink, "sink");
+
+        sink.beginObject();
+        for (RecordInfo.ComponentInfo componentInfo : recordInfo.getComponentInfos()) {
+            String name = componentInfo.getName();
+            try {
+                Object value = componentInfo.invokeGetter(record);
+                if (value == null) {
+                    throw new JsonSerializationException("field is null");
+                }
+                providers.serializePropertyTo(componentInfo.getPreEncodedName(), value, sink);
+            } catch (JsonSerializationException e) {
+                throw new JsonSerializationException(e.getFieldErrorNode().in(name));
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new JsonSerializationException(FieldErrorNode.create(e).in(name));
+            }
+        }
+        sink.endObject();
     }
 
 }
@@ -25,12 +25,25 @@ is built only once per record class.
 public final class RecordConverterFactory {
 
     private JsonProviders providers;
+    private final RecordConverter.Options options;
     private final ConcurrentHashMap<Class<?>, RecordConverter<?>> map = new ConcurrentHashMap<>();
 
     /**
      * NOT PUBLIC API
      */
     public RecordConverterFactory() {
+        this(new RecordConverter.Options(false));
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param options the options for all generated converters
+     */
+    public RecordConverterFactory(RecordConverter.Options options) {
+        Objects.requireNonNull(options, "options");
+
+        this.options = options;
     }
 
     /**
@@ -79,7 +92,7 @@ public final class RecordConverterFactory {
     public RecordConverter<?> getConverter(Class<?> clazz) {
         Objects.requireNonNull(clazz, "clazz");
 
-        return map.computeIfAbsent(clazz, ignored -> new RecordConverter<>(clazz, providers));
+        return map.computeIfAbsent(clazz, ignored -> new RecordConverter<>(clazz, providers, options));
     }
 
 }
@@ -7,6 +7,7 @@
 package io.github.grumpystuff.grumpyjson.builtin.record;
 
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.serialize.PreEncodedName;
 import io.github.grumpystuff.grumpyjson.util.TypeUtil;
 
 import java.lang.reflect.*;
@@ -22,7 +23,9 @@ public final class RecordInfo {
 
     private final Class<?> recordClass;
     private final List<ComponentInfo> componentInfos;
-    private final Constructor<?> constructor;
+    private final RecordAccessor accessor;
+    private final boolean accessorGenerated;
+    private final IllegalAccessException accessorGenerationFailure;
 
     /**
      * NOT PUBLIC API
@@ -30,6 +33,18 @@ public final class RecordInfo {
      * @param recordClass ...
      */
     public RecordInfo(Class<?> recordClass) {
+        this(recordClass, false);
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param recordClass ...
+     * @param generateAccessor whether to try generating a class that accesses the record directly, instead of using
+     * method handles. If the generated class cannot access the record or its component types, method handles are
+     * used anyway, and the reason is available from {@link #getAccessorGenerationFailure()}.
+     */
+    public RecordInfo(Class<?> recordClass, boolean generateAccessor) {
         Objects.requireNonNull(recordClass, "record");
         if (!recordClass.isRecord()) {
             throw new IllegalArgumentException("not a record: " + recordClass);
@@ -37,20 +52,24 @@ public final class RecordInfo {
         this.recordClass = recordClass;
 
         RecordComponent[] components = recordClass.getRecordComponents();
-        Class<?>[] rawComponentTypes = new Class<?>[components.length];
         ComponentInfo[] componentInfos = new ComponentInfo[components.length];
         for (int i = 0; i < components.length; i++) {
-            RecordComponent component = components[i];
-            rawComponentTypes[i] = component.getType();
-            componentInfos[i] = new ComponentInfo(component);
-        }
-        try {
-            constructor = recordClass.getDeclaredConstructor(rawComponentTypes);
-            constructor.setAccessible(true);
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException("could not find canonical constructor for record type " + recordClass);
+            componentInfos[i] = new ComponentInfo(components[i], i);
         }
         this.componentInfos = List.of(componentInfos);
+
+        RecordAccessor generatedAccessor = null;
+        IllegalAccessException accessorGenerationFailure = null;
+        if (generateAccessor) {
+            try {
+                generatedAccessor = RecordAccessorGenerator.generate(recordClass);
+            } catch (IllegalAccessException e) {
+                accessorGenerationFailure = e;
+            }
+        }
+        this.accessor = generatedAccessor == null ? new MethodHandleRecordAccessor(recordClass) : generatedAccessor;
+        this.accessorGenerated = generatedAccessor != null;
+        this.accessorGenerationFailure = accessorGenerationFailure;
     }
 
     /**
@@ -71,19 +90,56 @@ public final class RecordInfo {
         return componentInfos;
     }
 
+    /**
+     * ...
+     *
+     * @return true if a generated class is used to access the record, false if method handles are used
+     */
+    public boolean isAccessorGenerated() {
+        return accessorGenerated;
+    }
+
+    /**
+     * ...
+     *
+     * @return the reason why generating an accessor class failed, or null if it was not requested or did not fail
+     */
+    public IllegalAccessException getAccessorGenerationFailure() {
+        return accessorGenerationFailure;
+    }
+
+    /**
+     * ...
+     *
+     * @param name ...
+     * @return the index of the component with that name in {@link #getComponentInfos()}, or -1 if there is no such
+     * component
+     */
+    public int getComponentIndex(String name) {
+        Objects.requireNonNull(name, "name");
+
+        return accessor.getComponentIndex(name);
+    }
+
     /**
      * ...
      *
      * @param arguments ...
      * @return ...
-     * @throws InstantiationException ...
-     * @throws IllegalAccessException ...
-     * @throws IllegalArgumentException ...
-     * @throws InvocationTargetException ...
+     * @throws IllegalArgumentException if the number of arguments is wrong
+     * @throws InvocationTargetException if the constructor throws an exception, or an argument has the wrong type
      */
-    public Object invokeConstructor(Object[] arguments) throws InstantiationException, IllegalAccessException,
-            IllegalArgumentException, InvocationTargetException {
-        return constructor.newInstance(arguments);
+    public Object invokeConstructor(Object[] arguments) throws IllegalArgumentException, InvocationTargetException {
+        Objects.requireNonNull(arguments, "arguments");
+        if (arguments.length != componentInfos.size()) {
+            throw new IllegalArgumentException("wrong number of arguments for record constructor: " + arguments.length);
+        }
+
+        try {
+            return accessor.construct(arguments);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
     }
 
     /**
@@ -92,17 +148,21 @@ public final class RecordInfo {
     public class ComponentInfo {
 
         private final RecordComponent component;
+        private final int index;
+        private final PreEncodedName preEncodedName;
 
         /**
          * ...
          *
          * @param component ...
+         * @param index the index of the component in the record
          */
-        public ComponentInfo(RecordComponent component) {
+        public ComponentInfo(RecordComponent component, int index) {
             Objects.requireNonNull(component, "component");
 
             this.component = component;
-            component.getAccessor().setAccessible(true);
+            this.index = index;
+            this.preEncodedName = PreEncodedName.of(component.getName());
         }
 
         /**
@@ -114,6 +174,15 @@ public final class RecordInfo {
             return component.getName();
         }
 
+        /**
+         * ...
+         *
+         * @return the name, pre-encoded for writing it as a JSON property name
+         */
+        public PreEncodedName getPreEncodedName() {
+            return preEncodedName;
+        }
+
         /**
          * ...
          *
@@ -141,11 +210,10 @@ public final class RecordInfo {
         public Object invokeGetter(Object container) {
             Objects.requireNonNull(container, "container");
 
-            Method getter = getGetter();
             try {
-                return getter.invoke(container);
-            } catch (Exception e) {
-                throw new JsonSerializationException("could not invoke getter " + getter + " on " + container);
+                return accessor.getComponentValue(container, index);
+            } catch (Throwable t) {
+                throw new JsonSerializationException("could not invoke getter " + getGetter() + " on " + container);
             }
         }
 
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.deserialize;
+
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
+
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * This exception type gets thrown by {@link JsonDeserializer#deserializeFrom(JsonTokenSource, Type)} for a structured
+ * type when a nested deserializer has thrown an exception other than {@link JsonDeserializationException}. The
+ * position of the token source is unspecified after that, so unlike with a {@link JsonDeserializationException}, no
+ * further values can be read to collect more errors.
+ * <p>
+ * Deserializers for structured types do not read any further when they catch this exception. They rethrow it with
+ * their own field name prepended to the field path. The engine turns it into a {@link JsonDeserializationException}
+ * with the same {@link FieldErrorNode}, without reading the rest of the input.
+ */
+public class AbortedDeserializationException extends RuntimeException {
+
+    /**
+     * needs javadoc because this class is {@link java.io.Serializable}
+     */
+    private final FieldErrorNode fieldErrorNode;
+
+    /**
+     * Constructor.
+     *
+     * @param fieldErrorNode the node that contains the error, with the field path applied
+     */
+    public AbortedDeserializationException(FieldErrorNode fieldErrorNode) {
+        super("JSON deserialization aborted");
+        this.fieldErrorNode = Objects.requireNonNull(fieldErrorNode, "fieldErrorNode");
+    }
+
+    /**
+     * Getter for the {@link FieldErrorNode} that holds the actual error
+     *
+     * @return the field error node
+     */
+    public FieldErrorNode getFieldErrorNode() {
+        return fieldErrorNode;
+    }
+
+    /**
+     * Returns an exception for the same error, nested in a field with the specified name.
+     *
+     * @param fieldName the name of the field that contains the value whose deserialization failed
+     * @return the new exception
+     */
+    public AbortedDeserializationException in(String fieldName) {
+        Objects.requireNonNull(fieldName, "fieldName");
+
+        return new AbortedDeserializationException(fieldErrorNode.in(fieldName));
+    }
+
+    @Override
+    public String getMessage() {
+        return super.getMessage() + ": " + fieldErrorNode;
+    }
+}
@@ -9,6 +9,7 @@ package io.github.grumpystuff.grumpyjson.deserialize;
 import io.github.grumpystuff.grumpyjson.ExceptionMessages;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Objects;
@@ -16,8 +17,9 @@ import java.util.Objects;
 /**
  * Defines the conversion from JSON to a Java object / value for one or more types.
  * <p>
- * The JSON side is represented by {@link JsonElement}. That is, parsing the JSON syntax is out-of-scope
- * for this interface. Only mapping the higher-level structure is done here.
+ * The JSON side is represented by {@link JsonElement}, or by a {@link JsonTokenSource} for streaming
+ * deserialization. That is, parsing the JSON syntax is out-of-scope for this interface. Only mapping the
+ * higher-level structure is done here.
  * <p>
  * Deserializing JSON is driven by the {@link Type} to deserialize. This is crucial because there is otherwise no
  * information about the Java class to generate from it. The class alone might not be enough though. This is most
@@ -71,4 +73,34 @@ public interface JsonDeserializer {
         throw new JsonDeserializationException(ExceptionMessages.MISSING_PROPERTY);
     }
 
+    /**
+     * Converts a value from JSON that is read from a {@link JsonTokenSource}. This is the streaming counterpart to
+     * {@link #deserialize(JsonElement, Type)}.
+     * <p>
+     * This method must consume exactly one JSON value from the source, including all nested values. This also holds
+     * if it throws a {@link JsonDeserializationException}, so the caller can continue with the next value, e.g. to
+     * collect errors for other fields. If it throws any other exception, the position of the source is unspecified.
+     * Deserializers for structured types therefore stop reading when a nested deserializer throws such an exception,
+     * and throw an {@link AbortedDeserializationException} instead.
+     * <p>
+     * The standard implementation reads the whole value as a {@link JsonElement}, then delegates to
+     * {@link #deserialize(JsonElement, Type)}. Deserializers override this method to build the result directly from
+     * the tokens instead.
+     * <p>
+     * This method must not be called with a type for which {@link #supportsTypeForDeserialization(Type)} returns
+     * false. Calling it with such types anyway results in undefined behavior.
+     *
+     * @param source the source to read the JSON from
+     * @param type the type to deserialize
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON does not match the expected structure
+     * @throws IOException on syntax errors and I/O errors from the source
+     */
+    default Object deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return deserialize(source.readElement(), type);
+    }
+
 }
@@ -3,6 +3,7 @@ package io.github.grumpystuff.grumpyjson.deserialize;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Objects;
 
@@ -61,6 +62,32 @@ public interface JsonDeserializerProvider {
         return deserializer.deserialize(source, type);
     }
 
+    /**
+     * Convenience method to find a deserializer for the specified {@link Type}, then use it to deserialize the next
+     * value from a {@link JsonTokenSource}. Like {@link JsonDeserializer#deserializeFrom(JsonTokenSource, Type)},
+     * this method consumes exactly one value, even if it throws a {@link JsonDeserializationException}.
+     *
+     * @param source the source to read the JSON from
+     * @param type the target type to deserialize to
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON does not match the target type, or if the target type is a
+     * type for which {@link #supportsTypeForDeserialization(Type)} returns false
+     * @throws IOException on syntax errors and I/O errors from the source
+     */
+    default Object deserializeFrom(JsonTokenSource source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        JsonDeserializer deserializer;
+        try {
+            deserializer = getDeserializer(type);
+        } catch (NotRegisteredException e) {
+            source.skipValue();
+            throw new JsonDeserializationException("no deserializer registered for type: " + type);
+        }
+        return deserializer.deserializeFrom(source, type);
+    }
+
     /**
      * Convenience method to find a deserializer for the specified {@link Type}, then use it to generate a default
      * value.
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.deserialize;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Provides JSON as a sequence of tokens. This is the streaming counterpart to a {@link JsonElement} tree: A
+ * deserializer that overrides {@link JsonDeserializer#deserializeFrom(JsonTokenSource, Type)} reads the tokens it
+ * needs from the source and builds the result while the JSON is being parsed, without building a tree first.
+ * <p>
+ * Implementations are provided by the modules that implement the JSON syntax, such as grumpyjson-gson. Syntax errors
+ * and I/O errors are reported as {@link IOException}s. These always abort deserialization as a whole.
+ * <p>
+ * Methods that expect a specific kind of value, such as {@link #beginObject()} or {@link #nextString()}, behave like
+ * the corresponding deserializerExpectsXXX methods in {@link JsonElement} if a different kind of value is found: They
+ * throw a {@link JsonDeserializationException} with the same message. In that case, they consume the unexpected value
+ * before throwing, so the caller can continue with the next value, e.g. to collect errors for other fields.
+ */
+public interface JsonTokenSource {
+
+    /**
+     * The kinds of JSON values.
+     */
+    enum ValueType {
+
+        /**
+         * JSON null
+         */
+        NULL,
+
+        /**
+         * a JSON boolean
+         */
+        BOOLEAN,
+
+        /**
+         * a JSON number
+         */
+        NUMBER,
+
+        /**
+         * a JSON string
+         */
+        STRING,
+
+        /**
+         * a JSON array
+         */
+        ARRAY,
+
+        /**
+         * a JSON object
+         */
+        OBJECT
+
+    }
+
+    /**
+     * Returns the kind of the next value without consuming it. This method must only be called when a value is
+     * expected, i.e. at the top level, after a property name, or inside an array when {@link #hasNext()} has
+     * returned true.
+     *
+     * @return the kind of the next value
+     * @throws IOException on syntax errors and I/O errors
+     */
+    ValueType peek() throws IOException;
+
+    /**
+     * Consumes the beginning of a JSON object.
+     *
+     * @throws JsonDeserializationException if the next value is not an object
+     * @throws IOException on syntax errors and I/O errors
+     */
+    void beginObject() throws JsonDeserializationException, IOException;
+
+    /**
+     * Consumes the next property name of the current JSON object. Must only be called after {@link #hasNext()}
+     * has returned true.
+     *
+     * @return the property name
+     * @throws IOException on syntax errors and I/O errors
+     */
+    String nextName() throws IOException;
+
+    /**
+     * Consumes the end of the current JSON object. Must only be called after {@link #hasNext()} has returned false.
+     *
+     * @throws IOException on syntax errors and I/O errors
+     */
+    void endObject() throws IOException;
+
+    /**
+     * Consumes the beginning of a JSON array.
+     *
+     * @throws JsonDeserializationException if the next value is not an array
+     * @throws IOException on syntax errors and I/O errors
+     */
+    void beginArray() throws JsonDeserializationException, IOException;
+
+    /**
+     * Consumes the end of the current JSON array. Must only be called after {@link #hasNext()} has returned false.
+     *
+     * @throws IOException on syntax errors and I/O errors
+     */
+    void endArray() throws IOException;
+
+    /**
+     * Checks whether the current JSON object has more properties or the current JSON array has more elements.
+     *
+     * @return true if there are more properties / elements, false if the end of the object / array follows
+     * @throws IOException on syntax errors and I/O errors
+     */
+    boolean hasNext() throws IOException;
+
+    /**
+     * Consumes a JSON null value.
+     *
+     * @throws JsonDeserializationException if the next value is not JSON null
+     * @throws IOException on syntax errors and I/O errors
+     */
+    void nextNull() throws JsonDeserializationException, IOException;
+
+    /**
+     * Consumes a JSON boolean value.
+     *
+     * @return the boolean value
+     * @throws JsonDeserializationException if the next value is not a JSON boolean
+     * @throws IOException on syntax errors and I/O errors
+     */
+    boolean nextBoolean() throws JsonDeserializationException, IOException;
+
+    /**
+     * Consumes a JSON number value.
+     *
+     * @return the numeric value
+     * @throws JsonDeserializationException if the next value is not a JSON number
+     * @throws IOException on syntax errors and I/O errors
+     */
+    Number nextNumber() throws JsonDeserializationException, IOException;
+
+    /**
+     * Consumes a JSON number value that must be integral and fit into a long. Implementations that read JSON text
+     * can override this method to convert the digits directly, without creating a {@link Number} object.
+     *
+     * @return the numeric value
+     * @throws JsonDeserializationException if the next value is not a JSON number, or not representable as a long
+     * @throws IOException on syntax errors and I/O errors
+     */
+    default long nextLong() throws JsonDeserializationException, IOException {
+        return JsonNumber.of(nextNumber()).deserializerExpectsLong();
+    }
+
+    /**
+     * Consumes a JSON number value as a double. Like for conversion of a {@link Number} to double, this may lose
+     * precision. Implementations that read JSON text can override this method to convert the text directly, without
+     * creating a {@link Number} object.
+     *
+     * @return the numeric value
+     * @throws JsonDeserializationException if the next value is not a JSON number
+     * @throws IOException on syntax errors and I/O errors
+     */
+    default double nextDouble() throws JsonDeserializationException, IOException {
+        return nextNumber().doubleValue();
+    }
+
+    /**
+     * Consumes a JSON number value as a float. Like for conversion of a {@link Number} to float, this may lose
+     * precision. The number must be rounded to float directly: Reading it as a double and then rounding that to float
+     * can give a different result. Implementations that read JSON text can override this method to convert the text
+     * directly, without creating a {@link Number} object.
+     *
+     * @return the numeric value
+     * @throws JsonDeserializationException if the next value is not a JSON number
+     * @throws IOException on syntax errors and I/O errors
+     */
+    default float nextFloat() throws JsonDeserializationException, IOException {
+        return nextNumber().floatValue();
+    }
+
+    /**
+     * Consumes a JSON string value.
+     *
+     * @return the string value
+     * @throws JsonDeserializationException if the next value is not a JSON string
+     * @throws IOException on syntax errors and I/O errors
+     */
+    String nextString() throws JsonDeserializationException, IOException;
+
+    /**
+     * Consumes the next value, including all nested values, without converting it.
+     *
+     * @throws IOException on syntax errors and I/O errors
+     */
+    void skipValue() throws IOException;
+
+    /**
+     * Consumes the next value, including all nested values, and returns it as a {@link JsonElement}. This is used
+     * for deserializers that do not support streaming.
+     *
+     * @return the JSON element
+     * @throws IOException on syntax errors and I/O errors
+     */
+    JsonElement readElement() throws IOException;
+
+}
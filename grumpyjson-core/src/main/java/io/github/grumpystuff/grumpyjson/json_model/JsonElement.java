@@ -72,6 +72,28 @@ public abstract class JsonElement {
         throw new JsonDeserializationException("expected number, found: " + this);
     }
 
+    /**
+     * If this JSON element is not a JSON number, or its value is not integral or does not fit into a long, this
+     * method throws a {@link JsonDeserializationException}, otherwise it returns the numeric value.
+     *
+     * @return the numeric value
+     * @throws JsonDeserializationException if this JSON element is not a JSON number, or not representable as a long
+     */
+    public long deserializerExpectsLong() throws JsonDeserializationException {
+        throw new JsonDeserializationException("expected number, found: " + this);
+    }
+
+    /**
+     * If this JSON element is not a JSON number, this method throws a {@link JsonDeserializationException}, otherwise
+     * it returns the numeric value as a double, which may lose precision.
+     *
+     * @return the numeric value
+     * @throws JsonDeserializationException if this JSON element is not a JSON number
+     */
+    public double deserializerExpectsDouble() throws JsonDeserializationException {
+        throw new JsonDeserializationException("expected number, found: " + this);
+    }
+
     /**
      * If this JSON element is not a JSON string, this method throws a {@link JsonDeserializationException}, otherwise
      * it returns the string value.
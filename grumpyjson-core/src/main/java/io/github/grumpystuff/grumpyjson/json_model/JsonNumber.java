@@ -1,12 +1,21 @@
 package io.github.grumpystuff.grumpyjson.json_model;
 
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.util.StringUtil;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Objects;
 
 /**
  * This class represents JSON numbers.
+ * <p>
+ * Internally, there are different representations: Numbers created from a primitive long or double store that
+ * value directly, without boxing it. Numbers created from JSON text can keep the text and only convert it when
+ * needed. {@link #deserializerExpectsLong()} can get integral values from all of them without creating a
+ * {@link Number} object. All representations of the same numeric value are equal.
  */
-public final class JsonNumber extends JsonElement {
+public abstract class JsonNumber extends JsonElement {
 
     /**
      * Creates an instance of this class for the specified plain numeric value.
@@ -18,13 +27,50 @@ public final class JsonNumber extends JsonElement {
      * @return the JSON number
      */
     public static JsonNumber of(Number value) {
-        return new JsonNumber(value);
+        Objects.requireNonNull(value, "value");
+
+        return new BoxedNumber(value);
+    }
+
+    /**
+     * Creates an instance of this class for the specified integral value.
+     *
+     * @param value the numeric value
+     * @return the JSON number
+     */
+    public static JsonNumber of(long value) {
+        return new LongNumber(value);
+    }
+
+    /**
+     * Creates an instance of this class for the specified floating-point value.
+     *
+     * @param value the numeric value
+     * @return the JSON number
+     */
+    public static JsonNumber of(double value) {
+        return new DoubleNumber(value);
     }
 
-    private final Number value;
+    /**
+     * Creates an instance of this class from the text of a JSON number. The text is only converted to a numeric
+     * value when needed.
+     *
+     * @param text the text, which must follow the JSON syntax for numbers
+     * @return the JSON number
+     * @throws IllegalArgumentException if the text is not a valid JSON number
+     */
+    public static JsonNumber ofText(String text) {
+        Objects.requireNonNull(text, "text");
+        if (!StringUtil.isValidJsonNumber(text)) {
+            throw new IllegalArgumentException("invalid JSON number: " + text);
+        }
+
+        return new TextNumber(text);
+    }
 
-    private JsonNumber(Number value) {
-        this.value = value;
+    // only allow our own subclasses
+    private JsonNumber() {
     }
 
     /**
@@ -32,21 +78,39 @@ public final class JsonNumber extends JsonElement {
      *
      * @return the value of this JSON number
      */
-    public Number getValue() {
-        return value;
+    public abstract Number getValue();
+
+    @Override
+    public final Number deserializerExpectsNumber() {
+        return getValue();
     }
 
+    /**
+     * Returns the value of this JSON number as a long, without creating a {@link Number} object if possible.
+     *
+     * @return the value
+     * @throws JsonDeserializationException if the value is not integral or does not fit into a long
+     */
+    @Override
+    public abstract long deserializerExpectsLong() throws JsonDeserializationException;
+
     @Override
-    public Number deserializerExpectsNumber() {
-        return value;
+    public final double deserializerExpectsDouble() {
+        return doubleValue();
     }
 
+    abstract double doubleValue();
+
     @Override
     public boolean equals(Object otherObject) {
         if (!(otherObject instanceof JsonNumber otherJsonNumber)) {
             return false;
         }
-        Number otherNumber = otherJsonNumber.value;
+        if (this instanceof LongNumber x && otherObject instanceof LongNumber y) {
+            return x.value == y.value;
+        }
+        Number value = getValue();
+        Number otherNumber = otherJsonNumber.getValue();
 
         // for two numbers to be equal, at least these equalities must hold
         if (value.longValue() != otherNumber.longValue() || value.doubleValue() != otherNumber.doubleValue()) {
@@ -82,12 +146,241 @@ public final class JsonNumber extends JsonElement {
     @Override
     public int hashCode() {
         // different types might produce different hash codes for the same numeric value, so make sure we use the same type
-        return Double.hashCode(value.doubleValue());
+        double value = doubleValue();
+        // -0.0 equals 0 and must hash the same; also, a lazily parsed "-0" yields -0.0 before and 0.0 after parsing
+        return Double.hashCode(value == 0.0 ? 0.0 : value);
     }
 
     @Override
     public String toString() {
-        return "JSON:" + value;
+        return "JSON:" + getValue();
+    }
+
+    private static JsonDeserializationException outOfBounds(Object value) {
+        return new JsonDeserializationException("value out of bounds or has unexpected fractional digits: " + value);
+    }
+
+    private static long doubleToLongExact(double value) throws JsonDeserializationException {
+        // Conversion of long back to double will never overflow but might lose precision. The only "really bad"
+        // scenario we have to consider is that conversion to long wraps around, producing least-significant
+        // digits, and then the conversion back loses them. In that case, the magitude will differ a lot, so
+        // converting back and comparing with the original will catch all conversion errors.
+        long converted = (long) value;
+        double convertedBack = converted;
+        if (convertedBack != value) {
+            throw outOfBounds(value);
+        }
+        return converted;
+    }
+
+    private static final class LongNumber extends JsonNumber {
+
+        private final long value;
+
+        LongNumber(long value) {
+            this.value = value;
+        }
+
+        @Override
+        public Number getValue() {
+            return value;
+        }
+
+        @Override
+        public long deserializerExpectsLong() {
+            return value;
+        }
+
+        @Override
+        double doubleValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "JSON:" + value;
+        }
+
+    }
+
+    private static final class DoubleNumber extends JsonNumber {
+
+        private final double value;
+
+        DoubleNumber(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public Number getValue() {
+            return value;
+        }
+
+        @Override
+        public long deserializerExpectsLong() throws JsonDeserializationException {
+            return doubleToLongExact(value);
+        }
+
+        @Override
+        double doubleValue() {
+            return value;
+        }
+
+    }
+
+    /**
+     * Keeps the JSON text and converts it on first use. Integers that fit into a long are converted to {@link Long},
+     * everything else to {@link BigDecimal}, so no precision gets lost.
+     */
+    private static final class TextNumber extends JsonNumber {
+
+        // enough to never overflow a long
+        private static final int MAX_SAFE_LONG_DIGITS = 18;
+
+        private final String text;
+
+        // computed on first use; racy but idempotent, like String.hashCode()
+        private Number value;
+
+        TextNumber(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public Number getValue() {
+            Number result = value;
+            if (result == null) {
+                result = parse();
+                value = result;
+            }
+            return result;
+        }
+
+        private Number parse() {
+            int p = text.charAt(0) == '-' ? 1 : 0;
+            if (text.length() - p <= MAX_SAFE_LONG_DIGITS && isDigits(p)) {
+                return Long.parseLong(text);
+            }
+            try {
+                BigDecimal decimal = new BigDecimal(text);
+                if (decimal.scale() == 0 && decimal.unscaledValue().bitLength() < 64) {
+                    // integers with 19 digits that still fit into a long
+                    return decimal.longValue();
+                }
+                return decimal;
+            } catch (NumberFormatException e) {
+                // only happens for exponents that do not fit into an int, and those are out of range for a double too
+                return Double.parseDouble(text);
+            }
+        }
+
+        private boolean isDigits(int p) {
+            for (int i = p; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public long deserializerExpectsLong() throws JsonDeserializationException {
+            Number number = value;
+            if (number == null) {
+                // parse digits directly, without creating a Number
+                boolean negative = text.charAt(0) == '-';
+                int p = negative ? 1 : 0;
+                if (text.length() - p <= MAX_SAFE_LONG_DIGITS) {
+                    long result = 0;
+                    while (p < text.length()) {
+                        char c = text.charAt(p);
+                        if (c < '0' || c > '9') {
+                            break;
+                        }
+                        result = result * 10 + (c - '0');
+                        p++;
+                    }
+                    if (p == text.length()) {
+                        return negative ? -result : result;
+                    }
+                }
+                number = getValue();
+            }
+            if (number instanceof Long l) {
+                return l;
+            } else if (number instanceof BigDecimal d) {
+                try {
+                    return d.longValueExact();
+                } catch (ArithmeticException e) {
+                    throw outOfBounds(text);
+                }
+            } else {
+                throw outOfBounds(text);
+            }
+        }
+
+        @Override
+        double doubleValue() {
+            // parse the text directly if the value is not needed otherwise, since that is faster than via BigDecimal
+            Number number = value;
+            return number == null ? Double.parseDouble(text) : number.doubleValue();
+        }
+
+    }
+
+    /**
+     * Wraps an arbitrary {@link Number}.
+     */
+    private static final class BoxedNumber extends JsonNumber {
+
+        private final Number value;
+
+        BoxedNumber(Number value) {
+            this.value = value;
+        }
+
+        @Override
+        public Number getValue() {
+            return value;
+        }
+
+        @Override
+        public long deserializerExpectsLong() throws JsonDeserializationException {
+            if (value instanceof Long l) {
+                return l;
+            } else if (value instanceof Integer i) {
+                return i;
+            } else if (value instanceof Short s) {
+                return s;
+            } else if (value instanceof Byte b) {
+                return b;
+            } else if (value instanceof Double d) {
+                return doubleToLongExact(d);
+            } else if (value instanceof Float f) {
+                return doubleToLongExact(f);
+            } else if (value instanceof BigInteger bi) {
+                try {
+                    return bi.longValueExact();
+                } catch (ArithmeticException _ignored) {
+                    throw new JsonDeserializationException("value out of bounds: " + bi);
+                }
+            } else if (value instanceof BigDecimal bd) {
+                try {
+                    return bd.longValueExact();
+                } catch (ArithmeticException _ignored) {
+                    throw outOfBounds(bd);
+                }
+            } else {
+                return value.longValue();
+            }
+        }
+
+        @Override
+        double doubleValue() {
+            return value.doubleValue();
+        }
+
     }
 
 }
@@ -1,9 +1,14 @@
 package io.github.grumpystuff.grumpyjson.json_model;
 
-import java.util.Map;
+import java.util.*;
 
 /**
  * This class represents JSON objects.
+ * <p>
+ * JSON objects keep the order of their properties: the order in which they were added to a {@link Builder}, the
+ * order of the arguments of the {@code of(...)} methods, or the iteration order of the map passed to
+ * {@link #of(Map)}. This order is used when writing JSON, so the same value is always written as the same bytes.
+ * It does not affect equality, though, which is based on {@link #getAsMap()} like for {@link Map}s.
  */
 public abstract class JsonObject extends JsonElement {
 
@@ -14,7 +19,13 @@ public abstract class JsonObject extends JsonElement {
      * @return the JSON object
      */
     public static JsonObject of(Map<String, JsonElement> properties) {
-        return new VariableSizeObject(Map.copyOf(properties));
+        Objects.requireNonNull(properties, "properties");
+
+        Builder builder = new Builder(properties.size());
+        for (Map.Entry<String, JsonElement> entry : properties.entrySet()) {
+            builder.add(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
     }
 
     /**
@@ -23,7 +34,7 @@ public abstract class JsonObject extends JsonElement {
      * @return the JSON object
      */
     public static JsonObject of() {
-        return new VariableSizeObject(Map.of());
+        return new Builder(0).build();
     }
 
     /**
@@ -34,7 +45,7 @@ public abstract class JsonObject extends JsonElement {
      * @return the JSON object
      */
     public static JsonObject of(String key1, JsonElement value1) {
-        return new VariableSizeObject(Map.of(key1, value1));
+        return new Builder(1).addUnique(key1, value1).build();
     }
 
     /**
@@ -47,7 +58,7 @@ public abstract class JsonObject extends JsonElement {
      * @return the JSON object
      */
     public static JsonObject of(String key1, JsonElement value1, String key2, JsonElement value2) {
-        return new VariableSizeObject(Map.of(key1, value1, key2, value2));
+        return new Builder(2).addUnique(key1, value1).addUnique(key2, value2).build();
     }
 
     /**
@@ -62,7 +73,7 @@ public abstract class JsonObject extends JsonElement {
      * @return the JSON object
      */
     public static JsonObject of(String key1, JsonElement value1, String key2, JsonElement value2, String key3, JsonElement value3) {
-        return new VariableSizeObject(Map.of(key1, value1, key2, value2, key3, value3));
+        return new Builder(3).addUnique(key1, value1).addUnique(key2, value2).addUnique(key3, value3).build();
     }
 
     // only allow our own subclasses
@@ -81,17 +92,205 @@ public abstract class JsonObject extends JsonElement {
         return getAsMap();
     }
 
-    private static final class VariableSizeObject extends JsonObject {
+    /**
+     * Builds a {@link JsonObject} property by property. The properties are stored in arrays which get handed over to
+     * the JSON object without copying them, so a builder can only be used to build a single JSON object.
+     */
+    public static final class Builder {
+
+        private String[] keys;
+        private JsonElement[] values;
+        private int size;
+        private Map<String, Integer> index;
+        private boolean built;
+
+        /**
+         * Creates a builder for a JSON object with the expected number of properties. The builder can handle any
+         * number of properties, but avoids growing its arrays if the expected number is correct.
+         *
+         * @param expectedSize the expected number of properties
+         */
+        public Builder(int expectedSize) {
+            if (expectedSize < 0) {
+                throw new IllegalArgumentException("expectedSize cannot be negative");
+            }
+            this.keys = new String[expectedSize];
+            this.values = new JsonElement[expectedSize];
+        }
+
+        /**
+         * Adds a property. If a property with the same key has been added already, its value gets replaced but its
+         * position stays the same, like for a {@link LinkedHashMap}.
+         *
+         * @param key the property key
+         * @param value the property value
+         * @return this
+         */
+        public Builder add(String key, JsonElement value) {
+            Objects.requireNonNull(key, "key");
+            Objects.requireNonNull(value, "value");
+
+            int existingIndex = find(key);
+            if (existingIndex >= 0) {
+                values[existingIndex] = value;
+            } else {
+                append(key, value);
+            }
+            return this;
+        }
+
+        private Builder addUnique(String key, JsonElement value) {
+            Objects.requireNonNull(key, "key");
+            Objects.requireNonNull(value, "value");
+
+            if (find(key) >= 0) {
+                throw new IllegalArgumentException("duplicate key: " + key);
+            }
+            append(key, value);
+            return this;
+        }
+
+        private int find(String key) {
+            ensureNotBuilt();
+            return ArrayObject.indexOf(keys, size, index, key);
+        }
+
+        private void append(String key, JsonElement value) {
+            if (size == keys.length) {
+                int newCapacity = Math.max(4, 2 * size);
+                keys = Arrays.copyOf(keys, newCapacity);
+                values = Arrays.copyOf(values, newCapacity);
+            }
+            keys[size] = key;
+            values[size] = value;
+            if (index != null) {
+                index.put(key, size);
+            } else if (size == ArrayObject.LINEAR_LOOKUP_LIMIT) {
+                index = new HashMap<>();
+                for (int i = 0; i <= size; i++) {
+                    index.put(keys[i], i);
+                }
+            }
+            size++;
+        }
+
+        /**
+         * Builds the JSON object. The builder cannot be used anymore afterward.
+         *
+         * @return the JSON object
+         */
+        public JsonObject build() {
+            ensureNotBuilt();
+            built = true;
+            return new ArrayObject(keys, values, size, index);
+        }
+
+        private void ensureNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("this builder has already been used to build a JSON object");
+            }
+        }
+
+    }
+
+    /**
+     * Stores the properties in parallel arrays, in the order they were added. Small objects are searched linearly,
+     * which is faster than hashing for a few keys. Larger objects additionally have a hash index.
+     */
+    private static final class ArrayObject extends JsonObject {
+
+        static final int LINEAR_LOOKUP_LIMIT = 8;
 
-        private final Map<String, JsonElement> properties;
+        private final String[] keys;
+        private final JsonElement[] values;
+        private final int size;
+        private final Map<String, Integer> index;
+        private final Map<String, JsonElement> map = new ArrayMap();
 
-        VariableSizeObject(Map<String, JsonElement> properties) {
-            this.properties = properties;
+        ArrayObject(String[] keys, JsonElement[] values, int size, Map<String, Integer> index) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+            this.index = index;
+        }
+
+        static int indexOf(String[] keys, int size, Map<String, Integer> index, Object key) {
+            if (index != null) {
+                Integer result = index.get(key);
+                return result == null ? -1 : result;
+            }
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
         }
 
         @Override
         public Map<String, JsonElement> getAsMap() {
-            return properties;
+            return map;
+        }
+
+        /**
+         * An unmodifiable, ordered view of the properties.
+         */
+        private final class ArrayMap extends AbstractMap<String, JsonElement> {
+
+            private final Set<Entry<String, JsonElement>> entrySet = new AbstractSet<>() {
+
+                @Override
+                public Iterator<Entry<String, JsonElement>> iterator() {
+                    return new Iterator<>() {
+
+                        private int position = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < size;
+                        }
+
+                        @Override
+                        public Entry<String, JsonElement> next() {
+                            if (position >= size) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, JsonElement> entry = Map.entry(keys[position], values[position]);
+                            position++;
+                            return entry;
+                        }
+
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+            };
+
+            @Override
+            public Set<Entry<String, JsonElement>> entrySet() {
+                return entrySet;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return indexOf(keys, size, index, key) >= 0;
+            }
+
+            @Override
+            public JsonElement get(Object key) {
+                int i = indexOf(keys, size, index, key);
+                return i < 0 ? null : values[i];
+            }
+
         }
 
     }
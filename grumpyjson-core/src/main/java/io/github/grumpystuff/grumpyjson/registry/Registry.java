@@ -8,6 +8,7 @@ package io.github.grumpystuff.grumpyjson.registry;
 
 import io.github.grumpystuff.grumpyjson.util.ListUtil;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,6 +16,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Base class for a registry which acts somewhat like a {@link Map}, but with the following differences:
@@ -40,6 +42,11 @@ import java.util.concurrent.ConcurrentMap;
  *     </li>
  * </ul>
  * <p>
+ * Run-time lookups are cached, so the registrables only get searched, and a registrable auto-generated, once per key. This includes
+ * keys that turn out not to be supported, so asking for them again is as fast as for supported keys. Lookups for
+ * {@link Class} keys go through a {@link ClassValue}, which is faster than a hash map lookup and does not contend
+ * between threads. Other keys, such as parameterized types, use a concurrent hash map whose reads do not lock.
+ * <p>
  * The method to determine the supported keys for a registrable is located in the registry, not in the registrable,
  * because in the case of JSON converters, the two methods to get supported keys for the serialization and
  * deserialization case would collide if they were both located in the registrable.
@@ -49,8 +56,31 @@ import java.util.concurrent.ConcurrentMap;
  */
 public abstract class Registry<K, V> extends Sealable {
 
+    // stored in the caches for keys that are not supported, so they are not searched for again
+    private static final Object NOT_SUPPORTED = new Object();
+
     private final List<V> manuallyAddedRegistrables = new ArrayList<>();
-    private final ConcurrentMap<K, V> map = new ConcurrentHashMap<>();
+
+    // values are either registrables or NOT_SUPPORTED
+    private final ConcurrentMap<K, Object> map = new ConcurrentHashMap<>();
+
+    // The ClassValue only holds a weak reference, and the map holds the strong one. Otherwise, the value stored for a
+    // class would keep this registry reachable from that class, and with it all classes the registry knows about --
+    // which would prevent unloading a web application whose classes are keys in a registry of a shared library.
+    private final ClassValue<WeakReference<Object>> classValue = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected WeakReference<Object> computeValue(Class<?> type) {
+            // only called from getOrNull() for keys of type K
+            return new WeakReference<>(lookUp((K) type));
+        }
+    };
+
+    // Hits are not counted by default, because counting them costs a shared write on every lookup. Misses are
+    // counted always, since they are rare and expensive anyway.
+    private boolean hitCountingEnabled;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
     /**
      * Constructor.
@@ -83,6 +113,17 @@ public abstract class Registry<K, V> extends Sealable {
         manuallyAddedRegistrables.add(registrable);
     }
 
+    /**
+     * Enables or disables counting of cache hits, see {@link #getHitCount()}. Counting is disabled by default, because
+     * it slows down every lookup.
+     *
+     * @param hitCountingEnabled true to count hits, false to not count them
+     */
+    public final void setHitCountingEnabled(boolean hitCountingEnabled) {
+        ensureConfigurationPhase();
+        this.hitCountingEnabled = hitCountingEnabled;
+    }
+
     @Override
     protected void onSeal() {
         ListUtil.reverseInPlace(manuallyAddedRegistrables);
@@ -104,9 +145,6 @@ public abstract class Registry<K, V> extends Sealable {
      * @return true if supported, false if not
      */
     public final boolean supports(K key) {
-        Objects.requireNonNull(key, "key");
-
-        ensureRunTimePhase();
         return getOrNull(key) != null;
     }
 
@@ -128,20 +166,78 @@ public abstract class Registry<K, V> extends Sealable {
         return result;
     }
 
+    @SuppressWarnings("unchecked")
     private V getOrNull(K key) {
         Objects.requireNonNull(key, "key");
 
+        // The phase is only checked in lookUp(), when the caches miss. Before sealing, they are always empty.
+        if (hitCountingEnabled) {
+            lookups.increment();
+        }
+        Object result;
+        if (key instanceof Class<?> type) {
+            // cannot have been cleared, since the map still refers to the value
+            result = classValue.get(type).get();
+        } else {
+            result = map.get(key);
+            if (result == null) {
+                result = lookUp(key);
+            }
+        }
+        return result == NOT_SUPPORTED ? null : (V) result;
+    }
+
+    private Object lookUp(K key) {
         ensureRunTimePhase();
         return map.computeIfAbsent(key, ignored -> {
+            misses.increment();
             for (V registrable : manuallyAddedRegistrables) {
                 if (registrableSupports(registrable, key)) {
                     return registrable;
                 }
             }
-            return generateRegistrable(key);
+            V generated = generateRegistrable(key);
+            return generated == null ? NOT_SUPPORTED : generated;
         });
     }
 
+    /**
+     * Returns the number of lookups that were answered from the cache, whether or not the key turned out to be
+     * supported. Lookups that happen at the same time as the first lookup for the same key may be counted as hits
+     * or not.
+     * <p>
+     * Hits are only counted if enabled by {@link #setHitCountingEnabled(boolean)}; otherwise, this method returns 0.
+     *
+     * @return the hit count
+     */
+    public final long getHitCount() {
+        if (!hitCountingEnabled) {
+            return 0;
+        }
+        // read misses first, so a concurrent miss cannot make the result negative
+        long missCount = misses.sum();
+        return Math.max(0, lookups.sum() - missCount);
+    }
+
+    /**
+     * Returns the number of lookups that were not answered from the cache, so the registered registrables had to be
+     * searched for the key, and a registrable possibly auto-generated. This happens once per key, including keys that
+     * turn out not to be supported.
+     *
+     * @return the miss count
+     */
+    public final long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Resets the hit and miss counts to zero. Does not remove anything from the cache.
+     */
+    public final void resetStatistics() {
+        lookups.reset();
+        misses.reset();
+    }
+
     /**
      * Checks whether the specified registrable supports the specified key.
      * <p>
@@ -174,7 +270,8 @@ public abstract class Registry<K, V> extends Sealable {
      * these registrables do not have all the required information available in the constructor, but only at run-time.
      *
      * @param key the key (never null)
-     * @return the auto-generated registrable, or null if auto-generation is not supported for that key
+     * @return the auto-generated registrable, or null if auto-generation is not supported for that key. Like a
+     * registrable, null gets cached, so this method will not be called again for the same key.
      */
     protected abstract V generateRegistrable(K key);
 
@@ -3,6 +3,7 @@ package io.github.grumpystuff.grumpyjson.serialize;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
 
+import java.io.IOException;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -51,13 +52,7 @@ public interface JsonSerializerProvider {
     default JsonElement serialize(Object value) throws JsonSerializationException {
         Objects.requireNonNull(value, "value");
 
-        Class<?> clazz = value.getClass();
-        @SuppressWarnings("rawtypes") JsonSerializer serializer;
-        try {
-            serializer = getSerializer(clazz);
-        } catch (NotRegisteredException e) {
-            throw new JsonSerializationException("no serializer for type: " + clazz);
-        }
+        @SuppressWarnings("rawtypes") JsonSerializer serializer = getSerializerForValue(value);
         //noinspection unchecked
         return serializer.serialize(value);
     }
@@ -74,15 +69,75 @@ public interface JsonSerializerProvider {
     default Optional<JsonElement> serializeOptional(Object value) throws JsonSerializationException {
         Objects.requireNonNull(value, "value");
 
+        @SuppressWarnings("rawtypes") JsonSerializer serializer = getSerializerForValue(value);
+        //noinspection unchecked
+        return serializer.serializeOptional(value);
+    }
+
+    /**
+     * Turns a value into JSON and writes it to a {@link JsonTokenSink}. If the serializer for the value implements
+     * {@link StreamingJsonSerializer}, it writes directly to the sink; otherwise its output gets built as a
+     * {@link JsonElement} first.
+     *
+     * @param value the value to convert
+     * @param sink the sink to write the JSON to
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned
+     * into JSON, or is an instance of a class for which {@link #supportsClassForSerialization(Class)} returns false,
+     * or is a value that requires the usage of {@link #serializePropertyTo(PreEncodedName, Object, JsonTokenSink)}.
+     * @throws IOException on I/O errors from the sink
+     */
+    default void serializeTo(Object value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        @SuppressWarnings("rawtypes") JsonSerializer serializer = getSerializerForValue(value);
+        if (serializer instanceof StreamingJsonSerializer streamingSerializer) {
+            //noinspection unchecked
+            streamingSerializer.serializeTo(value, sink);
+        } else {
+            //noinspection unchecked
+            sink.element(serializer.serialize(value));
+        }
+    }
+
+    /**
+     * Turns a value into JSON and writes it to a {@link JsonTokenSink} as an object property. This is the streaming
+     * counterpart to {@link #serializeOptional(Object)}: If the value vanishes, then nothing gets written, not even
+     * the property name.
+     *
+     * @param name the property name
+     * @param value the value to convert
+     * @param sink the sink to write the JSON to
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned
+     * into JSON, or is an instance of a class for which {@link #supportsClassForSerialization(Class)} returns false.
+     * @throws IOException on I/O errors from the sink
+     */
+    default void serializePropertyTo(PreEncodedName name, Object value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        @SuppressWarnings("rawtypes") JsonSerializer serializer = getSerializerForValue(value);
+        if (serializer instanceof StreamingJsonSerializer streamingSerializer) {
+            //noinspection unchecked
+            streamingSerializer.serializePropertyTo(name, value, sink);
+        } else {
+            //noinspection unchecked
+            Optional<JsonElement> optionalJson = serializer.serializeOptional(value);
+            if (optionalJson.isPresent()) {
+                sink.name(name);
+                sink.element(optionalJson.get());
+            }
+        }
+    }
+
+    private JsonSerializer<?> getSerializerForValue(Object value) throws JsonSerializationException {
         Class<?> clazz = value.getClass();
-        @SuppressWarnings("rawtypes") JsonSerializer serializer;
         try {
-            serializer = getSerializer(clazz);
+            return getSerializer(clazz);
         } catch (NotRegisteredException e) {
             throw new JsonSerializationException("no serializer for type: " + clazz);
         }
-        //noinspection unchecked
-        return serializer.serializeOptional(value);
     }
 
 }
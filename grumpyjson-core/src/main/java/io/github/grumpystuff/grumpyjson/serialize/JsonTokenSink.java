@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.serialize;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Receives JSON as a sequence of tokens. This is the streaming counterpart to building a {@link JsonElement} tree:
+ * A {@link StreamingJsonSerializer} writes its output to a sink instead of returning it, so the JSON can be written to
+ * its final destination without first materializing it in memory.
+ * <p>
+ * Implementations are provided by the modules that implement the JSON syntax, such as grumpyjson-gson. The sink is
+ * responsible for the syntax, such as separators between array elements and object properties. The caller is
+ * responsible for calling the methods in a valid order, e.g. calling {@link #name(String)} exactly once before each
+ * property value, and closing each object and array it begins.
+ */
+public interface JsonTokenSink {
+
+    /**
+     * Begins a JSON object.
+     *
+     * @throws IOException on I/O errors
+     */
+    void beginObject() throws IOException;
+
+    /**
+     * Writes the name of the next property of the current JSON object.
+     *
+     * @param name the property name
+     * @throws IOException on I/O errors
+     */
+    void name(String name) throws IOException;
+
+    /**
+     * Writes the name of the next property of the current JSON object. Sinks that write UTF-8 should override this
+     * method to copy the encoded name to their output. The standard implementation just writes the name itself.
+     *
+     * @param name the property name
+     * @throws IOException on I/O errors
+     */
+    default void name(PreEncodedName name) throws IOException {
+        Objects.requireNonNull(name, "name");
+
+        name(name.getName());
+    }
+
+    /**
+     * Ends the current JSON object.
+     *
+     * @throws IOException on I/O errors
+     */
+    void endObject() throws IOException;
+
+    /**
+     * Begins a JSON array.
+     *
+     * @throws IOException on I/O errors
+     */
+    void beginArray() throws IOException;
+
+    /**
+     * Ends the current JSON array.
+     *
+     * @throws IOException on I/O errors
+     */
+    void endArray() throws IOException;
+
+    /**
+     * Writes a JSON null value.
+     *
+     * @throws IOException on I/O errors
+     */
+    void nullValue() throws IOException;
+
+    /**
+     * Writes a JSON boolean value.
+     *
+     * @param value the value to write
+     * @throws IOException on I/O errors
+     */
+    void booleanValue(boolean value) throws IOException;
+
+    /**
+     * Writes an integral JSON number.
+     *
+     * @param value the value to write
+     * @throws IOException on I/O errors
+     */
+    void numberValue(long value) throws IOException;
+
+    /**
+     * Writes a JSON number.
+     *
+     * @param value the value to write
+     * @throws IOException on I/O errors
+     */
+    void numberValue(Number value) throws IOException;
+
+    /**
+     * Writes a floating-point JSON number. The default implementation boxes the value; sinks that write JSON text can
+     * override this to write it directly.
+     *
+     * @param value the value to write
+     * @throws IOException on I/O errors
+     */
+    default void numberValue(double value) throws IOException {
+        numberValue((Number) value);
+    }
+
+    /**
+     * Writes a JSON string value.
+     *
+     * @param value the value to write
+     * @throws IOException on I/O errors
+     */
+    void stringValue(String value) throws IOException;
+
+    /**
+     * Writes a JSON string value. Sinks that write UTF-8 should override this method to copy the encoded string to
+     * their output. The standard implementation just writes the string itself.
+     *
+     * @param value the value to write
+     * @throws IOException on I/O errors
+     */
+    default void stringValue(PreEncodedString value) throws IOException {
+        Objects.requireNonNull(value, "value");
+
+        stringValue(value.getValue());
+    }
+
+    /**
+     * Writes a JSON string value that contains the Base64 encoding of the specified bytes. The default implementation
+     * builds the encoded string first; sinks that write JSON text can override this to encode the bytes directly into
+     * their output.
+     *
+     * @param value the bytes to encode
+     * @throws IOException on I/O errors
+     */
+    default void base64Value(byte[] value) throws IOException {
+        Objects.requireNonNull(value, "value");
+
+        stringValue(Base64.getEncoder().encodeToString(value));
+    }
+
+    /**
+     * Writes a whole {@link JsonElement} as a single value. This is used for serializers that do not support streaming,
+     * so their output can be combined with that of streaming serializers.
+     *
+     * @param element the element to write
+     * @throws IOException on I/O errors
+     */
+    void element(JsonElement element) throws IOException;
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.serialize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A JSON property name together with its encoded form, so it need not be escaped and encoded again each time it gets
+ * written. The encoded form is the quoted and escaped name followed by a colon, as UTF-8 bytes, e.g. for the name
+ * {@code a"b} the bytes of {@code "a\"b":}.
+ * <p>
+ * Names that are known in advance, such as the names of record components, should be pre-encoded once and then
+ * passed to {@link JsonTokenSink#name(PreEncodedName)}. Sinks that write UTF-8 can then copy the bytes to their
+ * output as they are. Other sinks just use the name itself.
+ * <p>
+ * Escaping is the same as for {@link PreEncodedString}.
+ */
+public final class PreEncodedName {
+
+    private final String name;
+    private final byte[] encoded;
+
+    private PreEncodedName(String name, byte[] encoded) {
+        this.name = name;
+        this.encoded = encoded;
+    }
+
+    /**
+     * Pre-encodes a property name.
+     *
+     * @param name the property name
+     * @return the pre-encoded name
+     */
+    public static PreEncodedName of(String name) {
+        Objects.requireNonNull(name, "name");
+
+        StringBuilder builder = new StringBuilder(name.length() + 3);
+        PreEncodedString.appendQuoted(builder, name);
+        builder.append(':');
+
+        // all remaining surrogates are paired, so the encoder will not replace anything
+        return new PreEncodedName(name, builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Getter method for the name itself.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of bytes in the encoded form, including quotes and the colon.
+     *
+     * @return the encoded length
+     */
+    public int getEncodedLength() {
+        return encoded.length;
+    }
+
+    /**
+     * Copies the encoded form to a byte array.
+     *
+     * @param destination the array to copy to
+     * @param offset the index in the destination array to copy the first byte to
+     */
+    public void copyEncodedTo(byte[] destination, int offset) {
+        Objects.requireNonNull(destination, "destination");
+
+        System.arraycopy(encoded, 0, destination, offset, encoded.length);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PreEncodedName otherName && name.equals(otherName.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
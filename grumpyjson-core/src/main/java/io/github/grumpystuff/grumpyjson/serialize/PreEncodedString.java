@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.serialize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A JSON string value together with its encoded form, so it need not be escaped and encoded again each time it gets
+ * written. The encoded form is the quoted and escaped string as UTF-8 bytes, e.g. for the string {@code a"b} the bytes
+ * of {@code "a\"b"}.
+ * <p>
+ * Values that are known in advance, such as the names of enum constants, should be pre-encoded once and then
+ * passed to {@link JsonTokenSink#stringValue(PreEncodedString)}. Sinks that write UTF-8 can then copy the bytes to
+ * their output as they are. Other sinks just use the string itself.
+ * <p>
+ * Escaping is minimal: Quotes, backslashes and control characters are escaped, as are U+2028 and U+2029, and
+ * unpaired surrogates which cannot be represented in UTF-8. All other characters are written as they are.
+ */
+public final class PreEncodedString {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String value;
+    private final byte[] encoded;
+
+    private PreEncodedString(String value, byte[] encoded) {
+        this.value = value;
+        this.encoded = encoded;
+    }
+
+    /**
+     * Pre-encodes a string value.
+     *
+     * @param value the string value
+     * @return the pre-encoded string
+     */
+    public static PreEncodedString of(String value) {
+        Objects.requireNonNull(value, "value");
+
+        StringBuilder builder = new StringBuilder(value.length() + 2);
+        appendQuoted(builder, value);
+
+        // all remaining surrogates are paired, so the encoder will not replace anything
+        return new PreEncodedString(value, builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Appends the quoted and escaped form of a string. Unpaired surrogates get escaped, so the result can be encoded
+     * to UTF-8 without replacing any characters.
+     */
+    static void appendQuoted(StringBuilder builder, String s) {
+        builder.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\b' -> builder.append("\\b");
+                case '\f' -> builder.append("\\f");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        appendUnicodeEscape(builder, c);
+                    } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                            && Character.isLowSurrogate(s.charAt(i + 1))) {
+                        builder.append(c).append(s.charAt(i + 1));
+                        i++;
+                    } else if (Character.isSurrogate(c)) {
+                        appendUnicodeEscape(builder, c);
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+    private static void appendUnicodeEscape(StringBuilder builder, char c) {
+        builder.append("\\u");
+        builder.append(HEX_DIGITS[(c >> 12) & 15]);
+        builder.append(HEX_DIGITS[(c >> 8) & 15]);
+        builder.append(HEX_DIGITS[(c >> 4) & 15]);
+        builder.append(HEX_DIGITS[c & 15]);
+    }
+
+    /**
+     * Getter method for the string itself.
+     *
+     * @return the string
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the number of bytes in the encoded form, including quotes.
+     *
+     * @return the encoded length
+     */
+    public int getEncodedLength() {
+        return encoded.length;
+    }
+
+    /**
+     * Copies the encoded form to a byte array.
+     *
+     * @param destination the array to copy to
+     * @param offset the index in the destination array to copy the first byte to
+     */
+    public void copyEncodedTo(byte[] destination, int offset) {
+        Objects.requireNonNull(destination, "destination");
+
+        System.arraycopy(encoded, 0, destination, offset, encoded.length);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PreEncodedString otherString && value.equals(otherString.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.serialize;
+
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalField;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A {@link JsonSerializer} that can also write its output directly to a {@link JsonTokenSink}, without building a
+ * {@link JsonElement} tree first.
+ * <p>
+ * Implementing this interface is optional. Serializers that only implement {@link JsonSerializer} still work when
+ * writing to a sink: Their output is built as a {@link JsonElement} and then written to the sink as a whole.
+ * <p>
+ * The tree-building methods and the streaming methods must produce the same JSON. The only difference is error
+ * handling: Once an error occurs, the output written to the sink so far cannot be used anymore, so streaming
+ * serialization stops at the first error instead of collecting all errors. Field paths are still added to that
+ * error as usual.
+ *
+ * @param <T> the type to convert
+ */
+public interface StreamingJsonSerializer<T> extends JsonSerializer<T> {
+
+    /**
+     * Converts a value to JSON and writes it to a sink. This is the streaming counterpart to
+     * {@link #serialize(Object)} and has the same restrictions, i.e. it must fail for values that can vanish.
+     *
+     * @param value the value to convert to JSON
+     * @param sink the sink to write the JSON to
+     * @throws JsonSerializationException if the value is in an inconsistent state, or in a state that cannot be
+     * converted to JSON
+     * @throws IOException on I/O errors from the sink
+     */
+    void serializeTo(T value, JsonTokenSink sink) throws JsonSerializationException, IOException;
+
+    /**
+     * Converts a value to JSON and writes it to a sink as an object property. This is the streaming counterpart to
+     * {@link #serializeOptional(Object)}: If the value vanishes, such as an absent {@link OptionalField}, then
+     * neither the property name nor a value gets written.
+     * <p>
+     * Most types cannot vanish, so the standard implementation just writes the name, then delegates to
+     * {@link #serializeTo(Object, JsonTokenSink)}.
+     *
+     * @param name the property name
+     * @param value the value to convert to JSON
+     * @param sink the sink to write the JSON to
+     * @throws JsonSerializationException if the value is in an inconsistent state, or in a state that cannot be
+     * converted to JSON
+     * @throws IOException on I/O errors from the sink
+     */
+    default void serializePropertyTo(PreEncodedName name, T value, JsonTokenSink sink) throws JsonSerializationException, IOException {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(sink, "sink");
+
+        sink.name(name);
+        serializeTo(value, sink);
+    }
+
+}
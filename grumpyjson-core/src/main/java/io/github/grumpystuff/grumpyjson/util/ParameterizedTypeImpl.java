@@ -50,19 +50,20 @@ public record ParameterizedTypeImpl(
         return owner;
     }
 
+    // Equality and hash code follow the contract of ParameterizedType and the JDK's implementation, so instances of
+    // this class can be mixed with types obtained through reflection, e.g. as map keys.
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        ParameterizedTypeImpl that = (ParameterizedTypeImpl) o;
-        return Objects.equals(owner, that.owner) && Objects.equals(raw, that.raw) && Arrays.equals(arguments, that.arguments);
+        if (!(o instanceof ParameterizedType that)) return false;
+        return Objects.equals(owner, that.getOwnerType()) && Objects.equals(raw, that.getRawType()) &&
+                Arrays.equals(arguments, that.getActualTypeArguments());
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(owner, raw);
-        result = 31 * result + Arrays.hashCode(arguments);
-        return result;
+        return Arrays.hashCode(arguments) ^ Objects.hashCode(owner) ^ Objects.hashCode(raw);
     }
 
 }
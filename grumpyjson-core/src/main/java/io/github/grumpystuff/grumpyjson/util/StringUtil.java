@@ -41,4 +41,55 @@ public class StringUtil {
         return builder.toString();
     }
 
+    /**
+     * Checks whether a text follows the JSON syntax for numbers.
+     *
+     * @param text the text to check
+     * @return true if valid, false if not
+     */
+    public static boolean isValidJsonNumber(String text) {
+        Objects.requireNonNull(text, "text");
+
+        int length = text.length();
+        int p = 0;
+        if (p < length && text.charAt(p) == '-') {
+            p++;
+        }
+        if (p < length && text.charAt(p) == '0') {
+            p++;
+        } else {
+            int digitsStart = p;
+            p = skipDigits(text, p);
+            if (p == digitsStart) {
+                return false;
+            }
+        }
+        if (p < length && text.charAt(p) == '.') {
+            int digitsStart = ++p;
+            p = skipDigits(text, p);
+            if (p == digitsStart) {
+                return false;
+            }
+        }
+        if (p < length && (text.charAt(p) == 'e' || text.charAt(p) == 'E')) {
+            p++;
+            if (p < length && (text.charAt(p) == '+' || text.charAt(p) == '-')) {
+                p++;
+            }
+            int digitsStart = p;
+            p = skipDigits(text, p);
+            if (p == digitsStart) {
+                return false;
+            }
+        }
+        return p == length;
+    }
+
+    private static int skipDigits(String text, int p) {
+        while (p < text.length() && text.charAt(p) >= '0' && text.charAt(p) <= '9') {
+            p++;
+        }
+        return p;
+    }
+
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson;
+
+import io.github.grumpystuff.grumpyjson.json_model.*;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+
+import java.util.*;
+
+/**
+ * Builds a {@link JsonElement} from the tokens written to it, so streaming output can be compared with the output
+ * from tree-based serialization.
+ */
+public final class JsonElementBuildingSink implements JsonTokenSink {
+
+    private final Deque<Object> containers = new ArrayDeque<>();
+    private final Deque<String> pendingNames = new ArrayDeque<>();
+    private JsonElement result;
+
+    public JsonElement getResult() {
+        if (result == null || !containers.isEmpty()) {
+            throw new IllegalStateException("incomplete JSON");
+        }
+        return result;
+    }
+
+    @Override
+    public void beginObject() {
+        containers.push(new LinkedHashMap<String, JsonElement>());
+    }
+
+    @Override
+    public void name(String name) {
+        if (!(containers.peek() instanceof Map<?, ?>) || pendingNames.size() >= countObjects()) {
+            throw new IllegalStateException("unexpected property name: " + name);
+        }
+        pendingNames.push(name);
+    }
+
+    @Override
+    public void endObject() {
+        if (!(containers.peek() instanceof Map<?, ?>)) {
+            throw new IllegalStateException("not in an object");
+        }
+        //noinspection unchecked
+        Map<String, JsonElement> map = (Map<String, JsonElement>) containers.pop();
+        add(JsonObject.of(map));
+    }
+
+    @Override
+    public void beginArray() {
+        containers.push(new ArrayList<JsonElement>());
+    }
+
+    @Override
+    public void endArray() {
+        if (!(containers.peek() instanceof List<?>)) {
+            throw new IllegalStateException("not in an array");
+        }
+        //noinspection unchecked
+        List<JsonElement> list = (List<JsonElement>) containers.pop();
+        add(JsonArray.of(list));
+    }
+
+    @Override
+    public void nullValue() {
+        add(JsonNull.INSTANCE);
+    }
+
+    @Override
+    public void booleanValue(boolean value) {
+        add(JsonBoolean.of(value));
+    }
+
+    @Override
+    public void numberValue(long value) {
+        add(JsonNumber.of(value));
+    }
+
+    @Override
+    public void numberValue(Number value) {
+        add(JsonNumber.of(value));
+    }
+
+    @Override
+    public void stringValue(String value) {
+        add(JsonString.of(value));
+    }
+
+    @Override
+    public void element(JsonElement element) {
+        add(element);
+    }
+
+    private int countObjects() {
+        int count = 0;
+        for (Object container : containers) {
+            if (container instanceof Map<?, ?>) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void add(JsonElement element) {
+        Object container = containers.peek();
+        if (container == null) {
+            if (result != null) {
+                throw new IllegalStateException("multiple top-level values");
+            }
+            result = element;
+        } else if (container instanceof List<?>) {
+            //noinspection unchecked
+            ((List<JsonElement>) container).add(element);
+        } else {
+            if (pendingNames.size() != countObjects()) {
+                throw new IllegalStateException("property value without name");
+            }
+            //noinspection unchecked
+            ((Map<String, JsonElement>) container).put(pendingNames.pop(), element);
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson;
+
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.*;
+
+import java.util.*;
+
+/**
+ * Provides the tokens of a {@link JsonElement}, so streaming deserialization can be compared with tree-based
+ * deserialization. Misuse, such as reading past the end of an object, throws an {@link IllegalStateException}.
+ */
+public final class JsonElementTokenSource implements JsonTokenSource {
+
+    // contains Iterator<JsonElement> for arrays and Iterator<Map.Entry<String, JsonElement>> for objects
+    private final Deque<Iterator<?>> containers = new ArrayDeque<>();
+    private JsonElement pending;
+    private boolean pendingIsPropertyValue;
+
+    public JsonElementTokenSource(JsonElement root) {
+        this.pending = Objects.requireNonNull(root, "root");
+    }
+
+    /**
+     * @return true if the whole root element has been consumed
+     */
+    public boolean isFinished() {
+        return containers.isEmpty() && pending == null;
+    }
+
+    @Override
+    public ValueType peek() {
+        JsonElement element = preparePending();
+        if (element instanceof JsonNull) {
+            return ValueType.NULL;
+        } else if (element instanceof JsonBoolean) {
+            return ValueType.BOOLEAN;
+        } else if (element instanceof JsonNumber) {
+            return ValueType.NUMBER;
+        } else if (element instanceof JsonString) {
+            return ValueType.STRING;
+        } else if (element instanceof JsonArray) {
+            return ValueType.ARRAY;
+        } else {
+            return ValueType.OBJECT;
+        }
+    }
+
+    @Override
+    public void beginObject() throws JsonDeserializationException {
+        containers.push(take().deserializerExpectsObject().entrySet().iterator());
+    }
+
+    @Override
+    public String nextName() {
+        Iterator<?> iterator = containers.peek();
+        if (pending != null || iterator == null || !iterator.hasNext()) {
+            throw new IllegalStateException("no property name available");
+        }
+        Object next = iterator.next();
+        if (!(next instanceof Map.Entry<?, ?> entry)) {
+            throw new IllegalStateException("not in an object");
+        }
+        pending = (JsonElement) entry.getValue();
+        pendingIsPropertyValue = true;
+        return (String) entry.getKey();
+    }
+
+    @Override
+    public void endObject() {
+        endContainer();
+    }
+
+    @Override
+    public void beginArray() throws JsonDeserializationException {
+        containers.push(take().deserializerExpectsArray().iterator());
+    }
+
+    @Override
+    public void endArray() {
+        endContainer();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending != null) {
+            if (pendingIsPropertyValue) {
+                throw new IllegalStateException("property value has not been consumed");
+            }
+            return true;
+        }
+        Iterator<?> iterator = containers.peek();
+        if (iterator == null) {
+            throw new IllegalStateException("not in a container");
+        }
+        return iterator.hasNext();
+    }
+
+    @Override
+    public void nextNull() throws JsonDeserializationException {
+        take().deserializerExpectsNull();
+    }
+
+    @Override
+    public boolean nextBoolean() throws JsonDeserializationException {
+        return take().deserializerExpectsBoolean();
+    }
+
+    @Override
+    public Number nextNumber() throws JsonDeserializationException {
+        return take().deserializerExpectsNumber();
+    }
+
+    @Override
+    public String nextString() throws JsonDeserializationException {
+        return take().deserializerExpectsString();
+    }
+
+    @Override
+    public void skipValue() {
+        take();
+    }
+
+    @Override
+    public JsonElement readElement() {
+        return take();
+    }
+
+    private JsonElement preparePending() {
+        if (pending == null) {
+            Iterator<?> iterator = containers.peek();
+            if (iterator == null || !iterator.hasNext()) {
+                throw new IllegalStateException("no value available");
+            }
+            Object next = iterator.next();
+            if (next instanceof Map.Entry<?, ?>) {
+                throw new IllegalStateException("expected property name");
+            }
+            pending = (JsonElement) next;
+            pendingIsPropertyValue = false;
+        }
+        return pending;
+    }
+
+    private JsonElement take() {
+        JsonElement element = preparePending();
+        pending = null;
+        return element;
+    }
+
+    private void endContainer() {
+        if (pending != null || containers.isEmpty() || containers.peek().hasNext()) {
+            throw new IllegalStateException("container has not been fully consumed");
+        }
+        containers.pop();
+    }
+
+}
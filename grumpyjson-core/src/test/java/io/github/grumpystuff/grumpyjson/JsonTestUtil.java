@@ -162,7 +162,17 @@ public class JsonTestUtil {
 
     @CanIgnoreReturnValue
     public static JsonDeserializationException assertFailsDeserialization(JsonDeserializer deserializer, JsonElement json, Type type) {
-        return Assertions.assertThrows(JsonDeserializationException.class, () -> deserializer.deserialize(json, type));
+        JsonDeserializationException exception =
+                Assertions.assertThrows(JsonDeserializationException.class, () -> deserializer.deserialize(json, type));
+
+        // streaming deserialization must report the same errors and still consume the whole value
+        JsonElementTokenSource source = new JsonElementTokenSource(json);
+        JsonDeserializationException streamingException =
+                Assertions.assertThrows(JsonDeserializationException.class, () -> deserializer.deserializeFrom(source, type));
+        assertFieldErrors(streamingException, exception.getFieldErrorNode().flatten().toArray(new FieldErrorNode.FlattenedError[0]));
+        Assertions.assertTrue(source.isFinished());
+
+        return exception;
     }
 
     @CanIgnoreReturnValue
@@ -16,6 +16,9 @@ import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static io.github.grumpystuff.grumpyjson.JsonTestUtil.assertFailsDeserialization;
 
 public class ShallowRecordConverterTest {
@@ -42,6 +45,12 @@ public class ShallowRecordConverterTest {
         Assertions.assertEquals(json, serializer.serialize(record));
     }
 
+    @Test
+    public void testSerializationOrder() throws Exception {
+        JsonObject json = (JsonObject) serializer.serialize(new Record(123, "foo"));
+        Assertions.assertEquals(List.of("myInt", "myString"), new ArrayList<>(json.getAsMap().keySet()));
+    }
+
     @Test
     public void testDeserializationWrongType() throws Exception {
         JsonTestUtil.forNull(json -> assertFailsDeserialization(deserializer, json, Record.class));
@@ -93,6 +102,52 @@ public class ShallowRecordConverterTest {
         );
     }
 
+    @Test
+    public void testConstructorException() throws Exception {
+        record ValidatedRecord(int myInt, String myString) {
+            ValidatedRecord {
+                if (myInt < 0) {
+                    throw new IllegalArgumentException("myInt must not be negative");
+                }
+            }
+        }
+        JsonRegistries registries = JsonTestUtil.createRegistries(new IntegerConverter(), new StringConverter());
+        registries.seal();
+        JsonDeserializer validatedDeserializer = registries.getDeserializer(ValidatedRecord.class);
+
+        JsonObject json = JsonObject.of("myInt", JsonNumber.of(-1), "myString", JsonString.of("foo"));
+        JsonTestUtil.assertFieldErrors(
+                assertFailsDeserialization(validatedDeserializer, json, ValidatedRecord.class),
+                new FieldErrorNode.FlattenedError("myInt must not be negative")
+        );
+    }
+
+    @Test
+    public void testRepeatedDeserialization() throws Exception {
+        // the second call uses the cached deserialization plan
+        for (int i = 0; i < 2; i++) {
+            JsonObject json = JsonObject.of("myInt", JsonNumber.of(i), "myString", JsonString.of("foo"));
+            Assertions.assertEquals(new Record(i, "foo"), deserializer.deserialize(json, Record.class));
+        }
+    }
+
+    @Test
+    public void testComponentWithoutDeserializer() throws Exception {
+        record RecordWithUnknownType(int myInt, Thread myThread) {}
+        JsonRegistries registries = JsonTestUtil.createRegistries(new IntegerConverter(), new StringConverter());
+        registries.seal();
+        JsonDeserializer unknownTypeDeserializer = registries.getDeserializer(RecordWithUnknownType.class);
+
+        // the error must be reported each time, not only when building the deserialization plan
+        for (int i = 0; i < 2; i++) {
+            JsonObject json = JsonObject.of("myInt", JsonNumber.of(123), "myThread", JsonString.of("foo"));
+            JsonTestUtil.assertFieldErrors(
+                    assertFailsDeserialization(unknownTypeDeserializer, json, RecordWithUnknownType.class),
+                    new FieldErrorNode.FlattenedError(ExceptionMessages.INTERNAL_ERROR, "myThread")
+            );
+        }
+    }
+
     @Test
     public void testSerializationWithNull() {
         JsonTestUtil.assertFailsSerializationWithNpe(serializer, null);
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson;
+
+import io.github.grumpystuff.grumpyjson.builtin.LocalDateConverter;
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.*;
+import io.github.grumpystuff.grumpyjson.deserialize.AbortedDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.CustomJsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.*;
+import io.github.grumpystuff.grumpyjson.serialize.CustomJsonSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.grumpystuff.grumpyjson.ExceptionMessages.MISSING_PROPERTY;
+import static io.github.grumpystuff.grumpyjson.ExceptionMessages.UNEXPECTED_PROPERTY;
+
+/**
+ * Checks that streaming deserialization produces the same results as deserializing from a tree.
+ */
+public class StreamingDeserializationTest {
+
+    private enum Color {
+        RED, GREEN
+    }
+
+    private record Custom(String text) {}
+
+    private record Broken() {}
+
+    // fails in the middle of the value, leaving the source at an unspecified position
+    private static final class BrokenDeserializer implements JsonDeserializer {
+
+        @Override
+        public boolean supportsTypeForDeserialization(Type type) {
+            return type.equals(Broken.class);
+        }
+
+        @Override
+        public Object deserialize(JsonElement json, Type type) {
+            throw new IllegalStateException("broken");
+        }
+
+        @Override
+        public Object deserializeFrom(JsonTokenSource source, Type type)
+                throws JsonDeserializationException, IOException {
+            source.beginArray();
+            throw new IllegalStateException("broken");
+        }
+
+    }
+
+    private record Inner(int number, Color color, List<String> strings) {}
+
+    private record Outer(
+            Inner inner,
+            Map<String, Long> map,
+            OptionalField<String> optional,
+            NullableField<Boolean> nullable,
+            IgnoredField ignored,
+            FieldMustBeNull alwaysNull,
+            Custom custom,
+            LocalDate date,
+            JsonElement raw
+    ) {}
+
+    private final StructuralJsonEngine engine = new StructuralJsonEngine();
+
+    public StreamingDeserializationTest() {
+        engine.registerDualConverter(new IgnoredFieldConverter());
+        engine.registerDualConverter(new LocalDateConverter());
+        engine.registerSerializer(CustomJsonSerializer.from(Custom.class, value -> JsonString.of("custom:" + value.text())));
+        engine.registerDeserializer(CustomJsonDeserializer.from(Custom.class,
+                json -> new Custom(json.deserializerExpectsString().substring("custom:".length()))));
+        engine.registerDeserializer(new BrokenDeserializer());
+        engine.seal();
+    }
+
+    @Test
+    public void testContainerMismatchIsReportedByConverter() {
+        // a source that does not report a mismatch itself, so the converters must check the kind of value first
+        for (JsonElement json : List.of(JsonString.of("x"), JsonNumber.of(1), JsonObject.of())) {
+            StrictContainerTokenSource source = new StrictContainerTokenSource(new JsonElementTokenSource(json));
+            JsonDeserializationException exception = Assertions.assertThrows(JsonDeserializationException.class,
+                    () -> engine.deserializeFrom(source, new TypeToken<List<Integer>>() {}.getType()));
+            JsonTestUtil.assertFieldErrors(exception,
+                    new FieldErrorNode.FlattenedError("expected array, found: " + json));
+        }
+        for (JsonElement json : List.of(JsonString.of("x"), JsonArray.of())) {
+            StrictContainerTokenSource source = new StrictContainerTokenSource(new JsonElementTokenSource(json));
+            JsonDeserializationException exception = Assertions.assertThrows(JsonDeserializationException.class,
+                    () -> engine.deserializeFrom(source, new TypeToken<Map<String, Integer>>() {}.getType()));
+            JsonTestUtil.assertFieldErrors(exception,
+                    new FieldErrorNode.FlattenedError("expected object, found: " + json));
+        }
+    }
+
+    private Object stream(JsonElement json, Type type) throws Exception {
+        JsonElementTokenSource source = new JsonElementTokenSource(json);
+        Object result = engine.deserializeFrom(source, type);
+        Assertions.assertTrue(source.isFinished());
+        return result;
+    }
+
+    private void assertRoundTrip(Object value, Type type) throws Exception {
+        JsonElement json = engine.toJsonElement(value);
+        Assertions.assertEquals(value, stream(json, type));
+        Assertions.assertEquals(engine.deserialize(json, type), stream(json, type));
+    }
+
+    private JsonDeserializationException assertStreamingFails(JsonElement json, Type type) {
+        JsonElementTokenSource source = new JsonElementTokenSource(json);
+        JsonDeserializationException exception = Assertions.assertThrows(JsonDeserializationException.class,
+                () -> engine.deserializeFrom(source, type));
+        Assertions.assertTrue(source.isFinished());
+        return exception;
+    }
+
+    private Outer buildOuter(OptionalField<String> optional, NullableField<Boolean> nullable) {
+        return new Outer(
+                new Inner(5, Color.RED, List.of("x", "y")),
+                Map.of("a", 1L, "b", 2L),
+                optional,
+                nullable,
+                IgnoredField.INSTANCE,
+                FieldMustBeNull.INSTANCE,
+                new Custom("foo"),
+                LocalDate.of(2023, 5, 17),
+                JsonString.of("raw")
+        );
+    }
+
+    @Test
+    public void testPrimitives() throws Exception {
+        assertRoundTrip(true, Boolean.class);
+        assertRoundTrip(42, Integer.class);
+        assertRoundTrip(Long.MAX_VALUE, Long.class);
+        assertRoundTrip("foo", String.class);
+        assertRoundTrip(Color.GREEN, Color.class);
+    }
+
+    @Test
+    public void testStructuredValues() throws Exception {
+        assertRoundTrip(buildOuter(OptionalField.ofValue("present"), NullableField.ofValue(true)), Outer.class);
+        assertRoundTrip(buildOuter(OptionalField.ofNothing(), NullableField.ofNull()), Outer.class);
+        assertRoundTrip(List.of(new Inner(1, Color.GREEN, List.of())), new TypeToken<List<Inner>>() {}.getType());
+        assertRoundTrip(Map.of("x", List.of(1, 2, 3)), new TypeToken<Map<String, List<Integer>>>() {}.getType());
+    }
+
+    @Test
+    public void testIgnoredFieldSkipsStructuredValue() throws Exception {
+        record Holder(IgnoredField ignored, int number) {}
+        JsonElement json = JsonObject.of(
+                "ignored", JsonArray.of(JsonObject.of("a", JsonNumber.of(1)), JsonNull.INSTANCE),
+                "number", JsonNumber.of(3)
+        );
+        Assertions.assertEquals(new Holder(IgnoredField.INSTANCE, 3), stream(json, Holder.class));
+    }
+
+    @Test
+    public void testErrorsAreAggregated() {
+        JsonElement json = JsonObject.of(Map.of(
+                "number", JsonString.of("five"),
+                "color", JsonString.of("BLUE"),
+                "strings", JsonArray.of(JsonString.of("ok"), JsonNumber.of(1), JsonBoolean.of(true)),
+                "extra", JsonObject.of("nested", JsonArray.of())
+        ));
+        JsonDeserializationException exception = assertStreamingFails(json, Inner.class);
+        JsonTestUtil.assertFieldErrors(exception,
+                new FieldErrorNode.FlattenedError("expected number, found: JSON:\"five\"", "number"),
+                new FieldErrorNode.FlattenedError("unknown value", "color"),
+                new FieldErrorNode.FlattenedError("expected string, found: JSON:1", "strings", "1"),
+                new FieldErrorNode.FlattenedError("expected string, found: JSON:true", "strings", "2"),
+                new FieldErrorNode.FlattenedError(UNEXPECTED_PROPERTY, "extra")
+        );
+    }
+
+    @Test
+    public void testMissingProperty() {
+        JsonElement json = JsonObject.of("number", JsonNumber.of(1), "color", JsonString.of("RED"));
+        JsonDeserializationException exception = assertStreamingFails(json, Inner.class);
+        JsonTestUtil.assertFieldErrors(exception, new FieldErrorNode.FlattenedError(MISSING_PROPERTY, "strings"));
+    }
+
+    @Test
+    public void testWrongContainerTypeIsConsumed() {
+        JsonElement json = JsonArray.of(JsonObject.of("a", JsonArray.of(JsonNumber.of(1))));
+        JsonDeserializationException exception = assertStreamingFails(json, new TypeToken<List<Inner>>() {}.getType());
+        JsonTestUtil.assertFieldErrors(exception,
+                new FieldErrorNode.FlattenedError(UNEXPECTED_PROPERTY, "0", "a"),
+                new FieldErrorNode.FlattenedError(MISSING_PROPERTY, "0", "number"),
+                new FieldErrorNode.FlattenedError(MISSING_PROPERTY, "0", "color"),
+                new FieldErrorNode.FlattenedError(MISSING_PROPERTY, "0", "strings")
+        );
+    }
+
+    @Test
+    public void testUnknownTypeIsConsumed() {
+        record Unknown(Thread thread) {}
+        JsonElement json = JsonObject.of("thread", JsonObject.of("name", JsonString.of("main")));
+        assertStreamingFails(json, Unknown.class);
+    }
+
+    @Test
+    public void testStopsReadingAfterOtherExceptions() {
+        record Holder(String before, Map<String, List<OptionalField<Broken>>> broken, int after) {}
+        JsonElement json = JsonObject.of(
+                "before", JsonNumber.of(1),
+                "broken", JsonObject.of("x", JsonArray.of(JsonArray.of(JsonNumber.of(2)))),
+                "after", JsonString.of("y")
+        );
+
+        // the errors for "before" and "after" are lost, since the source cannot be read any further
+        AbortedDeserializationException exception = Assertions.assertThrows(AbortedDeserializationException.class,
+                () -> engine.deserializeFrom(new JsonElementTokenSource(json), Holder.class));
+        JsonTestUtil.assertFieldErrors(exception.getFieldErrorNode(),
+                new FieldErrorNode.FlattenedError(ExceptionMessages.INTERNAL_ERROR, "broken", "value[x]", "0"));
+        FieldErrorNode node = exception.getFieldErrorNode();
+        while (node instanceof FieldErrorNode.Field field) {
+            node = field.getNode();
+        }
+        Assertions.assertEquals("broken",
+                ((FieldErrorNode.InternalException) node).getException().getMessage());
+
+        // the tree-based path reports the same error for the broken value, together with the other errors
+        JsonDeserializationException treeException = Assertions.assertThrows(JsonDeserializationException.class,
+                () -> engine.deserialize(json, Holder.class));
+        Assertions.assertEquals(3, treeException.getFieldErrorNode().flatten().size());
+    }
+
+    private record StrictContainerTokenSource(JsonElementTokenSource delegate) implements JsonTokenSource {
+
+        @Override
+        public ValueType peek() {
+            return delegate.peek();
+        }
+
+        @Override
+        public void beginObject() throws JsonDeserializationException {
+            if (delegate.peek() != ValueType.OBJECT) {
+                throw new IllegalStateException("not an object");
+            }
+            delegate.beginObject();
+        }
+
+        @Override
+        public String nextName() {
+            return delegate.nextName();
+        }
+
+        @Override
+        public void endObject() {
+            delegate.endObject();
+        }
+
+        @Override
+        public void beginArray() throws JsonDeserializationException {
+            if (delegate.peek() != ValueType.ARRAY) {
+                throw new IllegalStateException("not an array");
+            }
+            delegate.beginArray();
+        }
+
+        @Override
+        public void endArray() {
+            delegate.endArray();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public void nextNull() throws JsonDeserializationException {
+            delegate.nextNull();
+        }
+
+        @Override
+        public boolean nextBoolean() throws JsonDeserializationException {
+            return delegate.nextBoolean();
+        }
+
+        @Override
+        public Number nextNumber() throws JsonDeserializationException {
+            return delegate.nextNumber();
+        }
+
+        @Override
+        public String nextString() throws JsonDeserializationException {
+            return delegate.nextString();
+        }
+
+        @Override
+        public void skipValue() {
+            delegate.skipValue();
+        }
+
+        @Override
+        public JsonElement readElement() {
+            return delegate.readElement();
+        }
+
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson;
+
+import io.github.grumpystuff.grumpyjson.builtin.LocalDateConverter;
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.*;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import io.github.grumpystuff.grumpyjson.serialize.CustomJsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Checks that streaming serialization produces the same JSON as building a tree.
+ */
+public class StreamingSerializationTest {
+
+    private enum Color {
+        RED, GREEN
+    }
+
+    private record Custom(String text) {}
+
+    private record Inner(int number, Color color, List<String> strings) {}
+
+    private record Outer(
+            Inner inner,
+            Map<String, Long> map,
+            OptionalField<String> optional,
+            NullableField<Boolean> nullable,
+            IgnoredField ignored,
+            FieldMustBeNull alwaysNull,
+            Custom custom,
+            LocalDate date,
+            JsonElement raw
+    ) {}
+
+    private final StructuralJsonEngine engine = new StructuralJsonEngine();
+
+    public StreamingSerializationTest() {
+        engine.registerDualConverter(new IgnoredFieldConverter());
+        engine.registerDualConverter(new LocalDateConverter());
+        engine.registerSerializer(CustomJsonSerializer.from(Custom.class, value -> JsonString.of("custom:" + value.text())));
+        engine.seal();
+    }
+
+    private JsonElement stream(Object value) throws Exception {
+        JsonElementBuildingSink sink = new JsonElementBuildingSink();
+        engine.serializeTo(value, sink);
+        return sink.getResult();
+    }
+
+    private void assertSameAsTree(Object value) throws Exception {
+        Assertions.assertEquals(engine.toJsonElement(value), stream(value));
+    }
+
+    private Outer buildOuter(OptionalField<String> optional, NullableField<Boolean> nullable, Inner inner) {
+        return new Outer(
+                inner,
+                Map.of("a", 1L, "b", 2L),
+                optional,
+                nullable,
+                IgnoredField.INSTANCE,
+                FieldMustBeNull.INSTANCE,
+                new Custom("foo"),
+                LocalDate.of(2023, 5, 17),
+                JsonString.of("raw")
+        );
+    }
+
+    @Test
+    public void testPrimitives() throws Exception {
+        assertSameAsTree(true);
+        assertSameAsTree(42);
+        assertSameAsTree(Long.MAX_VALUE);
+        assertSameAsTree("foo");
+        assertSameAsTree(Color.GREEN);
+    }
+
+    @Test
+    public void testStructuredValues() throws Exception {
+        Inner inner = new Inner(5, Color.RED, List.of("x", "y"));
+        assertSameAsTree(buildOuter(OptionalField.ofValue("present"), NullableField.ofValue(true), inner));
+        assertSameAsTree(buildOuter(OptionalField.ofNothing(), NullableField.ofNull(), inner));
+        assertSameAsTree(List.of(inner, inner));
+        assertSameAsTree(Map.of("x", List.of(1, 2, 3)));
+    }
+
+    @Test
+    public void testFallbackForNonStreamingSerializer() throws Exception {
+        Assertions.assertEquals(JsonString.of("custom:bar"), stream(new Custom("bar")));
+    }
+
+    @Test
+    public void testFallbackForVanishingNonStreamingSerializer() throws Exception {
+        record Holder(Custom custom) {}
+        StructuralJsonEngine engine = new StructuralJsonEngine();
+        engine.registerSerializer(new JsonSerializer<Custom>() {
+
+            @Override
+            public boolean supportsClassForSerialization(Class<?> clazz) {
+                return clazz.equals(Custom.class);
+            }
+
+            @Override
+            public JsonElement serialize(Custom value) throws JsonSerializationException {
+                throw new JsonSerializationException("cannot vanish here");
+            }
+
+            @Override
+            public Optional<JsonElement> serializeOptional(Custom value) throws JsonSerializationException {
+                return value.text().isEmpty() ? Optional.empty() : Optional.of(JsonString.of(value.text()));
+            }
+
+        });
+        engine.seal();
+
+        JsonElementBuildingSink sink = new JsonElementBuildingSink();
+        engine.serializeTo(new Holder(new Custom("")), sink);
+        Assertions.assertEquals(engine.toJsonElement(new Holder(new Custom(""))), sink.getResult());
+
+        sink = new JsonElementBuildingSink();
+        engine.serializeTo(new Holder(new Custom("x")), sink);
+        Assertions.assertEquals(engine.toJsonElement(new Holder(new Custom("x"))), sink.getResult());
+    }
+
+    @Test
+    public void testErrorHasFieldPath() {
+        Outer outer = buildOuter(OptionalField.ofNothing(), NullableField.ofNull(), new Inner(1, Color.RED, null));
+        JsonSerializationException exception = Assertions.assertThrows(JsonSerializationException.class,
+                () -> stream(outer));
+        JsonTestUtil.assertFieldErrors(exception, new FieldErrorNode.FlattenedError("field is null", "inner", "strings"));
+    }
+
+    @Test
+    public void testVanishableValueInNonVanishableContext() {
+        JsonSerializationException exception = Assertions.assertThrows(JsonSerializationException.class,
+                () -> stream(List.of(OptionalField.ofValue(1))));
+        JsonTestUtil.assertFieldErrors(exception,
+                new FieldErrorNode.FlattenedError("found OptionalField in a non-vanishable context", "0"));
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson;
+
+import io.github.grumpystuff.grumpyjson.builtin.IntegerConverter;
+import io.github.grumpystuff.grumpyjson.builtin.ListConverter;
+import io.github.grumpystuff.grumpyjson.builtin.StringConverter;
+import io.github.grumpystuff.grumpyjson.deserialize.CustomJsonDeserializer;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
+import io.github.grumpystuff.grumpyjson.serialize.CustomJsonSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.createRegistries;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TypeGraphPreparerTest {
+
+    private record Inner(int number, String text) {}
+    private record Outer(String name, List<Inner> inners) {}
+    private record Page<T>(List<T> items, int total) {}
+    private record Broken(LocalDate date, Inner inner) {}
+    private record WithOpenType(Runnable runnable) {}
+    private record CustomConverted(LocalDate date) {}
+
+    private JsonRegistries createSealedRegistries() {
+        JsonRegistries registries = createRegistries(new IntegerConverter(), new StringConverter());
+        registries.registerDualConverter(new ListConverter(registries));
+        registries.seal();
+        return registries;
+    }
+
+    @Test
+    public void testPrepareDeserializers() throws Exception {
+        JsonRegistries registries = createSealedRegistries();
+        registries.prepareDeserializers(List.of(Outer.class, new TypeToken<Page<Inner>>() {}.getType()));
+        long missCount = registries.deserializerRegistry().getMissCount();
+        assertTrue(missCount > 0);
+
+        // everything reachable has been prepared already
+        registries.getDeserializer(Outer.class);
+        registries.getDeserializer(Inner.class);
+        registries.getDeserializer(new TypeToken<List<Inner>>() {}.getType());
+        assertEquals(missCount, registries.deserializerRegistry().getMissCount());
+    }
+
+    @Test
+    public void testPrepareSerializers() throws Exception {
+        JsonRegistries registries = createSealedRegistries();
+        registries.prepareSerializers(List.of(Outer.class, WithOpenType.class));
+        long missCount = registries.serializerRegistry().getMissCount();
+
+        registries.getSerializer(Inner.class);
+        assertEquals(missCount, registries.serializerRegistry().getMissCount());
+    }
+
+    @Test
+    public void testMissingConverters() {
+        JsonRegistries registries = createSealedRegistries();
+        NotRegisteredException e = assertThrows(NotRegisteredException.class,
+                () -> registries.prepareDeserializers(List.of(Broken.class, WithOpenType.class)));
+        assertTrue(e.getMessage().contains(LocalDate.class.getName()), e.getMessage());
+        assertTrue(e.getMessage().contains(Runnable.class.getName()), e.getMessage());
+        assertThrows(NotRegisteredException.class, () -> registries.prepareSerializers(List.of(Broken.class)));
+    }
+
+    @Test
+    public void testCustomConvertersAreLeaves() throws Exception {
+        JsonRegistries registries = createRegistries(new IntegerConverter(), new StringConverter());
+        registries.registerDualConverter(new ListConverter(registries));
+        registries.registerSerializer(CustomJsonSerializer.from(CustomConverted.class,
+                value -> JsonString.of(value.date().toString())));
+        registries.registerDeserializer(CustomJsonDeserializer.from(CustomConverted.class,
+                json -> new CustomConverted(LocalDate.parse(json.deserializerExpectsString()))));
+        registries.seal();
+
+        // there is no converter for LocalDate, but the custom converter does not need one
+        List<Type> types = List.of(CustomConverted.class, new TypeToken<List<CustomConverted>>() {}.getType());
+        registries.prepareDeserializers(types);
+        registries.prepareSerializers(types);
+    }
+
+    @Test
+    public void testRequiresRunTimePhase() {
+        JsonRegistries registries = createRegistries(new IntegerConverter());
+        assertThrows(IllegalStateException.class, () -> registries.prepareDeserializers(List.of(Integer.class)));
+    }
+
+}
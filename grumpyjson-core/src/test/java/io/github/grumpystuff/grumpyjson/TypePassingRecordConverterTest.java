@@ -63,4 +63,15 @@ public class TypePassingRecordConverterTest {
         Assertions.assertEquals(outerJson, serializer.serialize(outerRecord));
     }
 
+    @Test
+    public void testRepeatedDeserialization() throws Exception {
+        // the inner record type is built from type variables each time, so the cached plan must be found by equality
+        for (int i = 0; i < 3; i++) {
+            JsonObject innerJson = JsonObject.of("best", JsonString.of("foo" + i), "others", buildStringArray("bar"));
+            JsonObject outerJson = JsonObject.of("middle", JsonObject.of("inner", innerJson));
+            Outer outerRecord = new Outer(new Middle<>(new Inner<>("foo" + i, List.of("bar"))));
+            Assertions.assertEquals(outerRecord, deserializer.deserialize(outerJson, Outer.class));
+        }
+    }
+
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+
+public class BigDecimalConverterTest {
+
+    private final BigDecimalConverter converter = new BigDecimalConverter();
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        Assertions.assertEquals(new BigDecimal("12"), converter.deserialize(JsonNumber.of(12), BigDecimal.class));
+        Assertions.assertEquals(new BigDecimal("0.1"), converter.deserialize(JsonNumber.of(0.1), BigDecimal.class));
+        Assertions.assertEquals(new BigDecimal("19.90"), converter.deserialize(JsonNumber.ofText("19.90"), BigDecimal.class));
+        Assertions.assertEquals(new BigDecimal("123456789012345678901234567890.123"),
+                converter.deserialize(JsonNumber.ofText("123456789012345678901234567890.123"), BigDecimal.class));
+        Assertions.assertEquals(new BigDecimal(BigInteger.TEN.pow(30)),
+                converter.deserialize(JsonNumber.of(BigInteger.TEN.pow(30)), BigDecimal.class));
+    }
+
+    @Test
+    public void testDeserializationWrongType() throws Exception {
+        forNonPrimitive(json -> assertFailsDeserialization(converter, json, BigDecimal.class));
+        forNull(json -> assertFailsDeserialization(converter, json, BigDecimal.class));
+        forBooleans(json -> assertFailsDeserialization(converter, json, BigDecimal.class));
+        forStrings(json -> assertFailsDeserialization(converter, json, BigDecimal.class));
+    }
+
+    @Test
+    public void testSerializationHappyCase() {
+        Assertions.assertEquals("JSON:19.90", converter.serialize(new BigDecimal("19.90")).toString());
+    }
+
+    @Test
+    public void testSerializationWithNull() {
+        assertFailsSerializationWithNpe(converter, null);
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+
+public class BigIntegerConverterTest {
+
+    private final BigIntegerConverter converter = new BigIntegerConverter();
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        Assertions.assertEquals(BigInteger.valueOf(-12), converter.deserialize(JsonNumber.of(-12), BigInteger.class));
+        Assertions.assertEquals(new BigInteger("123456789012345678901234567890"),
+                converter.deserialize(JsonNumber.ofText("123456789012345678901234567890"), BigInteger.class));
+        Assertions.assertEquals(BigInteger.valueOf(1000), converter.deserialize(JsonNumber.ofText("1e3"), BigInteger.class));
+        Assertions.assertEquals(BigInteger.ONE, converter.deserialize(JsonNumber.ofText("1.000"), BigInteger.class));
+        Assertions.assertEquals(BigInteger.ZERO, converter.deserialize(JsonNumber.ofText("0.0"), BigInteger.class));
+    }
+
+    @Test
+    public void testDeserializationWrongType() throws Exception {
+        forNonPrimitive(json -> assertFailsDeserialization(converter, json, BigInteger.class));
+        forStrings(json -> assertFailsDeserialization(converter, json, BigInteger.class));
+    }
+
+    @Test
+    public void testDeserializationFractional() {
+        assertFailsDeserialization(converter, JsonNumber.ofText("1.5"), BigInteger.class);
+        assertFailsDeserialization(converter, JsonNumber.of(0.5), BigInteger.class);
+        assertFailsDeserialization(converter, JsonNumber.ofText("1e-999999999"), BigInteger.class);
+    }
+
+    @Test
+    public void testDeserializationTooLarge() {
+        assertFailsDeserialization(converter, JsonNumber.ofText("1e999999999"), BigInteger.class);
+    }
+
+    @Test
+    public void testSerializationHappyCase() {
+        Assertions.assertEquals(JsonNumber.of(123), converter.serialize(BigInteger.valueOf(123)));
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.JsonElementTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
+import io.github.grumpystuff.grumpyjson.json_model.JsonBoolean;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNull;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+
+public class BooleanArrayConverterTest {
+
+    private static final JsonArray BOOLEAN_ARRAY = JsonArray.of(JsonBoolean.of(true), JsonBoolean.of(false),
+            JsonBoolean.of(true));
+
+    private final BooleanArrayConverter converter = new BooleanArrayConverter();
+
+    @Test
+    public void testSupportedTypes() {
+        Assertions.assertTrue(converter.supportsTypeForDeserialization(boolean[].class));
+        Assertions.assertFalse(converter.supportsTypeForDeserialization(Boolean[].class));
+        Assertions.assertFalse(converter.supportsTypeForDeserialization(int[].class));
+        Assertions.assertTrue(converter.supportsClassForSerialization(boolean[].class));
+        Assertions.assertFalse(converter.supportsClassForSerialization(Boolean[].class));
+    }
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        boolean[] expected = {true, false, true};
+        Assertions.assertArrayEquals(new boolean[0], converter.deserialize(EMPTY_ARRAY, boolean[].class));
+        Assertions.assertArrayEquals(expected, converter.deserialize(BOOLEAN_ARRAY, boolean[].class));
+        Assertions.assertArrayEquals(expected,
+                converter.deserializeFrom(new JsonElementTokenSource(BOOLEAN_ARRAY), boolean[].class));
+    }
+
+    @Test
+    public void testDeserializationGrowsBuffer() throws Exception {
+        boolean[] expected = new boolean[100];
+        JsonBoolean[] elements = new JsonBoolean[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (i % 3 == 0);
+            elements[i] = JsonBoolean.of(expected[i]);
+        }
+        JsonArray json = JsonArray.of(elements);
+        Assertions.assertArrayEquals(expected,
+                converter.deserializeFrom(new JsonElementTokenSource(json), boolean[].class));
+    }
+
+    @Test
+    public void testDeserializationWrongType() throws Exception {
+        forPrimitive(json -> assertFailsDeserialization(converter, json, boolean[].class));
+        forObjects(json -> assertFailsDeserialization(converter, json, boolean[].class));
+        assertFailsDeserialization(converter, INT_ARRAY, boolean[].class);
+    }
+
+    @Test
+    public void testDeserializationElementErrors() {
+        JsonArray json = JsonArray.of(JsonBoolean.of(true), JsonString.of("true"), JsonNumber.of(1),
+                JsonBoolean.of(false), JsonNull.INSTANCE);
+        var exception = assertFailsDeserialization(converter, json, boolean[].class);
+        Assertions.assertEquals(3, exception.getFieldErrorNode().flatten().size());
+        for (var error : exception.getFieldErrorNode().flatten()) {
+            Assertions.assertTrue(List.of(List.of("1"), List.of("2"), List.of("4")).contains(error.fieldPath()));
+        }
+    }
+
+    @Test
+    public void testSerializationHappyCase() {
+        Assertions.assertEquals(EMPTY_ARRAY, converter.serialize(new boolean[0]));
+        Assertions.assertEquals(BOOLEAN_ARRAY, converter.serialize(new boolean[] {true, false, true}));
+    }
+
+    @Test
+    public void testSerializationWithNull() {
+        assertFailsSerializationWithNpe(converter, null);
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+
+public class ByteArrayConverterTest {
+
+    private final ByteArrayConverter converter = new ByteArrayConverter();
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        Assertions.assertArrayEquals(new byte[0], converter.deserialize(JsonString.of(""), byte[].class));
+        Assertions.assertArrayEquals(new byte[] {1, 2, -1}, converter.deserialize(JsonString.of("AQL/"), byte[].class));
+        Assertions.assertArrayEquals(new byte[] {1, 2}, converter.deserialize(JsonString.of("AQI="), byte[].class));
+    }
+
+    @Test
+    public void testDeserializationWrongType() throws Exception {
+        forNonPrimitive(json -> assertFailsDeserialization(converter, json, byte[].class));
+        forNull(json -> assertFailsDeserialization(converter, json, byte[].class));
+        forBooleans(json -> assertFailsDeserialization(converter, json, byte[].class));
+        forNumbers(json -> assertFailsDeserialization(converter, json, byte[].class));
+    }
+
+    @Test
+    public void testDeserializationInvalidBase64() {
+        assertFailsDeserialization(converter, JsonString.of("AQ?/"), byte[].class);
+        assertFailsDeserialization(converter, JsonString.of("AQI=A"), byte[].class);
+    }
+
+    @Test
+    public void testSerializationHappyCase() {
+        Assertions.assertEquals(JsonString.of("AQL/"), converter.serialize(new byte[] {1, 2, -1}));
+        Assertions.assertEquals(JsonString.of(""), converter.serialize(new byte[0]));
+    }
+
+    @Test
+    public void testSerializationWithNull() {
+        assertFailsSerializationWithNpe(converter, null);
+    }
+
+}
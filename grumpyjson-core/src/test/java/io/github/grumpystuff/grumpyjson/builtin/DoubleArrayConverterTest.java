@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+
+public class DoubleArrayConverterTest {
+
+    private final DoubleArrayConverter converter = new DoubleArrayConverter();
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        JsonArray json = JsonArray.of(JsonNumber.of(12), JsonNumber.of(-1.5), JsonNumber.ofText("2.5e3"),
+                JsonNumber.of(new BigDecimal("0.1")));
+        Assertions.assertArrayEquals(new double[] {12, -1.5, 2500, 0.1}, converter.deserialize(json, double[].class));
+    }
+
+    @Test
+    public void testDeserializationWrongType() throws Exception {
+        forPrimitive(json -> assertFailsDeserialization(converter, json, double[].class));
+        forObjects(json -> assertFailsDeserialization(converter, json, double[].class));
+        assertFailsDeserialization(converter, STRING_ARRAY, double[].class);
+    }
+
+    @Test
+    public void testSerializationHappyCase() {
+        Assertions.assertEquals(JsonArray.of(JsonNumber.of(1.5), JsonNumber.of(-2)),
+                converter.serialize(new double[] {1.5, -2}));
+    }
+
+    @Test
+    public void testSerializationNonFinite() {
+        assertFailsSerialization(converter, new double[] {1, Double.NaN});
+        assertFailsSerialization(converter, new double[] {Double.POSITIVE_INFINITY});
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+
+public class DoubleConverterTest {
+
+    private final DoubleConverter converter = new DoubleConverter();
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        Assertions.assertEquals(0.0, converter.deserialize(JsonNumber.of(0), Double.TYPE));
+        Assertions.assertEquals(123.0, converter.deserialize(JsonNumber.of(123), Double.TYPE));
+        Assertions.assertEquals(-1.5, converter.deserialize(JsonNumber.of(-1.5), Double.class));
+        Assertions.assertEquals(0.1, converter.deserialize(JsonNumber.ofText("0.1"), Double.TYPE));
+        Assertions.assertEquals(1.5e300, converter.deserialize(JsonNumber.ofText("1.5e300"), Double.TYPE));
+        Assertions.assertEquals(0.1, converter.deserialize(JsonNumber.of(new BigDecimal("0.1")), Double.TYPE));
+    }
+
+    @Test
+    public void testDeserializationWrongType() throws Exception {
+        forNonPrimitive(json -> assertFailsDeserialization(converter, json, Double.TYPE));
+        forNull(json -> assertFailsDeserialization(converter, json, Double.TYPE));
+        forBooleans(json -> assertFailsDeserialization(converter, json, Double.TYPE));
+        forStrings(json -> assertFailsDeserialization(converter, json, Double.TYPE));
+    }
+
+    @Test
+    public void testDeserializationTooLarge() {
+        assertFailsDeserialization(converter, JsonNumber.ofText("1e400"), Double.TYPE);
+        assertFailsDeserialization(converter, JsonNumber.ofText("-1e400"), Double.TYPE);
+    }
+
+    @Test
+    public void testSerializationHappyCase() {
+        Assertions.assertEquals(JsonNumber.of(1.5), converter.serialize(1.5));
+    }
+
+    @Test
+    public void testSerializationNonFinite() {
+        assertFailsSerialization(converter, Double.NaN);
+        assertFailsSerialization(converter, Double.NEGATIVE_INFINITY);
+    }
+
+    @Test
+    public void testSerializationWithNull() {
+        assertFailsSerializationWithNpe(converter, null);
+    }
+
+}
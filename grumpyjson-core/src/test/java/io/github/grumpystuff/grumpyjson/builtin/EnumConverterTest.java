@@ -77,6 +77,14 @@ public class EnumConverterTest {
         Assertions.assertEquals(JsonString.of("FOO_BAR"), serializer.serialize(MyEnum.FOO_BAR));
     }
 
+    @Test
+    public void testNameMapping() throws Exception {
+        EnumConverter<MyEnum> converter = new EnumConverter<>(MyEnum.class, EnumNameMapping.KEBAB_CASE);
+        assertEquals(MyEnum.FOO_BAR, converter.deserialize(JsonString.of("foo-bar"), MyEnum.class));
+        assertFailsDeserialization(converter, JsonString.of("FOO_BAR"), MyEnum.class);
+        assertEquals(JsonString.of("abc-def"), converter.serialize(MyEnum.ABC_DEF));
+    }
+
     @Test
     public void testSerializationWithNull() {
         assertFailsSerializationWithNpe(serializer, null);
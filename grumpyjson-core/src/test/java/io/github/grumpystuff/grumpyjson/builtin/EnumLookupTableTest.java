@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnumLookupTableTest {
+
+    private enum Empty {
+    }
+
+    private enum Clashing {
+        FOO_BAR,
+        foo_bar
+    }
+
+    @Test
+    public void testIdentityTableIsShared() {
+        assertSame(EnumLookupTable.of(DayOfWeek.class), EnumLookupTable.of(DayOfWeek.class));
+        assertSame(EnumLookupTable.of(DayOfWeek.class), EnumLookupTable.of(DayOfWeek.class, EnumNameMapping.IDENTITY));
+        assertNotSame(EnumLookupTable.of(DayOfWeek.class), EnumLookupTable.of(DayOfWeek.class, EnumNameMapping.LOWERCASE));
+    }
+
+    @Test
+    public void testLookup() {
+        // enough constants to have hash collisions
+        EnumLookupTable<ChronoUnit> table = EnumLookupTable.of(ChronoUnit.class);
+        for (ChronoUnit unit : ChronoUnit.values()) {
+            assertSame(unit, table.get(unit.name()));
+            assertEquals(unit.name(), table.getName(unit));
+            assertEquals(JsonString.of(unit.name()), table.getJsonString(unit));
+            assertEquals(unit.name(), table.getPreEncodedString(unit).getValue());
+        }
+        assertNull(table.get("days"));
+        assertNull(table.get(""));
+        assertNull(EnumLookupTable.of(Empty.class).get("FOO"));
+    }
+
+    @Test
+    public void testMappings() {
+        EnumLookupTable<ChronoUnit> lowercase = EnumLookupTable.of(ChronoUnit.class, EnumNameMapping.LOWERCASE);
+        assertSame(ChronoUnit.HALF_DAYS, lowercase.get("half_days"));
+        assertNull(lowercase.get("HALF_DAYS"));
+
+        EnumLookupTable<ChronoUnit> kebabCase = EnumLookupTable.of(ChronoUnit.class, EnumNameMapping.KEBAB_CASE);
+        assertSame(ChronoUnit.HALF_DAYS, kebabCase.get("half-days"));
+        assertEquals("half-days", kebabCase.getName(ChronoUnit.HALF_DAYS));
+    }
+
+    @Test
+    public void testInvalidMappings() {
+        assertThrows(IllegalArgumentException.class, () -> EnumLookupTable.of(Clashing.class, EnumNameMapping.LOWERCASE));
+        assertThrows(IllegalArgumentException.class, () -> EnumLookupTable.of(DayOfWeek.class, constant -> null));
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+
+public class FloatConverterTest {
+
+    private final FloatConverter converter = new FloatConverter();
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        Assertions.assertEquals(123.0f, converter.deserialize(JsonNumber.of(123), Float.TYPE));
+        Assertions.assertEquals(0.1f, converter.deserialize(JsonNumber.ofText("0.1"), Float.class));
+    }
+
+    @Test
+    public void testDeserializationRoundsOnlyOnce() throws Exception {
+        // slightly above the midpoint between 1 and the next float, but rounded to the midpoint as a double
+        String text = "1.00000005960464477539062500001";
+        Assertions.assertEquals(1.0f, (float) Double.parseDouble(text));
+        Assertions.assertEquals(Math.nextUp(1.0f), converter.deserialize(JsonNumber.ofText(text), Float.TYPE));
+        Assertions.assertEquals(1.0f, converter.deserialize(JsonNumber.ofText("1.000000059604644775390625"), Float.TYPE));
+    }
+
+    @Test
+    public void testIsBetweenFloats() {
+        Assertions.assertTrue(FloatConverter.isBetweenFloats(1.0 + 0x1p-24, 1.0f));
+        Assertions.assertTrue(FloatConverter.isBetweenFloats(1.0 - 0x1p-25, 1.0f));
+        Assertions.assertFalse(FloatConverter.isBetweenFloats(1.0, 1.0f));
+        Assertions.assertFalse(FloatConverter.isBetweenFloats(1.0 + 0x1p-30, 1.0f));
+    }
+
+    @Test
+    public void testDeserializationWrongType() throws Exception {
+        forNonPrimitive(json -> assertFailsDeserialization(converter, json, Float.TYPE));
+        forStrings(json -> assertFailsDeserialization(converter, json, Float.TYPE));
+    }
+
+    @Test
+    public void testDeserializationTooLarge() {
+        assertFailsDeserialization(converter, JsonNumber.ofText("1e39"), Float.TYPE);
+    }
+
+    @Test
+    public void testSerializationHappyCase() {
+        // the float's own representation, not that of (double) 0.1f
+        Assertions.assertEquals("JSON:0.1", converter.serialize(0.1f).toString());
+    }
+
+    @Test
+    public void testSerializationNonFinite() {
+        assertFailsSerialization(converter, Float.NaN);
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+
+public class IntArrayConverterTest {
+
+    private final IntArrayConverter converter = new IntArrayConverter();
+
+    @Test
+    public void testSupportedTypes() {
+        Assertions.assertTrue(converter.supportsTypeForDeserialization(int[].class));
+        Assertions.assertFalse(converter.supportsTypeForDeserialization(Integer[].class));
+        Assertions.assertFalse(converter.supportsTypeForDeserialization(long[].class));
+        Assertions.assertTrue(converter.supportsClassForSerialization(int[].class));
+        Assertions.assertFalse(converter.supportsClassForSerialization(Integer[].class));
+    }
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        Assertions.assertArrayEquals(new int[0], converter.deserialize(EMPTY_ARRAY, int[].class));
+        Assertions.assertArrayEquals(new int[] {12, 34, 56}, converter.deserialize(INT_ARRAY, int[].class));
+    }
+
+    @Test
+    public void testDeserializationWrongType() throws Exception {
+        forPrimitive(json -> assertFailsDeserialization(converter, json, int[].class));
+        forObjects(json -> assertFailsDeserialization(converter, json, int[].class));
+        assertFailsDeserialization(converter, STRING_ARRAY, int[].class);
+    }
+
+    @Test
+    public void testDeserializationElementErrors() {
+        JsonArray json = JsonArray.of(JsonNumber.of(1), JsonString.of("x"), JsonNumber.of(0x80000000L), JsonNumber.of(2.5));
+        var exception = assertFailsDeserialization(converter, json, int[].class);
+        Assertions.assertEquals(3, exception.getFieldErrorNode().flatten().size());
+        for (var error : exception.getFieldErrorNode().flatten()) {
+            Assertions.assertTrue(List.of(List.of("1"), List.of("2"), List.of("3")).contains(error.fieldPath()));
+        }
+    }
+
+    @Test
+    public void testSerializationHappyCase() {
+        Assertions.assertEquals(EMPTY_ARRAY, converter.serialize(new int[0]));
+        Assertions.assertEquals(INT_ARRAY, converter.serialize(new int[] {12, 34, 56}));
+    }
+
+    @Test
+    public void testSerializationWithNull() {
+        assertFailsSerializationWithNpe(converter, null);
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin;
+
+import io.github.grumpystuff.grumpyjson.JsonElementTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
+import io.github.grumpystuff.grumpyjson.json_model.JsonBoolean;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+
+public class LongArrayConverterTest {
+
+    private final LongArrayConverter converter = new LongArrayConverter();
+
+    @Test
+    public void testSupportedTypes() {
+        Assertions.assertTrue(converter.supportsTypeForDeserialization(long[].class));
+        Assertions.assertFalse(converter.supportsTypeForDeserialization(Long[].class));
+        Assertions.assertFalse(converter.supportsTypeForDeserialization(int[].class));
+        Assertions.assertTrue(converter.supportsClassForSerialization(long[].class));
+        Assertions.assertFalse(converter.supportsClassForSerialization(Long[].class));
+    }
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        Assertions.assertArrayEquals(new long[0], converter.deserialize(EMPTY_ARRAY, long[].class));
+        Assertions.assertArrayEquals(new long[] {12, 34, 56}, converter.deserialize(INT_ARRAY, long[].class));
+
+        JsonArray json = JsonArray.of(JsonNumber.of(Long.MIN_VALUE), JsonNumber.of(0x80000000L),
+                JsonNumber.of(Long.MAX_VALUE));
+        long[] expected = {Long.MIN_VALUE, 0x80000000L, Long.MAX_VALUE};
+        Assertions.assertArrayEquals(expected, converter.deserialize(json, long[].class));
+        Assertions.assertArrayEquals(expected,
+                converter.deserializeFrom(new JsonElementTokenSource(json), long[].class));
+    }
+
+    @Test
+    public void testDeserializationGrowsBuffer() throws Exception {
+        long[] expected = new long[100];
+        JsonNumber[] elements = new JsonNumber[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i * 0x100000000L;
+            elements[i] = JsonNumber.of(expected[i]);
+        }
+        JsonArray json = JsonArray.of(elements);
+        Assertions.assertArrayEquals(expected,
+                converter.deserializeFrom(new JsonElementTokenSource(json), long[].class));
+    }
+
+    @Test
+    public void testDeserializationWrongType() throws Exception {
+        forPrimitive(json -> assertFailsDeserialization(converter, json, long[].class));
+        forObjects(json -> assertFailsDeserialization(converter, json, long[].class));
+        assertFailsDeserialization(converter, STRING_ARRAY, long[].class);
+    }
+
+    @Test
+    public void testDeserializationElementErrors() {
+        JsonArray json = JsonArray.of(JsonNumber.of(1), JsonString.of("x"), JsonNumber.ofText("9223372036854775808"),
+                JsonNumber.of(2.5), JsonNumber.of(3), JsonBoolean.of(true));
+        var exception = assertFailsDeserialization(converter, json, long[].class);
+        Assertions.assertEquals(4, exception.getFieldErrorNode().flatten().size());
+        for (var error : exception.getFieldErrorNode().flatten()) {
+            Assertions.assertTrue(List.of(List.of("1"), List.of("2"), List.of("3"), List.of("5"))
+                    .contains(error.fieldPath()));
+        }
+    }
+
+    @Test
+    public void testSerializationHappyCase() {
+        Assertions.assertEquals(EMPTY_ARRAY, converter.serialize(new long[0]));
+        Assertions.assertEquals(INT_ARRAY, converter.serialize(new long[] {12, 34, 56}));
+        Assertions.assertEquals(JsonArray.of(JsonNumber.of(Long.MAX_VALUE)),
+                converter.serialize(new long[] {Long.MAX_VALUE}));
+    }
+
+    @Test
+    public void testSerializationWithNull() {
+        assertFailsSerializationWithNpe(converter, null);
+    }
+
+}
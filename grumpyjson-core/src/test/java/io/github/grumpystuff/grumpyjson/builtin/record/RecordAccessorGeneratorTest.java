@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.record;
+
+import io.github.grumpystuff.grumpyjson.util.ProtectedNestedTypeHolder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Uses the generated class directly, without going through {@link RecordInfo}, so a failure cannot be hidden by the
+ * fallback to method handles.
+ */
+public class RecordAccessorGeneratorTest extends ProtectedNestedTypeHolder {
+
+    private record Primitives(boolean z, byte b, short s, char c, int i, long j, float f, double d) {}
+
+    private record Mixed(String name, int[] values, Primitives primitives) {}
+
+    private record PrivateConstructor(int value) {
+        private PrivateConstructor {
+        }
+    }
+
+    private record RecordWithInaccessibleComponent(ProtectedType value) {}
+
+    @Test
+    public void testGeneratedClassIsHidden() throws Exception {
+        RecordAccessor accessor = RecordAccessorGenerator.generate(Primitives.class);
+        Assertions.assertTrue(accessor.getClass().isHidden());
+        Assertions.assertFalse(accessor instanceof MethodHandleRecordAccessor);
+    }
+
+    @Test
+    public void testPrimitives() throws Throwable {
+        RecordAccessor accessor = RecordAccessorGenerator.generate(Primitives.class);
+        Object[] arguments = {true, (byte) 1, (short) 2, 'c', 3, 4L, 5.5f, 6.5};
+        Object record = accessor.construct(arguments);
+        Assertions.assertEquals(new Primitives(true, (byte) 1, (short) 2, 'c', 3, 4L, 5.5f, 6.5), record);
+
+        String[] names = {"z", "b", "s", "c", "i", "j", "f", "d"};
+        for (int i = 0; i < names.length; i++) {
+            Assertions.assertEquals(i, accessor.getComponentIndex(names[i]));
+            Assertions.assertEquals(arguments[i], accessor.getComponentValue(record, i));
+        }
+    }
+
+    @Test
+    public void testReferences() throws Throwable {
+        RecordAccessor accessor = RecordAccessorGenerator.generate(Mixed.class);
+        int[] values = {1, 2};
+        Primitives primitives = new Primitives(false, (byte) 0, (short) 0, 'x', 0, 0, 0, 0);
+        Mixed record = (Mixed) accessor.construct(new Object[] {"foo", values, primitives});
+        Assertions.assertEquals("foo", record.name());
+        Assertions.assertSame(values, record.values());
+        Assertions.assertSame(primitives, record.primitives());
+
+        Assertions.assertEquals(2, accessor.getComponentIndex("primitives"));
+        Assertions.assertSame(values, accessor.getComponentValue(record, 1));
+        Assertions.assertEquals(-1, accessor.getComponentIndex("Name"));
+
+        // null is passed through for reference types
+        record = (Mixed) accessor.construct(new Object[] {null, null, null});
+        Assertions.assertNull(accessor.getComponentValue(record, 0));
+    }
+
+    @Test
+    public void testWrongArguments() throws Exception {
+        RecordAccessor accessor = RecordAccessorGenerator.generate(Mixed.class);
+        Assertions.assertThrows(ClassCastException.class, () -> accessor.construct(new Object[] {1, null, null}));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> accessor.construct(new Object[0]));
+        Assertions.assertThrows(NullPointerException.class, () -> RecordAccessorGenerator.generate(Primitives.class)
+                .construct(new Object[] {null, (byte) 1, (short) 2, 'c', 3, 4L, 5.5f, 6.5}));
+    }
+
+    @Test
+    public void testComponentIndexOutOfBounds() throws Throwable {
+        RecordAccessor accessor = RecordAccessorGenerator.generate(Mixed.class);
+        Object record = new Mixed("foo", null, null);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> accessor.getComponentValue(record, 3));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> accessor.getComponentValue(record, -1));
+    }
+
+    @Test
+    public void testPrivateConstructor() throws Throwable {
+        RecordAccessor accessor = RecordAccessorGenerator.generate(PrivateConstructor.class);
+        Assertions.assertEquals(new PrivateConstructor(5), accessor.construct(new Object[] {5}));
+    }
+
+    @Test
+    public void testInaccessibleComponentType() {
+        IllegalAccessException exception = Assertions.assertThrows(IllegalAccessException.class,
+                () -> RecordAccessorGenerator.generate(RecordWithInaccessibleComponent.class));
+        Assertions.assertTrue(exception.getMessage().contains(ProtectedType.class.getName()), exception.getMessage());
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.record;
+
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.JsonTestUtil;
+import io.github.grumpystuff.grumpyjson.builtin.IntegerConverter;
+import io.github.grumpystuff.grumpyjson.builtin.StringConverter;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.json_model.JsonObject;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import io.github.grumpystuff.grumpyjson.util.ProtectedNestedTypeHolder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+public class RecordInfoTest extends ProtectedNestedTypeHolder {
+
+    private record Nested(String value) {}
+
+    private record Record(
+            boolean myBoolean,
+            char myChar,
+            int myInt,
+            long myLong,
+            double myDouble,
+            String myString,
+            int[] myInts,
+            String[] myStrings,
+            List<Nested> myList,
+            Nested myNested,
+            // "Aa" and "BB" have the same hash code
+            int Aa,
+            int BB
+    ) {}
+
+    private record EmptyRecord() {}
+
+    private record ValidatedRecord(int myInt) {
+        ValidatedRecord {
+            if (myInt < 0) {
+                throw new IllegalArgumentException("myInt must not be negative");
+            }
+        }
+    }
+
+    private record RecordWithInaccessibleComponent(ProtectedType myValue) {}
+
+    private record ConverterRecord(int myInt, String myString) {}
+
+    @Test
+    public void testGeneratedAccessor() throws Exception {
+        checkRecord(new RecordInfo(Record.class, false));
+        RecordInfo info = new RecordInfo(Record.class, true);
+        Assertions.assertTrue(info.isAccessorGenerated());
+        Assertions.assertNull(info.getAccessorGenerationFailure());
+        checkRecord(info);
+    }
+
+    private void checkRecord(RecordInfo info) throws Exception {
+        int[] ints = {1, 2};
+        String[] strings = {"a", "b"};
+        List<Nested> list = List.of(new Nested("x"));
+        Object[] arguments = {true, 'c', 3, 4L, 5.5, "foo", ints, strings, list, new Nested("y"), 6, 7};
+        Record record = (Record) info.invokeConstructor(arguments);
+        Assertions.assertEquals(new Record(true, 'c', 3, 4L, 5.5, "foo", ints, strings, list, new Nested("y"), 6, 7),
+                record);
+
+        List<RecordInfo.ComponentInfo> componentInfos = info.getComponentInfos();
+        for (int i = 0; i < arguments.length; i++) {
+            RecordInfo.ComponentInfo componentInfo = componentInfos.get(i);
+            Assertions.assertEquals(arguments[i], componentInfo.invokeGetter(record));
+            Assertions.assertEquals(i, info.getComponentIndex(componentInfo.getName()));
+        }
+        Assertions.assertEquals(-1, info.getComponentIndex("unknown"));
+        Assertions.assertEquals(-1, info.getComponentIndex(""));
+        Assertions.assertEquals(-1, info.getComponentIndex("myint"));
+    }
+
+    @Test
+    public void testEmptyRecord() throws Exception {
+        RecordInfo info = new RecordInfo(EmptyRecord.class, true);
+        Assertions.assertTrue(info.isAccessorGenerated());
+        Assertions.assertEquals(new EmptyRecord(), info.invokeConstructor(new Object[0]));
+        Assertions.assertEquals(-1, info.getComponentIndex("foo"));
+    }
+
+    @Test
+    public void testWrongArguments() {
+        RecordInfo info = new RecordInfo(ValidatedRecord.class, true);
+        Assertions.assertTrue(info.isAccessorGenerated());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> info.invokeConstructor(new Object[0]));
+        Assertions.assertThrows(InvocationTargetException.class, () -> info.invokeConstructor(new Object[] {"foo"}));
+        InvocationTargetException exception = Assertions.assertThrows(InvocationTargetException.class,
+                () -> info.invokeConstructor(new Object[] {-1}));
+        Assertions.assertEquals("myInt must not be negative", exception.getCause().getMessage());
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        RecordInfo info = new RecordInfo(RecordWithInaccessibleComponent.class, true);
+        Assertions.assertFalse(info.isAccessorGenerated());
+        Assertions.assertNotNull(info.getAccessorGenerationFailure());
+        ProtectedType value = new ProtectedType();
+        Object record = info.invokeConstructor(new Object[] {value});
+        Assertions.assertSame(value, info.getComponentInfos().get(0).invokeGetter(record));
+    }
+
+    @Test
+    public void testConverterWithGeneratedAccessor() throws Exception {
+        JsonRegistries registries = JsonTestUtil.createRegistries(new IntegerConverter(), new StringConverter());
+        registries.seal();
+        RecordConverter<ConverterRecord> converter = new RecordConverter<>(ConverterRecord.class, registries,
+                new RecordConverter.Options(false, true));
+
+        JsonObject json = JsonObject.of("myInt", JsonNumber.of(123), "myString", JsonString.of("foo"));
+        ConverterRecord record = new ConverterRecord(123, "foo");
+        Assertions.assertEquals(record, converter.deserialize(json, ConverterRecord.class));
+        Assertions.assertEquals(json, converter.serialize(record));
+    }
+
+}
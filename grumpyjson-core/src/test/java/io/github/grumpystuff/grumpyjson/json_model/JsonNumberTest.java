@@ -16,7 +16,11 @@ public class JsonNumberTest {
             JsonNumber.of(42.0),
             JsonNumber.of(BigInteger.valueOf(42)),
             JsonNumber.of(BigDecimal.valueOf(42)),
-            JsonNumber.of(BigDecimal.valueOf(42.0))
+            JsonNumber.of(BigDecimal.valueOf(42.0)),
+            JsonNumber.of((Number) 42),
+            JsonNumber.ofText("42"),
+            JsonNumber.ofText("42.0"),
+            JsonNumber.ofText("4.2e1")
     );
 
     @Test
@@ -62,4 +66,67 @@ public class JsonNumberTest {
         }
     }
 
+    @Test
+    public void testNegativeZero() {
+        List<JsonNumber> zeros = List.of(JsonNumber.of(0), JsonNumber.of(0.0), JsonNumber.of(-0.0),
+                JsonNumber.of(new BigDecimal("-0.0")), JsonNumber.ofText("0"), JsonNumber.ofText("-0"),
+                JsonNumber.ofText("-0.0"), JsonNumber.ofText("-0e5"));
+        for (JsonNumber zero1 : zeros) {
+            for (JsonNumber zero2 : zeros) {
+                assertEquals(zero1, zero2);
+                assertEquals(zero1.hashCode(), zero2.hashCode());
+            }
+        }
+
+        // the hash code must not change when a lazily parsed number gets parsed
+        for (String text : List.of("-0", "-0.0")) {
+            JsonNumber number = JsonNumber.ofText(text);
+            int hashCode = number.hashCode();
+            number.getValue();
+            assertEquals(hashCode, number.hashCode(), text);
+        }
+    }
+
+    @Test
+    public void testTextValidation() {
+        for (String valid : List.of("0", "-0", "12", "-12.5", "1e5", "1E+5", "1.5e-5", "12345678901234567890123")) {
+            assertDoesNotThrow(() -> JsonNumber.ofText(valid), valid);
+        }
+        for (String invalid : List.of("", "-", "01", "1.", ".5", "1e", "+1", "1x", " 1", "NaN")) {
+            assertThrows(IllegalArgumentException.class, () -> JsonNumber.ofText(invalid), invalid);
+        }
+    }
+
+    @Test
+    public void testTextValue() {
+        assertEquals(12L, JsonNumber.ofText("12").getValue());
+        assertEquals(Long.MIN_VALUE, JsonNumber.ofText("-9223372036854775808").getValue());
+        assertEquals(new BigDecimal("9223372036854775808"), JsonNumber.ofText("9223372036854775808").getValue());
+        assertEquals(new BigDecimal("-12.5"), JsonNumber.ofText("-12.5").getValue());
+    }
+
+    @Test
+    public void testDeserializerExpectsLong() throws Exception {
+        for (JsonNumber number : sampleJsonNumbers) {
+            assertEquals(42, number.deserializerExpectsLong(), number.toString());
+        }
+        assertEquals(Long.MAX_VALUE, JsonNumber.ofText("9223372036854775807").deserializerExpectsLong());
+        assertEquals(Long.MIN_VALUE, JsonNumber.ofText("-9223372036854775808").deserializerExpectsLong());
+        assertEquals(-7, JsonNumber.ofText("-7").deserializerExpectsLong());
+        assertEquals(Long.MIN_VALUE, JsonNumber.of(Long.MIN_VALUE).deserializerExpectsLong());
+
+        for (JsonNumber number : List.of(
+                JsonNumber.of(2.5),
+                JsonNumber.of(1e30),
+                JsonNumber.of(new BigDecimal("2.5")),
+                JsonNumber.of(new BigInteger("9223372036854775808")),
+                JsonNumber.ofText("2.5"),
+                JsonNumber.ofText("9223372036854775808"),
+                JsonNumber.ofText("1e30")
+        )) {
+            assertThrows(JsonDeserializationException.class, number::deserializerExpectsLong, number.toString());
+        }
+        assertThrows(JsonDeserializationException.class, JsonString.of("42")::deserializerExpectsLong);
+    }
+
 }
@@ -3,6 +3,9 @@ package io.github.grumpystuff.grumpyjson.json_model;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -85,4 +88,63 @@ public class JsonObjectTest {
         assertEquals(sample1.hashCode(), sample2.hashCode());
     }
 
+    @Test
+    public void testOrder() {
+        JsonObject sample = JsonObject.of(
+                "one", JsonString.of("foobar"),
+                "two", JsonNumber.of(42),
+                "three", JsonBoolean.of(true)
+        );
+        assertEquals(List.of("one", "two", "three"), new ArrayList<>(sample.getAsMap().keySet()));
+
+        Map<String, JsonElement> map = new LinkedHashMap<>();
+        map.put("zzz", JsonNull.INSTANCE);
+        map.put("aaa", JsonNull.INSTANCE);
+        map.put("mmm", JsonNull.INSTANCE);
+        assertEquals(List.of("zzz", "aaa", "mmm"), new ArrayList<>(JsonObject.of(map).getAsMap().keySet()));
+    }
+
+    @Test
+    public void testBuilder() {
+        // enough properties to use a hash index
+        JsonObject.Builder builder = new JsonObject.Builder(2);
+        Map<String, JsonElement> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            builder.add("key" + i, JsonNumber.of(i));
+            expected.put("key" + i, JsonNumber.of(i));
+        }
+        // replacing a value keeps its position
+        builder.add("key3", JsonString.of("replaced"));
+        expected.put("key3", JsonString.of("replaced"));
+        JsonObject sample = builder.build();
+
+        assertEquals(expected, sample.getAsMap());
+        assertEquals(sample.getAsMap(), expected);
+        assertEquals(expected.hashCode(), sample.hashCode());
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(sample.getAsMap().keySet()));
+        assertEquals(JsonString.of("replaced"), sample.getAsMap().get("key3"));
+        assertEquals(JsonNumber.of(19), sample.getAsMap().get("key19"));
+        assertNull(sample.getAsMap().get("key20"));
+        assertFalse(sample.getAsMap().containsKey("key20"));
+
+        assertThrows(IllegalStateException.class, () -> builder.add("foo", JsonNull.INSTANCE));
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    public void testUnmodifiable() {
+        JsonObject sample = JsonObject.of("one", JsonString.of("foobar"));
+        assertThrows(UnsupportedOperationException.class, () -> sample.getAsMap().put("two", JsonNull.INSTANCE));
+        assertThrows(UnsupportedOperationException.class, () -> sample.getAsMap().remove("one"));
+        assertThrows(UnsupportedOperationException.class, () -> sample.getAsMap().clear());
+    }
+
+    @Test
+    public void testDuplicateKeys() {
+        assertThrows(IllegalArgumentException.class, () -> JsonObject.of(
+                "one", JsonString.of("foobar"),
+                "one", JsonNumber.of(42)
+        ));
+    }
+
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.registry;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegistryTest {
+
+    /**
+     * Registrables are strings that support all classes whose simple name starts with the string. Auto-generation
+     * creates a new string for each class in java.lang.
+     */
+    private static final class TestRegistry extends Registry<Type, String> {
+
+        final AtomicInteger generateCount = new AtomicInteger();
+
+        @Override
+        protected boolean registrableSupports(String registrable, Type key) {
+            return key instanceof Class<?> c && c.getSimpleName().startsWith(registrable);
+        }
+
+        @Override
+        protected String generateRegistrable(Type key) {
+            if (key instanceof Class<?> c && c.getPackageName().equals("java.lang")) {
+                generateCount.incrementAndGet();
+                return new String("generated:" + c.getSimpleName());
+            }
+            return null;
+        }
+
+        @Override
+        protected String getErrorMessageForUnknownKey(Type key) {
+            return "unknown: " + key;
+        }
+
+    }
+
+    @Test
+    public void testLookupRequiresRunTimePhase() {
+        TestRegistry registry = new TestRegistry();
+        registry.register("Str");
+        assertThrows(IllegalStateException.class, () -> registry.get(String.class));
+        assertThrows(IllegalStateException.class, () -> registry.supports(String.class));
+        assertThrows(IllegalStateException.class, () -> registry.get(List.class));
+        registry.seal();
+        assertThrows(IllegalStateException.class, () -> registry.register("Int"));
+    }
+
+    @Test
+    public void testLookupAfterSeal() throws Exception {
+        TestRegistry registry = new TestRegistry();
+        registry.register("S");
+        registry.register("Str");
+        registry.seal();
+
+        // manually registered, last one wins
+        assertEquals("Str", registry.get(String.class));
+        assertEquals("S", registry.get(Short.class));
+
+        // auto-generated once, then the same instance is returned
+        String generated = registry.get(Integer.class);
+        assertEquals("generated:Integer", generated);
+        assertSame(generated, registry.get(Integer.class));
+        assertTrue(registry.supports(Integer.class));
+        assertEquals(1, registry.generateCount.get());
+
+        // not supported
+        assertFalse(registry.supports(RegistryTest.class));
+        assertThrows(NotRegisteredException.class, () -> registry.get(RegistryTest.class));
+    }
+
+    @Test
+    public void testNegativeResultsAreCached() {
+        TestRegistry registry = new TestRegistry();
+        registry.register("Str");
+        registry.setHitCountingEnabled(true);
+        registry.seal();
+
+        for (int i = 0; i < 3; i++) {
+            assertFalse(registry.supports(RegistryTest.class));
+            assertThrows(NotRegisteredException.class, () -> registry.get(List.class));
+        }
+        assertEquals(2, registry.getMissCount());
+        assertEquals(4, registry.getHitCount());
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        TestRegistry registry = new TestRegistry();
+        registry.register("Str");
+        registry.setHitCountingEnabled(true);
+        registry.seal();
+        assertEquals(0, registry.getHitCount());
+        assertEquals(0, registry.getMissCount());
+
+        registry.get(String.class);
+        registry.get(String.class);
+        registry.get(Integer.class);
+        registry.supports(String.class);
+        assertEquals(2, registry.getHitCount());
+        assertEquals(2, registry.getMissCount());
+
+        registry.resetStatistics();
+        assertEquals(0, registry.getHitCount());
+        assertEquals(0, registry.getMissCount());
+        registry.get(String.class);
+        assertEquals(1, registry.getHitCount());
+        assertEquals(0, registry.getMissCount());
+    }
+
+    @Test
+    public void testHitsAreNotCountedByDefault() throws Exception {
+        TestRegistry registry = new TestRegistry();
+        registry.register("Str");
+        registry.seal();
+        assertThrows(IllegalStateException.class, () -> registry.setHitCountingEnabled(true));
+
+        registry.get(String.class);
+        registry.get(String.class);
+        registry.supports(List.class);
+        assertEquals(0, registry.getHitCount());
+        assertEquals(2, registry.getMissCount());
+    }
+
+    @Test
+    public void testSeparateRegistriesDoNotShareCachedValues() throws Exception {
+        TestRegistry registry1 = new TestRegistry();
+        registry1.register("Str");
+        registry1.seal();
+        TestRegistry registry2 = new TestRegistry();
+        registry2.register("St");
+        registry2.seal();
+
+        assertEquals("Str", registry1.get(String.class));
+        assertEquals("St", registry2.get(String.class));
+        assertEquals("Str", registry1.get(String.class));
+    }
+
+}
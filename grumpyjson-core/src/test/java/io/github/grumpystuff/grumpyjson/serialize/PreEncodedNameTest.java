@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.serialize;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class PreEncodedNameTest {
+
+    private static String encode(String name) {
+        PreEncodedName preEncodedName = PreEncodedName.of(name);
+        byte[] bytes = new byte[preEncodedName.getEncodedLength() + 2];
+        preEncodedName.copyEncodedTo(bytes, 1);
+        Assertions.assertEquals(0, bytes[0]);
+        Assertions.assertEquals(0, bytes[bytes.length - 1]);
+        return new String(bytes, 1, bytes.length - 2, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testPlain() {
+        Assertions.assertEquals("\"foo\":", encode("foo"));
+        Assertions.assertEquals("\"\":", encode(""));
+        Assertions.assertEquals("foo", PreEncodedName.of("foo").getName());
+    }
+
+    @Test
+    public void testEscapes() {
+        Assertions.assertEquals("\"a\\\"b\\\\c\":", encode("a\"b\\c"));
+        Assertions.assertEquals("\"\\b\\f\\n\\r\\t\\u0001\":", encode("\b\f\n\r\t\u0001"));
+        Assertions.assertEquals("\"\\u2028\\u2029\":", encode("  "));
+    }
+
+    @Test
+    public void testNonAscii() {
+        Assertions.assertEquals("\"äö€😀\":", encode("äö€😀"));
+        Assertions.assertEquals(3 + 2 + 2 + 3 + 4, PreEncodedName.of("äö€😀").getEncodedLength());
+    }
+
+    @Test
+    public void testUnpairedSurrogates() {
+        Assertions.assertEquals("\"\\ud800x\\udc00\":", encode("\uD800x\uDC00"));
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ParameterizedTypeImplTest {
+
+    @Test
+    public void testEqualToReflectedType() {
+        Type reflected = new TypeToken<Map<String, List<Integer>>>() {}.getType();
+        Type built = new ParameterizedTypeImpl(null, Map.class, String.class,
+                new ParameterizedTypeImpl(null, List.class, Integer.class));
+
+        assertEquals(reflected, built);
+        assertEquals(built, reflected);
+        assertEquals(reflected.hashCode(), built.hashCode());
+    }
+
+    @Test
+    public void testNotEqual() {
+        Type reflected = new TypeToken<List<Integer>>() {}.getType();
+        assertNotEquals(new ParameterizedTypeImpl(null, List.class, String.class), reflected);
+        assertNotEquals(reflected, new ParameterizedTypeImpl(null, List.class, String.class));
+        assertNotEquals(new ParameterizedTypeImpl(null, List.class, Integer.class), List.class);
+    }
+
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+/**
+ * Provides a type that subclasses in other packages can use, but that is not public.
+ */
+public class ProtectedNestedTypeHolder {
+
+    protected static final class ProtectedType {
+
+        /**
+         * Constructor.
+         */
+        public ProtectedType() {
+        }
+
+    }
+
+}
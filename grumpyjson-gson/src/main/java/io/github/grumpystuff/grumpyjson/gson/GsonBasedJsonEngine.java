@@ -8,10 +8,14 @@ package io.github.grumpystuff.grumpyjson.gson;
 
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 import io.github.grumpystuff.grumpyjson.JsonEngine;
 import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.deserialize.AbortedDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
-import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
 
 import java.io.*;
@@ -108,23 +112,38 @@ public final class GsonBasedJsonEngine extends JsonEngine {
         Objects.requireNonNull(source, "source");
         Objects.requireNonNull(type, "type");
 
-        JsonElement json;
+        JsonReader reader = gson.newJsonReader(source);
         try {
-            com.google.gson.JsonElement gsonElement = gson.fromJson(source, com.google.gson.JsonElement.class);
-            if (gsonElement == null) {
+            try {
+                reader.peek();
+            } catch (EOFException e) {
+                // this happens if the source does not even contain malformed JSON, but just nothing (EOF)
                 throw new JsonDeserializationException("no JSON to deserialize");
             }
-            json = GsonTreeMapper.mapFromGson(gsonElement);
-        } catch (JsonSyntaxException e) {
+            Object result = null;
+            JsonDeserializationException deserializationException = null;
+            try {
+                result = deserializeFrom(new GsonTokenSource(reader), type);
+            } catch (JsonDeserializationException e) {
+                deserializationException = e;
+            } catch (AbortedDeserializationException e) {
+                // the position of the reader is unspecified, so the rest of the input cannot be checked
+                throw new JsonDeserializationException(e.getFieldErrorNode());
+            }
+            // Anything after the value is a syntax error. Syntax errors take precedence over errors from mapping
+            // the JSON to the target type, even if the latter were found first.
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonDeserializationException("syntax error in JSON");
+            }
+            if (deserializationException != null) {
+                throw deserializationException;
+            }
+            return result;
+        } catch (MalformedJsonException | EOFException | JsonSyntaxException e) {
             throw new JsonDeserializationException(mapGsonErrorMessage(e.getMessage()));
-        } catch (JsonIOException e) {
+        } catch (IOException | JsonIOException e) {
             throw new JsonDeserializationException("I/O error while reading JSON");
         }
-        if (json == null) {
-            // this happens if the source does not even contain malformed JSON, but just nothing (EOF)
-            throw new JsonDeserializationException("no JSON to deserialize");
-        }
-        return deserialize(json, type);
     }
 
     // the message looks like this: "at line 1 column 20 path"
@@ -189,9 +208,13 @@ public final class GsonBasedJsonEngine extends JsonEngine {
         Objects.requireNonNull(value, "value");
         Objects.requireNonNull(destination, "destination");
 
-        JsonElement json = toJsonElement(value);
-        com.google.gson.JsonElement gsonElement = GsonTreeMapper.mapToGson(json);
-        gson.toJson(gsonElement, destination);
+        try {
+            JsonWriter jsonWriter = gson.newJsonWriter(destination);
+            serializeTo(value, new GsonTokenSink(jsonWriter));
+            jsonWriter.flush();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
     }
 
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.gson;
+
+import com.google.gson.stream.JsonWriter;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Adapts a Gson {@link JsonWriter} to the {@link JsonTokenSink} interface.
+ */
+final class GsonTokenSink implements JsonTokenSink {
+
+    private final JsonWriter writer;
+
+    GsonTokenSink(JsonWriter writer) {
+        Objects.requireNonNull(writer, "writer");
+
+        this.writer = writer;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        writer.beginObject();
+    }
+
+    @Override
+    public void name(String name) throws IOException {
+        Objects.requireNonNull(name, "name");
+
+        writer.name(name);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        writer.endObject();
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        writer.beginArray();
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        writer.endArray();
+    }
+
+    @Override
+    public void nullValue() throws IOException {
+        writer.nullValue();
+    }
+
+    @Override
+    public void booleanValue(boolean value) throws IOException {
+        writer.value(value);
+    }
+
+    @Override
+    public void numberValue(long value) throws IOException {
+        writer.value(value);
+    }
+
+    @Override
+    public void numberValue(double value) throws IOException {
+        writer.value(value);
+    }
+
+    @Override
+    public void numberValue(Number value) throws IOException {
+        Objects.requireNonNull(value, "value");
+
+        writer.value(value);
+    }
+
+    @Override
+    public void stringValue(String value) throws IOException {
+        Objects.requireNonNull(value, "value");
+
+        writer.value(value);
+    }
+
+    @Override
+    public void element(JsonElement element) throws IOException {
+        Objects.requireNonNull(element, "element");
+
+        JsonElementTypeAdapter.INSTANCE.write(writer, element);
+    }
+
+}
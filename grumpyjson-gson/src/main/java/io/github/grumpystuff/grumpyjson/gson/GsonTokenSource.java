@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.gson;
+
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Adapts a Gson {@link JsonReader} to the {@link JsonTokenSource} interface.
+ * <p>
+ * If a value of an unexpected kind is found, that value gets read as a {@link JsonElement} and the corresponding
+ * deserializerExpectsXXX method is called on it. This consumes the value and throws an exception with the same
+ * message as tree-based deserialization.
+ */
+final class GsonTokenSource implements JsonTokenSource {
+
+    private final JsonReader reader;
+
+    GsonTokenSource(JsonReader reader) {
+        Objects.requireNonNull(reader, "reader");
+
+        this.reader = reader;
+    }
+
+    @Override
+    public ValueType peek() throws IOException {
+        JsonToken token = reader.peek();
+        return switch (token) {
+            case NULL -> ValueType.NULL;
+            case BOOLEAN -> ValueType.BOOLEAN;
+            case NUMBER -> ValueType.NUMBER;
+            case STRING -> ValueType.STRING;
+            case BEGIN_ARRAY -> ValueType.ARRAY;
+            case BEGIN_OBJECT -> ValueType.OBJECT;
+            default -> throw new IllegalStateException("expected a value, found " + token);
+        };
+    }
+
+    @Override
+    public void beginObject() throws JsonDeserializationException, IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            readElement().deserializerExpectsObject();
+        }
+        reader.beginObject();
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        return reader.nextName();
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        reader.endObject();
+    }
+
+    @Override
+    public void beginArray() throws JsonDeserializationException, IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            readElement().deserializerExpectsArray();
+        }
+        reader.beginArray();
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        reader.endArray();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        return reader.hasNext();
+    }
+
+    @Override
+    public void nextNull() throws JsonDeserializationException, IOException {
+        if (reader.peek() != JsonToken.NULL) {
+            readElement().deserializerExpectsNull();
+        }
+        reader.nextNull();
+    }
+
+    @Override
+    public boolean nextBoolean() throws JsonDeserializationException, IOException {
+        if (reader.peek() != JsonToken.BOOLEAN) {
+            return readElement().deserializerExpectsBoolean();
+        }
+        return reader.nextBoolean();
+    }
+
+    @Override
+    public Number nextNumber() throws JsonDeserializationException, IOException {
+        if (reader.peek() != JsonToken.NUMBER) {
+            return readElement().deserializerExpectsNumber();
+        }
+        // same representation as in a Gson tree, so both ways of deserializing see the same numbers
+        return new LazilyParsedNumber(reader.nextString());
+    }
+
+    @Override
+    public double nextDouble() throws JsonDeserializationException, IOException {
+        if (reader.peek() != JsonToken.NUMBER) {
+            return readElement().deserializerExpectsDouble();
+        }
+        return reader.nextDouble();
+    }
+
+    @Override
+    public float nextFloat() throws JsonDeserializationException, IOException {
+        if (reader.peek() != JsonToken.NUMBER) {
+            return readElement().deserializerExpectsNumber().floatValue();
+        }
+        return Float.parseFloat(reader.nextString());
+    }
+
+    @Override
+    public String nextString() throws JsonDeserializationException, IOException {
+        if (reader.peek() != JsonToken.STRING) {
+            return readElement().deserializerExpectsString();
+        }
+        return reader.nextString();
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        reader.skipValue();
+    }
+
+    @Override
+    public JsonElement readElement() throws IOException {
+        return JsonElementTypeAdapter.INSTANCE.read(reader);
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import io.github.grumpystuff.grumpyjson.json_model.*;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Reads and writes grumpyjson {@link JsonElement}s directly from/to Gson's streaming API, without building a Gson
+ * tree in between.
+ * <p>
+ * Both directions are iterative instead of recursive, so deeply nested JSON cannot overflow the call stack. Numbers
+ * are read as {@link LazilyParsedNumber}, like Gson does for its own tree, so both ways of deserializing see the same
+ * numbers.
+ */
+final class JsonElementTypeAdapter extends TypeAdapter<JsonElement> {
+
+    static final JsonElementTypeAdapter INSTANCE = new JsonElementTypeAdapter();
+
+    private JsonElementTypeAdapter() {
+    }
+
+    @Override
+    public JsonElement read(JsonReader in) throws IOException {
+        Objects.requireNonNull(in, "in");
+
+        Deque<PartialContainer> stack = new ArrayDeque<>();
+        while (true) {
+            PartialContainer container = stack.peek();
+            JsonElement value;
+            if (container != null && !in.hasNext()) {
+                stack.pop();
+                value = container.finish(in);
+            } else {
+                if (container != null && container.properties != null) {
+                    container.name = in.nextName();
+                }
+                JsonToken token = in.peek();
+                switch (token) {
+                    case BEGIN_ARRAY -> {
+                        in.beginArray();
+                        stack.push(new PartialContainer(false));
+                        continue;
+                    }
+                    case BEGIN_OBJECT -> {
+                        in.beginObject();
+                        stack.push(new PartialContainer(true));
+                        continue;
+                    }
+                    case STRING -> value = JsonString.of(in.nextString());
+                    case NUMBER -> value = JsonNumber.of(new LazilyParsedNumber(in.nextString()));
+                    case BOOLEAN -> value = JsonBoolean.of(in.nextBoolean());
+                    case NULL -> {
+                        in.nextNull();
+                        value = JsonNull.INSTANCE;
+                    }
+                    default -> throw new IllegalStateException("expected a value, found " + token);
+                }
+            }
+            PartialContainer parent = stack.peek();
+            if (parent == null) {
+                return value;
+            }
+            parent.add(value);
+        }
+    }
+
+    @Override
+    public void write(JsonWriter out, JsonElement element) throws IOException {
+        Objects.requireNonNull(out, "out");
+        Objects.requireNonNull(element, "element");
+
+        Deque<OpenContainer> stack = new ArrayDeque<>();
+        Object next = element;
+        while (true) {
+            if (next instanceof Map.Entry<?, ?> entry) {
+                out.name((String) entry.getKey());
+                next = entry.getValue();
+            }
+            if (next instanceof JsonObject o) {
+                out.beginObject();
+                stack.push(new OpenContainer(o.getAsMap().entrySet().iterator(), true));
+            } else if (next instanceof JsonArray a) {
+                out.beginArray();
+                stack.push(new OpenContainer(a.getAsList().iterator(), false));
+            } else if (next instanceof JsonString s) {
+                out.value(s.getValue());
+            } else if (next instanceof JsonNumber n) {
+                out.value(n.getValue());
+            } else if (next instanceof JsonBoolean b) {
+                out.value(b.getValue());
+            } else if (next instanceof JsonNull) {
+                out.nullValue();
+            } else {
+                throw new IllegalArgumentException("unknown element type: " + next);
+            }
+            while (true) {
+                OpenContainer container = stack.peek();
+                if (container == null) {
+                    return;
+                }
+                if (container.iterator.hasNext()) {
+                    next = container.iterator.next();
+                    break;
+                }
+                stack.pop();
+                if (container.object) {
+                    out.endObject();
+                } else {
+                    out.endArray();
+                }
+            }
+        }
+    }
+
+    /**
+     * An array or object that is being written. For objects, the iterator returns map entries.
+     */
+    private record OpenContainer(Iterator<?> iterator, boolean object) {}
+
+    /**
+     * An array or object that is being read.
+     */
+    private static final class PartialContainer {
+
+        // exactly one of these is non-null
+        final List<JsonElement> elements;
+        final JsonObject.Builder properties;
+
+        // for objects: the name of the property whose value is being read
+        String name;
+
+        PartialContainer(boolean object) {
+            this.elements = object ? null : new ArrayList<>();
+            this.properties = object ? new JsonObject.Builder(4) : null;
+        }
+
+        void add(JsonElement value) {
+            if (properties != null) {
+                // like in a Gson tree, the last of several properties with the same name wins
+                properties.add(name, value);
+            } else {
+                elements.add(value);
+            }
+        }
+
+        JsonElement finish(JsonReader in) throws IOException {
+            if (properties != null) {
+                in.endObject();
+                return properties.build();
+            } else {
+                in.endArray();
+                return JsonArray.of(elements);
+            }
+        }
+
+    }
+
+}
@@ -6,17 +6,220 @@
  */
 package io.github.grumpystuff.grumpyjson.gson;
 
+import io.github.grumpystuff.grumpyjson.ExceptionMessages;
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
 import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalField;
+import io.github.grumpystuff.grumpyjson.deserialize.CustomJsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.*;
+import io.github.grumpystuff.grumpyjson.serialize.CustomJsonSerializer;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests the {@link JsonEngine} contract. Other engines subclass this test and override {@link #createEngine()} to run
+ * the same tests against themselves.
+ */
 public class JsonEngineTest {
 
-    private final JsonEngine engine = new GsonBasedJsonEngine();
+    private record Custom(String text) {}
+
+    private record Item(String name, int count, OptionalField<String> note, Custom custom) {}
+
+    private record Broken() {}
+
+    private record BrokenHolder(String name, List<Broken> items) {}
+
+    private final JsonEngine engine = createEngine();
+
+    public JsonEngineTest() {
+        engine.registerSerializer(CustomJsonSerializer.from(Custom.class, value -> JsonString.of(value.text())));
+        engine.registerDeserializer(CustomJsonDeserializer.from(
+                Custom.class, json -> new Custom(json.deserializerExpectsString())));
+        engine.registerDeserializer(new JsonDeserializer() {
+
+            @Override
+            public boolean supportsTypeForDeserialization(Type type) {
+                return type.equals(Broken.class);
+            }
+
+            @Override
+            public Object deserialize(JsonElement json, Type type) {
+                throw new IllegalStateException("broken");
+            }
+
+            @Override
+            public Object deserializeFrom(JsonTokenSource source, Type type)
+                    throws JsonDeserializationException, IOException {
+                // leaves the source in the middle of the value
+                source.beginArray();
+                throw new IllegalStateException("broken");
+            }
+
+        });
+        engine.seal();
+    }
+
+    /**
+     * Creates the engine to test. Called once per test, before the engine gets configured.
+     *
+     * @return the engine
+     */
+    protected JsonEngine createEngine() {
+        return new GsonBasedJsonEngine();
+    }
 
     @Test
     public void testNullToJson() {
         Assertions.assertThrows(NullPointerException.class, () -> engine.serializeToString(null));
     }
 
+    @Test
+    public void testStreamingRoundTrip() throws Exception {
+        List<Item> items = List.of(
+                new Item("foo", 1, OptionalField.ofValue("a \"quoted\" note"), new Custom("x")),
+                new Item("bar", 2, OptionalField.ofNothing(), new Custom("y"))
+        );
+        String json = engine.serializeToString(items);
+        Assertions.assertFalse(json.contains("\"note\": null"));
+        Assertions.assertEquals(items, engine.deserialize(json, new TypeToken<List<Item>>() {}));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        engine.writeTo(items, outputStream);
+        Assertions.assertEquals(json, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDeserializationErrorsAreAggregated() {
+        String json = "[{\"name\": 1, \"count\": 2, \"custom\": \"x\"}, {\"name\": \"b\", \"count\": 2.5, \"custom\": [], \"extra\": {}}]";
+        JsonDeserializationException exception = Assertions.assertThrows(JsonDeserializationException.class,
+                () -> engine.deserialize(json, new TypeToken<List<Item>>() {}));
+        Set<List<String>> fieldPaths = new HashSet<>();
+        for (FieldErrorNode.FlattenedError error : exception.getFieldErrorNode().flatten()) {
+            fieldPaths.add(error.fieldPath());
+        }
+        Set<List<String>> expectedFieldPaths = new HashSet<>(Set.of(List.of("0", "name"), List.of("1", "custom"),
+                List.of("1", "extra")));
+        if (!truncatesFractionalDigitsForIntegers()) {
+            expectedFieldPaths.add(List.of("1", "count"));
+        }
+        Assertions.assertEquals(expectedFieldPaths, fieldPaths);
+    }
+
+    /**
+     * Whether the engine accepts a number with fractional digits, such as 2.5, for an integer field and drops the
+     * fractional digits, like the Gson-based engine does. Other engines reject such numbers.
+     *
+     * @return true to expect the fractional digits to be dropped, false to expect an error
+     */
+    protected boolean truncatesFractionalDigitsForIntegers() {
+        return true;
+    }
+
+    @Test
+    public void testNoMoreReadingAfterOtherExceptions() {
+        // neither the error for "name" nor a syntax error caused by reading on from the wrong position gets reported
+        String json = "{\"items\": [[1, 2], [3]], \"name\": 5}";
+        JsonDeserializationException exception = Assertions.assertThrows(JsonDeserializationException.class,
+                () -> engine.deserialize(json, BrokenHolder.class));
+        Assertions.assertEquals(List.of(new FieldErrorNode.FlattenedError(ExceptionMessages.INTERNAL_ERROR,
+                List.of("items", "0"))), exception.getFieldErrorNode().flatten());
+    }
+
+    @Test
+    public void testLaterDuplicateMapKeyReplacesError() throws Exception {
+        TypeToken<Map<String, Integer>> type = new TypeToken<>() {};
+        Assertions.assertEquals(Map.of("a", 1, "b", 2), engine.deserialize("{\"a\": \"x\", \"b\": 2, \"a\": 1}", type));
+
+        JsonDeserializationException exception = Assertions.assertThrows(JsonDeserializationException.class,
+                () -> engine.deserialize("{\"a\": \"x\", \"a\": true}", type));
+        List<FieldErrorNode.FlattenedError> errors = exception.getFieldErrorNode().flatten();
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertEquals(List.of("value[a]"), errors.get(0).fieldPath());
+    }
+
+    @Test
+    public void testSyntaxErrors() {
+        assertDeserializationMessage("no JSON to deserialize", " ");
+        assertSyntaxError(25, "{\"name\": \"foo\", \"count\" 1}");
+        assertSyntaxError(17, "{\"name\": \"foo\", ");
+        assertSyntaxError(17, "{\"name\": \"foo\"} {}");
+
+        // syntax errors take precedence over mapping errors that were found earlier
+        assertSyntaxError(27, "{\"name\": 5, \"unknown\": [1,]}");
+    }
+
+    /**
+     * Whether the engine reports syntax errors one column after the offending character, like Gson does. At the end
+     * of the input, there is no such character and all engines report the column after the last character.
+     *
+     * @return true to expect the column after the offending character
+     */
+    protected boolean reportsColumnAfterOffendingCharacter() {
+        return true;
+    }
+
+    private void assertSyntaxError(int column, String json) {
+        if (column <= json.length() && reportsColumnAfterOffendingCharacter()) {
+            column++;
+        }
+        assertDeserializationMessage("syntax error in JSON at line 1, column " + column, json);
+    }
+
+    private void assertDeserializationMessage(String expectedMessage, String json) {
+        JsonDeserializationException exception = Assertions.assertThrows(JsonDeserializationException.class,
+                () -> engine.deserialize(json, Item.class));
+        List<FieldErrorNode.FlattenedError> errors = exception.getFieldErrorNode().flatten();
+        Assertions.assertEquals(List.of(new FieldErrorNode.FlattenedError(expectedMessage, List.of())), errors);
+    }
+
+    @Test
+    public void testJsonElementRoundTrip() throws Exception {
+        String json = "{\"a\": [1, 2.5, -3e10, true, null, \"x\"], \"b\": {}, \"a\": [false]}";
+        JsonElement element = engine.deserialize(json, JsonElement.class);
+        JsonElement expected = JsonObject.of("a", JsonArray.of(JsonBoolean.FALSE), "b", JsonObject.of());
+        Assertions.assertEquals(expected, element);
+        Assertions.assertEquals(expected, engine.deserialize(engine.serializeToString(element), JsonElement.class));
+    }
+
+    @Test
+    public void testDeepNesting() throws Exception {
+        int depth = 100_000;
+        String json = "[".repeat(depth) + "{\"x\": 1}" + "]".repeat(depth);
+        JsonElement element = engine.deserialize(json, JsonElement.class);
+        for (int i = 0; i < depth; i++) {
+            element = ((JsonArray) element).getAsList().get(0);
+        }
+        Assertions.assertEquals(JsonObject.of("x", JsonNumber.of(1)), element);
+
+        // pretty-printing indents each level, so the output grows quadratically with depth
+        JsonElement nested = JsonArray.of();
+        for (int i = 0; i < 2000; i++) {
+            nested = JsonArray.of(nested);
+        }
+        String output = engine.serializeToString(nested);
+        Assertions.assertEquals(nested, engine.deserialize(output, JsonElement.class));
+    }
+
+    @Test
+    public void testSerializationErrorHasFieldPath() {
+        JsonSerializationException exception = Assertions.assertThrows(JsonSerializationException.class,
+                () -> engine.serializeToString(List.of(new Item("foo", 1, OptionalField.ofNothing(), null))));
+        Assertions.assertEquals(List.of("0", "custom"), exception.getFieldErrorNode().flatten().get(0).fieldPath());
+    }
+
 }
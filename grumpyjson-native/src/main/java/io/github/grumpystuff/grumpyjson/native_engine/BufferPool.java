@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A pool of output buffers, so serializing a value does not have to allocate a new buffer each time.
+ * <p>
+ * The pool is not bound to threads, so it works the same for platform threads, virtual threads and thread pools.
+ * It keeps only a limited number of buffers, and drops buffers that have grown too large, so a single large response
+ * does not keep its memory allocated forever. If the pool is empty, a new buffer gets allocated.
+ */
+final class BufferPool {
+
+    static final int INITIAL_BUFFER_SIZE = 8192;
+    static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+    static final int MAX_POOLED_BUFFERS = 64;
+
+    private final ArrayBlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+
+    /**
+     * Takes a buffer from the pool, or allocates a new one if the pool is empty. The contents of the buffer are
+     * undefined.
+     *
+     * @return the buffer
+     */
+    byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        return buffer == null ? new byte[INITIAL_BUFFER_SIZE] : buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. The caller must not use the buffer afterward.
+     *
+     * @param buffer the buffer
+     */
+    void release(byte[] buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+
+        if (buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+            // if the pool is full, the buffer just gets dropped
+            buffers.offer(buffer);
+        }
+    }
+
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import java.math.BigInteger;
+
+/**
+ * Writes the shortest decimal text that reads back as the same double, directly into a byte array. This uses the
+ * Schubfach algorithm by Raffaello Giulietti ("The Schubfach way to render doubles", 2020), which is also what
+ * {@link Double#toString(double)} uses since Java 19. The format is the same as that of
+ * {@link Double#toString(double)}: plain notation with at least one digit after the point for magnitudes from 10^-3
+ * (inclusive) to 10^7 (exclusive), and computerized scientific notation such as 1.5E-5 otherwise.
+ * <p>
+ * Before Java 19, {@link Double#toString(double)} sometimes returns more digits than needed (JDK-4511638), and either
+ * way, it creates a String that would have to be copied to the output.
+ */
+final class DoubleToDecimal {
+
+    /**
+     * The maximum number of bytes written for a single value, as in -2.2250738585072014E-308
+     */
+    static final int MAX_LENGTH = 24;
+
+    // precision of a double in bits, including the implicit leading one
+    private static final int P = 53;
+
+    // the exponent of the least significant bit of subnormal doubles
+    private static final int Q_MIN = -1074;
+
+    private static final long C_MIN = 1L << (P - 1);
+    private static final long T_MASK = C_MIN - 1;
+    private static final int BQ_MASK = 0x7ff;
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final int MASK_28 = (1 << 28) - 1;
+
+    // subnormal significands below this are multiplied by 10 so the algorithm still has enough digits to work with
+    private static final int C_TINY = 3;
+
+    // the number of decimal digits generated before removing trailing zeros
+    private static final int H = 17;
+
+    // range of the decimal exponents used to scale the binary values
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+
+    private static final long[] POW10 = new long[H + 1];
+
+    /**
+     * For each k from K_MIN to K_MAX, a 126-bit approximation g of 10^-k from above, scaled to 2^125 &lt;= g &lt;
+     * 2^126, split into the upper and lower 63 bits at indices 2 * (k - K_MIN) and 2 * (k - K_MIN) + 1.
+     */
+    private static final long[] G = new long[2 * (K_MAX - K_MIN + 1)];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i <= H; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int r = flog2pow10(-k) - 125;
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger power = BigInteger.TEN.pow(-k);
+                g = r >= 0 ? power.shiftRight(r) : power.shiftLeft(-r);
+            } else {
+                g = BigInteger.ONE.shiftLeft(-r).divide(BigInteger.TEN.pow(k));
+            }
+            g = g.add(BigInteger.ONE);
+            G[2 * (k - K_MIN)] = g.shiftRight(63).longValueExact();
+            G[2 * (k - K_MIN) + 1] = g.longValue() & MASK_63;
+        }
+    }
+
+    // prevent instantiation
+    private DoubleToDecimal() {
+    }
+
+    /**
+     * Writes the specified value. The caller must ensure that there are at least {@link #MAX_LENGTH} bytes of space
+     * in the buffer.
+     *
+     * @param value the value to write. Must be finite.
+     * @param buffer the buffer to write to
+     * @param index the index in the buffer to start writing at
+     * @return the index after the last byte written
+     */
+    static int write(double value, byte[] buffer, int index) {
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+        if (bq == BQ_MASK) {
+            throw new IllegalArgumentException("value must be finite, found: " + value);
+        }
+        if (bits < 0) {
+            buffer[index++] = '-';
+        }
+        if (bq != 0) {
+            // normal value: (C_MIN + t) * 2^q with q = bq - 1075 = -mq
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            if (0 < mq && mq < P) {
+                // fast path for integers below 2^53
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return writeDecimal(buffer, index, f, 0);
+                }
+            }
+            return toDecimal(buffer, index, -mq, c, 0);
+        }
+        if (t != 0) {
+            // subnormal value: t * 2^Q_MIN
+            return t < C_TINY ? toDecimal(buffer, index, Q_MIN, 10 * t, -1) : toDecimal(buffer, index, Q_MIN, t, 0);
+        }
+        buffer[index++] = '0';
+        buffer[index++] = '.';
+        buffer[index++] = '0';
+        return index;
+    }
+
+    /**
+     * Finds the shortest decimal f * 10^e in the rounding interval of c * 2^q, or the one closest to it if there are
+     * several, and writes it. The value of dk gets added to the decimal exponent, to undo a scaling of c.
+     */
+    private static int toDecimal(byte[] buffer, int index, int q, long c, int dk) {
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN | q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // the interval is asymmetric at powers of two, since the next lower double is closer
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = G[2 * (k - K_MIN)];
+        long g0 = G[2 * (k - K_MIN) + 1];
+
+        // the value and the bounds of its rounding interval, scaled by 10^-k and multiplied by 4
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        // try one digit less than s has first
+        long s = vb >> 2;
+        if (s >= 100) {
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return writeDecimal(buffer, index, upin ? sp10 : tp10, k + dk);
+            }
+        }
+
+        // s or s + 1 is in the rounding interval; if both are, take the one closer to the value, or the even one
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return writeDecimal(buffer, index, uin ? s : t, k + dk);
+        }
+        long cmp = vb - (s + t << 1);
+        return writeDecimal(buffer, index, cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk);
+    }
+
+    /**
+     * Computes cp * g / 2^126 with g = g1 * 2^63 + g0, rounded to odd.
+     */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /**
+     * Writes f * 10^e, with f &gt; 0.
+     */
+    private static int writeDecimal(byte[] buffer, int index, long f, int e) {
+
+        // normalize f to H digits, so the value is 0.f * 10^e
+        int length = flog10pow2(Long.SIZE - Long.numberOfLeadingZeros(f));
+        if (f >= POW10[length]) {
+            length++;
+        }
+        f *= POW10[H - length];
+        e += length;
+
+        // split f into its first digit h and two blocks m and l of eight digits each
+        long hm = Math.multiplyHigh(f, 193_428_131_138_340_668L) >>> 20;
+        int l = (int) (f - 100_000_000L * hm);
+        int h = (int) (hm * 1_441_151_881L >>> 57);
+        int m = (int) (hm - 100_000_000 * h);
+
+        if (0 < e && e <= 7) {
+            // plain notation with e digits before the point
+            buffer[index++] = (byte) ('0' + h);
+            int y = fraction(m);
+            int i;
+            for (i = 1; i < e; i++) {
+                int digits = 10 * y;
+                buffer[index++] = (byte) ('0' + (digits >>> 28));
+                y = digits & MASK_28;
+            }
+            buffer[index++] = '.';
+            for (; i <= 8; i++) {
+                int digits = 10 * y;
+                buffer[index++] = (byte) ('0' + (digits >>> 28));
+                y = digits & MASK_28;
+            }
+            return writeLowDigits(buffer, index, l);
+        } else if (-3 < e && e <= 0) {
+            // plain notation with zeros after the point
+            buffer[index++] = '0';
+            buffer[index++] = '.';
+            for (; e < 0; e++) {
+                buffer[index++] = '0';
+            }
+            buffer[index++] = (byte) ('0' + h);
+            index = write8Digits(buffer, index, m);
+            return writeLowDigits(buffer, index, l);
+        } else {
+            buffer[index++] = (byte) ('0' + h);
+            buffer[index++] = '.';
+            index = write8Digits(buffer, index, m);
+            index = writeLowDigits(buffer, index, l);
+            return writeExponent(buffer, index, e - 1);
+        }
+    }
+
+    /**
+     * Returns a / 10^8 as a fixed-point number with 28 fractional bits, so the decimal digits of a can be obtained by
+     * repeatedly multiplying by 10 and taking the integral part.
+     */
+    private static int fraction(int a) {
+        return (int) (Math.multiplyHigh((long) (a + 1) << 28, 193_428_131_138_340_668L) >>> 20) - 1;
+    }
+
+    private static int write8Digits(byte[] buffer, int index, int m) {
+        int y = fraction(m);
+        for (int i = 0; i < 8; i++) {
+            int digits = 10 * y;
+            buffer[index++] = (byte) ('0' + (digits >>> 28));
+            y = digits & MASK_28;
+        }
+        return index;
+    }
+
+    /**
+     * Writes the last block of eight digits, unless it is zero, then removes trailing zeros but keeps at least one
+     * digit after the point.
+     */
+    private static int writeLowDigits(byte[] buffer, int index, int l) {
+        if (l != 0) {
+            index = write8Digits(buffer, index, l);
+        }
+        while (buffer[index - 1] == '0') {
+            index--;
+        }
+        if (buffer[index - 1] == '.') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int writeExponent(byte[] buffer, int index, int e) {
+        buffer[index++] = 'E';
+        if (e < 0) {
+            buffer[index++] = '-';
+            e = -e;
+        }
+        if (e >= 100) {
+            int d = e * 1_311 >>> 17;
+            buffer[index++] = (byte) ('0' + d);
+            e -= 100 * d;
+            d = e * 103 >>> 10;
+            buffer[index++] = (byte) ('0' + d);
+            buffer[index++] = (byte) ('0' + e - 10 * d);
+        } else if (e >= 10) {
+            int d = e * 103 >>> 10;
+            buffer[index++] = (byte) ('0' + d);
+            buffer[index++] = (byte) ('0' + e - 10 * d);
+        } else {
+            buffer[index++] = (byte) ('0' + e);
+        }
+        return index;
+    }
+
+    // floor(e * log10(2)) for |e| <= 5456721
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    // floor(e * log10(2) + log10(3/4)) for |e| <= 5456721
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    // floor(e * log2(10)) for |e| <= 1233
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link Utf8JsonReader} for syntax errors. The message is meant to be shown to clients, so it only tells
+ * the position of the error, not the internals of the parser.
+ */
+final class MalformedJsonException extends IOException {
+
+    MalformedJsonException(String message) {
+        super(message);
+    }
+
+}
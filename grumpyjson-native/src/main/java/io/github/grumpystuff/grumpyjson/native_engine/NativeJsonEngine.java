@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.deserialize.AbortedDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Implementation of {@link JsonEngine} that parses and generates UTF-8 bytes directly, without any third-party
+ * library and without decoding the input to characters first.
+ * <p>
+ * Deserialization produces the same results and the same error messages as the Gson-based engine, with two
+ * exceptions. The position reported for a syntax error is always that of the offending character. And a number with
+ * fractional digits, such as 2.5, is rejected for an integer type like int or long, while the Gson-based engine drops
+ * the fractional digits.
+ * <p>
+ * Serialization produces compact JSON without any whitespace. Unlike Gson, characters such as '&lt;' or '=' are not
+ * escaped, since the output is meant to be sent as application/json, not embedded in HTML.
+ * <p>
+ * Byte-based input is parsed in place. Character-based input (strings and readers) gets encoded to UTF-8 first, so
+ * it is better to pass bytes if they are available anyway. Output is generated in buffers that get reused across calls,
+ * and record property names are copied to the output in their pre-encoded form.
+ */
+public final class NativeJsonEngine extends JsonEngine {
+
+    private final BufferPool bufferPool = new BufferPool();
+    private final StringCache stringCache;
+
+    /**
+     * Creates a new JSON engine with standard converters registered.
+     */
+    public NativeJsonEngine() {
+        this(null);
+    }
+
+    /**
+     * Creates a new JSON engine with standard converters registered, which looks up the strings it reads in the
+     * specified cache. This is useful if the input contains the same strings many times.
+     *
+     * @param stringCache the string cache, or null to always create new strings
+     */
+    public NativeJsonEngine(StringCache stringCache) {
+        this.stringCache = stringCache;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the string cache, or null if this engine does not use one
+     */
+    public StringCache getStringCache() {
+        return stringCache;
+    }
+
+    // -----------------------------------------------------------------------
+    // deserialize
+    // -----------------------------------------------------------------------
+
+    @Override
+    public <T> T deserialize(String source, Class<T> clazz) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.cast(deserialize(source, (Type) clazz));
+    }
+
+    @Override
+    public <T> T deserialize(String source, TypeToken<T> typeToken) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(typeToken, "typeToken");
+
+        // the converter for the token's type produces values of type T
+        @SuppressWarnings("unchecked") T result = (T) deserialize(source, typeToken.getType());
+        return result;
+    }
+
+    @Override
+    public Object deserialize(String source, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return deserialize(source.getBytes(StandardCharsets.UTF_8), type);
+    }
+
+    @Override
+    public <T> T deserialize(InputStream source, Class<T> clazz) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.cast(deserialize(source, (Type) clazz));
+    }
+
+    @Override
+    public <T> T deserialize(InputStream source, TypeToken<T> typeToken) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(typeToken, "typeToken");
+
+        // the converter for the token's type produces values of type T
+        @SuppressWarnings("unchecked") T result = (T) deserialize(source, typeToken.getType());
+        return result;
+    }
+
+    @Override
+    public Object deserialize(InputStream source, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        byte[] bytes;
+        try {
+            bytes = source.readAllBytes();
+        } catch (IOException e) {
+            throw new JsonDeserializationException("I/O error while reading JSON");
+        }
+        return deserialize(bytes, type);
+    }
+
+    @Override
+    public <T> T deserialize(Reader source, Class<T> clazz) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.cast(deserialize(source, (Type) clazz));
+    }
+
+    @Override
+    public <T> T deserialize(Reader source, TypeToken<T> typeToken) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(typeToken, "typeToken");
+
+        // the converter for the token's type produces values of type T
+        @SuppressWarnings("unchecked") T result = (T) deserialize(source, typeToken.getType());
+        return result;
+    }
+
+    @Override
+    public Object deserialize(Reader source, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[8192];
+        try {
+            while (true) {
+                int count = source.read(buffer);
+                if (count < 0) {
+                    break;
+                }
+                builder.append(buffer, 0, count);
+            }
+        } catch (IOException e) {
+            throw new JsonDeserializationException("I/O error while reading JSON");
+        }
+        return deserialize(builder.toString(), type);
+    }
+
+    @Override
+    public Object deserialize(byte[] source, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return deserialize(source, 0, source.length, type);
+    }
+
+    /**
+     * deserializes JSON from the remaining bytes of a {@link ByteBuffer}. As demanded by the MIME type
+     * application/json, the input must be UTF-8 encoded. The position of the buffer is not changed.
+     *
+     * @param source the source buffer
+     * @param clazz the target type to deserialize to
+     * @return the deserialized value
+     * @param <T> the static target type
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public <T> T deserialize(ByteBuffer source, Class<T> clazz) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.cast(deserialize(source, (Type) clazz));
+    }
+
+    /**
+     * deserializes JSON from the remaining bytes of a {@link ByteBuffer}. As demanded by the MIME type
+     * application/json, the input must be UTF-8 encoded. The position of the buffer is not changed.
+     *
+     * @param source the source buffer
+     * @param typeToken a type token for the target type to deserialize to
+     * @return the deserialized value
+     * @param <T> the static target type
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public <T> T deserialize(ByteBuffer source, TypeToken<T> typeToken) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(typeToken, "typeToken");
+
+        // the converter for the token's type produces values of type T
+        @SuppressWarnings("unchecked") T result = (T) deserialize(source, typeToken.getType());
+        return result;
+    }
+
+    /**
+     * deserializes JSON from the remaining bytes of a {@link ByteBuffer}. As demanded by the MIME type
+     * application/json, the input must be UTF-8 encoded. The position of the buffer is not changed.
+     * <p>
+     * Buffers that are backed by an accessible array are parsed in place; all others get copied first.
+     *
+     * @param source the source buffer
+     * @param type the target type to deserialize to
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public Object deserialize(ByteBuffer source, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        if (source.hasArray()) {
+            return deserialize(source.array(), source.arrayOffset() + source.position(), source.remaining(), type);
+        }
+        byte[] bytes = new byte[source.remaining()];
+        source.duplicate().get(bytes);
+        return deserialize(bytes, 0, bytes.length, type);
+    }
+
+    private Object deserialize(byte[] source, int offset, int length, Type type) throws JsonDeserializationException {
+        Utf8JsonReader reader = new Utf8JsonReader(source, offset, length, stringCache);
+        if (reader.isBlank()) {
+            throw new JsonDeserializationException("no JSON to deserialize");
+        }
+        try {
+            Object result = null;
+            JsonDeserializationException deserializationException = null;
+            try {
+                result = deserializeFrom(reader, type);
+            } catch (JsonDeserializationException e) {
+                deserializationException = e;
+            } catch (AbortedDeserializationException e) {
+                // the position of the reader is unspecified, so the rest of the input cannot be checked
+                throw new JsonDeserializationException(e.getFieldErrorNode());
+            }
+            // Anything after the value is a syntax error. Syntax errors take precedence over errors from mapping
+            // the JSON to the target type, even if the latter were found first.
+            reader.expectEndOfDocument();
+            if (deserializationException != null) {
+                throw deserializationException;
+            }
+            return result;
+        } catch (MalformedJsonException e) {
+            throw new JsonDeserializationException(e.getMessage());
+        } catch (IOException e) {
+            // cannot happen since all input is in memory, but deserializers are allowed to throw it
+            throw new JsonDeserializationException("I/O error while reading JSON");
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // stringify / writeTo
+    // -----------------------------------------------------------------------
+
+    /**
+     * Converts a value to JSON and returns it as UTF-8 encoded bytes.
+     *
+     * @param value the value to convert
+     * @return the JSON bytes
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be
+     * converted to JSON
+     */
+    public byte[] serializeToBytes(Object value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        byte[] buffer = bufferPool.acquire();
+        Utf8JsonWriter writer = new Utf8JsonWriter(null, buffer);
+        try {
+            serializeTo(value, writer);
+            return writer.toByteArray();
+        } catch (IOException e) {
+            // cannot happen since there is no output stream, but serializers are allowed to throw it
+            throw new UncheckedIOException(e);
+        } finally {
+            bufferPool.release(writer.getBuffer());
+        }
+    }
+
+    @Override
+    public String serializeToString(Object value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        return new String(serializeToBytes(value), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void writeTo(Object value, OutputStream destination) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(destination, "destination");
+
+        write(value, destination);
+        try {
+            destination.close();
+        } catch (IOException e) {
+            // Ignore. This can happen if the network connection closes unexpectedly. There is no use in logging this,
+            // and we cannot tell the client about it either.
+        }
+    }
+
+    @Override
+    public void writeTo(Object value, Writer destination) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(destination, "destination");
+
+        String json = serializeToString(value);
+        try {
+            destination.write(json);
+            destination.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(Object value, OutputStream destination) throws JsonSerializationException {
+        Utf8JsonWriter writer = new Utf8JsonWriter(destination, bufferPool.acquire());
+        try {
+            serializeTo(value, writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            bufferPool.release(writer.getBuffer());
+        }
+    }
+
+}
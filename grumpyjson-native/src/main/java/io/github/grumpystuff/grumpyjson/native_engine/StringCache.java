@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of strings read by a {@link NativeJsonEngine}, so that strings which occur again and again in the
+ * input, such as property names, currency codes or status names, resolve to the same {@link String} instance instead
+ * of a new one each time. Pass an instance to {@link NativeJsonEngine#NativeJsonEngine(StringCache)} to use it.
+ * <p>
+ * The cache is looked up directly from the UTF-8 bytes of the input, so a hit does not allocate anything. Only
+ * strings that consist of ASCII characters from 0x20 to 0x7F, i.e. the printable ones plus DEL, without escape
+ * sequences are cached, which is the common case for the kind of values that repeat. Property names are always
+ * looked up; string values only if they are not longer than the maximum value length given to the constructor,
+ * because long values are unlikely to repeat.
+ * <p>
+ * The cache is direct-mapped: each string can only be stored in the slot selected by its hash code, and replaces
+ * whatever was stored there before. This keeps lookups cheap and the memory bounded, at the cost of a lower hit rate
+ * if many different strings compete for the same slots. The hit and miss counts can be used to tune its size.
+ * <p>
+ * An instance can be shared by any number of threads and engines. Access is not synchronized: Concurrent updates of
+ * the same slot may overwrite each other, which only costs a future hit, and strings are immutable, so reading a
+ * slot without synchronization is safe.
+ */
+public final class StringCache {
+
+    private final String[] entries;
+    private final int mask;
+    private final int maxValueLength;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param size the number of slots. Gets rounded up to the next power of two.
+     * @param maxValueLength the maximum length of string values to look up. Property names are looked up regardless
+     * of their length.
+     */
+    public StringCache(int size, int maxValueLength) {
+        if (size < 1 || size > (1 << 30)) {
+            throw new IllegalArgumentException("invalid size: " + size);
+        }
+        if (maxValueLength < 0) {
+            throw new IllegalArgumentException("invalid maxValueLength: " + maxValueLength);
+        }
+
+        int roundedSize = Integer.highestOneBit(size);
+        if (roundedSize < size) {
+            roundedSize *= 2;
+        }
+        this.entries = new String[roundedSize];
+        this.mask = roundedSize - 1;
+        this.maxValueLength = maxValueLength;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the number of slots
+     */
+    public int getSize() {
+        return entries.length;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the maximum length of string values to look up
+     */
+    public int getMaxValueLength() {
+        return maxValueLength;
+    }
+
+    /**
+     * Returns the number of lookups that found the string in the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that did not find the string in the cache, so a new string was created.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Resets the hit and miss counts to zero. Does not remove any strings from the cache.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Checks whether a string value of the specified length should be looked up.
+     */
+    boolean isCachedValueLength(int length) {
+        return length <= maxValueLength;
+    }
+
+    /**
+     * Returns the string for the specified bytes, which must all be ASCII characters, either from the cache or newly
+     * created.
+     */
+    String get(byte[] buffer, int offset, int length) {
+        int hashCode = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hashCode = 31 * hashCode + buffer[i];
+        }
+        // same as String.hashCode() for ASCII strings; spread the bits since the index only uses the lowest ones
+        int index = (hashCode ^ (hashCode >>> 16)) & mask;
+        String entry = entries[index];
+        if (entry != null && matches(entry, buffer, offset, length)) {
+            hits.increment();
+            return entry;
+        }
+        String result = new String(buffer, offset, length, StandardCharsets.ISO_8859_1);
+        entries[index] = result;
+        misses.increment();
+        return result;
+    }
+
+    private static boolean matches(String entry, byte[] buffer, int offset, int length) {
+        if (entry.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (entry.charAt(i) != buffer[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,843 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import io.github.grumpystuff.grumpyjson.builtin.FloatConverter;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonTokenSource;
+import io.github.grumpystuff.grumpyjson.json_model.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Parses JSON from UTF-8 encoded bytes. The whole input must be available as a byte array.
+ * <p>
+ * The parser is strict: It accepts exactly the syntax defined by RFC 8259, with the only exception that a leading
+ * byte order mark is ignored. Invalid UTF-8 is rejected too. Syntax errors are reported as
+ * {@link MalformedJsonException}.
+ * <p>
+ * Like other {@link JsonTokenSource} implementations, a value of an unexpected kind gets read as a
+ * {@link JsonElement}, and the corresponding deserializerExpectsXXX method is called on it. This consumes the value
+ * and throws an exception with the standard message.
+ * <p>
+ * Nested structures are handled with an explicit stack, not recursion, so deeply nested input cannot overflow the
+ * call stack while parsing, skipping or reading a {@link JsonElement}.
+ */
+final class Utf8JsonReader implements JsonTokenSource {
+
+    // tokens, as returned by peekToken()
+    private static final int NONE = 0;
+    private static final int BEGIN_OBJECT = 1;
+    private static final int END_OBJECT = 2;
+    private static final int BEGIN_ARRAY = 3;
+    private static final int END_ARRAY = 4;
+    private static final int NAME = 5;
+    private static final int STRING = 6;
+    private static final int NUMBER = 7;
+    private static final int TRUE = 8;
+    private static final int FALSE = 9;
+    private static final int NULL = 10;
+    private static final int END_DOCUMENT = 11;
+
+    // scopes, as stored in the scope stack
+    private static final byte EMPTY_DOCUMENT = 0;
+    private static final byte NONEMPTY_DOCUMENT = 1;
+    private static final byte EMPTY_ARRAY = 2;
+    private static final byte NONEMPTY_ARRAY = 3;
+    private static final byte EMPTY_OBJECT = 4;
+    private static final byte DANGLING_NAME = 5;
+    private static final byte NONEMPTY_OBJECT = 6;
+
+    // integral numbers with up to this many digits always fit into a long
+    private static final int MAX_SAFE_LONG_DIGITS = 18;
+
+    // cannot be the result of parsing up to MAX_SAFE_LONG_DIGITS digits
+    private static final long NOT_A_SMALL_INTEGER = Long.MIN_VALUE;
+
+    // 10^15 < 2^53, so any integer with this many digits is exactly representable as a double
+    private static final int MAX_FAST_PATH_DIGITS = 15;
+
+    // the powers of ten that are exactly representable as doubles
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+    };
+
+    private final byte[] buffer;
+    private final StringCache stringCache;
+    private final int start;
+    private final int limit;
+    private int position;
+
+    private byte[] scopes = new byte[32];
+    private int depth;
+
+    // the token found by peekToken() that has not been consumed yet. For strings and property names, the opening
+    // quote has been consumed already. For numbers, nothing has been consumed yet. All other tokens have been
+    // consumed completely.
+    private int peeked = NONE;
+
+    // scratch buffer for strings that contain escape sequences or non-ASCII characters
+    private char[] chars = new char[64];
+    private int charCount;
+
+    /**
+     * Constructor.
+     *
+     * @param buffer the buffer that contains the input
+     * @param offset the offset of the input in the buffer
+     * @param length the length of the input in bytes
+     * @param stringCache the cache to look up strings in, or null to always create new strings
+     */
+    Utf8JsonReader(byte[] buffer, int offset, int length, StringCache stringCache) {
+        Objects.requireNonNull(buffer, "buffer");
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+
+        this.buffer = buffer;
+        this.stringCache = stringCache;
+        this.start = offset;
+        this.limit = offset + length;
+        this.position = offset;
+        if (length >= 3 && buffer[offset] == (byte)0xEF && buffer[offset + 1] == (byte)0xBB && buffer[offset + 2] == (byte)0xBF) {
+            position += 3;
+        }
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Checks whether the input contains nothing but whitespace. Must only be called before reading anything.
+     */
+    boolean isBlank() {
+        return skipWhitespace() < 0;
+    }
+
+    /**
+     * Checks whether the input contains nothing but whitespace after the top-level value. Must only be called after
+     * the top-level value has been consumed.
+     *
+     * @throws MalformedJsonException if the input contains anything else
+     */
+    void expectEndOfDocument() throws MalformedJsonException {
+        if (peekToken() != END_DOCUMENT) {
+            throw new IllegalStateException("top-level value has not been consumed");
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // JsonTokenSource
+    // ----------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public ValueType peek() throws IOException {
+        return switch (peekToken()) {
+            case BEGIN_OBJECT -> ValueType.OBJECT;
+            case BEGIN_ARRAY -> ValueType.ARRAY;
+            case STRING -> ValueType.STRING;
+            case NUMBER -> ValueType.NUMBER;
+            case TRUE, FALSE -> ValueType.BOOLEAN;
+            case NULL -> ValueType.NULL;
+            default -> throw new IllegalStateException("expected a value");
+        };
+    }
+
+    @Override
+    public void beginObject() throws JsonDeserializationException, IOException {
+        if (peekToken() != BEGIN_OBJECT) {
+            readElement().deserializerExpectsObject();
+        }
+        peeked = NONE;
+        push(EMPTY_OBJECT);
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        if (peekToken() != NAME) {
+            throw new IllegalStateException("expected a property name");
+        }
+        peeked = NONE;
+        return readString(true);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        if (peekToken() != END_OBJECT) {
+            throw new IllegalStateException("expected end of object");
+        }
+        peeked = NONE;
+        depth--;
+    }
+
+    @Override
+    public void beginArray() throws JsonDeserializationException, IOException {
+        if (peekToken() != BEGIN_ARRAY) {
+            readElement().deserializerExpectsArray();
+        }
+        peeked = NONE;
+        push(EMPTY_ARRAY);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        if (peekToken() != END_ARRAY) {
+            throw new IllegalStateException("expected end of array");
+        }
+        peeked = NONE;
+        depth--;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        int token = peekToken();
+        return token != END_OBJECT && token != END_ARRAY && token != END_DOCUMENT;
+    }
+
+    @Override
+    public void nextNull() throws JsonDeserializationException, IOException {
+        if (peekToken() != NULL) {
+            readElement().deserializerExpectsNull();
+        }
+        peeked = NONE;
+    }
+
+    @Override
+    public boolean nextBoolean() throws JsonDeserializationException, IOException {
+        int token = peekToken();
+        if (token != TRUE && token != FALSE) {
+            return readElement().deserializerExpectsBoolean();
+        }
+        peeked = NONE;
+        return token == TRUE;
+    }
+
+    @Override
+    public Number nextNumber() throws JsonDeserializationException, IOException {
+        if (peekToken() != NUMBER) {
+            return readElement().deserializerExpectsNumber();
+        }
+        peeked = NONE;
+        return readNumber();
+    }
+
+    @Override
+    public long nextLong() throws JsonDeserializationException, IOException {
+        if (peekToken() != NUMBER) {
+            return readElement().deserializerExpectsLong();
+        }
+        peeked = NONE;
+        int numberStart = position;
+        position = scanNumber();
+        long value = parseSmallInteger(numberStart, position);
+        if (value != NOT_A_SMALL_INTEGER) {
+            return value;
+        }
+        return JsonNumber.ofText(numberText(numberStart, position)).deserializerExpectsLong();
+    }
+
+    @Override
+    public double nextDouble() throws JsonDeserializationException, IOException {
+        if (peekToken() != NUMBER) {
+            return readElement().deserializerExpectsDouble();
+        }
+        peeked = NONE;
+        int numberStart = position;
+        position = scanNumber();
+        return parseDouble(numberStart, position);
+    }
+
+    @Override
+    public float nextFloat() throws JsonDeserializationException, IOException {
+        if (peekToken() != NUMBER) {
+            return readElement().deserializerExpectsNumber().floatValue();
+        }
+        peeked = NONE;
+        int numberStart = position;
+        position = scanNumber();
+        double value = parseDouble(numberStart, position);
+        float result = (float) value;
+        if (FloatConverter.isBetweenFloats(value, result)) {
+            // rounding to double may have moved the number onto this midpoint, so round the text instead
+            return Float.parseFloat(numberText(numberStart, position));
+        }
+        return result;
+    }
+
+    @Override
+    public String nextString() throws JsonDeserializationException, IOException {
+        if (peekToken() != STRING) {
+            return readElement().deserializerExpectsString();
+        }
+        peeked = NONE;
+        return readString(false);
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        peek(); // fails if no value follows
+        int nesting = 0;
+        do {
+            int token = peekToken();
+            peeked = NONE;
+            switch (token) {
+                case BEGIN_OBJECT -> {
+                    push(EMPTY_OBJECT);
+                    nesting++;
+                }
+                case BEGIN_ARRAY -> {
+                    push(EMPTY_ARRAY);
+                    nesting++;
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    depth--;
+                    nesting--;
+                }
+                case NAME, STRING -> scanString(false);
+                case NUMBER -> position = scanNumber();
+                default -> {
+                    // literals have been consumed already
+                }
+            }
+        } while (nesting > 0);
+    }
+
+    @Override
+    public JsonElement readElement() throws IOException {
+        peek(); // fails if no value follows
+        Deque<Object> containers = new ArrayDeque<>();
+        while (true) {
+            int token = peekToken();
+            peeked = NONE;
+            JsonElement element;
+            switch (token) {
+                case BEGIN_OBJECT:
+                    push(EMPTY_OBJECT);
+                    containers.push(new PartialObject());
+                    continue;
+                case BEGIN_ARRAY:
+                    push(EMPTY_ARRAY);
+                    containers.push(new PartialArray());
+                    continue;
+                case NAME:
+                    ((PartialObject) containers.getFirst()).name = readString(true);
+                    continue;
+                case END_OBJECT:
+                    depth--;
+                    element = ((PartialObject) containers.pop()).properties.build();
+                    break;
+                case END_ARRAY:
+                    depth--;
+                    element = JsonArray.of(((PartialArray) containers.pop()).elements);
+                    break;
+                case STRING:
+                    element = JsonString.of(readString(false));
+                    break;
+                case NUMBER:
+                    element = readJsonNumber();
+                    break;
+                case TRUE:
+                    element = JsonBoolean.TRUE;
+                    break;
+                case FALSE:
+                    element = JsonBoolean.FALSE;
+                    break;
+                case NULL:
+                    element = JsonNull.INSTANCE;
+                    break;
+                default:
+                    throw new IllegalStateException("unexpected token: " + token);
+            }
+            Object container = containers.peekFirst();
+            if (container == null) {
+                return element;
+            } else if (container instanceof PartialObject partialObject) {
+                partialObject.properties.add(partialObject.name, element);
+            } else {
+                ((PartialArray) container).elements.add(element);
+            }
+        }
+    }
+
+    private static final class PartialObject {
+        // like for a JsonObject built from a map, the last of several properties with the same name wins
+        final JsonObject.Builder properties = new JsonObject.Builder(4);
+        String name;
+    }
+
+    private static final class PartialArray {
+        final List<JsonElement> elements = new ArrayList<>();
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // tokenizer
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private void push(byte scope) {
+        depth++;
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, scopes.length * 2);
+        }
+        scopes[depth] = scope;
+    }
+
+    private int peekToken() throws MalformedJsonException {
+        if (peeked != NONE) {
+            return peeked;
+        }
+        int c;
+        switch (scopes[depth]) {
+            case EMPTY_DOCUMENT:
+                scopes[depth] = NONEMPTY_DOCUMENT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                if (skipWhitespace() >= 0) {
+                    throw syntaxError(position);
+                }
+                return peeked = END_DOCUMENT;
+            case EMPTY_ARRAY:
+                scopes[depth] = NONEMPTY_ARRAY;
+                if (skipWhitespace() == ']') {
+                    position++;
+                    return peeked = END_ARRAY;
+                }
+                break;
+            case NONEMPTY_ARRAY:
+                c = skipWhitespace();
+                if (c == ']') {
+                    position++;
+                    return peeked = END_ARRAY;
+                } else if (c != ',') {
+                    throw syntaxError(position);
+                }
+                position++;
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = skipWhitespace();
+                if (c == '}') {
+                    position++;
+                    return peeked = END_OBJECT;
+                }
+                if (scopes[depth] == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError(position);
+                    }
+                    position++;
+                    c = skipWhitespace();
+                }
+                if (c != '"') {
+                    throw syntaxError(position);
+                }
+                position++;
+                scopes[depth] = DANGLING_NAME;
+                return peeked = NAME;
+            case DANGLING_NAME:
+                if (skipWhitespace() != ':') {
+                    throw syntaxError(position);
+                }
+                position++;
+                scopes[depth] = NONEMPTY_OBJECT;
+                break;
+            default:
+                throw new IllegalStateException("invalid scope: " + scopes[depth]);
+        }
+        return peeked = peekValue();
+    }
+
+    private int peekValue() throws MalformedJsonException {
+        int c = skipWhitespace();
+        switch (c) {
+            case '{':
+                position++;
+                return BEGIN_OBJECT;
+            case '[':
+                position++;
+                return BEGIN_ARRAY;
+            case '"':
+                position++;
+                return STRING;
+            case 't':
+                expectLiteral("true");
+                return TRUE;
+            case 'f':
+                expectLiteral("false");
+                return FALSE;
+            case 'n':
+                expectLiteral("null");
+                return NULL;
+            case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9':
+                return NUMBER;
+            default:
+                throw syntaxError(position);
+        }
+    }
+
+    private void expectLiteral(String literal) throws MalformedJsonException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (position + i >= limit || buffer[position + i] != literal.charAt(i)) {
+                throw syntaxError(position + i);
+            }
+        }
+        position += literal.length();
+    }
+
+    /**
+     * Skips whitespace, then returns the next byte (without consuming it) or -1 at the end of the input.
+     */
+    private int skipWhitespace() {
+        int p = position;
+        while (p < limit) {
+            byte b = buffer[p];
+            if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                p++;
+            } else {
+                position = p;
+                return b & 0xff;
+            }
+        }
+        position = p;
+        return -1;
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // strings
+    // ----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads the remainder of a string whose opening quote has been consumed already.
+     *
+     * @param name whether the string is a property name. Names are always looked up in the string cache, values only
+     * if they are short.
+     */
+    private String readString(boolean name) throws MalformedJsonException {
+
+        // ASCII fast path: no escape sequences and no multi-byte characters, so the bytes can be used as they are.
+        // Non-ASCII bytes are negative, so they fail the "b >= 0x20" test like control characters do.
+        byte[] buffer = this.buffer;
+        int p = position;
+        while (p < limit) {
+            byte b = buffer[p];
+            if (b == '"') {
+                int length = p - position;
+                String result;
+                if (stringCache != null && (name || stringCache.isCachedValueLength(length))) {
+                    result = stringCache.get(buffer, position, length);
+                } else {
+                    result = new String(buffer, position, length, StandardCharsets.ISO_8859_1);
+                }
+                position = p + 1;
+                return result;
+            }
+            if (b < 0x20 || b == '\\') {
+                break;
+            }
+            p++;
+        }
+
+        scanString(true);
+        return new String(chars, 0, charCount);
+    }
+
+    /**
+     * Scans the remainder of a string whose opening quote has been consumed already, and consumes it. Stores the
+     * decoded characters in the scratch buffer if requested.
+     */
+    private void scanString(boolean store) throws MalformedJsonException {
+        byte[] buffer = this.buffer;
+        int p = position;
+        charCount = 0;
+        while (true) {
+            if (p >= limit) {
+                throw syntaxError(p);
+            }
+            int b = buffer[p] & 0xff;
+            if (b == '"') {
+                position = p + 1;
+                return;
+            }
+            if (store && charCount + 2 > chars.length) {
+                chars = Arrays.copyOf(chars, chars.length * 2);
+            }
+            if (b == '\\') {
+                p = scanEscapeSequence(p, store);
+            } else if (b < 0x20) {
+                throw syntaxError(p);
+            } else if (b < 0x80) {
+                if (store) {
+                    chars[charCount++] = (char) b;
+                }
+                p++;
+            } else {
+                p = scanMultiByteCharacter(p, b, store);
+            }
+        }
+    }
+
+    private int scanEscapeSequence(int p, boolean store) throws MalformedJsonException {
+        if (p + 1 >= limit) {
+            throw syntaxError(limit);
+        }
+        char c;
+        int length = 2;
+        switch (buffer[p + 1]) {
+            case '"' -> c = '"';
+            case '\\' -> c = '\\';
+            case '/' -> c = '/';
+            case 'b' -> c = '\b';
+            case 'f' -> c = '\f';
+            case 'n' -> c = '\n';
+            case 'r' -> c = '\r';
+            case 't' -> c = '\t';
+            case 'u' -> {
+                int value = 0;
+                for (int i = p + 2; i < p + 6; i++) {
+                    int digit = i < limit ? Character.digit(buffer[i], 16) : -1;
+                    if (digit < 0) {
+                        throw syntaxError(Math.min(i, limit));
+                    }
+                    value = (value << 4) + digit;
+                }
+                c = (char) value;
+                length = 6;
+            }
+            default -> throw syntaxError(p + 1);
+        }
+        if (store) {
+            chars[charCount++] = c;
+        }
+        return p + length;
+    }
+
+    private int scanMultiByteCharacter(int p, int b, boolean store) throws MalformedJsonException {
+        int codePoint;
+        int length;
+        if (b >= 0xC2 && b <= 0xDF) {
+            codePoint = ((b & 0x1F) << 6) | continuation(p + 1, 0x80, 0xBF);
+            length = 2;
+        } else if (b >= 0xE0 && b <= 0xEF) {
+            // exclude overlong encodings and UTF-16 surrogates
+            int c1 = continuation(p + 1, b == 0xE0 ? 0xA0 : 0x80, b == 0xED ? 0x9F : 0xBF);
+            int c2 = continuation(p + 2, 0x80, 0xBF);
+            codePoint = ((b & 0x0F) << 12) | (c1 << 6) | c2;
+            length = 3;
+        } else if (b >= 0xF0 && b <= 0xF4) {
+            // exclude overlong encodings and code points above U+10FFFF
+            int c1 = continuation(p + 1, b == 0xF0 ? 0x90 : 0x80, b == 0xF4 ? 0x8F : 0xBF);
+            int c2 = continuation(p + 2, 0x80, 0xBF);
+            int c3 = continuation(p + 3, 0x80, 0xBF);
+            codePoint = ((b & 0x07) << 18) | (c1 << 12) | (c2 << 6) | c3;
+            length = 4;
+        } else {
+            throw syntaxError(p);
+        }
+        if (store) {
+            if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                chars[charCount++] = Character.highSurrogate(codePoint);
+                chars[charCount++] = Character.lowSurrogate(codePoint);
+            } else {
+                chars[charCount++] = (char) codePoint;
+            }
+        }
+        return p + length;
+    }
+
+    /**
+     * Returns the payload bits of the continuation byte at the specified position, checking that the byte is within
+     * the specified range.
+     */
+    private int continuation(int p, int min, int max) throws MalformedJsonException {
+        if (p >= limit) {
+            throw syntaxError(limit);
+        }
+        int b = buffer[p] & 0xff;
+        if (b < min || b > max) {
+            throw syntaxError(p);
+        }
+        return b & 0x3F;
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // numbers
+    // ----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads a number, starting at the current position. Small integers are returned as {@link Long}, everything else
+     * as {@link BigDecimal}, so no precision gets lost.
+     */
+    private Number readNumber() throws MalformedJsonException {
+        return readJsonNumber().getValue();
+    }
+
+    /**
+     * Reads a number, starting at the current position. Small integers are converted right away, everything else
+     * keeps its text and only gets converted when needed.
+     */
+    private JsonNumber readJsonNumber() throws MalformedJsonException {
+        int numberStart = position;
+        position = scanNumber();
+        long value = parseSmallInteger(numberStart, position);
+        if (value != NOT_A_SMALL_INTEGER) {
+            return JsonNumber.of(value);
+        }
+        return JsonNumber.ofText(numberText(numberStart, position));
+    }
+
+    /**
+     * Parses an integer whose digits cannot overflow a long. Returns {@link #NOT_A_SMALL_INTEGER} for all other
+     * numbers, so no exception or boxed value is needed for this check. The number must have been scanned already.
+     */
+    private long parseSmallInteger(int numberStart, int numberEnd) {
+        int p = numberStart;
+        boolean negative = buffer[p] == '-';
+        if (negative) {
+            p++;
+        }
+        if (numberEnd - p > MAX_SAFE_LONG_DIGITS) {
+            return NOT_A_SMALL_INTEGER;
+        }
+        long value = 0;
+        while (p < numberEnd) {
+            byte b = buffer[p];
+            if (b < '0' || b > '9') {
+                return NOT_A_SMALL_INTEGER;
+            }
+            value = value * 10 + (b - '0');
+            p++;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Converts a number to the nearest double. The number must have been scanned already.
+     * <p>
+     * If the number has at most 15 significant digits and its decimal exponent is small, both the digits and the
+     * power of ten are exactly representable as doubles, so a single multiplication or division gives the correctly
+     * rounded result (Clinger's fast path). This covers most numbers found in practice, such as prices and
+     * coordinates. All other numbers are converted by {@link Double#parseDouble(String)}, which is exact but slower.
+     */
+    private double parseDouble(int numberStart, int numberEnd) {
+        int p = numberStart;
+        boolean negative = buffer[p] == '-';
+        if (negative) {
+            p++;
+        }
+        long digits = 0;
+        int digitCount = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        for (; p < numberEnd; p++) {
+            byte b = buffer[p];
+            if (b >= '0' && b <= '9') {
+                if (digits != 0 || b != '0') {
+                    if (++digitCount > MAX_FAST_PATH_DIGITS) {
+                        return Double.parseDouble(numberText(numberStart, numberEnd));
+                    }
+                    digits = digits * 10 + (b - '0');
+                }
+                if (fraction) {
+                    exponent--;
+                }
+            } else if (b == '.') {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (p < numberEnd) {
+            // exponent part; the syntax has been checked already
+            p++;
+            boolean negativeExponent = buffer[p] == '-';
+            if (negativeExponent || buffer[p] == '+') {
+                p++;
+            }
+            if (numberEnd - p > 3) {
+                return Double.parseDouble(numberText(numberStart, numberEnd));
+            }
+            int explicitExponent = 0;
+            for (; p < numberEnd; p++) {
+                explicitExponent = explicitExponent * 10 + (buffer[p] - '0');
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        double result;
+        if (digits == 0) {
+            result = 0.0;
+        } else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            result = digits * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            result = digits / POWERS_OF_TEN[-exponent];
+        } else {
+            return Double.parseDouble(numberText(numberStart, numberEnd));
+        }
+        return negative ? -result : result;
+    }
+
+    private String numberText(int numberStart, int numberEnd) {
+        return new String(buffer, numberStart, numberEnd - numberStart, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Checks the syntax of the number at the current position without consuming it, and returns its end position.
+     */
+    private int scanNumber() throws MalformedJsonException {
+        int p = position;
+        if (p < limit && buffer[p] == '-') {
+            p++;
+        }
+        if (p < limit && buffer[p] == '0') {
+            p++;
+        } else {
+            p = scanDigits(p);
+        }
+        if (p < limit && buffer[p] == '.') {
+            p = scanDigits(p + 1);
+        }
+        if (p < limit && (buffer[p] == 'e' || buffer[p] == 'E')) {
+            p++;
+            if (p < limit && (buffer[p] == '+' || buffer[p] == '-')) {
+                p++;
+            }
+            p = scanDigits(p);
+        }
+        return p;
+    }
+
+    /**
+     * Scans one or more digits.
+     */
+    private int scanDigits(int p) throws MalformedJsonException {
+        if (p >= limit || buffer[p] < '0' || buffer[p] > '9') {
+            throw syntaxError(Math.min(p, limit));
+        }
+        do {
+            p++;
+        } while (p < limit && buffer[p] >= '0' && buffer[p] <= '9');
+        return p;
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // errors
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private MalformedJsonException syntaxError(int errorPosition) {
+        int line = 1;
+        int column = 1;
+        for (int i = start; i < errorPosition; i++) {
+            byte b = buffer[i];
+            if (b == '\n') {
+                line++;
+                column = 1;
+            } else if ((b & 0xC0) != 0x80) {
+                // count characters, not bytes
+                column++;
+            }
+        }
+        return new MalformedJsonException("syntax error in JSON at line " + line + ", column " + column);
+    }
+
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import io.github.grumpystuff.grumpyjson.json_model.*;
+import io.github.grumpystuff.grumpyjson.serialize.JsonTokenSink;
+import io.github.grumpystuff.grumpyjson.serialize.PreEncodedName;
+import io.github.grumpystuff.grumpyjson.serialize.PreEncodedString;
+import io.github.grumpystuff.grumpyjson.util.StringUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+/**
+ * Writes compact JSON as UTF-8 bytes. Output is collected in a buffer that is passed by the caller, so buffers can be
+ * reused. If an {@link OutputStream} is given, the buffer gets written to it whenever it is full, and by
+ * {@link #flush()}. Otherwise the buffer grows as needed, and the result can be fetched with {@link #toByteArray()}.
+ * <p>
+ * Strings are escaped as little as possible: quotes, backslashes and control characters are escaped, as are U+2028
+ * and U+2029 so the output is valid JavaScript too. All other characters are written as UTF-8. Unpaired surrogates
+ * cannot be represented in UTF-8, so they are written as \\u escape sequences.
+ */
+final class Utf8JsonWriter implements JsonTokenSink {
+
+    // the longest output for a single char is a six-byte \\u escape sequence
+    private static final int MAX_BYTES_PER_CHAR = 6;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+
+    private static final byte[] BASE64_DIGITS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes();
+
+    // input bytes per Base64 chunk; must be a multiple of 3 so only the last chunk needs padding
+    private static final int BASE64_CHUNK_SIZE = 3 * 256;
+
+    /**
+     * For each ASCII character, 0 if it can be written as-is, otherwise the character to write after a backslash.
+     * 'u' means that a \\u escape sequence must be written.
+     */
+    private static final byte[] ESCAPES = new byte[128];
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            ESCAPES[i] = 'u';
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+    }
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private int count;
+
+    // for each open container: whether it has any elements/properties yet. Index 0 is the top level.
+    private boolean[] nonEmpty = new boolean[32];
+    private boolean[] isObject = new boolean[32];
+    private int depth;
+    private boolean afterName;
+
+    /**
+     * Constructor.
+     *
+     * @param out the stream to write to, or null to collect all output in the buffer
+     * @param buffer the initial buffer. Must not be empty.
+     */
+    Utf8JsonWriter(OutputStream out, byte[] buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        if (buffer.length < MAX_BYTES_PER_CHAR) {
+            throw new IllegalArgumentException("buffer too small");
+        }
+
+        this.out = out;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Writes all buffered output to the stream, then flushes the stream.
+     *
+     * @throws IOException on I/O errors
+     */
+    void flush() throws IOException {
+        if (out == null) {
+            throw new IllegalStateException("this writer has no output stream");
+        }
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Returns a copy of the output. Only allowed if this writer has no output stream.
+     *
+     * @return the output
+     */
+    byte[] toByteArray() {
+        if (out != null) {
+            throw new IllegalStateException("this writer has an output stream");
+        }
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Returns the current buffer, which is either the buffer passed to the constructor, or a larger one if it had
+     * to grow. This allows the caller to reuse it.
+     *
+     * @return the buffer
+     */
+    byte[] getBuffer() {
+        return buffer;
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // JsonTokenSink
+    // ----------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public void beginObject() throws IOException {
+        beginContainer(true, '{');
+    }
+
+    @Override
+    public void name(String name) throws IOException {
+        Objects.requireNonNull(name, "name");
+        if (depth == 0 || !isObject[depth] || afterName) {
+            throw new IllegalStateException("unexpected property name: " + name);
+        }
+
+        if (nonEmpty[depth]) {
+            writeByte(',');
+        }
+        nonEmpty[depth] = true;
+        writeString(name);
+        writeByte(':');
+        afterName = true;
+    }
+
+    @Override
+    public void name(PreEncodedName name) throws IOException {
+        Objects.requireNonNull(name, "name");
+        if (depth == 0 || !isObject[depth] || afterName) {
+            throw new IllegalStateException("unexpected property name: " + name);
+        }
+
+        int length = name.getEncodedLength();
+        ensureCapacity(length + 1);
+        if (nonEmpty[depth]) {
+            buffer[count++] = ',';
+        }
+        nonEmpty[depth] = true;
+        name.copyEncodedTo(buffer, count);
+        count += length;
+        afterName = true;
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        endContainer(true, '}');
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        beginContainer(false, '[');
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        endContainer(false, ']');
+    }
+
+    @Override
+    public void nullValue() throws IOException {
+        beforeValue();
+        writeAscii("null");
+    }
+
+    @Override
+    public void booleanValue(boolean value) throws IOException {
+        beforeValue();
+        writeAscii(value ? "true" : "false");
+    }
+
+    @Override
+    public void numberValue(long value) throws IOException {
+        beforeValue();
+        writeLong(value);
+    }
+
+    @Override
+    public void numberValue(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("numeric values must be finite, found: " + value);
+        }
+        beforeValue();
+        ensureCapacity(DoubleToDecimal.MAX_LENGTH);
+        count = DoubleToDecimal.write(value, buffer, count);
+    }
+
+    @Override
+    public void numberValue(Number value) throws IOException {
+        Objects.requireNonNull(value, "value");
+
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            numberValue(value.longValue());
+            return;
+        }
+        if (value instanceof Double) {
+            numberValue(value.doubleValue());
+            return;
+        }
+        if (value instanceof Float) {
+            float f = value.floatValue();
+            if (Float.isNaN(f) || Float.isInfinite(f)) {
+                throw new IllegalArgumentException("numeric values must be finite, found: " + value);
+            }
+        }
+        // other Number implementations may produce any text, so only write it if it is valid JSON
+        String text = value.toString();
+        if (!StringUtil.isValidJsonNumber(text)) {
+            throw new IllegalArgumentException("not a valid JSON number: " + text + " (from " + value.getClass() + ")");
+        }
+        beforeValue();
+        writeAscii(text);
+    }
+
+    @Override
+    public void stringValue(String value) throws IOException {
+        Objects.requireNonNull(value, "value");
+
+        beforeValue();
+        writeString(value);
+    }
+
+    @Override
+    public void stringValue(PreEncodedString value) throws IOException {
+        Objects.requireNonNull(value, "value");
+
+        beforeValue();
+        int length = value.getEncodedLength();
+        ensureCapacity(length);
+        value.copyEncodedTo(buffer, count);
+        count += length;
+    }
+
+    @Override
+    public void base64Value(byte[] value) throws IOException {
+        Objects.requireNonNull(value, "value");
+
+        beforeValue();
+        writeByte('"');
+        for (int chunkStart = 0; chunkStart < value.length; chunkStart += BASE64_CHUNK_SIZE) {
+            int chunkEnd = Math.min(chunkStart + BASE64_CHUNK_SIZE, value.length);
+            ensureCapacity((chunkEnd - chunkStart + 2) / 3 * 4);
+            int i = chunkStart;
+            while (chunkEnd - i >= 3) {
+                int bits = (value[i] & 0xff) << 16 | (value[i + 1] & 0xff) << 8 | (value[i + 2] & 0xff);
+                buffer[count++] = BASE64_DIGITS[bits >>> 18];
+                buffer[count++] = BASE64_DIGITS[(bits >>> 12) & 0x3f];
+                buffer[count++] = BASE64_DIGITS[(bits >>> 6) & 0x3f];
+                buffer[count++] = BASE64_DIGITS[bits & 0x3f];
+                i += 3;
+            }
+            if (i < chunkEnd) {
+                int bits = (value[i] & 0xff) << 16 | (i + 1 < chunkEnd ? (value[i + 1] & 0xff) << 8 : 0);
+                buffer[count++] = BASE64_DIGITS[bits >>> 18];
+                buffer[count++] = BASE64_DIGITS[(bits >>> 12) & 0x3f];
+                buffer[count++] = i + 1 < chunkEnd ? BASE64_DIGITS[(bits >>> 6) & 0x3f] : (byte) '=';
+                buffer[count++] = '=';
+            }
+        }
+        writeByte('"');
+    }
+
+    @Override
+    public void element(JsonElement element) throws IOException {
+        Objects.requireNonNull(element, "element");
+
+        // iterative, so deeply nested elements cannot overflow the call stack
+        Deque<Iterator<?>> iterators = new ArrayDeque<>();
+        Object next = element;
+        while (true) {
+            if (next instanceof Map.Entry<?, ?> entry) {
+                name((String) entry.getKey());
+                next = entry.getValue();
+            }
+            if (next instanceof JsonObject o) {
+                beginObject();
+                iterators.push(o.getAsMap().entrySet().iterator());
+            } else if (next instanceof JsonArray a) {
+                beginArray();
+                iterators.push(a.getAsList().iterator());
+            } else if (next instanceof JsonString s) {
+                stringValue(s.getValue());
+            } else if (next instanceof JsonNumber n) {
+                numberValue(n.getValue());
+            } else if (next instanceof JsonBoolean b) {
+                booleanValue(b.getValue());
+            } else if (next instanceof JsonNull) {
+                nullValue();
+            } else {
+                throw new IllegalArgumentException("unknown JSON element type: " + next);
+            }
+            while (true) {
+                Iterator<?> iterator = iterators.peek();
+                if (iterator == null) {
+                    return;
+                }
+                if (iterator.hasNext()) {
+                    next = iterator.next();
+                    break;
+                }
+                iterators.pop();
+                if (isObject[depth]) {
+                    endObject();
+                } else {
+                    endArray();
+                }
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // structure
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+        } else if (depth == 0) {
+            if (nonEmpty[0]) {
+                throw new IllegalStateException("multiple top-level values");
+            }
+            nonEmpty[0] = true;
+        } else if (isObject[depth]) {
+            throw new IllegalStateException("missing property name");
+        } else {
+            if (nonEmpty[depth]) {
+                writeByte(',');
+            }
+            nonEmpty[depth] = true;
+        }
+    }
+
+    private void beginContainer(boolean object, char openingBracket) throws IOException {
+        beforeValue();
+        writeByte(openingBracket);
+        depth++;
+        if (depth == nonEmpty.length) {
+            nonEmpty = Arrays.copyOf(nonEmpty, depth * 2);
+            isObject = Arrays.copyOf(isObject, depth * 2);
+        }
+        nonEmpty[depth] = false;
+        isObject[depth] = object;
+    }
+
+    private void endContainer(boolean object, char closingBracket) throws IOException {
+        if (depth == 0 || isObject[depth] != object || afterName) {
+            throw new IllegalStateException("unexpected " + closingBracket);
+        }
+        writeByte(closingBracket);
+        depth--;
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // low-level output
+    // ----------------------------------------------------------------------------------------------------------------
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * Makes sure that the specified number of bytes can be written to the buffer, by flushing it if there is an output
+     * stream, and by growing it if that is not enough.
+     */
+    private void ensureCapacity(int length) throws IOException {
+        if (count + length > buffer.length) {
+            if (out != null) {
+                flushBuffer();
+            }
+            if (count + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + length));
+            }
+        }
+    }
+
+    private void writeByte(int b) throws IOException {
+        ensureCapacity(1);
+        buffer[count++] = (byte) b;
+    }
+
+    private void writeAscii(String s) throws IOException {
+        int length = s.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[count++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+        int p = count + digits;
+        count = p;
+        do {
+            buffer[--p] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+    }
+
+    private void writeString(String s) throws IOException {
+        writeByte('"');
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            ensureCapacity(MAX_BYTES_PER_CHAR);
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                byte escape = ESCAPES[c];
+                if (escape == 0) {
+                    buffer[count++] = (byte) c;
+                } else if (escape == 'u') {
+                    writeUnicodeEscape(c);
+                } else {
+                    buffer[count++] = '\\';
+                    buffer[count++] = escape;
+                }
+            } else if (c < 0x800) {
+                buffer[count++] = (byte) (0xC0 | (c >> 6));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (c == 0x2028 || c == 0x2029) {
+                writeUnicodeEscape(c);
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, s.charAt(i + 1));
+                    i++;
+                    buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    writeUnicodeEscape(c);
+                }
+            } else {
+                buffer[count++] = (byte) (0xE0 | (c >> 12));
+                buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    /**
+     * Writes a \\u escape sequence. The caller must ensure that there is enough space in the buffer.
+     */
+    private void writeUnicodeEscape(char c) {
+        buffer[count++] = '\\';
+        buffer[count++] = 'u';
+        buffer[count++] = HEX_DIGITS[(c >> 12) & 15];
+        buffer[count++] = HEX_DIGITS[(c >> 8) & 15];
+        buffer[count++] = HEX_DIGITS[(c >> 4) & 15];
+        buffer[count++] = HEX_DIGITS[c & 15];
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class DoubleToDecimalTest {
+
+    private static String toText(double value) {
+        byte[] buffer = new byte[DoubleToDecimal.MAX_LENGTH + 2];
+        int end = DoubleToDecimal.write(value, buffer, 1);
+        return new String(buffer, 1, end - 1, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testFormat() {
+        Assertions.assertEquals("0.0", toText(0.0));
+        Assertions.assertEquals("-0.0", toText(-0.0));
+        Assertions.assertEquals("1.0", toText(1.0));
+        Assertions.assertEquals("-1.5", toText(-1.5));
+        Assertions.assertEquals("0.1", toText(0.1));
+        Assertions.assertEquals("19.99", toText(19.99));
+        Assertions.assertEquals("123456.789", toText(123456.789));
+        Assertions.assertEquals("9999999.0", toText(9999999.0));
+        Assertions.assertEquals("1.0E7", toText(1e7));
+        Assertions.assertEquals("1.2345678E7", toText(12345678.0));
+        Assertions.assertEquals("0.001", toText(0.001));
+        Assertions.assertEquals("9.99E-4", toText(0.000999));
+        Assertions.assertEquals("1.0E100", toText(1e100));
+        Assertions.assertEquals("9.007199254740992E15", toText(9007199254740992.0));
+        Assertions.assertEquals("4.9E-324", toText(Double.MIN_VALUE));
+        // both 1.0E-323 and 9.9E-324 read back as this value; there are always two digits, so the closer one wins
+        Assertions.assertEquals("9.9E-324", toText(2 * Double.MIN_VALUE));
+        Assertions.assertEquals("2.2250738585072014E-308", toText(Double.MIN_NORMAL));
+        Assertions.assertEquals("1.7976931348623157E308", toText(Double.MAX_VALUE));
+        Assertions.assertEquals("-1.7976931348623157E308", toText(-Double.MAX_VALUE));
+    }
+
+    @Test
+    public void testShorterThanDoubleToStringBeforeJava19() {
+        // Double.toString() in Java 17 gives 9.999999999999999E22 (JDK-4511638)
+        Assertions.assertEquals("1.0E23", toText(1.0E23));
+    }
+
+    @Test
+    public void testRejectsNonFiniteValues() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> toText(Double.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> toText(Double.POSITIVE_INFINITY));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> toText(Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    public void testRandomValuesAreShortestAndReadBack() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isFinite(value)) {
+                assertShortestAndReadsBack(value);
+            }
+        }
+        for (int i = 0; i < 5_000; i++) {
+            assertShortestAndReadsBack(random.nextInt(1_000_000) / 100.0);
+            assertShortestAndReadsBack(Math.scalb(1.0, random.nextInt(2098) - 1074));
+        }
+    }
+
+    private static void assertShortestAndReadsBack(double value) {
+        String text = toText(value);
+        Assertions.assertEquals(value, Double.parseDouble(text), text);
+        if (text.length() > Double.toString(value).length()) {
+            Assertions.fail("longer than Double.toString(): " + text);
+        }
+
+        // no decimal with one significant digit less reads back as the same value, except that two digits are always
+        // allowed, since the text has at least that many anyway
+        BigDecimal decimal = new BigDecimal(text);
+        int digits = decimal.stripTrailingZeros().precision();
+        if (digits > 2) {
+            BigDecimal exact = new BigDecimal(value);
+            for (RoundingMode mode : new RoundingMode[] {RoundingMode.FLOOR, RoundingMode.CEILING}) {
+                BigDecimal shorter = exact.round(new MathContext(digits - 1, mode));
+                Assertions.assertNotEquals(value, shorter.doubleValue(), text + " vs. " + shorter);
+            }
+        }
+    }
+
+}
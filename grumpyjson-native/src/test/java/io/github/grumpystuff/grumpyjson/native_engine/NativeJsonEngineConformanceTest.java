@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.gson.JsonEngineTest;
+
+/**
+ * Runs the engine tests of the Gson bridge against the native engine.
+ */
+public class NativeJsonEngineConformanceTest extends JsonEngineTest {
+
+    @Override
+    protected JsonEngine createEngine() {
+        return new NativeJsonEngine();
+    }
+
+    @Override
+    protected boolean reportsColumnAfterOffendingCharacter() {
+        return false;
+    }
+
+    @Override
+    protected boolean truncatesFractionalDigitsForIntegers() {
+        return false;
+    }
+
+}
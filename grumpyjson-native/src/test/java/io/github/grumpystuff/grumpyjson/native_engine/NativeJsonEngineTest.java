@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalField;
+import io.github.grumpystuff.grumpyjson.deserialize.CustomJsonDeserializer;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.json_model.*;
+import io.github.grumpystuff.grumpyjson.serialize.CustomJsonSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class NativeJsonEngineTest {
+
+    private record Custom(String text) {}
+
+    private record Item(String name, int count, OptionalField<String> note, Custom custom) {}
+
+    private final NativeJsonEngine engine = new NativeJsonEngine();
+    private final JsonEngine gsonEngine = new GsonBasedJsonEngine();
+
+    public NativeJsonEngineTest() {
+        for (JsonEngine engine : List.of(this.engine, gsonEngine)) {
+            engine.registerSerializer(CustomJsonSerializer.from(Custom.class, value -> JsonString.of(value.text())));
+            engine.registerDeserializer(CustomJsonDeserializer.from(
+                    Custom.class, json -> new Custom(json.deserializerExpectsString())));
+            engine.seal();
+        }
+    }
+
+    /**
+     * Deserializes the JSON with both engines and checks that they agree on either the result or the error messages.
+     */
+    private void assertSameAsGson(String json, Type type) throws Exception {
+        Object expected;
+        try {
+            expected = gsonEngine.deserialize(json, type);
+        } catch (JsonDeserializationException gsonException) {
+            JsonDeserializationException exception = Assertions.assertThrows(JsonDeserializationException.class,
+                    () -> engine.deserialize(json, type), json);
+            Assertions.assertEquals(normalizeErrors(gsonException), normalizeErrors(exception), json);
+            return;
+        }
+        Assertions.assertEquals(expected, engine.deserialize(json, type), json);
+    }
+
+    /**
+     * Gson reports some syntax errors one column after the offending character, so the position is not compared.
+     */
+    private static Set<String> normalizeErrors(JsonDeserializationException exception) {
+        Set<String> result = new HashSet<>();
+        for (FieldErrorNode.FlattenedError error : exception.getFieldErrorNode().flatten()) {
+            result.add(error.toString().replaceAll("at line \\d+, column \\d+", "at (position)"));
+        }
+        return result;
+    }
+
+    private void assertDeserializationMessage(String expectedMessage, byte[] json) {
+        JsonDeserializationException exception = Assertions.assertThrows(JsonDeserializationException.class,
+                () -> engine.deserialize(json, JsonElement.class));
+        List<FieldErrorNode.FlattenedError> errors = exception.getFieldErrorNode().flatten();
+        Assertions.assertEquals(List.of(new FieldErrorNode.FlattenedError(expectedMessage, List.of())), errors);
+    }
+
+    @Test
+    public void testDocumentsMatchGson() throws Exception {
+        List<String> documents = List.of(
+                "null", "true", "false", "0", "-0", "12", "-9223372036854775808",
+                "1.5", "-1.5e10", "1E-3",
+                "\"\"", "\"foo\"", "\"a \\\"quoted\\\" \\\\ \\/ \\b\\f\\n\\r\\t text\"", "\"\\u00e4\\u20ac\\ud83d\\ude00\"",
+                "\"äöü € \uD83D\uDE00\"",
+                "[]", "{}", " [ 1 , [ 2 , [ ] ] , { \"a\" : { } } ] ", "{\"a\": 1, \"b\": [true, null], \"a\": 2}",
+                "\r\n\t{\"x\"\n:\n\"y\"}\n",
+
+                // malformed
+                "", "   ", "nul", "tru", "[1,]", "[1 2]", "{\"a\" 1}", "{\"a\": 1,}", "{a: 1}", "{'a': 1}",
+                "01", "1.", ".5", "1e", "-", "+1", "NaN", "[", "{", "\"open", "\"bad \\x escape\"",
+                "\"\\u12\"", "\"tab\tinside\"", "1 2", "[]]", "{}}", "[1]\n\n  x", "// comment\n1",
+                "nulll", "[1,,2]", "{\"a\"}", "{\"a\":1]", "[1.e5]", "123abc", "[-]"
+        );
+        for (String document : documents) {
+            assertSameAsGson(document, JsonElement.class);
+        }
+    }
+
+    @Test
+    public void testLargeNumbers() throws Exception {
+        // these cannot be compared with Gson's results, since JsonNumber compares its lazily parsed numbers as double
+        Assertions.assertEquals(JsonNumber.of(new BigDecimal("9223372036854775808")),
+                engine.deserialize("9223372036854775808", JsonElement.class));
+        Assertions.assertEquals(JsonNumber.of(new BigDecimal("123456789012345678901234567890.5")),
+                engine.deserialize("123456789012345678901234567890.5", JsonElement.class));
+    }
+
+    @Test
+    public void testMappingErrorsMatchGson() throws Exception {
+        Type listOfItems = new TypeToken<List<Item>>() {}.getType();
+        assertSameAsGson("[{\"name\": \"a\", \"count\": 1, \"custom\": \"x\"}]", listOfItems);
+        assertSameAsGson("[{\"name\": 1, \"count\": 2, \"custom\": \"x\"}, {\"name\": \"b\", \"count\": \"2\", \"custom\": [], \"extra\": {}}]", listOfItems);
+        assertSameAsGson("{\"name\": 5, \"unknown\": [1,]}", Item.class);
+        assertSameAsGson("{\"name\": \"foo\"} {}", Item.class);
+        assertSameAsGson("[1, 2, 3000000000]", new TypeToken<List<Integer>>() {}.getType());
+        assertSameAsGson("{\"a\": 1, \"b\": \"x\"}", new TypeToken<Map<String, Long>>() {}.getType());
+    }
+
+    @Test
+    public void testPrimitiveArrays() throws Exception {
+        int[] ints = new int[100];
+        double[] doubles = new double[100];
+        for (int i = 0; i < 100; i++) {
+            ints[i] = i * 1_000_003 - 50_000_000;
+            doubles[i] = i / 7.0 - 3;
+        }
+        for (JsonEngine engine : List.of(this.engine, gsonEngine)) {
+            Assertions.assertArrayEquals(ints, engine.deserialize(engine.serializeToString(ints), int[].class));
+            Assertions.assertArrayEquals(doubles, engine.deserialize(engine.serializeToString(doubles), double[].class));
+            Assertions.assertArrayEquals(new long[] {Long.MIN_VALUE, 0, Long.MAX_VALUE},
+                    engine.deserialize("[-9223372036854775808, 0, 9223372036854775807]", long[].class));
+            Assertions.assertArrayEquals(new boolean[] {true, false},
+                    engine.deserialize(engine.serializeToString(new boolean[] {true, false}), boolean[].class));
+            Assertions.assertArrayEquals(new double[] {1, 1.5, -2.5e10},
+                    engine.deserialize("[1, 1.5, -2.5e10]", double[].class));
+        }
+        Assertions.assertEquals("[1.0,-0.5,1.0E100]", engine.serializeToString(new double[] {1, -0.5, 1e100}));
+
+        String json = "[1, \"x\", 3000000000, true]";
+        JsonDeserializationException gsonException = Assertions.assertThrows(JsonDeserializationException.class,
+                () -> gsonEngine.deserialize(json, int[].class));
+        JsonDeserializationException exception = Assertions.assertThrows(JsonDeserializationException.class,
+                () -> engine.deserialize(json, int[].class));
+        Assertions.assertEquals(normalizeErrors(gsonException), normalizeErrors(exception));
+        Assertions.assertEquals(3, exception.getFieldErrorNode().flatten().size());
+    }
+
+    @Test
+    public void testDoublesMatchParseDouble() throws Exception {
+        List<String> numbers = new ArrayList<>(List.of(
+                "0", "-0", "0.0", "1", "-1", "0.1", "0.3", "19.99", "1e22", "1e23", "1.5e-22", "1e-23",
+                "123456789012345", "1234567890123456", "12345678901234567890", "0.000000000000000000001234",
+                "9007199254740993", "2.2250738585072011e-308", "4.9e-324", "1e-400", "1.7976931348623157e308",
+                "1e0001", "100000000000000000000000e-10"
+        ));
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            numbers.add(random.nextInt(100_000) + "." + random.nextInt(1_000_000) + "e" + (random.nextInt(60) - 30));
+            numbers.add(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+        }
+        for (String number : numbers) {
+            Assertions.assertEquals(Double.parseDouble(number), engine.deserialize(number, Double.class), number);
+        }
+        Assertions.assertThrows(JsonDeserializationException.class, () -> engine.deserialize("1e400", Double.class));
+    }
+
+    @Test
+    public void testFloatsMatchParseFloat() throws Exception {
+        // the first two lie slightly above and below the midpoint between 1 and the next float, but round to the
+        // midpoint as doubles, so reading them as doubles first would round both down to 1
+        List<String> numbers = new ArrayList<>(List.of(
+                "1.00000005960464477539062500001", "1.00000005960464477539062499999", "1.000000059604644775390625",
+                "0", "0.1", "19.99", "3.4028235e38", "1.4e-45", "1e-50"
+        ));
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            numbers.add(random.nextInt(100_000) + "." + random.nextInt(1_000_000) + "e" + (random.nextInt(60) - 30));
+        }
+        for (String number : numbers) {
+            Assertions.assertEquals(Float.parseFloat(number), engine.deserialize(number, Float.class), number);
+            Assertions.assertEquals(Float.parseFloat(number), gsonEngine.deserialize(number, Float.class), number);
+        }
+        Assertions.assertThrows(JsonDeserializationException.class, () -> engine.deserialize("1e39", Float.class));
+    }
+
+    @Test
+    public void testDecimalsAreExact() throws Exception {
+        String json = "[19.90, 123456789012345678901234567890.5, 1e3]";
+        List<BigDecimal> expected = List.of(new BigDecimal("19.90"),
+                new BigDecimal("123456789012345678901234567890.5"), new BigDecimal("1e3"));
+        TypeToken<List<BigDecimal>> typeToken = new TypeToken<>() {};
+        Assertions.assertEquals(expected, engine.deserialize(json, typeToken));
+        Assertions.assertEquals(expected, gsonEngine.deserialize(json, typeToken));
+        Assertions.assertEquals("[19.90,123456789012345678901234567890.5,1E+3]", engine.serializeToString(expected));
+        Assertions.assertEquals("[0.1,0.1]", engine.serializeToString(List.of(0.1, 0.1f)));
+    }
+
+    @Test
+    public void testBase64() throws Exception {
+        // lengths around the chunk size, with all three kinds of padding
+        for (int length : new int[] {0, 1, 2, 3, 4, 767, 768, 769, 770, 5000}) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) (i * 31 + 7);
+            }
+            String expected = "\"" + Base64.getEncoder().encodeToString(bytes) + "\"";
+            Assertions.assertEquals(expected, engine.serializeToString(bytes));
+            Assertions.assertEquals(expected, new String(engine.serializeToBytes(bytes), StandardCharsets.UTF_8));
+            Assertions.assertArrayEquals(bytes, engine.deserialize(expected, byte[].class));
+            Assertions.assertArrayEquals(bytes, gsonEngine.deserialize(expected, byte[].class));
+        }
+        Assertions.assertThrows(JsonDeserializationException.class, () -> engine.deserialize("\"a?b\"", byte[].class));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<Item> items = List.of(
+                new Item("foo", 1, OptionalField.ofValue("a \"quoted\" <note> \u2028 \uD83D\uDE00"), new Custom("x")),
+                new Item("bär", 2, OptionalField.ofNothing(), new Custom("y"))
+        );
+        String json = engine.serializeToString(items);
+        Assertions.assertEquals(
+                "[{\"name\":\"foo\",\"count\":1,\"note\":\"a \\\"quoted\\\" <note> \\u2028 \uD83D\uDE00\",\"custom\":\"x\"}," +
+                        "{\"name\":\"bär\",\"count\":2,\"custom\":\"y\"}]",
+                json
+        );
+        TypeToken<List<Item>> typeToken = new TypeToken<>() {};
+        Assertions.assertEquals(items, engine.deserialize(json, typeToken));
+        Assertions.assertEquals(items, gsonEngine.deserialize(json, typeToken));
+        Assertions.assertEquals(items, engine.deserialize(gsonEngine.serializeToString(items), typeToken));
+
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        Assertions.assertArrayEquals(bytes, engine.serializeToBytes(items));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        engine.writeTo(items, outputStream);
+        Assertions.assertArrayEquals(bytes, outputStream.toByteArray());
+
+        Assertions.assertEquals(items, engine.deserialize(bytes, typeToken));
+        Assertions.assertEquals(items, engine.deserialize(new ByteArrayInputStream(bytes), typeToken));
+        Assertions.assertEquals(items, engine.deserialize(new StringReader(json), typeToken));
+    }
+
+    @Test
+    public void testByteBuffer() throws Exception {
+        byte[] bytes = "xx[1, 2]yy".getBytes(StandardCharsets.UTF_8);
+        TypeToken<List<Integer>> typeToken = new TypeToken<>() {};
+
+        ByteBuffer heapBuffer = ByteBuffer.wrap(bytes, 2, 6);
+        Assertions.assertEquals(List.of(1, 2), engine.deserialize(heapBuffer, typeToken));
+        Assertions.assertEquals(2, heapBuffer.position());
+        Assertions.assertEquals(List.of(1, 2), engine.deserialize(heapBuffer.slice(), typeToken));
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length);
+        directBuffer.put(bytes).position(2).limit(8);
+        Assertions.assertEquals(List.of(1, 2), engine.deserialize(directBuffer, typeToken));
+        Assertions.assertEquals(2, directBuffer.position());
+    }
+
+    @Test
+    public void testSyntaxErrorPositions() {
+        assertDeserializationMessage("syntax error in JSON at line 3, column 2",
+                "[\n1,\n ?]".getBytes(StandardCharsets.UTF_8));
+        // columns count characters, not bytes
+        assertDeserializationMessage("syntax error in JSON at line 1, column 7",
+                "[\"äö\" x]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testInvalidUtf8() {
+        // stray continuation byte, truncated sequence, overlong encoding, encoded surrogate
+        byte[][] documents = {
+                {'"', (byte) 0x80, '"'},
+                {'"', (byte) 0xC3, '"'},
+                {'"', (byte) 0xC0, (byte) 0xAF, '"'},
+                {'"', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '"'},
+        };
+        for (byte[] document : documents) {
+            Assertions.assertThrows(JsonDeserializationException.class,
+                    () -> engine.deserialize(document, JsonElement.class));
+        }
+    }
+
+    @Test
+    public void testByteOrderMarkIsSkipped() throws Exception {
+        byte[] bytes = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, '4', '2'};
+        Assertions.assertEquals(42, engine.deserialize(bytes, Integer.class));
+    }
+
+    @Test
+    public void testDeepNesting() throws Exception {
+        int depth = 100_000;
+        String json = "[".repeat(depth) + "]".repeat(depth);
+        JsonElement element = engine.deserialize(json, JsonElement.class);
+        Assertions.assertEquals(json, engine.serializeToString(element));
+    }
+
+    @Test
+    public void testLargeOutput() throws Exception {
+        String text = "ä€\uD83D\uDE00\\\"\n".repeat(10_000);
+        byte[] bytes = engine.serializeToBytes(List.of(text, text));
+        Assertions.assertEquals(List.of(text, text),
+                engine.deserialize(bytes, new TypeToken<List<String>>() {}));
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class StringCacheTest {
+
+    private record Price(String currency, int amount) {}
+
+    @Test
+    public void testSizeIsRoundedUp() {
+        Assertions.assertEquals(1, new StringCache(1, 0).getSize());
+        Assertions.assertEquals(64, new StringCache(64, 0).getSize());
+        Assertions.assertEquals(128, new StringCache(65, 0).getSize());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StringCache(0, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StringCache(16, -1));
+    }
+
+    @Test
+    public void testLookup() {
+        StringCache cache = new StringCache(16, 10);
+        byte[] bytes = "xxEURyyEURzzUSD".getBytes(StandardCharsets.US_ASCII);
+        String first = cache.get(bytes, 2, 3);
+        Assertions.assertEquals("EUR", first);
+        Assertions.assertSame(first, cache.get(bytes, 7, 3));
+        Assertions.assertEquals("USD", cache.get(bytes, 12, 3));
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(2, cache.getMissCount());
+
+        cache.resetStatistics();
+        Assertions.assertEquals(0, cache.getHitCount());
+        Assertions.assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void testCollisionsReplaceEntries() {
+        StringCache cache = new StringCache(1, 10);
+        byte[] bytes = "ab".getBytes(StandardCharsets.US_ASCII);
+        Assertions.assertEquals("a", cache.get(bytes, 0, 1));
+        Assertions.assertEquals("b", cache.get(bytes, 1, 1));
+        Assertions.assertEquals("a", cache.get(bytes, 0, 1));
+        Assertions.assertEquals(0, cache.getHitCount());
+        Assertions.assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testEngineUsesCache() throws Exception {
+        StringCache cache = new StringCache(256, 3);
+        NativeJsonEngine engine = new NativeJsonEngine(cache);
+        engine.seal();
+
+        String json = "[{\"currency\": \"EUR\", \"amount\": 1}, {\"currency\": \"EUR\", \"amount\": 2}]";
+        List<Price> prices = engine.deserialize(json, new TypeToken<List<Price>>() {});
+        Assertions.assertEquals(List.of(new Price("EUR", 1), new Price("EUR", 2)), prices);
+        Assertions.assertSame(prices.get(0).currency(), prices.get(1).currency());
+        // two names and one value per price; the second price finds all three in the cache
+        Assertions.assertEquals(3, cache.getHitCount());
+        Assertions.assertEquals(3, cache.getMissCount());
+
+        // values that are too long, or not plain ASCII, are not looked up
+        cache.resetStatistics();
+        List<String> strings = engine.deserialize("[\"EURO\", \"EURO\", \"\\u00e4\", \"\\u00e4\"]",
+                new TypeToken<List<String>>() {});
+        Assertions.assertNotSame(strings.get(0), strings.get(1));
+        Assertions.assertEquals(0, cache.getHitCount() + cache.getMissCount());
+
+        // the tree model uses the cache too
+        JsonElement element = engine.deserialize("[{\"currency\": \"EUR\"}, {\"currency\": \"EUR\"}]", JsonElement.class);
+        var first = element.deserializerExpectsArray().get(0).deserializerExpectsObject();
+        var second = element.deserializerExpectsArray().get(1).deserializerExpectsObject();
+        Assertions.assertSame(first.get("currency").deserializerExpectsString(),
+                second.get("currency").deserializerExpectsString());
+        Assertions.assertSame(first.keySet().iterator().next(), second.keySet().iterator().next());
+        Assertions.assertEquals(Map.of("currency", "EUR").keySet(), first.keySet());
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.native_engine;
+
+import io.github.grumpystuff.grumpyjson.serialize.PreEncodedName;
+import io.github.grumpystuff.grumpyjson.serialize.PreEncodedString;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+public class Utf8JsonWriterTest {
+
+    private static final String LONG_NAME = "a \"long\" name with ä, € and 😀 in it";
+
+    private static void writeSample(Utf8JsonWriter writer, boolean preEncoded) throws IOException {
+        writer.beginObject();
+        for (int i = 0; i < 3; i++) {
+            if (preEncoded) {
+                writer.name(PreEncodedName.of(LONG_NAME + i));
+            } else {
+                writer.name(LONG_NAME + i);
+            }
+            writer.beginArray();
+            writer.numberValue(i);
+            writer.stringValue(LONG_NAME);
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    private static String expectedSample() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < 3; i++) {
+            String escaped = "\"a \\\"long\\\" name with ä, € and 😀 in it";
+            builder.append(i == 0 ? "" : ",").append(escaped).append(i).append("\":[").append(i).append(',')
+                    .append(escaped).append("\"]");
+        }
+        return builder.append('}').toString();
+    }
+
+    @Test
+    public void testPreEncodedNamesMatchPlainNames() throws Exception {
+        for (boolean preEncoded : new boolean[] {false, true}) {
+            Utf8JsonWriter writer = new Utf8JsonWriter(null, new byte[1000]);
+            writeSample(writer, preEncoded);
+            Assertions.assertEquals(expectedSample(), new String(writer.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testPreEncodedStringsMatchPlainStrings() throws Exception {
+        Utf8JsonWriter writer = new Utf8JsonWriter(null, new byte[8]);
+        writer.beginArray();
+        writer.stringValue(LONG_NAME);
+        writer.stringValue(PreEncodedString.of(LONG_NAME));
+        writer.endArray();
+        String escaped = "\"a \\\"long\\\" name with ä, € and 😀 in it\"";
+        Assertions.assertEquals("[" + escaped + "," + escaped + "]",
+                new String(writer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testBufferGrowsWithoutStream() throws Exception {
+        byte[] initialBuffer = new byte[8];
+        Utf8JsonWriter writer = new Utf8JsonWriter(null, initialBuffer);
+        writeSample(writer, true);
+        Assertions.assertEquals(expectedSample(), new String(writer.toByteArray(), StandardCharsets.UTF_8));
+        Assertions.assertNotSame(initialBuffer, writer.getBuffer());
+    }
+
+    @Test
+    public void testSmallBufferIsFlushedToStream() throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        Utf8JsonWriter writer = new Utf8JsonWriter(stream, new byte[8]);
+        writeSample(writer, true);
+        writer.flush();
+        Assertions.assertEquals(expectedSample(), stream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNumberTextIsValidated() throws Exception {
+        Utf8JsonWriter writer = new Utf8JsonWriter(null, new byte[8]);
+        writer.beginArray();
+        writer.numberValue(new BigDecimal("1.50E+3"));
+        writer.numberValue(new TextNumber("-0.5e-2"));
+        for (String text : new String[] {"0x1F", "NaN", "1.", ".5", "01", "+1", "1e", "1 ", ""}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> writer.numberValue(new TextNumber(text)),
+                    text);
+        }
+        writer.endArray();
+        Assertions.assertEquals("[1.50E+3,-0.5e-2]", new String(writer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    // a Number implementation that the writer does not know
+    private static final class TextNumber extends Number {
+
+        private final String text;
+
+        TextNumber(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int intValue() {
+            return (int) doubleValue();
+        }
+
+        @Override
+        public long longValue() {
+            return (long) doubleValue();
+        }
+
+        @Override
+        public float floatValue() {
+            return (float) doubleValue();
+        }
+
+        @Override
+        public double doubleValue() {
+            return Double.parseDouble(text);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+
+    }
+
+    @Test
+    public void testBufferPoolDropsLargeBuffers() {
+        BufferPool pool = new BufferPool();
+        byte[] buffer = pool.acquire();
+        pool.release(buffer);
+        Assertions.assertSame(buffer, pool.acquire());
+        pool.release(new byte[BufferPool.MAX_POOLED_BUFFER_SIZE + 1]);
+        Assertions.assertEquals(BufferPool.INITIAL_BUFFER_SIZE, pool.acquire().length);
+    }
+
+}
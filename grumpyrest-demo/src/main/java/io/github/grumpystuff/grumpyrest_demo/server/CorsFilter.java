@@ -18,7 +18,7 @@ public class CorsFilter implements Filter {
             httpResponse.addHeader("Access-Control-Allow-Origin", origin == null ? "*" : origin);
             httpResponse.addHeader("Access-Control-Allow-Credentials", "true");
             httpResponse.addHeader("Access-Control-Allow-Headers", "Content-Type, Content-Length, Authorization, Accept, X-Requested-With");
-            httpResponse.addHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
+            httpResponse.addHeader("Access-Control-Allow-Methods", "GET, POST, PUT, PATCH, DELETE, OPTIONS");
         }
         filterChain.doFilter(request, response);
     }
@@ -10,6 +10,7 @@ import jakarta.servlet.DispatcherType;
 import io.github.grumpystuff.grumpyrest.RestApi;
 import io.github.grumpystuff.grumpyrest.servlet.RequestPathSourcingStrategy;
 import io.github.grumpystuff.grumpyrest.servlet.RestServlet;
+import io.github.grumpystuff.grumpyrest.servlet.VirtualThreadDispatcher;
 import org.eclipse.jetty.server.Connector;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
@@ -51,9 +52,15 @@ public final class GrumpyrestJettyLauncher {
 
         ServletContextHandler context = new ServletContextHandler();
         context.setContextPath("/");
-        context.addServlet(new ServletHolder(new RestServlet(api, requestPathSourcingStrategy)), "/");
+        // handles requests on virtual threads on Java 21+, and on Jetty's threads otherwise
+        VirtualThreadDispatcher virtualThreadDispatcher = new VirtualThreadDispatcher(1000);
+        ServletHolder servletHolder = new ServletHolder(new RestServlet(api, requestPathSourcingStrategy,
+                virtualThreadDispatcher));
+        servletHolder.setAsyncSupported(true);
+        context.addServlet(servletHolder, "/");
 
         FilterHolder corsFilterHolder = new FilterHolder(new CorsFilter());
+        corsFilterHolder.setAsyncSupported(true);
         context.addFilter(corsFilterHolder, "/*", EnumSet.of(DispatcherType.REQUEST));
 
         server.setHandler(new HandlerList(context, new DefaultHandler()));
@@ -9,6 +9,7 @@ package io.github.grumpystuff.grumpyrest_demo.shop;
 import io.github.grumpystuff.grumpyjson.builtin.helper_types.NullableField;
 import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
 import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.RouteTypes;
 import io.github.grumpystuff.grumpyrest.request.HttpMethod;
 import io.github.grumpystuff.grumpyrest.request.Request;
 import io.github.grumpystuff.grumpyrest.response.FinishRequestException;
@@ -116,8 +117,10 @@ public final class ShopSystem {
     // ----------------------------------------------------------------------------------------------------------------
 
     private void addBrowsingRoutes(RestApi api) {
-        api.addRoute(HttpMethod.GET, "/categories/:id", this::handleGetCategory);
-        api.addRoute(HttpMethod.GET, "/products/:id", this::handleGetProduct);
+        api.addRoute(HttpMethod.GET, "/categories/:id<int>", RouteTypes.NONE.withResponse(CategoryResponse.class),
+            this::handleGetCategory);
+        api.addRoute(HttpMethod.GET, "/products/:id<int>", RouteTypes.NONE.withResponse(ProductResponse.class),
+            this::handleGetProduct);
     }
 
     public record CategoryResponse(
@@ -170,9 +173,11 @@ public final class ShopSystem {
     // ----------------------------------------------------------------------------------------------------------------
 
     private void addCartRoutes(RestApi api) {
-        api.addRoute(HttpMethod.GET, "/cart/:userId", this::handleGetCart);
-        api.addRoute(HttpMethod.POST, "/cart/:userId/add", this::handleAddToCart);
-        api.addRoute(HttpMethod.POST, "/cart/:userId/clear", this::handleClearCart);
+        api.addRoute(HttpMethod.GET, "/cart/:userId<int>", RouteTypes.NONE.withResponse(GetCartResponse.class),
+            this::handleGetCart);
+        api.addRoute(HttpMethod.POST, "/cart/:userId<int>/add", RouteTypes.NONE.withRequestBody(AddToCartRequest.class),
+            this::handleAddToCart);
+        api.addRoute(HttpMethod.POST, "/cart/:userId<int>/clear", this::handleClearCart);
     }
 
     public record GetCartResponse(List<GetCartResponseLineItem> lineItems) {}
@@ -220,8 +225,8 @@ public final class ShopSystem {
     // ----------------------------------------------------------------------------------------------------------------
 
     private void addOrderRoutes(RestApi api) {
-        api.addRoute(HttpMethod.GET, "/orders/:userId", this::handleGetOrderHistory);
-        api.addRoute(HttpMethod.POST, "/orders/:userId/place", this::handlePlaceOrder);
+        api.addRoute(HttpMethod.GET, "/orders/:userId<int>", this::handleGetOrderHistory);
+        api.addRoute(HttpMethod.POST, "/orders/:userId<int>/place", this::handlePlaceOrder);
     }
 
     public record GetOrderHistoryResponse(List<GetOrderHistoryResponseOrder> orders) {}
@@ -13,6 +13,8 @@ import org.apache.commons.lang3.tuple.Pair;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
@@ -20,120 +22,191 @@ import java.util.function.Predicate;
 /**
  * Simulates a database table. Note that unlike a relational database, the ID is not part of the row data but stored
  * next to the row -- it is the index in the internal list.
+ * <p>
+ * Access is guarded by a lock instead of synchronized methods, so a virtual thread that blocks while holding it does
+ * not pin its carrier thread.
  */
 public final class Table<T> {
 
+    private final Lock lock = new ReentrantLock();
     private final List<T> rows = new ArrayList<>();
 
-    public synchronized int insert(T row) {
+    public int insert(T row) {
         Objects.requireNonNull(row, "row");
-        int id = rows.size();
-        rows.add(row);
-        return id;
+
+        lock.lock();
+        try {
+            int id = rows.size();
+            rows.add(row);
+            return id;
+        } finally {
+            lock.unlock();
+        }
     }
 
     private boolean isIdInRange(int id) {
         return (id >= 0 && id < rows.size());
     }
 
-    public synchronized boolean isValidId(int id) {
-        return isIdInRange(id) && rows.get(id) != null;
+    public boolean isValidId(int id) {
+        lock.lock();
+        try {
+            return isIdInRange(id) && rows.get(id) != null;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized T get(int id) {
-        T result = getOrNull(id);
-        if (result == null) {
-            throw new IllegalArgumentException("invalid id: " + id);
+    public T get(int id) {
+        lock.lock();
+        try {
+            T result = getOrNull(id);
+            if (result == null) {
+                throw new IllegalArgumentException("invalid id: " + id);
+            }
+            return result;
+        } finally {
+            lock.unlock();
         }
-        return result;
     }
 
-    public synchronized T getRestEquivalent(int id) {
-        T result = getOrNull(id);
-        if (result == null) {
-            throw new FinishRequestException(StandardErrorResponse.ID_NOT_FOUND);
+    public T getRestEquivalent(int id) {
+        lock.lock();
+        try {
+            T result = getOrNull(id);
+            if (result == null) {
+                throw new FinishRequestException(StandardErrorResponse.ID_NOT_FOUND);
+            }
+            return result;
+        } finally {
+            lock.unlock();
         }
-        return result;
     }
 
-    public synchronized T getOrNull(int id) {
-        return isIdInRange(id) ? rows.get(id) : null;
+    public T getOrNull(int id) {
+        lock.lock();
+        try {
+            return isIdInRange(id) ? rows.get(id) : null;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized boolean exists(int id) {
-        return getOrNull(id) != null;
+    public boolean exists(int id) {
+        lock.lock();
+        try {
+            return getOrNull(id) != null;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized boolean existsAny(Predicate<T> filter) {
-        for (T row : rows) {
-            if (row != null && filter.test(row)) {
-                return true;
+    public boolean existsAny(Predicate<T> filter) {
+        lock.lock();
+        try {
+            for (T row : rows) {
+                if (row != null && filter.test(row)) {
+                    return true;
+                }
             }
+            return false;
+        } finally {
+            lock.unlock();
         }
-        return false;
     }
 
-    public synchronized void replace(int id, T row) {
+    public void replace(int id, T row) {
         Objects.requireNonNull(row, "row");
-        if (!isValidId(id)) {
-            throw new IllegalArgumentException("invalid id: " + id);
+
+        lock.lock();
+        try {
+            if (!isValidId(id)) {
+                throw new IllegalArgumentException("invalid id: " + id);
+            }
+            rows.set(id, row);
+        } finally {
+            lock.unlock();
         }
-        rows.set(id, row);
     }
 
-    public synchronized void delete(int id) {
-        if (!isValidId(id)) {
-            throw new IllegalArgumentException("invalid id: " + id);
+    public void delete(int id) {
+        lock.lock();
+        try {
+            if (!isValidId(id)) {
+                throw new IllegalArgumentException("invalid id: " + id);
+            }
+            rows.set(id, null);
+        } finally {
+            lock.unlock();
         }
-        rows.set(id, null);
     }
 
-    public synchronized void deleteIf(Predicate<T> filter) {
-        for (int i = 0; i < rows.size(); i++) {
-            T row = rows.get(i);
-            if (row != null && filter.test(row)) {
-                rows.set(i, null);
+    public void deleteIf(Predicate<T> filter) {
+        lock.lock();
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                T row = rows.get(i);
+                if (row != null && filter.test(row)) {
+                    rows.set(i, null);
+                }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
     /**
      * Returns the first element that matches the filter, or null if none.
      */
-    public synchronized Pair<Integer, T> getFirst(Predicate<T> filter) {
-        for (int i = 0; i < rows.size(); i++) {
-            T row = rows.get(i);
-            if (row != null && filter.test(row)) {
-                return Pair.of(i, row);
+    public Pair<Integer, T> getFirst(Predicate<T> filter) {
+        lock.lock();
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                T row = rows.get(i);
+                if (row != null && filter.test(row)) {
+                    return Pair.of(i, row);
+                }
             }
+            return null;
+        } finally {
+            lock.unlock();
         }
-        return null;
     }
 
     /**
      * Filters the elements of this table and maps them to a different type. Return null from the body to filter out
      * an element.
      */
-    public synchronized <U> List<U> filterMap(BiFunction<Integer, T, U> body) {
-        List<U> result = new ArrayList<>();
-        for (int i = 0; i < rows.size(); i++) {
-            T row = rows.get(i);
-            if (row != null) {
-                U resultElement = body.apply(i, row);
-                if (resultElement != null) {
-                    result.add(resultElement);
+    public <U> List<U> filterMap(BiFunction<Integer, T, U> body) {
+        lock.lock();
+        try {
+            List<U> result = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                T row = rows.get(i);
+                if (row != null) {
+                    U resultElement = body.apply(i, row);
+                    if (resultElement != null) {
+                        result.add(resultElement);
+                    }
                 }
             }
+            return List.copyOf(result);
+        } finally {
+            lock.unlock();
         }
-        return List.copyOf(result);
     }
 
-    public synchronized void foreach(BiConsumer<Integer, T> consumer) {
-        for (int i = 0; i < rows.size(); i++) {
-            T row = rows.get(i);
-            if (row != null) {
-                consumer.accept(i, row);
+    public void foreach(BiConsumer<Integer, T> consumer) {
+        lock.lock();
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                T row = rows.get(i);
+                if (row != null) {
+                    consumer.accept(i, row);
+                }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
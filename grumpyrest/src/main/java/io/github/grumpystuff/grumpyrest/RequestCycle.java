@@ -8,12 +8,11 @@ package io.github.grumpystuff.grumpyrest;
 
 import io.github.grumpystuff.grumpyjson.TypeToken;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
-import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
 import io.github.grumpystuff.grumpyrest.request.PathArgument;
 import io.github.grumpystuff.grumpyrest.request.Request;
-import io.github.grumpystuff.grumpyrest.request.path.PathUtil;
+import io.github.grumpystuff.grumpyrest.request.path.RequestPath;
 import io.github.grumpystuff.grumpyrest.request.querystring.QuerystringParsingException;
 import io.github.grumpystuff.grumpyrest.response.FinishRequestException;
 import io.github.grumpystuff.grumpyrest.response.Response;
@@ -42,12 +41,13 @@ public final class RequestCycle {
     private final RestApi api;
     private final HttpServletRequest servletRequest;
     private final HttpServletResponse servletResponse;
-    private final List<String> pathSegments;
+    private final RequestPath requestPath;
+    private final boolean headRequest;
 
     private RouteMatchResult routeMatchResult;
 
     private final Request highlevelRequest;
-    private final ResponseTransmitter responseTransmitter;
+    private final MyResponseTransmitter responseTransmitter;
 
     /**
      * NOT PUBLIC API
@@ -72,12 +72,8 @@ public final class RequestCycle {
         this.servletRequest = servletRequest;
         this.servletResponse = servletResponse;
 
-        String pathText = requestPathSourcingStrategy.getPath(servletRequest);
-        if (pathText == null) {
-            this.pathSegments = List.of();
-        } else {
-            this.pathSegments = List.of(PathUtil.splitIntoSegments(pathText));
-        }
+        this.requestPath = requestPathSourcingStrategy.getRequestPath(servletRequest);
+        this.headRequest = "HEAD".equalsIgnoreCase(servletRequest.getMethod());
 
         this.highlevelRequest = new MyRequest();
         this.responseTransmitter = new MyResponseTransmitter();
@@ -107,7 +103,39 @@ public final class RequestCycle {
      * @return the path segments
      */
     public List<String> getPathSegments() {
-        return pathSegments;
+        return requestPath;
+    }
+
+    /**
+     * NOT PUBLIC API
+     * <p>
+     * Getter method for the requested path, split into segments at slashes without copying the segment texts
+     *
+     * @return the request path
+     */
+    public RequestPath getRequestPath() {
+        return requestPath;
+    }
+
+    /**
+     * Checks whether this is a HEAD request. HEAD requests are handled by the GET routes, but the response transmitter
+     * does not send a response body for them. The body still gets generated, to send its length in the
+     * Content-Length header.
+     *
+     * @return true for a HEAD request, false otherwise
+     */
+    public boolean isHeadRequest() {
+        return headRequest;
+    }
+
+    /**
+     * Returns the HTTP method that is used to select a route for this request. This is the method of the request,
+     * except for HEAD requests, which are routed like GET requests.
+     *
+     * @return the HTTP method used for routing
+     */
+    public String getRoutingMethod() {
+        return headRequest ? "GET" : servletRequest.getMethod();
     }
 
     private RouteMatchResult needRouteMatchResult() {
@@ -170,8 +198,19 @@ public final class RequestCycle {
         this.routeMatchResult = matchResult;
     }
 
+    /**
+     * Called after the response has been transmitted. For HEAD requests, this sends the length of the response body
+     * that was generated but not sent.
+     */
+    void finishTransmission() {
+        responseTransmitter.finish();
+    }
+
     private final class MyResponseTransmitter implements ResponseTransmitter {
 
+        // for HEAD requests only: counts and discards the response body
+        private DiscardingOutputStream discardedBody;
+
         @Override
         public void setStatus(int status) {
             servletResponse.setStatus(status);
@@ -194,6 +233,12 @@ public final class RequestCycle {
 
         @Override
         public OutputStream getOutputStream() throws IOException {
+            if (headRequest) {
+                if (discardedBody == null) {
+                    discardedBody = new DiscardingOutputStream();
+                }
+                return discardedBody;
+            }
             return servletResponse.getOutputStream();
         }
 
@@ -201,14 +246,48 @@ public final class RequestCycle {
         public void writeJson(Object value) throws JsonSerializationException, IOException {
             Objects.requireNonNull(value, "value");
 
-            api.getJsonEngine().writeTo(value, servletResponse.getOutputStream());
+            // for HEAD requests, the JSON still gets generated, but only to count its length for Content-Length
+            try {
+                api.getJsonEngine().writeTo(value, getOutputStream());
+            } catch (JsonSerializationException e) {
+                // JSON gets written while it is being generated, so discard any partial output if still possible
+                if (discardedBody != null) {
+                    discardedBody.length = 0;
+                } else if (!servletResponse.isCommitted()) {
+                    servletResponse.resetBuffer();
+                }
+                throw e;
+            }
+        }
+
+        void finish() {
+            if (discardedBody != null && !servletResponse.isCommitted()) {
+                servletResponse.setContentLengthLong(discardedBody.length);
+            }
+        }
+
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+
+        private long length;
+
+        @Override
+        public void write(int b) {
+            length++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            length += len;
         }
 
     }
 
     private final class MyRequest implements Request {
 
-        private JsonElement preParsedBody;
+        private byte[] body;
 
         @Override
         public String getMethod() {
@@ -296,21 +375,21 @@ public final class RequestCycle {
             }
         }
 
-        private JsonElement prepareParse() {
-            if (preParsedBody == null) {
+        private byte[] prepareParse() {
+            if (body == null) {
                 String contentType = servletRequest.getContentType();
                 if (contentType == null || !contentType.equals("application/json")) {
                     throw new FinishRequestException(StandardErrorResponse.JSON_EXPECTED);
                 }
+                // The body is kept as bytes, not parsed into a JsonElement, so that each call to parseBody() can
+                // deserialize it in a single streaming pass.
                 try {
-                    preParsedBody = api.getJsonEngine().deserialize(servletRequest.getInputStream(), JsonElement.class);
-                } catch (JsonDeserializationException e) {
-                    throw new FinishRequestException(StandardErrorResponse.requestBodyValidationFailed(e));
+                    body = servletRequest.getInputStream().readAllBytes();
                 } catch (IOException e) {
                     throw new FinishRequestException(StandardErrorResponse.IO_ERROR);
                 }
             }
-            return preParsedBody;
+            return body;
         }
 
 
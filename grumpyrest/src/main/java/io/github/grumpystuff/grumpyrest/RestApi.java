@@ -9,6 +9,7 @@ package io.github.grumpystuff.grumpyrest;
 import io.github.grumpystuff.grumpyjson.JsonEngine;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializerRegistry;
 import io.github.grumpystuff.grumpyrest.request.HttpMethod;
@@ -19,20 +20,29 @@ import io.github.grumpystuff.grumpyrest.request.stringparser.standard.IntegerFro
 import io.github.grumpystuff.grumpyrest.request.stringparser.standard.LongFromStringParser;
 import io.github.grumpystuff.grumpyrest.request.stringparser.standard.StringFromStringParser;
 import io.github.grumpystuff.grumpyrest.response.*;
+import io.github.grumpystuff.grumpyrest.response.standard.AllowedMethodsResponse;
 import io.github.grumpystuff.grumpyrest.response.standard.NullResponseFactory;
+import io.github.grumpystuff.grumpyrest.response.standard.StatusOnlyResponse;
 import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParser;
 import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserRegistry;
 import io.github.grumpystuff.grumpyrest.response.standard.IdentityResponseFactory;
 import io.github.grumpystuff.grumpyrest.response.standard.JsonResponseFactory;
 import io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class is the main Entry point into grumpyrest. It is used by the application to define the REST API in terms
@@ -48,6 +58,11 @@ public final class RestApi {
     private final FromStringParserRegistry fromStringParserRegistry = new FromStringParserRegistry();
     private final QuerystringParserRegistry querystringParserRegistry = new QuerystringParserRegistry(fromStringParserRegistry);
 
+    // built from the routes by seal()
+    private volatile RoutingTrie routingTrie;
+
+    private Duration asyncTimeout = Duration.ofSeconds(30);
+
     /**
      * Constructor.
      * <p>
@@ -59,7 +74,11 @@ public final class RestApi {
      * Unmatched requests: By default, no fallback route for unmatched requests is present. Instead, the API handles
      * such requests internally by sending a standard 404 response that cannot be changed. This is just a formal
      * way to specify that a manually added catch-all route is the one and only way to implement custom "not found"
-     * behavior.
+     * behavior. If routes exist for the requested path but not for the HTTP method, a 405 response with an "Allow"
+     * header gets sent instead.
+     * <p>
+     * HEAD and OPTIONS: HEAD requests are handled by the GET routes, but no response body gets sent. OPTIONS requests
+     * are answered with an empty response and an "Allow" header that lists the methods supported for the path.
      * <p>
      * From-string parsers, JSON Type adapters and response factories: After construction, this API object will have
      * default from-string parsers (for path / querystring parameters) and default response factories registered. It
@@ -97,9 +116,13 @@ public final class RestApi {
      * requests.
      *
      * @param route the route to add
+     * @throws IllegalStateException if this API has been sealed already
      */
     public void addRoute(Route route) {
         Objects.requireNonNull(route, "route");
+        if (routingTrie != null) {
+            throw new IllegalStateException("cannot add routes after the API has been sealed");
+        }
 
         routes.add(route);
     }
@@ -168,6 +191,44 @@ public final class RestApi {
         addRoute(new Route(method, path, handler));
     }
 
+    /**
+     * Adds a route to handle requests and declares the types used by its handler, so their converters and parsers
+     * get prepared by {@link #seal()}. This route can only be matched by requests that do not match any previously
+     * added route, and takes precedence over any route added later.
+     *
+     * @param method the HTTP method to match
+     * @param path the path to match
+     * @param types the types used by the handler
+     * @param handler the handler to invoke
+     */
+    public void addComplexRoute(HttpMethod method, String path, RouteTypes types, ComplexHandler handler) {
+        Objects.requireNonNull(method, "method");
+        Objects.requireNonNull(path, "path");
+        Objects.requireNonNull(types, "types");
+        Objects.requireNonNull(handler, "handler");
+
+        addRoute(new Route(method, Path.parse(path), types, handler));
+    }
+
+    /**
+     * Adds a route to handle requests and declares the types used by its handler, so their converters and parsers
+     * get prepared by {@link #seal()}. This route can only be matched by requests that do not match any previously
+     * added route, and takes precedence over any route added later.
+     *
+     * @param method the HTTP method to match
+     * @param path the path to match
+     * @param types the types used by the handler
+     * @param handler the handler to invoke
+     */
+    public void addRoute(HttpMethod method, String path, RouteTypes types, SimpleHandler handler) {
+        Objects.requireNonNull(method, "method");
+        Objects.requireNonNull(path, "path");
+        Objects.requireNonNull(types, "types");
+        Objects.requireNonNull(handler, "handler");
+
+        addRoute(new Route(method, Path.parse(path), types, handler));
+    }
+
     /**
      * Returns a snapshot of the currently present routes.
      *
@@ -307,14 +368,118 @@ public final class RestApi {
         return jsonEngine;
     }
 
+    /**
+     * Getter method for the time to wait for a handler that returned a {@link CompletionStage} to complete it.
+     *
+     * @return the timeout
+     */
+    public Duration getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    /**
+     * Setter method for the time to wait for a handler that returned a {@link CompletionStage} to complete it. If
+     * the completion stage does not complete in time, {@link StandardErrorResponse#TIMEOUT} is sent instead. The
+     * default is 30 seconds.
+     *
+     * @param asyncTimeout the timeout
+     */
+    public void setAsyncTimeout(Duration asyncTimeout) {
+        Objects.requireNonNull(asyncTimeout, "asyncTimeout");
+        if (asyncTimeout.isNegative() || asyncTimeout.isZero()) {
+            throw new IllegalArgumentException("timeout must be positive: " + asyncTimeout);
+        }
+
+        this.asyncTimeout = asyncTimeout;
+    }
+
     /**
      * Seals this API, also sealing all registries used in it.
+     * <p>
+     * For routes that declare their types (see {@link RouteTypes}), this then prepares the JSON converters and
+     * querystring parsers for these types and all types reachable from them, in parallel. This way, they do not have
+     * to be built on the first request, and missing ones are reported here instead.
+     * <p>
+     * The routes get compiled into a trie, so matching a request does not have to try each route. No more routes can
+     * be added afterwards.
+     *
+     * @throws IllegalStateException if a converter or parser for a declared type is missing. The API is sealed
+     * anyway.
      */
     public void seal() {
         jsonEngine.seal();
         fromStringParserRegistry.seal();
         querystringParserRegistry.seal();
         responseFactoryRegistry.seal();
+        routingTrie = new RoutingTrie(routes);
+        prepareRouteTypes();
+    }
+
+    private void prepareRouteTypes() {
+        Set<Type> requestBodyTypes = new HashSet<>();
+        Set<Type> querystringTypes = new HashSet<>();
+        Set<Type> responseTypes = new HashSet<>();
+        for (Route route : routes) {
+            RouteTypes types = route.types();
+            if (types.requestBodyType() != null) {
+                requestBodyTypes.add(types.requestBodyType());
+            }
+            if (types.querystringType() != null) {
+                querystringTypes.add(types.querystringType());
+            }
+            Type responseType = getCompletedResponseType(types.responseType());
+            if (responseType != null && isJsonResponseType(responseType)) {
+                responseTypes.add(responseType);
+            }
+        }
+
+        // the JSON registries prepare their types in parallel themselves
+        List<String> errors = new ArrayList<>();
+        try {
+            jsonEngine.getRegistries().prepareDeserializers(requestBodyTypes);
+        } catch (NotRegisteredException e) {
+            errors.add(e.getMessage());
+        }
+        try {
+            jsonEngine.getRegistries().prepareSerializers(responseTypes);
+        } catch (NotRegisteredException e) {
+            errors.add(e.getMessage());
+        }
+        errors.addAll(querystringTypes.parallelStream().map(type -> {
+            try {
+                querystringParserRegistry.get(type).prepare(type);
+                return null;
+            } catch (NotRegisteredException e) {
+                return e.getMessage();
+            } catch (Exception e) {
+                return "could not prepare querystring parser for type " + type + ": " + e;
+            }
+        }).filter(Objects::nonNull).toList());
+
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("missing converters or parsers for route types:\n" +
+                    String.join("\n", errors));
+        }
+    }
+
+    // for handlers that return a CompletionStage, the value it gets completed with is the response value
+    private static Type getCompletedResponseType(Type type) {
+        if (type instanceof ParameterizedType p && p.getRawType() instanceof Class<?> c &&
+                CompletionStage.class.isAssignableFrom(c) && p.getActualTypeArguments().length == 1) {
+            return p.getActualTypeArguments()[0];
+        }
+        return type;
+    }
+
+    // other response values are handled by other response factories, so only prepare JSON serializers for JSON types
+    private boolean isJsonResponseType(Type type) {
+        if (type instanceof Class<?> c) {
+            return jsonEngine.supportsClassForSerialization(c);
+        } else if (type instanceof ParameterizedType p && p.getRawType() instanceof Class<?> c) {
+            return jsonEngine.supportsClassForSerialization(c);
+        } else {
+            return false;
+        }
     }
 
     // endregion
@@ -326,6 +491,9 @@ public final class RestApi {
      * cycle, i.e. not bind path arguments.
      * <p>
      * If multiple routes match, then the one that was first added to this API will be returned.
+     * <p>
+     * Once this API has been sealed, this uses the routing trie built by {@link #seal()}. Before that, it tries the
+     * routes one by one.
      *
      * @param requestCycle the request cycle to match
      * @return if a route matched, the match result for that route. Otherwise null.
@@ -333,6 +501,11 @@ public final class RestApi {
     public RouteMatchResult match(RequestCycle requestCycle) {
         Objects.requireNonNull(requestCycle, "requestCycle");
 
+        RoutingTrie routingTrie = this.routingTrie;
+        if (routingTrie != null) {
+            return routingTrie.match(requestCycle.getRoutingMethod(), requestCycle.getRequestPath(),
+                    fromStringParserRegistry);
+        }
         for (Route route : routes) {
             RouteMatchResult result = route.match(requestCycle);
             if (result != null) {
@@ -342,33 +515,163 @@ public final class RestApi {
         return null;
     }
 
+    /**
+     * Determines the HTTP methods for which a route matches the path of the specified request cycle, regardless of
+     * the method of the request itself.
+     *
+     * @param requestCycle the request cycle to match
+     * @return the HTTP methods
+     */
+    public Set<HttpMethod> getAllowedMethods(RequestCycle requestCycle) {
+        Objects.requireNonNull(requestCycle, "requestCycle");
+
+        RoutingTrie routingTrie = this.routingTrie;
+        if (routingTrie != null) {
+            return routingTrie.getAllowedMethods(requestCycle.getRequestPath());
+        }
+        EnumSet<HttpMethod> result = EnumSet.noneOf(HttpMethod.class);
+        for (Route route : routes) {
+            if (route.path().match(requestCycle.getPathSegments(), fromStringParserRegistry) != null) {
+                result.add(route.method());
+            }
+        }
+        return result;
+    }
+
     /**
      * Handles a request cycle. This first matches the request cycle against all routes to find the route that will
      * handle it, then apply information gathered from matching (i.e. the path arguments) to the request cycle. It
      * will then invoke the handler from the matched route to perform application logic and obtain a response value.
      * This response value gets mapped to a response using an appropriate factory. Finally, the response will be
      * transmitted to the client.
+     * <p>
+     * If no route matches, the response is a 404 if no route exists for the path at all, or a 405 if routes exist
+     * for the path but not for the HTTP method. OPTIONS requests are answered by listing the methods of these
+     * routes. HEAD requests are handled like GET requests, except that no response body is sent.
+     * <p>
+     * If the handler returns a {@link CompletionStage}, the value it gets completed with is used as the response
+     * value instead, and an exception it gets completed with is treated like an exception thrown by the handler. If
+     * the servlet request supports asynchronous processing, the container thread is released in the meantime, and
+     * the response gets created and transmitted on a container thread again once the completion stage is complete.
+     * Otherwise, or if the request is already being processed asynchronously, the calling thread waits for it. Either
+     * way, {@link StandardErrorResponse#TIMEOUT} is sent if it does not complete within the
+     * {@link #getAsyncTimeout() timeout}.
      *
      * @param requestCycle the request cycle to handle
      */
     public void handle(RequestCycle requestCycle) {
         Objects.requireNonNull(requestCycle, "requestCycle");
 
+        // run the handler
+        Object responseValue;
         try {
+            RouteMatchResult matchResult = match(requestCycle);
+            if (matchResult != null) {
+                requestCycle.applyRouteMatchResult(matchResult);
+                responseValue = matchResult.route().invokeHandler(requestCycle);
+            } else {
+                responseValue = getResponseForUnmatchedRequest(requestCycle);
+            }
+        } catch (Exception e) {
+            responseValue = e;
+        }
+
+        if (responseValue instanceof CompletionStage<?> completionStage) {
+            handleAsynchronously(requestCycle, completionStage);
+        } else {
+            respond(requestCycle, responseValue);
+        }
+    }
 
-            // run the handler
+    private void handleAsynchronously(RequestCycle requestCycle, CompletionStage<?> completionStage) {
+        HttpServletRequest servletRequest = requestCycle.getServletRequest();
+        if (!servletRequest.isAsyncSupported() || servletRequest.isAsyncStarted()) {
+            // If asynchronous processing has been started already, this is not a container thread but e.g. a virtual
+            // thread from the VirtualThreadDispatcher, for which waiting is cheap.
+            respond(requestCycle, awaitResponseValue(completionStage));
+            return;
+        }
+
+        // The timeout is applied to the future instead of the AsyncContext: the container would signal it on
+        // another thread, possibly while the completion is being responded to. A future only gets completed once, so
+        // exactly one of the two sends the response. The copy keeps us from completing the handler's own future with
+        // our TimeoutException, and it wraps any exception from the handler in a CompletionException, so a bare
+        // TimeoutException always comes from orTimeout().
+        AsyncContext asyncContext = servletRequest.startAsync();
+        asyncContext.setTimeout(0);
+        AtomicBoolean containerGaveUp = new AtomicBoolean();
+        asyncContext.addListener(new AsyncListener() {
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                // the container gives up on the request, e.g. because the client has closed the connection
+                containerGaveUp.set(true);
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+
+        });
+        CompletableFuture<?> future = completionStage.toCompletableFuture().copy();
+        future.orTimeout(asyncTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        future.whenComplete((value, failure) -> {
+            if (containerGaveUp.get()) {
+                return;
+            }
             Object responseValue;
-            try {
-                RouteMatchResult matchResult = match(requestCycle);
-                if (matchResult != null) {
-                    requestCycle.applyRouteMatchResult(matchResult);
-                    responseValue = matchResult.route().invokeHandler(requestCycle);
-                } else {
-                    responseValue = StandardErrorResponse.UNKNOWN_URL;
-                }
-            } catch (Exception e) {
-                responseValue = e;
+            if (failure == null) {
+                responseValue = value;
+            } else if (failure instanceof TimeoutException) {
+                responseValue = StandardErrorResponse.TIMEOUT;
+            } else {
+                responseValue = unwrapCompletionFailure(failure);
             }
+            // don't create and transmit the response on whatever thread completed the stage
+            asyncContext.start(() -> {
+                try {
+                    respond(requestCycle, responseValue);
+                } finally {
+                    asyncContext.complete();
+                }
+            });
+        });
+    }
+
+    private Object awaitResponseValue(CompletionStage<?> completionStage) {
+        try {
+            return completionStage.toCompletableFuture().get(asyncTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return StandardErrorResponse.TIMEOUT;
+        } catch (ExecutionException e) {
+            return unwrapCompletionFailure(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        } catch (CancellationException e) {
+            return e;
+        }
+    }
+
+    // the exception from the handler is wrapped if it was thrown in a dependent stage or obtained through get()
+    private static Throwable unwrapCompletionFailure(Throwable failure) {
+        while ((failure instanceof CompletionException || failure instanceof ExecutionException) &&
+                failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
+    }
+
+    private void respond(RequestCycle requestCycle, Object responseValue) {
+        try {
 
             // run the HTTP response factory
             Response response;
@@ -395,6 +698,7 @@ public final class RestApi {
             // Transmit the response. Catching exceptions here is not useful because the response body has already been
             // started so we cannot change the status line anymore.
             response.transmit(requestCycle.getResponseTransmitter());
+            requestCycle.finishTransmission();
 
         } catch (Exception e) {
             // If we end up here, we cannot rely on the JSON serializer anymore (since that may the reason we ended
@@ -406,6 +710,7 @@ public final class RestApi {
                 responseTransmitter.setStatus(500);
                 responseTransmitter.setContentType("application/text");
                 responseTransmitter.getOutputStream().write("internal server error\n".getBytes(StandardCharsets.UTF_8));
+                requestCycle.finishTransmission();
             } catch (Exception e2) {
                 // ignore -- typically I/O errors which are transient and we can't fix them
             }
@@ -413,6 +718,17 @@ public final class RestApi {
         }
     }
 
+    private Response getResponseForUnmatchedRequest(RequestCycle requestCycle) {
+        Set<HttpMethod> allowedMethods = getAllowedMethods(requestCycle);
+        if (allowedMethods.isEmpty()) {
+            return StandardErrorResponse.UNKNOWN_URL;
+        }
+        if ("OPTIONS".equalsIgnoreCase(requestCycle.getServletRequest().getMethod())) {
+            return new AllowedMethodsResponse(allowedMethods, new StatusOnlyResponse(204));
+        }
+        return new AllowedMethodsResponse(allowedMethods, StandardErrorResponse.METHOD_NOT_ALLOWED);
+    }
+
     private static String getHintForMissingResponseFactory(Object value) {
         if (value instanceof List<?>) {
             return "You returned a List object as the response value. A List must be wrapped in a TypeWrapper to indicate the element type.";
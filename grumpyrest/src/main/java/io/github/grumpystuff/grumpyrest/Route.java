@@ -34,24 +34,54 @@ import java.util.Objects;
  *     simplifies testing and mocking. Refer to these interfaces for details</li>
  * </ul>
  * <p>
+ * A route can optionally declare the types its handler uses, see {@link RouteTypes}. These declarations are only
+ * used to prepare converters and parsers when the {@link RestApi} gets sealed, and do not affect request handling.
+ * <p>
  * The canonical constructor takes a {@link ComplexHandler} because this is the more general case.
  *
  * @param method the HTTP method to match
  * @param path the path pattern to match. May include path parameters.
+ * @param types the types used by the handler, or {@link RouteTypes#NONE}
  * @param handler the handler to invoke for requests that match this route
  */
-public record Route(HttpMethod method, Path path, ComplexHandler handler) {
+public record Route(HttpMethod method, Path path, RouteTypes types, ComplexHandler handler) {
 
     /**
      * Standard constructor.
      *
      * @param method the HTTP method to match
      * @param path the path pattern to match. May include path parameters.
+     * @param types the types used by the handler, or {@link RouteTypes#NONE}
      * @param handler the handler to invoke for requests that match this route
      */
     public Route {
         Objects.requireNonNull(method, "method");
         Objects.requireNonNull(path, "path");
+        Objects.requireNonNull(types, "types");
+        Objects.requireNonNull(handler, "handler");
+    }
+
+    /**
+     * Constructor for a route that does not declare any types.
+     *
+     * @param method the HTTP method to match
+     * @param path the path pattern to match. May include path parameters.
+     * @param handler the handler to invoke for requests that match this route
+     */
+    public Route(HttpMethod method, Path path, ComplexHandler handler) {
+        this(method, path, RouteTypes.NONE, handler);
+    }
+
+    /**
+     * Constructor for a {@link SimpleHandler} that declares the types used by the handler.
+     *
+     * @param method the HTTP method to match
+     * @param path the path pattern to match. May include path parameters.
+     * @param types the types used by the handler, or {@link RouteTypes#NONE}
+     * @param handler the handler to invoke for requests that match this route
+     */
+    public Route(HttpMethod method, Path path, RouteTypes types, SimpleHandler handler) {
+        this(method, path, types, (RequestCycle requestCycle) -> handler.handle(requestCycle.getHighlevelRequest()));
         Objects.requireNonNull(handler, "handler");
     }
 
@@ -75,8 +105,7 @@ public record Route(HttpMethod method, Path path, ComplexHandler handler) {
      * @param handler the handler to invoke for requests that match this route
      */
     public Route(HttpMethod method, Path path, SimpleHandler handler) {
-        this(method, path, (RequestCycle requestCycle) -> handler.handle(requestCycle.getHighlevelRequest()));
-        Objects.requireNonNull(handler, "handler");
+        this(method, path, RouteTypes.NONE, handler);
     }
 
     /**
@@ -101,7 +130,7 @@ public record Route(HttpMethod method, Path path, ComplexHandler handler) {
     public RouteMatchResult match(RequestCycle requestCycle) {
         Objects.requireNonNull(requestCycle, "requestCycle");
 
-        if (!method.matches(requestCycle.getServletRequest().getMethod())) {
+        if (!method.matches(requestCycle.getRoutingMethod())) {
             return null;
         }
         ParseFromStringService parseFromStringService = requestCycle.getApi().getFromStringParserRegistry();
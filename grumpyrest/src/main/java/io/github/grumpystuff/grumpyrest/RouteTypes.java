@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * Declares the types that the handler of a {@link Route} uses for the request body, the querystring and the response
+ * value. Declaring them is optional: The handler works the same either way. If they are declared,
+ * {@link RestApi#seal()} prepares the JSON converters and querystring parsers for these types and all types reachable
+ * from them, so the first request does not have to build them, and missing converters are reported at startup
+ * instead of on the first request.
+ * <p>
+ * Each type may be null to indicate that the handler does not use it, or that it should not be prepared.
+ * Instances are usually built starting from {@link #NONE}, e.g.
+ * <code>RouteTypes.NONE.withRequestBody(MyRequest.class).withResponse(MyResponse.class)</code>.
+ *
+ * @param requestBodyType the type of the JSON request body, or null
+ * @param querystringType the type that the querystring gets parsed as, or null
+ * @param responseType the type of the response value, or null. This is only used to prepare JSON serializers; a
+ *                     response type that is not JSON-serializable is allowed, since other response factories may
+ *                     handle it.
+ */
+public record RouteTypes(Type requestBodyType, Type querystringType, Type responseType) {
+
+    /**
+     * Declares no types.
+     */
+    public static final RouteTypes NONE = new RouteTypes(null, null, null);
+
+    /**
+     * Returns a copy of this object with the specified request body type.
+     *
+     * @param requestBodyType the request body type
+     * @return the new object
+     */
+    public RouteTypes withRequestBody(Type requestBodyType) {
+        Objects.requireNonNull(requestBodyType, "requestBodyType");
+
+        return new RouteTypes(requestBodyType, querystringType, responseType);
+    }
+
+    /**
+     * Returns a copy of this object with the specified request body type.
+     *
+     * @param requestBodyType the request body type
+     * @return the new object
+     */
+    public RouteTypes withRequestBody(TypeToken<?> requestBodyType) {
+        Objects.requireNonNull(requestBodyType, "requestBodyType");
+
+        return withRequestBody(requestBodyType.getType());
+    }
+
+    /**
+     * Returns a copy of this object with the specified querystring type.
+     *
+     * @param querystringType the querystring type
+     * @return the new object
+     */
+    public RouteTypes withQuerystring(Type querystringType) {
+        Objects.requireNonNull(querystringType, "querystringType");
+
+        return new RouteTypes(requestBodyType, querystringType, responseType);
+    }
+
+    /**
+     * Returns a copy of this object with the specified querystring type.
+     *
+     * @param querystringType the querystring type
+     * @return the new object
+     */
+    public RouteTypes withQuerystring(TypeToken<?> querystringType) {
+        Objects.requireNonNull(querystringType, "querystringType");
+
+        return withQuerystring(querystringType.getType());
+    }
+
+    /**
+     * Returns a copy of this object with the specified response type.
+     *
+     * @param responseType the response type
+     * @return the new object
+     */
+    public RouteTypes withResponse(Type responseType) {
+        Objects.requireNonNull(responseType, "responseType");
+
+        return new RouteTypes(requestBodyType, querystringType, responseType);
+    }
+
+    /**
+     * Returns a copy of this object with the specified response type.
+     *
+     * @param responseType the response type
+     * @return the new object
+     */
+    public RouteTypes withResponse(TypeToken<?> responseType) {
+        Objects.requireNonNull(responseType, "responseType");
+
+        return withResponse(responseType.getType());
+    }
+
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.request.PathArgument;
+import io.github.grumpystuff.grumpyrest.request.path.LiteralPathSegment;
+import io.github.grumpystuff.grumpyrest.request.path.PathSegment;
+import io.github.grumpystuff.grumpyrest.request.path.PathVariableType;
+import io.github.grumpystuff.grumpyrest.request.path.RequestPath;
+import io.github.grumpystuff.grumpyrest.request.path.VariablePathSegment;
+import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserException;
+import io.github.grumpystuff.grumpyrest.request.stringparser.ParseFromStringService;
+
+import java.util.*;
+
+/**
+ * An immutable segment trie built from the routes of a {@link RestApi} when it gets sealed. Each node has a hash table
+ * for its literal children, a child for untyped path parameters, one child per type of typed path parameters, and a
+ * table that maps each HTTP method to the route that ends at that node. This way, the cost to match a request depends
+ * on the depth of its path, not on the number of routes. The literal children are looked up directly with the
+ * segments of the {@link RequestPath}, so request segments only get turned into strings to parse typed path
+ * parameters, or for the path arguments of the route that matched.
+ * <p>
+ * If multiple routes match a request, the one that was added first wins, like when trying the routes one by one. To
+ * get this right when both a literal and a path parameter match the same segment, each node knows the lowest index of
+ * all routes below it, so branches that cannot improve on the best match found so far are skipped.
+ * <p>
+ * Typed path parameters (see {@link PathVariableType}) only match segments that can be parsed as their type. The
+ * values parsed while matching are kept for the route that wins and handed to its path arguments, so each segment
+ * gets parsed at most once per type.
+ * <p>
+ * Path segments other than {@link LiteralPathSegment} and {@link VariablePathSegment} are matched by calling
+ * {@link PathSegment#matches(String)} for each of them.
+ * <p>
+ * NOT PUBLIC API
+ */
+final class RoutingTrie {
+
+    private static final int NO_ROUTE = Integer.MAX_VALUE;
+    private static final HttpMethod[] HTTP_METHODS = HttpMethod.values();
+
+    private final List<Route> routes;
+    private final Node root;
+    private final boolean hasTypedVariables;
+
+    /**
+     * Builds the trie for the specified routes.
+     *
+     * @param routes the routes, in the order they were added
+     */
+    RoutingTrie(List<Route> routes) {
+        this.routes = List.copyOf(routes);
+        NodeBuilder rootBuilder = new NodeBuilder();
+        boolean hasTypedVariables = false;
+        for (int i = 0; i < this.routes.size(); i++) {
+            Route route = this.routes.get(i);
+            NodeBuilder nodeBuilder = rootBuilder;
+            nodeBuilder.minRouteIndex = Math.min(nodeBuilder.minRouteIndex, i);
+            for (PathSegment segment : route.path().segments()) {
+                if (segment instanceof VariablePathSegment variable && variable.getType() != null) {
+                    hasTypedVariables = true;
+                }
+                nodeBuilder = nodeBuilder.getOrCreateChild(segment);
+                nodeBuilder.minRouteIndex = Math.min(nodeBuilder.minRouteIndex, i);
+            }
+            int methodIndex = route.method().ordinal();
+            if (nodeBuilder.routeIndexByMethod[methodIndex] == NO_ROUTE) {
+                nodeBuilder.routeIndexByMethod[methodIndex] = i;
+            }
+        }
+        this.root = rootBuilder.build();
+        this.hasTypedVariables = hasTypedVariables;
+    }
+
+    /**
+     * Matches a request against the routes.
+     *
+     * @param method the HTTP method from the request
+     * @param requestPath the path from the request
+     * @param parseFromStringService baked into the returned path arguments
+     * @return if a route matched, the match result for the first such route. Otherwise null.
+     */
+    RouteMatchResult match(String method, RequestPath requestPath, ParseFromStringService parseFromStringService) {
+        Objects.requireNonNull(method, "method");
+        Objects.requireNonNull(requestPath, "requestPath");
+        Objects.requireNonNull(parseFromStringService, "parseFromStringService");
+
+        HttpMethod httpMethod = resolveMethod(method);
+        if (httpMethod == null) {
+            return null;
+        }
+        MatchState state = new MatchState(httpMethod.ordinal(), requestPath,
+                hasTypedVariables ? new Object[requestPath.size()] : null);
+        root.match(state, 0);
+        int routeIndex = state.bestRouteIndex;
+        if (routeIndex == NO_ROUTE) {
+            return null;
+        }
+
+        // Path arguments are only built for the route that matched. Routes that share a node for a path parameter
+        // may use different names for it, so the names are taken from the route.
+        Route route = routes.get(routeIndex);
+        List<PathSegment> segments = route.path().segments();
+        List<PathArgument> pathArguments = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i) instanceof VariablePathSegment variable) {
+                if (variable.getType() == null) {
+                    pathArguments.add(new PathArgument(variable.getVariableName(), requestPath, i,
+                            parseFromStringService));
+                } else {
+                    pathArguments.add(new PathArgument(variable.getVariableName(), requestPath, i, variable.getType(),
+                            state.bestParsedValues[i], parseFromStringService));
+                }
+            }
+        }
+        return new RouteMatchResult(route, pathArguments);
+    }
+
+    /**
+     * Determines the HTTP methods for which a route matches the specified path. This is used to answer OPTIONS requests
+     * and requests that match no route, so it is not optimized like {@link #match}.
+     *
+     * @param requestPath the path from the request
+     * @return the HTTP methods
+     */
+    EnumSet<HttpMethod> getAllowedMethods(RequestPath requestPath) {
+        Objects.requireNonNull(requestPath, "requestPath");
+
+        EnumSet<HttpMethod> result = EnumSet.noneOf(HttpMethod.class);
+        root.collectAllowedMethods(requestPath, 0, result);
+        return result;
+    }
+
+    private static HttpMethod resolveMethod(String method) {
+        // fast path for the usual upper-case spelling, without calling toUpperCase()
+        for (HttpMethod httpMethod : HTTP_METHODS) {
+            if (httpMethod.name().equals(method)) {
+                return httpMethod;
+            }
+        }
+        for (HttpMethod httpMethod : HTTP_METHODS) {
+            if (httpMethod.matches(method)) {
+                return httpMethod;
+            }
+        }
+        return null;
+    }
+
+    private record PatternChild(PathSegment segment, Node node) {}
+
+    private record TypedChild(PathVariableType type, Node node) {}
+
+    /**
+     * The state of matching a single request.
+     */
+    private static final class MatchState {
+
+        private final int methodIndex;
+        private final RequestPath requestPath;
+
+        // values of typed path parameters along the current branch, or null if the trie has none
+        private final Object[] parsedValues;
+
+        private int bestRouteIndex = NO_ROUTE;
+        private Object[] bestParsedValues;
+
+        MatchState(int methodIndex, RequestPath requestPath, Object[] parsedValues) {
+            this.methodIndex = methodIndex;
+            this.requestPath = requestPath;
+            this.parsedValues = parsedValues;
+        }
+
+    }
+
+    private static final class Node {
+
+        private final LiteralTable literalChildren;
+        private final Node variableChild;
+        private final TypedChild[] typedChildren;
+        private final PatternChild[] patternChildren;
+        private final int[] routeIndexByMethod;
+        private final int minRouteIndex;
+
+        Node(LiteralTable literalChildren, Node variableChild, TypedChild[] typedChildren,
+             PatternChild[] patternChildren, int[] routeIndexByMethod, int minRouteIndex) {
+            this.literalChildren = literalChildren;
+            this.variableChild = variableChild;
+            this.typedChildren = typedChildren;
+            this.patternChildren = patternChildren;
+            this.routeIndexByMethod = routeIndexByMethod;
+            this.minRouteIndex = minRouteIndex;
+        }
+
+        /**
+         * Looks for a route below this node that matches and was added before the best one found so far, and if
+         * found, records it in the state.
+         */
+        void match(MatchState state, int depth) {
+            if (minRouteIndex >= state.bestRouteIndex) {
+                return;
+            }
+            RequestPath requestPath = state.requestPath;
+            if (depth == requestPath.size()) {
+                int routeIndex = routeIndexByMethod[state.methodIndex];
+                if (routeIndex < state.bestRouteIndex) {
+                    state.bestRouteIndex = routeIndex;
+                    if (state.parsedValues != null) {
+                        state.bestParsedValues = state.parsedValues.clone();
+                    }
+                }
+                return;
+            }
+            Node literalChild = literalChildren.get(requestPath, depth);
+            if (literalChild != null) {
+                literalChild.match(state, depth + 1);
+            }
+            if (variableChild != null) {
+                variableChild.match(state, depth + 1);
+            }
+            for (TypedChild typedChild : typedChildren) {
+                if (typedChild.node.minRouteIndex < state.bestRouteIndex) {
+                    try {
+                        state.parsedValues[depth] = typedChild.type.parse(requestPath.get(depth));
+                    } catch (FromStringParserException e) {
+                        continue;
+                    }
+                    typedChild.node.match(state, depth + 1);
+                }
+            }
+            for (PatternChild patternChild : patternChildren) {
+                if (patternChild.node.minRouteIndex < state.bestRouteIndex &&
+                        patternChild.segment.matches(requestPath.get(depth))) {
+                    patternChild.node.match(state, depth + 1);
+                }
+            }
+        }
+
+        /**
+         * Adds the HTTP methods of all routes below this node that match the rest of the path to the result.
+         */
+        void collectAllowedMethods(RequestPath requestPath, int depth, EnumSet<HttpMethod> result) {
+            if (depth == requestPath.size()) {
+                for (HttpMethod method : HTTP_METHODS) {
+                    if (routeIndexByMethod[method.ordinal()] != NO_ROUTE) {
+                        result.add(method);
+                    }
+                }
+                return;
+            }
+            Node literalChild = literalChildren.get(requestPath, depth);
+            if (literalChild != null) {
+                literalChild.collectAllowedMethods(requestPath, depth + 1, result);
+            }
+            if (variableChild != null) {
+                variableChild.collectAllowedMethods(requestPath, depth + 1, result);
+            }
+            for (TypedChild typedChild : typedChildren) {
+                try {
+                    typedChild.type.parse(requestPath.get(depth));
+                } catch (FromStringParserException e) {
+                    continue;
+                }
+                typedChild.node.collectAllowedMethods(requestPath, depth + 1, result);
+            }
+            for (PatternChild patternChild : patternChildren) {
+                if (patternChild.segment.matches(requestPath.get(depth))) {
+                    patternChild.node.collectAllowedMethods(requestPath, depth + 1, result);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * An open-addressing hash table from segment text to child node, which can be queried with a segment of a
+     * {@link RequestPath} without turning it into a string.
+     */
+    private static final class LiteralTable {
+
+        private static final LiteralTable EMPTY = new LiteralTable(Map.of());
+
+        private final String[] keys;
+        private final Node[] nodes;
+        private final int mask;
+
+        LiteralTable(Map<String, Node> children) {
+            // keep the load factor at or below 0.5
+            int capacity = Integer.highestOneBit(Math.max(1, children.size()) * 4 - 1);
+            this.keys = new String[capacity];
+            this.nodes = new Node[capacity];
+            this.mask = capacity - 1;
+            for (Map.Entry<String, Node> entry : children.entrySet()) {
+                int slot = entry.getKey().hashCode() & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = entry.getKey();
+                nodes[slot] = entry.getValue();
+            }
+        }
+
+        Node get(RequestPath requestPath, int segmentIndex) {
+            if (this == EMPTY) {
+                return null;
+            }
+            int slot = requestPath.segmentHashCode(segmentIndex) & mask;
+            while (true) {
+                String key = keys[slot];
+                if (key == null) {
+                    return null;
+                }
+                if (requestPath.segmentEquals(segmentIndex, key)) {
+                    return nodes[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+    }
+
+    private static final class NodeBuilder {
+
+        private final Map<String, NodeBuilder> literalChildren = new HashMap<>();
+        private NodeBuilder variableChild;
+        private final Map<PathVariableType, NodeBuilder> typedChildren = new LinkedHashMap<>();
+        private final Map<PathSegment, NodeBuilder> patternChildren = new LinkedHashMap<>();
+        private final int[] routeIndexByMethod = new int[HTTP_METHODS.length];
+        private int minRouteIndex = NO_ROUTE;
+
+        NodeBuilder() {
+            Arrays.fill(routeIndexByMethod, NO_ROUTE);
+        }
+
+        NodeBuilder getOrCreateChild(PathSegment segment) {
+            if (segment instanceof LiteralPathSegment literal) {
+                return literalChildren.computeIfAbsent(literal.getText(), text -> new NodeBuilder());
+            } else if (segment instanceof VariablePathSegment variable && variable.getType() != null) {
+                return typedChildren.computeIfAbsent(variable.getType(), type -> new NodeBuilder());
+            } else if (segment instanceof VariablePathSegment) {
+                if (variableChild == null) {
+                    variableChild = new NodeBuilder();
+                }
+                return variableChild;
+            } else {
+                // custom segment types do not define equality, so this only shares nodes for the same instance
+                return patternChildren.computeIfAbsent(segment, s -> new NodeBuilder());
+            }
+        }
+
+        Node build() {
+            Map<String, Node> builtLiteralChildren = new HashMap<>();
+            for (Map.Entry<String, NodeBuilder> entry : literalChildren.entrySet()) {
+                builtLiteralChildren.put(entry.getKey(), entry.getValue().build());
+            }
+            List<TypedChild> builtTypedChildren = new ArrayList<>();
+            for (Map.Entry<PathVariableType, NodeBuilder> entry : typedChildren.entrySet()) {
+                builtTypedChildren.add(new TypedChild(entry.getKey(), entry.getValue().build()));
+            }
+            List<PatternChild> builtPatternChildren = new ArrayList<>();
+            for (Map.Entry<PathSegment, NodeBuilder> entry : patternChildren.entrySet()) {
+                builtPatternChildren.add(new PatternChild(entry.getKey(), entry.getValue().build()));
+            }
+            return new Node(
+                    builtLiteralChildren.isEmpty() ? LiteralTable.EMPTY : new LiteralTable(builtLiteralChildren),
+                    variableChild == null ? null : variableChild.build(),
+                    builtTypedChildren.toArray(new TypedChild[0]),
+                    builtPatternChildren.toArray(new PatternChild[0]),
+                    routeIndexByMethod.clone(),
+                    minRouteIndex
+            );
+        }
+
+    }
+
+}
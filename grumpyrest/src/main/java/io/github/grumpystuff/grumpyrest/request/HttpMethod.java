@@ -3,8 +3,10 @@ package io.github.grumpystuff.grumpyrest.request;
 import java.util.Objects;
 
 /**
- * HTTP methods as an enum. This type only covers the methods that we use in API routes. OPTIONS (used for CORS) is not
- * listed here since the routes don't deal with it directly.
+ * HTTP methods as an enum. This type only covers the methods that we use in API routes. HEAD and OPTIONS are not
+ * listed here since the routes don't deal with them directly: HEAD requests are handled by the GET routes without
+ * sending a response body, and OPTIONS requests are answered by the {@link io.github.grumpystuff.grumpyrest.RestApi}
+ * with the methods that the routes support for the requested path.
  */
 public enum HttpMethod {
 
@@ -26,7 +28,12 @@ public enum HttpMethod {
     /**
      * HTTP DELETE method
      */
-    DELETE;
+    DELETE,
+
+    /**
+     * HTTP PATCH method
+     */
+    PATCH;
 
     /**
      * Checks whether this method matches the specified other method.
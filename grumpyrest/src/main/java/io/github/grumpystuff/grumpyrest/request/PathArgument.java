@@ -7,6 +7,8 @@
 package io.github.grumpystuff.grumpyrest.request;
 
 import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyrest.request.path.PathVariableType;
+import io.github.grumpystuff.grumpyrest.request.path.RequestPath;
 import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserException;
 import io.github.grumpystuff.grumpyrest.request.stringparser.ParseFromStringService;
 
@@ -21,9 +23,17 @@ import java.util.Objects;
 public final class PathArgument {
 
     private final String name;
-    private final String text;
     private final ParseFromStringService parseFromStringService;
 
+    // the text is taken from the request path on first use
+    private String text;
+    private final RequestPath requestPath;
+    private final int segmentIndex;
+
+    // for typed path parameters, the value parsed during routing
+    private final PathVariableType type;
+    private final Object value;
+
     /**
      * NOT PUBLIC API
      *
@@ -32,12 +42,68 @@ public final class PathArgument {
      * @param parseFromStringService ...
      */
     public PathArgument(String name, String text, ParseFromStringService parseFromStringService) {
+        this(name, Objects.requireNonNull(text, "text"), null, -1, null, null, parseFromStringService);
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param name                   ...
+     * @param text                   ...
+     * @param type                   ...
+     * @param value                  ...
+     * @param parseFromStringService ...
+     */
+    public PathArgument(String name, String text, PathVariableType type, Object value,
+                        ParseFromStringService parseFromStringService) {
+        this(name, Objects.requireNonNull(text, "text"), null, -1, Objects.requireNonNull(type, "type"),
+                Objects.requireNonNull(value, "value"), parseFromStringService);
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param name                   ...
+     * @param requestPath            ...
+     * @param segmentIndex           ...
+     * @param parseFromStringService ...
+     */
+    public PathArgument(String name, RequestPath requestPath, int segmentIndex,
+                        ParseFromStringService parseFromStringService) {
+        this(name, null, Objects.requireNonNull(requestPath, "requestPath"), segmentIndex, null, null,
+                parseFromStringService);
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param name                   ...
+     * @param requestPath            ...
+     * @param segmentIndex           ...
+     * @param type                   ...
+     * @param value                  ...
+     * @param parseFromStringService ...
+     */
+    public PathArgument(String name, RequestPath requestPath, int segmentIndex, PathVariableType type, Object value,
+                        ParseFromStringService parseFromStringService) {
+        this(name, null, Objects.requireNonNull(requestPath, "requestPath"), segmentIndex,
+                Objects.requireNonNull(type, "type"), Objects.requireNonNull(value, "value"), parseFromStringService);
+    }
+
+    private PathArgument(String name, String text, RequestPath requestPath, int segmentIndex, PathVariableType type,
+                         Object value, ParseFromStringService parseFromStringService) {
         Objects.requireNonNull(name, "name");
-        Objects.requireNonNull(text, "text");
         Objects.requireNonNull(parseFromStringService, "parseFromStringService");
+        if (requestPath != null) {
+            Objects.checkIndex(segmentIndex, requestPath.size());
+        }
 
         this.name = name;
         this.text = text;
+        this.requestPath = requestPath;
+        this.segmentIndex = segmentIndex;
+        this.type = type;
+        this.value = value;
         this.parseFromStringService = parseFromStringService;
     }
 
@@ -54,6 +120,9 @@ public final class PathArgument {
      * @return the path argument text
      */
     public String getText() {
+        if (text == null) {
+            text = requestPath.get(segmentIndex);
+        }
         return text;
     }
 
@@ -89,7 +158,8 @@ public final class PathArgument {
     }
 
     /**
-     * Converts the path argument to the specified type.
+     * Converts the path argument to the specified type. For a typed path parameter (see {@link PathVariableType}),
+     * asking for its type returns the value that was parsed during routing.
      *
      * @param type the type to convert to
      * @return the converted value
@@ -99,7 +169,10 @@ public final class PathArgument {
     public Object getValue(Type type) throws FromStringParserException {
         Objects.requireNonNull(type, "type");
 
-        return parseFromStringService.parseFromString(text, type);
+        if (this.type != null && this.type.provides(type)) {
+            return value;
+        }
+        return parseFromStringService.parseFromString(getText(), type);
     }
 
 }
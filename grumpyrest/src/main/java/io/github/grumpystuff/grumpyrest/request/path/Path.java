@@ -7,6 +7,7 @@
 package io.github.grumpystuff.grumpyrest.request.path;
 
 import io.github.grumpystuff.grumpyrest.request.PathArgument;
+import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserException;
 import io.github.grumpystuff.grumpyrest.request.stringparser.ParseFromStringService;
 
 import java.util.ArrayList;
@@ -36,10 +37,12 @@ public record Path(List<PathSegment> segments) {
     }
 
     /**
-     * Creates an instance from a string-based specification, using <code>:name</code> for path parameters.
+     * Creates an instance from a string-based specification, using <code>:name</code> for path parameters, or
+     * <code>:name&lt;type&gt;</code> for typed path parameters (see {@link PathVariableType}).
      *
      * @param pathSpec the path specification
      * @return the instance
+     * @throws IllegalArgumentException if a path parameter type is unknown
      */
     public static Path parse(String pathSpec) {
         Objects.requireNonNull(pathSpec);
@@ -55,7 +58,8 @@ public record Path(List<PathSegment> segments) {
     /**
      * Matches a request path (i.e. a list of strings) against this path. This can either succeed and return a
      * list of bound path arguments, or fail because the paths are different. "Different" here means that a
-     * literal segment of this path has a different text than the corresponding segment of the request.
+     * literal segment of this path has a different text than the corresponding segment of the request, or that a
+     * segment of the request cannot be parsed as the type of a typed path parameter.
      *
      * @param requestSegments the path segments from the request
      * @param parseFromStringService this service is needed because it is baked into returned path argument
@@ -75,6 +79,18 @@ public record Path(List<PathSegment> segments) {
         for (int i = 0; i < requestSegments.size(); i++) {
             PathSegment pathSegment = segments.get(i);
             String requestSegment = requestSegments.get(i);
+            if (pathSegment instanceof VariablePathSegment variable && variable.getType() != null) {
+                // parse only once, and keep the value in the path argument
+                Object value;
+                try {
+                    value = variable.getType().parse(requestSegment);
+                } catch (FromStringParserException e) {
+                    return null;
+                }
+                pathArguments.add(new PathArgument(variable.getVariableName(), requestSegment, variable.getType(),
+                        value, parseFromStringService));
+                continue;
+            }
             if (!pathSegment.matches(requestSegment)) {
                 return null;
             }
@@ -22,17 +22,25 @@ public abstract class PathSegment {
     /**
      * Parses an instance from a single segment of a string-based path specification. The segment is turned
      * into a path parameter ({@link VariablePathSegment}) if the segment specification starts with a <code>:</code>
-     * character.
+     * character. A path parameter can be given one of the built-in types by appending its name in angle brackets,
+     * such as <code>:id&lt;int&gt;</code> (see {@link PathVariableType#forName(String)}).
      *
      * @param segmentSpec the segment specification
      * @return the parsed segment object
+     * @throws IllegalArgumentException if a path parameter type is unknown
      */
     public static PathSegment parse(String segmentSpec) {
         Objects.requireNonNull(segmentSpec, "segmentSpec");
 
-        return segmentSpec.startsWith(":")
-                ? new VariablePathSegment(segmentSpec.substring(1))
-                : new LiteralPathSegment(segmentSpec);
+        if (!segmentSpec.startsWith(":")) {
+            return new LiteralPathSegment(segmentSpec);
+        }
+        int typeStart = segmentSpec.indexOf('<');
+        if (typeStart < 0 || !segmentSpec.endsWith(">")) {
+            return new VariablePathSegment(segmentSpec.substring(1));
+        }
+        String typeName = segmentSpec.substring(typeStart + 1, segmentSpec.length() - 1);
+        return new VariablePathSegment(segmentSpec.substring(1, typeStart), PathVariableType.forName(typeName));
     }
 
     /**
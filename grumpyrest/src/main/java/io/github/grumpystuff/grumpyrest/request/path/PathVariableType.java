@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.request.path;
+
+import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParser;
+import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserException;
+import io.github.grumpystuff.grumpyrest.request.stringparser.standard.IntegerFromStringParser;
+import io.github.grumpystuff.grumpyrest.request.stringparser.standard.LongFromStringParser;
+import io.github.grumpystuff.grumpyrest.request.stringparser.standard.UuidFromStringParser;
+
+import java.lang.reflect.Type;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The type of a typed path parameter, such as <code>:id&lt;int&gt;</code>. A typed path parameter only matches request
+ * path segments that can be parsed as its type, so <code>/users/:id&lt;int&gt;</code> does not match
+ * <code>/users/me</code>. The value gets parsed once during routing, and the path argument keeps it, so
+ * getting it as that type does not involve the from-string parser registry.
+ * <p>
+ * The parser is fixed when the path gets created, not taken from the registry. The built-in types can be referred
+ * to by name in string-based path specifications; other types can be used by creating an instance of this class and
+ * building the {@link Path} from segments.
+ *
+ * @param name the name of the type, as used in path specifications
+ * @param type the Java type that the parameter gets parsed as
+ * @param parser the parser for that type
+ */
+public record PathVariableType(String name, Type type, FromStringParser parser) {
+
+    /**
+     * Parses the path parameter as an {@link Integer}. Specified as <code>:name&lt;int&gt;</code>.
+     */
+    public static final PathVariableType INT = new PathVariableType("int", Integer.class, new IntegerFromStringParser());
+
+    /**
+     * Parses the path parameter as a {@link Long}. Specified as <code>:name&lt;long&gt;</code>.
+     */
+    public static final PathVariableType LONG = new PathVariableType("long", Long.class, new LongFromStringParser());
+
+    /**
+     * Parses the path parameter as a {@link UUID}. Specified as <code>:name&lt;uuid&gt;</code>.
+     */
+    public static final PathVariableType UUID_TYPE = new PathVariableType("uuid", UUID.class, new UuidFromStringParser());
+
+    /**
+     * Compact constructor.
+     *
+     * @param name the name of the type, as used in path specifications
+     * @param type the Java type that the parameter gets parsed as
+     * @param parser the parser for that type
+     */
+    public PathVariableType {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(parser, "parser");
+    }
+
+    /**
+     * Returns the built-in type with the specified name.
+     *
+     * @param name the name, such as "int"
+     * @return the type
+     * @throws IllegalArgumentException if there is no built-in type with that name
+     */
+    public static PathVariableType forName(String name) {
+        Objects.requireNonNull(name, "name");
+
+        return switch (name) {
+            case "int" -> INT;
+            case "long" -> LONG;
+            case "uuid" -> UUID_TYPE;
+            default -> throw new IllegalArgumentException("unknown path parameter type: " + name);
+        };
+    }
+
+    /**
+     * Parses a request path segment as this type.
+     *
+     * @param text the segment text
+     * @return the parsed value
+     * @throws FromStringParserException if the text cannot be parsed as this type
+     */
+    public Object parse(String text) throws FromStringParserException {
+        Objects.requireNonNull(text, "text");
+
+        return parser.parseFromString(text, type);
+    }
+
+    /**
+     * Checks whether a value parsed by this type can be returned when the specified type is asked for.
+     *
+     * @param requestedType the requested type
+     * @return true if the parsed value is an instance of the requested type
+     */
+    public boolean provides(Type requestedType) {
+        Objects.requireNonNull(requestedType, "requestedType");
+
+        if (requestedType.equals(type)) {
+            return true;
+        }
+        // the parsed value is boxed, but PathArgument.getValue(int.class) would return the same boxed value
+        return requestedType instanceof Class<?> c && c.isPrimitive() && type == boxedType(c);
+    }
+
+    private static Class<?> boxedType(Class<?> primitive) {
+        if (primitive == int.class) {
+            return Integer.class;
+        } else if (primitive == long.class) {
+            return Long.class;
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.request.path;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The path of an incoming request, split into segments at slashes. The path is taken from the strings provided by the
+ * servlet container, such as the servlet path and the path info, as they are: Each segment is stored as an offset
+ * range into one of these strings, so splitting the path does not copy any text. Route matching compares segments
+ * through {@link #segmentEquals(int, String)} and {@link #segmentHashCode(int)}, and a segment only becomes a
+ * {@link String} when asked for by {@link #get(int)}, e.g. for the text of a path argument.
+ * <p>
+ * Segmentation follows {@link PathUtil#splitIntoSegments(String)} applied to the parts joined by slashes: Leading and
+ * trailing slashes of each part are ignored, empty parts are skipped, and the empty path consists of a single empty
+ * segment.
+ * <p>
+ * NOT PUBLIC API
+ */
+public final class RequestPath extends AbstractList<String> implements RandomAccess {
+
+    private static final String[] NO_PARTS = {""};
+
+    private final String[] parts;
+
+    // three entries per segment: part index, start offset, end offset
+    private final int[] segmentData;
+    private final int size;
+
+    private RequestPath(String[] parts, int[] segmentData, int size) {
+        this.parts = parts;
+        this.segmentData = segmentData;
+        this.size = size;
+    }
+
+    /**
+     * Builds a request path from parts that get joined by slashes, without copying them.
+     *
+     * @param parts the parts of the path, such as context path, servlet path and path info. Null parts are skipped.
+     * @return the request path
+     */
+    public static RequestPath of(String... parts) {
+        Objects.requireNonNull(parts, "parts");
+
+        int[] segmentData = new int[3 * 8];
+        int size = 0;
+        for (int partIndex = 0; partIndex < parts.length; partIndex++) {
+            String part = parts[partIndex];
+            if (part == null) {
+                continue;
+            }
+            int start = 0;
+            int end = part.length();
+            while (start < end && part.charAt(start) == '/') {
+                start++;
+            }
+            while (end > start && part.charAt(end - 1) == '/') {
+                end--;
+            }
+            if (start == end) {
+                continue;
+            }
+            int segmentStart = start;
+            while (true) {
+                int slashIndex = part.indexOf('/', segmentStart);
+                int segmentEnd = (slashIndex < 0 || slashIndex > end) ? end : slashIndex;
+                if (3 * size + 3 > segmentData.length) {
+                    segmentData = Arrays.copyOf(segmentData, 2 * segmentData.length);
+                }
+                segmentData[3 * size] = partIndex;
+                segmentData[3 * size + 1] = segmentStart;
+                segmentData[3 * size + 2] = segmentEnd;
+                size++;
+                if (segmentEnd == end) {
+                    break;
+                }
+                segmentStart = segmentEnd + 1;
+            }
+        }
+        if (size == 0) {
+            return new RequestPath(NO_PARTS, new int[] {0, 0, 0}, 1);
+        }
+        return new RequestPath(parts, segmentData, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the text of a segment. This creates a new string on each call.
+     *
+     * @param index the segment index
+     * @return the segment text
+     */
+    @Override
+    public String get(int index) {
+        Objects.checkIndex(index, size);
+        return parts[segmentData[3 * index]].substring(segmentData[3 * index + 1], segmentData[3 * index + 2]);
+    }
+
+    /**
+     * Checks whether a segment has the specified text, without creating a string for the segment.
+     *
+     * @param index the segment index
+     * @param text the text to compare with
+     * @return true if the segment has that text, false if not
+     */
+    public boolean segmentEquals(int index, String text) {
+        Objects.checkIndex(index, size);
+        Objects.requireNonNull(text, "text");
+
+        int start = segmentData[3 * index + 1];
+        int length = segmentData[3 * index + 2] - start;
+        return length == text.length() && parts[segmentData[3 * index]].regionMatches(start, text, 0, length);
+    }
+
+    /**
+     * Returns the hash code of a segment, without creating a string for it. The result is the same as calling
+     * {@link String#hashCode()} on the segment text.
+     *
+     * @param index the segment index
+     * @return the hash code
+     */
+    public int segmentHashCode(int index) {
+        Objects.checkIndex(index, size);
+
+        String part = parts[segmentData[3 * index]];
+        int end = segmentData[3 * index + 2];
+        int hash = 0;
+        for (int i = segmentData[3 * index + 1]; i < end; i++) {
+            hash = 31 * hash + part.charAt(i);
+        }
+        return hash;
+    }
+
+}
@@ -7,19 +7,21 @@
 package io.github.grumpystuff.grumpyrest.request.path;
 
 import io.github.grumpystuff.grumpyrest.request.PathArgument;
+import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserException;
 
 import java.util.Objects;
 
 /**
- * This segment matches any request path segment. The request handling logic will generate a {@link PathArgument} for
- * each such segment.
+ * This segment matches any request path segment, or if it has a {@link PathVariableType}, any segment that can be
+ * parsed as that type. The request handling logic will generate a {@link PathArgument} for each such segment.
  */
 public final class VariablePathSegment extends PathSegment {
 
     private final String variableName;
+    private final PathVariableType type;
 
     /**
-     * Constructor.
+     * Constructor for an untyped path parameter.
      *
      * @param variableName the name of the variable. This is currently not used anywhere. It is usually specified by
      *                     providing the whole path pattern as a string-based specification that contains variable
@@ -27,6 +29,18 @@ public final class VariablePathSegment extends PathSegment {
      */
     public VariablePathSegment(String variableName) {
         this.variableName = Objects.requireNonNull(variableName);
+        this.type = null;
+    }
+
+    /**
+     * Constructor for a typed path parameter. In a string-based specification, this is written as :name&lt;type&gt;.
+     *
+     * @param variableName the name of the variable
+     * @param type the type of the variable
+     */
+    public VariablePathSegment(String variableName, PathVariableType type) {
+        this.variableName = Objects.requireNonNull(variableName);
+        this.type = Objects.requireNonNull(type);
     }
 
     /**
@@ -38,15 +52,32 @@ public final class VariablePathSegment extends PathSegment {
         return variableName;
     }
 
+    /**
+     * Getter for the type
+     *
+     * @return the type, or null for an untyped path parameter
+     */
+    public PathVariableType getType() {
+        return type;
+    }
+
     @Override
     public boolean matches(String segment) {
         Objects.requireNonNull(segment);
-        return true;
+        if (type == null) {
+            return true;
+        }
+        try {
+            type.parse(segment);
+            return true;
+        } catch (FromStringParserException e) {
+            return false;
+        }
     }
 
     @Override
     public String toString() {
-        return ":" + variableName;
+        return type == null ? ":" + variableName : ":" + variableName + "<" + type.name() + ">";
     }
 
 }
@@ -6,6 +6,8 @@
  */
 package io.github.grumpystuff.grumpyrest.request.querystring;
 
+import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
+
 import java.lang.reflect.Type;
 import java.util.Map;
 
@@ -38,4 +40,17 @@ public interface QuerystringParser {
      */
     Object parse(Map<String, String> querystring, Type type) throws QuerystringParsingException;
 
+    /**
+     * Prepares this parser for the specified type ahead of time, e.g. when the API gets sealed, and checks that it
+     * can parse that type. Parsers that depend on other parsers should fetch them here. The default implementation
+     * does nothing.
+     * <p>
+     * This method must not be called with a type for which {@link #supportsType(Type)} returns false.
+     *
+     * @param type the type to prepare for
+     * @throws NotRegisteredException if a parser this parser depends on is missing
+     */
+    default void prepare(Type type) throws NotRegisteredException {
+    }
+
 }
@@ -7,6 +7,7 @@
 package io.github.grumpystuff.grumpyrest.request.querystring;
 
 import io.github.grumpystuff.grumpyjson.builtin.record.RecordInfo;
+import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
 import io.github.grumpystuff.grumpyrest.ExceptionMessages;
 import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParser;
 import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserException;
@@ -46,6 +47,15 @@ public final class QuerystringToRecordParser implements QuerystringParser {
         }
     }
 
+    @Override
+    public void prepare(Type recordType) throws NotRegisteredException {
+        Objects.requireNonNull(recordType, "recordType");
+
+        for (RecordInfo.ComponentInfo componentInfo : recordInfo.getComponentInfos()) {
+            fromStringParserRegistry.get(componentInfo.getConcreteType(recordType));
+        }
+    }
+
     @Override
     public Object parse(Map<String, String> querystring, Type recordType) throws QuerystringParsingException {
         Objects.requireNonNull(querystring, "querystring");
@@ -6,6 +6,8 @@
  */
 package io.github.grumpystuff.grumpyrest.request.stringparser.standard;
 
+import io.github.grumpystuff.grumpyjson.builtin.EnumLookupTable;
+import io.github.grumpystuff.grumpyjson.builtin.EnumNameMapping;
 import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParser;
 import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserException;
 
@@ -14,12 +16,16 @@ import java.util.Objects;
 
 /**
  * A parser for enum types.
+ * <p>
+ * Parsers of this type will be auto-generated for unknown enum types. These expect the names of the enum constants as
+ * they are. To accept different names, register a parser with an {@link EnumNameMapping} manually.
  *
  * @param <T> the enum type to parse
  */
 public final class EnumParser<T extends Enum<T>> implements FromStringParser {
 
     private final Class<T> enumClass;
+    private final EnumLookupTable<T> lookupTable;
 
     /**
      * Constructor
@@ -27,9 +33,21 @@ public final class EnumParser<T extends Enum<T>> implements FromStringParser {
      * @param enumClass the enum class to parse
      */
     public EnumParser(Class<T> enumClass) {
+        this(enumClass, EnumNameMapping.IDENTITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param enumClass the enum class to parse
+     * @param mapping the mapping from enum constants to the names to accept
+     */
+    public EnumParser(Class<T> enumClass, EnumNameMapping mapping) {
         Objects.requireNonNull(enumClass, "enumClass");
+        Objects.requireNonNull(mapping, "mapping");
 
         this.enumClass = enumClass;
+        this.lookupTable = EnumLookupTable.of(enumClass, mapping);
     }
 
     @Override
@@ -44,11 +62,11 @@ public final class EnumParser<T extends Enum<T>> implements FromStringParser {
         Objects.requireNonNull(s, "s");
         Objects.requireNonNull(type, "type");
 
-        try {
-            return Enum.valueOf(enumClass, s);
-        } catch (IllegalArgumentException e) {
+        T result = lookupTable.get(s);
+        if (result == null) {
             throw new FromStringParserException("unknown value: " + s);
         }
+        return result;
     }
 
 }
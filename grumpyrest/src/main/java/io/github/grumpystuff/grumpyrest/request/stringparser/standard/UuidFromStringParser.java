@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.request.stringparser.standard;
+
+import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParser;
+import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserException;
+
+import java.lang.reflect.Type;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Parses UUIDs from their usual text representation with 36 characters, such as
+ * {@code 123e4567-e89b-12d3-a456-426614174000}.
+ */
+public final class UuidFromStringParser implements FromStringParser {
+
+    /**
+     * Constructor.
+     */
+    public UuidFromStringParser() {
+    }
+
+    @Override
+    public boolean supportsType(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        return type.equals(UUID.class);
+    }
+
+    @Override
+    public Object parseFromString(String s, Type type) throws FromStringParserException {
+        Objects.requireNonNull(s, "s");
+        Objects.requireNonNull(type, "type");
+
+        // UUID.fromString() accepts shortened forms such as 1-2-3-4-5, which we do not want to accept
+        if (s.length() != 36) {
+            throw new FromStringParserException("expected UUID");
+        }
+        try {
+            return UUID.fromString(s);
+        } catch (IllegalArgumentException e) {
+            throw new FromStringParserException("expected UUID");
+        }
+    }
+
+}
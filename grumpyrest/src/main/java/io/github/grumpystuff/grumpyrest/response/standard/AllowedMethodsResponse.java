@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response.standard;
+
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.response.Response;
+import io.github.grumpystuff.grumpyrest.response.ResponseTransmitter;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sends an "Allow" header that lists the HTTP methods supported for the requested URL, then lets another response
+ * transmit itself. The {@link RestApi} uses this to answer OPTIONS requests, and requests for which routes are known
+ * for the URL but not for the HTTP method.
+ * <p>
+ * Besides the methods of the routes, the header lists HEAD if GET is supported, and always lists OPTIONS, since the
+ * {@link RestApi} handles both of them by itself.
+ */
+public final class AllowedMethodsResponse implements Response {
+
+    private final String allowHeader;
+    private final Response response;
+
+    /**
+     * Constructor.
+     *
+     * @param methods  the HTTP methods of the routes for the requested URL
+     * @param response the response to transmit after the "Allow" header
+     */
+    public AllowedMethodsResponse(Set<HttpMethod> methods, Response response) {
+        Objects.requireNonNull(methods, "methods");
+        Objects.requireNonNull(response, "response");
+
+        StringBuilder builder = new StringBuilder();
+        for (HttpMethod method : HttpMethod.values()) {
+            if (methods.contains(method)) {
+                builder.append(method.name()).append(", ");
+                if (method == HttpMethod.GET) {
+                    builder.append("HEAD, ");
+                }
+            }
+        }
+        this.allowHeader = builder.append("OPTIONS").toString();
+        this.response = response;
+    }
+
+    /**
+     * Getter method for the value of the "Allow" header.
+     *
+     * @return the header value
+     */
+    public String getAllowHeader() {
+        return allowHeader;
+    }
+
+    @Override
+    public void transmit(ResponseTransmitter responseTransmitter) throws IOException {
+        Objects.requireNonNull(responseTransmitter, "responseTransmitter");
+
+        responseTransmitter.addCustomHeader("Allow", allowHeader);
+        response.transmit(responseTransmitter);
+    }
+
+}
@@ -55,6 +55,12 @@ public record StandardErrorResponse(int status, String message, List<Field> fiel
      */
     public static final StandardErrorResponse UNKNOWN_URL = new StandardErrorResponse(404, "unknown URL");
 
+    /**
+     * This response indicates that routes are known for the requested URL, but not for the HTTP method of the request.
+     * The API sends it together with an "Allow" header that lists the supported methods.
+     */
+    public static final StandardErrorResponse METHOD_NOT_ALLOWED = new StandardErrorResponse(405, "method not allowed");
+
     /**
      * This response indicates that the route is known in principle, but contains an ID that does not exist. This can
      * happen routinely when requesting entities that are not known in advance to exist.
@@ -67,6 +73,12 @@ public record StandardErrorResponse(int status, String message, List<Field> fiel
      */
     public static final StandardErrorResponse JSON_EXPECTED = new StandardErrorResponse(415, "expected application/json content type");
 
+    /**
+     * This response indicates that an asynchronous handler did not complete its response value in time, which is
+     * usually caused by a slow or unavailable downstream service.
+     */
+    public static final StandardErrorResponse TIMEOUT = new StandardErrorResponse(503, "timeout");
+
     /**
      * The standard response for "something went wrong in the server", usually an uncaught exception.
      */
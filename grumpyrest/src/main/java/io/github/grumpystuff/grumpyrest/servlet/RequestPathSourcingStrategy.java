@@ -2,6 +2,7 @@ package io.github.grumpystuff.grumpyrest.servlet;
 
 import jakarta.servlet.http.HttpServletRequest;
 import io.github.grumpystuff.grumpyrest.request.path.PathUtil;
+import io.github.grumpystuff.grumpyrest.request.path.RequestPath;
 
 import java.util.Objects;
 
@@ -24,6 +25,13 @@ public enum RequestPathSourcingStrategy {
 
             return handleResult(mergeParts(mergeParts(getContextPath(request), getServletPath(request)), getPathInfo(request)));
         }
+
+        @Override
+        public RequestPath getRequestPath(HttpServletRequest request) {
+            Objects.requireNonNull(request, "request");
+
+            return RequestPath.of(request.getContextPath(), request.getServletPath(), request.getPathInfo());
+        }
     },
 
     /**
@@ -36,6 +44,13 @@ public enum RequestPathSourcingStrategy {
 
             return handleResult(mergeParts(getServletPath(request), getPathInfo(request)));
         }
+
+        @Override
+        public RequestPath getRequestPath(HttpServletRequest request) {
+            Objects.requireNonNull(request, "request");
+
+            return RequestPath.of(request.getServletPath(), request.getPathInfo());
+        }
     },
 
     /**
@@ -48,6 +63,13 @@ public enum RequestPathSourcingStrategy {
 
             return handleResult(getPathInfo(request));
         }
+
+        @Override
+        public RequestPath getRequestPath(HttpServletRequest request) {
+            Objects.requireNonNull(request, "request");
+
+            return RequestPath.of(request.getPathInfo());
+        }
     };
 
     /**
@@ -58,6 +80,18 @@ public enum RequestPathSourcingStrategy {
      */
     public abstract String getPath(HttpServletRequest request);
 
+    /**
+     * NOT PUBLIC API
+     * <p>
+     * Determines the request path from a servlet request object, split into segments. This is the same path as
+     * returned by {@link #getPath(HttpServletRequest)}, but the segments refer to the strings from the servlet
+     * request instead of copying them.
+     *
+     * @param request the servlet request object
+     * @return the path
+     */
+    public abstract RequestPath getRequestPath(HttpServletRequest request);
+
     private static String getContextPath(HttpServletRequest request) {
         Objects.requireNonNull(request, "request");
 
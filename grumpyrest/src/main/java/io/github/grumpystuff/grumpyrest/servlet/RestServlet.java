@@ -16,6 +16,13 @@ import java.util.Objects;
 
 /**
  * Java servlet that serves a REST API defined by a {@link RestApi} object.
+ * <p>
+ * For handlers that return a {@link java.util.concurrent.CompletionStage}, the servlet -- and any filters in front of
+ * it -- should be registered with asynchronous processing enabled. The container thread is then released while the
+ * completion stage is pending. Otherwise, the container thread waits for it.
+ * <p>
+ * With a {@link VirtualThreadDispatcher}, each request gets handled on its own virtual thread instead of the container
+ * thread, on JVMs that support virtual threads. This, too, needs asynchronous processing to be enabled.
  */
 public class RestServlet extends HttpServlet {
 
@@ -30,7 +37,12 @@ public class RestServlet extends HttpServlet {
     private final RequestPathSourcingStrategy requestPathSourcingStrategy;
 
     /**
-     * Constructor.
+     * needs javadoc because this class is {@link java.io.Serializable}
+     */
+    private final VirtualThreadDispatcher virtualThreadDispatcher;
+
+    /**
+     * Constructor. Requests are handled on the container thread.
      *
      * @param api                         the API definition
      * @param requestPathSourcingStrategy how to determine the request path from the servlet request object
@@ -41,38 +53,50 @@ public class RestServlet extends HttpServlet {
 
         this.api = api;
         this.requestPathSourcingStrategy = requestPathSourcingStrategy;
+        this.virtualThreadDispatcher = null;
     }
 
-    @Override
-    protected void doGet(HttpServletRequest servletRequest, HttpServletResponse servletResponse) {
-        Objects.requireNonNull(servletRequest, "servletRequest");
-        Objects.requireNonNull(servletResponse, "servletResponse");
-
-        api.handle(new RequestCycle(api, servletRequest, servletResponse, requestPathSourcingStrategy));
-    }
-
-    @Override
-    protected void doPut(HttpServletRequest servletRequest, HttpServletResponse servletResponse) {
-        Objects.requireNonNull(servletRequest, "servletRequest");
-        Objects.requireNonNull(servletResponse, "servletResponse");
+    /**
+     * Constructor. Requests are handled on virtual threads if possible, and on the container thread otherwise.
+     *
+     * @param api                         the API definition
+     * @param requestPathSourcingStrategy how to determine the request path from the servlet request object
+     * @param virtualThreadDispatcher     runs requests on virtual threads
+     */
+    public RestServlet(RestApi api, RequestPathSourcingStrategy requestPathSourcingStrategy,
+                       VirtualThreadDispatcher virtualThreadDispatcher) {
+        Objects.requireNonNull(api, "api");
+        Objects.requireNonNull(requestPathSourcingStrategy, "requestPathSourcingStrategy");
+        Objects.requireNonNull(virtualThreadDispatcher, "virtualThreadDispatcher");
 
-        api.handle(new RequestCycle(api, servletRequest, servletResponse, requestPathSourcingStrategy));
+        this.api = api;
+        this.requestPathSourcingStrategy = requestPathSourcingStrategy;
+        this.virtualThreadDispatcher = virtualThreadDispatcher;
     }
 
+    /**
+     * Handles all HTTP methods, not just the ones that {@link HttpServlet} dispatches to a {@code doXxx} method, so the
+     * {@link RestApi} can route PATCH requests, answer HEAD and OPTIONS requests based on its routes, and respond with
+     * 405 to methods that the routes do not support.
+     */
     @Override
-    protected void doPost(HttpServletRequest servletRequest, HttpServletResponse servletResponse) {
+    protected void service(HttpServletRequest servletRequest, HttpServletResponse servletResponse) {
         Objects.requireNonNull(servletRequest, "servletRequest");
         Objects.requireNonNull(servletResponse, "servletResponse");
 
-        api.handle(new RequestCycle(api, servletRequest, servletResponse, requestPathSourcingStrategy));
+        RequestCycle requestCycle = new RequestCycle(api, servletRequest, servletResponse, requestPathSourcingStrategy);
+        if (virtualThreadDispatcher == null ||
+                !virtualThreadDispatcher.dispatch(servletRequest, () -> api.handle(requestCycle))) {
+            api.handle(requestCycle);
+        }
     }
 
     @Override
-    protected void doDelete(HttpServletRequest servletRequest, HttpServletResponse servletResponse) {
-        Objects.requireNonNull(servletRequest, "servletRequest");
-        Objects.requireNonNull(servletResponse, "servletResponse");
-
-        api.handle(new RequestCycle(api, servletRequest, servletResponse, requestPathSourcingStrategy));
+    public void destroy() {
+        if (virtualThreadDispatcher != null) {
+            virtualThreadDispatcher.shutdown();
+        }
+        super.destroy();
     }
 
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.servlet;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Lets a {@link RestServlet} handle each request on its own virtual thread. The servlet puts the request into
+ * asynchronous mode and returns the container thread right away, so blocking calls in handlers, such as calls to
+ * downstream services, only block a cheap virtual thread.
+ * <p>
+ * Virtual threads need Java 21 or later. Since grumpyrest itself is built for Java 17, they are looked up at run-time.
+ * On older JVMs, including Java 19 and 20 unless preview features are enabled, {@link #isSupported()} returns false
+ * and the servlet handles requests on the container thread as usual. The same happens for requests that do not
+ * support asynchronous processing -- the servlet, and all filters in front of it, must be registered with async
+ * support -- and for requests that exceed the maximum number of requests in flight. In the latter case, the thread
+ * pool of the container limits the number of requests, as usual.
+ * <p>
+ * A virtual thread that blocks while holding a monitor, i.e. inside a {@code synchronized} block or method, pins its
+ * carrier thread (until Java 24), which can exhaust the few carrier threads. Handlers should therefore use the locks
+ * from {@link java.util.concurrent.locks} instead of {@code synchronized} around anything that may block.
+ */
+public final class VirtualThreadDispatcher {
+
+    // Executors.newVirtualThreadPerTaskExecutor(), or null if virtual threads are not supported
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutorFactory();
+
+    private final ExecutorService executor;
+    private final int maxInFlightRequests;
+    private final Semaphore inFlightPermits;
+
+    /**
+     * Constructor.
+     *
+     * @param maxInFlightRequests the maximum number of requests to handle on virtual threads at the same time
+     */
+    public VirtualThreadDispatcher(int maxInFlightRequests) {
+        this(newVirtualThreadPerTaskExecutor(), maxInFlightRequests);
+    }
+
+    // executor is null if virtual threads are not supported; tests pass other executors
+    VirtualThreadDispatcher(ExecutorService executor, int maxInFlightRequests) {
+        if (maxInFlightRequests <= 0) {
+            throw new IllegalArgumentException("maxInFlightRequests must be positive: " + maxInFlightRequests);
+        }
+
+        this.executor = executor;
+        this.maxInFlightRequests = maxInFlightRequests;
+        this.inFlightPermits = new Semaphore(maxInFlightRequests);
+    }
+
+    private static MethodHandle findVirtualThreadPerTaskExecutorFactory() {
+        MethodHandle factory;
+        try {
+            factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+
+        // Java 19 and 20 have the method as a preview API, which fails unless preview features are enabled, so the
+        // only reliable check is to use it
+        try {
+            ExecutorService executor = (ExecutorService) factory.invokeExact();
+            executor.execute(() -> {});
+            executor.shutdown();
+            return factory;
+        } catch (RuntimeException | LinkageError e) {
+            // typically UnsupportedOperationException because preview features are disabled
+            return null;
+        } catch (Throwable e) {
+            throw new RuntimeException("could not probe for virtual thread support", e);
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+        } catch (Throwable e) {
+            throw new RuntimeException("could not create virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Checks whether the JVM supports virtual threads. If not, requests are always handled on the container thread.
+     *
+     * @return true if supported, false if not
+     */
+    public static boolean isSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Getter method for the maximum number of requests to handle on virtual threads at the same time.
+     *
+     * @return the maximum number of requests
+     */
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /**
+     * Tries to run a request handler on a virtual thread. The request is completed when the handler returns.
+     *
+     * @param servletRequest the request to handle
+     * @param handler the handler that handles the request
+     * @return true if the handler runs on a virtual thread, false if the caller has to run it itself
+     */
+    boolean dispatch(HttpServletRequest servletRequest, Runnable handler) {
+        Objects.requireNonNull(servletRequest, "servletRequest");
+        Objects.requireNonNull(handler, "handler");
+
+        if (executor == null || !servletRequest.isAsyncSupported() || !inFlightPermits.tryAcquire()) {
+            return false;
+        }
+        AsyncContext asyncContext;
+        try {
+            asyncContext = servletRequest.startAsync();
+        } catch (RuntimeException e) {
+            inFlightPermits.release();
+            throw e;
+        }
+
+        // like on the container thread, the handler is given as much time as it takes
+        asyncContext.setTimeout(0);
+        Runnable task = () -> {
+            try {
+                handler.run();
+            } finally {
+                inFlightPermits.release();
+                asyncContext.complete();
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the executor has been shut down, so the container is shutting down anyway
+            task.run();
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting requests. Requests that are already running on virtual threads are not interrupted.
+     */
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+}
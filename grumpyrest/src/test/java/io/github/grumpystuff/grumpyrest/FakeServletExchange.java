@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyrest.servlet.RequestPathSourcingStrategy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A servlet request and response for a request without a body or querystring, built from proxies since the servlet API
+ * only consists of interfaces. The response gets recorded so tests can check it. Asynchronous processing is
+ * supported: handlers started through the {@link AsyncContext} run on a new thread, and timeouts are only signaled
+ * when a test calls {@link #fireAsyncTimeout()}.
+ * <p>
+ * The response may be written by another thread than the test thread, so tests that use asynchronous processing must
+ * call {@link #awaitAsyncCompletion()} before checking it.
+ */
+public final class FakeServletExchange {
+
+    private final boolean asyncSupported;
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+
+    private volatile AsyncContext asyncContext;
+    private volatile long asyncTimeout = -1;
+    private final List<AsyncListener> asyncListeners = new CopyOnWriteArrayList<>();
+    private final CountDownLatch asyncCompletion = new CountDownLatch(1);
+    private final AtomicInteger asyncCompleteCalls = new AtomicInteger();
+
+    private int status = 200;
+    private final Map<String, List<String>> headers = new LinkedHashMap<>();
+    private long contentLength = -1;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    /**
+     * Constructor.
+     *
+     * @param method the HTTP method
+     * @param path the request path
+     * @param asyncSupported whether the request supports asynchronous processing
+     */
+    public FakeServletExchange(String method, String path, boolean asyncSupported) {
+        this.asyncSupported = asyncSupported;
+        this.request = proxy(HttpServletRequest.class, (proxy, m, args) -> switch (m.getName()) {
+            case "getMethod" -> method;
+            case "getContextPath", "getServletPath" -> "";
+            case "getPathInfo", "getRequestURI" -> path;
+            case "getHeader", "getContentType", "getQueryString" -> null;
+            case "getParameterMap" -> Map.of();
+            case "getInputStream" -> new EmptyInputStream();
+            case "isAsyncSupported" -> asyncSupported;
+            case "isAsyncStarted" -> asyncContext != null;
+            case "startAsync" -> startAsync();
+            case "getAsyncContext" -> asyncContext;
+            default -> throw new UnsupportedOperationException(m.getName());
+        });
+        ServletOutputStream outputStream = new RecordingOutputStream();
+        this.response = proxy(HttpServletResponse.class, (proxy, m, args) -> {
+            synchronized (this) {
+                switch (m.getName()) {
+                    case "setStatus" -> status = (Integer) args[0];
+                    case "getStatus" -> {
+                        return status;
+                    }
+                    case "setContentType" -> setHeader("Content-Type", (String) args[0]);
+                    case "setHeader" -> setHeader((String) args[0], (String) args[1]);
+                    case "addHeader" -> headers.computeIfAbsent((String) args[0], name -> new ArrayList<>())
+                            .add((String) args[1]);
+                    case "setContentLengthLong" -> contentLength = (Long) args[0];
+                    case "setContentLength" -> contentLength = (Integer) args[0];
+                    case "getOutputStream" -> {
+                        return outputStream;
+                    }
+                    case "isCommitted" -> {
+                        return false;
+                    }
+                    case "resetBuffer" -> body.reset();
+                    default -> throw new UnsupportedOperationException(m.getName());
+                }
+                return null;
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(FakeServletExchange.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, m, args) -> switch (m.getName()) {
+                    case "toString" -> type.getSimpleName();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> handler.invoke(proxy, m, args);
+                }));
+    }
+
+    private AsyncContext startAsync() {
+        if (!asyncSupported) {
+            throw new IllegalStateException("asynchronous processing not supported");
+        }
+        if (asyncContext != null) {
+            throw new IllegalStateException("asynchronous processing started already");
+        }
+        asyncContext = proxy(AsyncContext.class, (proxy, m, args) -> switch (m.getName()) {
+            case "getRequest" -> request;
+            case "getResponse" -> response;
+            case "setTimeout" -> {
+                asyncTimeout = (Long) args[0];
+                yield null;
+            }
+            case "getTimeout" -> asyncTimeout;
+            case "addListener" -> {
+                asyncListeners.add((AsyncListener) args[0]);
+                yield null;
+            }
+            case "start" -> {
+                new Thread((Runnable) args[0]).start();
+                yield null;
+            }
+            case "complete" -> {
+                asyncCompleteCalls.incrementAndGet();
+                asyncCompletion.countDown();
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException(m.getName());
+        });
+        return asyncContext;
+    }
+
+    private void setHeader(String name, String value) {
+        List<String> values = new ArrayList<>();
+        values.add(value);
+        headers.put(name, values);
+    }
+
+    /**
+     * Creates a request cycle for this exchange.
+     *
+     * @param api the API that handles the request
+     * @return the request cycle
+     */
+    public RequestCycle createRequestCycle(RestApi api) {
+        return new RequestCycle(api, request, response, RequestPathSourcingStrategy.STARTING_WITH_CONTEXT_PATH);
+    }
+
+    /**
+     * Getter method for the servlet request.
+     *
+     * @return the request
+     */
+    public HttpServletRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Getter method for the servlet response.
+     *
+     * @return the response
+     */
+    public HttpServletResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * Checks whether asynchronous processing has been started.
+     *
+     * @return true if started, false if not
+     */
+    public boolean isAsyncStarted() {
+        return asyncContext != null;
+    }
+
+    /**
+     * Getter method for the timeout of asynchronous processing.
+     *
+     * @return the timeout in milliseconds, or -1 if not set
+     */
+    public long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    /**
+     * Waits until asynchronous processing has been completed.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitAsyncCompletion() throws InterruptedException {
+        if (!asyncCompletion.await(10, TimeUnit.SECONDS)) {
+            throw new AssertionError("asynchronous processing was not completed");
+        }
+    }
+
+    /**
+     * Checks whether asynchronous processing has been completed.
+     *
+     * @return true if completed, false if not
+     */
+    public boolean isAsyncCompleted() {
+        return asyncCompletion.getCount() == 0;
+    }
+
+    /**
+     * Returns how often {@link AsyncContext#complete()} has been called.
+     *
+     * @return the number of calls
+     */
+    public int getAsyncCompleteCalls() {
+        return asyncCompleteCalls.get();
+    }
+
+    /**
+     * Signals a timeout of asynchronous processing to the listeners, like the container does.
+     *
+     * @throws IOException if a listener throws it
+     */
+    public void fireAsyncTimeout() throws IOException {
+        for (AsyncListener listener : asyncListeners) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+    }
+
+    /**
+     * Getter method for the response status.
+     *
+     * @return the status code
+     */
+    public synchronized int getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the values of a response header, joined by commas.
+     *
+     * @param name the header name
+     * @return the header value, or null if not set
+     */
+    public synchronized String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? null : String.join(", ", values);
+    }
+
+    /**
+     * Getter method for the content length that was set on the response.
+     *
+     * @return the content length, or -1 if not set
+     */
+    public synchronized long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Getter method for the response body.
+     *
+     * @return the body, decoded as UTF-8
+     */
+    public synchronized String getBody() {
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    private final class RecordingOutputStream extends ServletOutputStream {
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(int b) {
+            synchronized (FakeServletExchange.this) {
+                body.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            synchronized (FakeServletExchange.this) {
+                body.write(b, off, len);
+            }
+        }
+
+    }
+
+    private static final class EmptyInputStream extends ServletInputStream {
+
+        @Override
+        public boolean isFinished() {
+            return true;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read() {
+            return -1;
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.response.FinishRequestException;
+import io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class RestApiAsyncTest {
+
+    private final RestApi api = new RestApi(new GsonBasedJsonEngine());
+
+    // completed by the tests; a new one for each test, since JUnit creates a new test class instance per test
+    private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+    public RestApiAsyncTest() {
+        api.addRoute(HttpMethod.GET, "/value", request -> future);
+        api.addRoute(HttpMethod.GET, "/dependent", request -> future.thenApply(value -> {
+            throw new FinishRequestException(StandardErrorResponse.ID_NOT_FOUND);
+        }));
+        api.addRoute(HttpMethod.GET, "/delayed", request -> CompletableFuture.supplyAsync(() -> "foo",
+                CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS)));
+        api.setAsyncTimeout(Duration.ofSeconds(10));
+    }
+
+    private FakeServletExchange handle(String path, boolean asyncSupported) {
+        api.seal();
+        FakeServletExchange exchange = new FakeServletExchange("GET", path, asyncSupported);
+        api.handle(exchange.createRequestCycle(api));
+        return exchange;
+    }
+
+    @Test
+    public void testCompletion() throws Exception {
+        FakeServletExchange exchange = handle("/value", true);
+        Assertions.assertTrue(exchange.isAsyncStarted());
+        Assertions.assertFalse(exchange.isAsyncCompleted());
+        Assertions.assertEquals(0, exchange.getAsyncTimeout());
+
+        future.complete("foo");
+        exchange.awaitAsyncCompletion();
+        Assertions.assertEquals(200, exchange.getStatus());
+        Assertions.assertEquals("\"foo\"", exchange.getBody());
+    }
+
+    @Test
+    public void testExceptionalCompletion() throws Exception {
+        FakeServletExchange exchange = handle("/value", true);
+        future.completeExceptionally(new FinishRequestException(StandardErrorResponse.ID_NOT_FOUND));
+        exchange.awaitAsyncCompletion();
+        Assertions.assertEquals(404, exchange.getStatus());
+    }
+
+    @Test
+    public void testExceptionFromDependentStageIsUnwrapped() throws Exception {
+        // the dependent stage gets completed with a CompletionException that wraps the FinishRequestException
+        FakeServletExchange exchange = handle("/dependent", true);
+        future.complete("foo");
+        exchange.awaitAsyncCompletion();
+        Assertions.assertEquals(404, exchange.getStatus());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        api.setAsyncTimeout(Duration.ofMillis(50));
+        FakeServletExchange exchange = handle("/value", true);
+        exchange.awaitAsyncCompletion();
+        Assertions.assertEquals(503, exchange.getStatus());
+        String body = exchange.getBody();
+
+        // completing the stage afterwards does not send another response
+        future.complete("foo");
+        Thread.sleep(100);
+        Assertions.assertEquals(503, exchange.getStatus());
+        Assertions.assertEquals(body, exchange.getBody());
+        Assertions.assertEquals(1, exchange.getAsyncCompleteCalls());
+        Assertions.assertFalse(future.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testContainerTimeoutIsIgnored() throws Exception {
+        FakeServletExchange exchange = handle("/value", true);
+        exchange.fireAsyncTimeout();
+        Assertions.assertFalse(exchange.isAsyncCompleted());
+
+        future.complete("foo");
+        exchange.awaitAsyncCompletion();
+        Assertions.assertEquals(200, exchange.getStatus());
+        Assertions.assertEquals("\"foo\"", exchange.getBody());
+    }
+
+    @Test
+    public void testCompletionAtTimeoutSendsOneResponse() throws Exception {
+        // the stage gets completed at about the same time as the timeout elapses, so either may win, but only one
+        api.setAsyncTimeout(Duration.ofMillis(20));
+        api.seal();
+        for (int i = 0; i < 50; i++) {
+            FakeServletExchange exchange = new FakeServletExchange("GET", "/delayed", true);
+            api.handle(exchange.createRequestCycle(api));
+            exchange.awaitAsyncCompletion();
+            Thread.sleep(30);
+            Assertions.assertEquals(1, exchange.getAsyncCompleteCalls());
+            if (exchange.getStatus() == 200) {
+                Assertions.assertEquals("\"foo\"", exchange.getBody());
+            } else {
+                Assertions.assertEquals(503, exchange.getStatus());
+                Assertions.assertFalse(exchange.getBody().contains("foo"));
+            }
+        }
+    }
+
+    @Test
+    public void testWaitsIfAsyncNotSupported() {
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            future.complete("foo");
+        }).start();
+        FakeServletExchange exchange = handle("/value", false);
+        Assertions.assertFalse(exchange.isAsyncStarted());
+        Assertions.assertEquals(200, exchange.getStatus());
+        Assertions.assertEquals("\"foo\"", exchange.getBody());
+    }
+
+    @Test
+    public void testExceptionIsUnwrappedIfAsyncNotSupported() {
+        future.complete("foo");
+        FakeServletExchange exchange = handle("/dependent", false);
+        Assertions.assertEquals(404, exchange.getStatus());
+    }
+
+    @Test
+    public void testTimeoutIfAsyncNotSupported() {
+        api.setAsyncTimeout(Duration.ofMillis(50));
+        FakeServletExchange exchange = handle("/value", false);
+        Assertions.assertEquals(503, exchange.getStatus());
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.response.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class RestApiHttpMethodTest {
+
+    private record Item(String name, int count) {}
+
+    private final RestApi api = new RestApi(new GsonBasedJsonEngine());
+
+    public RestApiHttpMethodTest() {
+        api.addRoute(HttpMethod.GET, "/items", request -> List.of(new Item("foo", 1), new Item("bar", 2)));
+        api.addRoute(HttpMethod.PATCH, "/items", request -> "patched");
+        api.addComplexRoute(HttpMethod.GET, "/raw", requestCycle -> (Response) transmitter -> {
+            transmitter.setStatus(200);
+            transmitter.setContentType("text/plain");
+            transmitter.getOutputStream().write("raw body".getBytes(StandardCharsets.UTF_8));
+        });
+        api.addRoute(HttpMethod.GET, "/broken", request -> new Item(null, 1));
+        api.seal();
+    }
+
+    private FakeServletExchange handle(String method, String path) {
+        FakeServletExchange exchange = new FakeServletExchange(method, path, false);
+        api.handle(exchange.createRequestCycle(api));
+        return exchange;
+    }
+
+    @Test
+    public void testGet() {
+        FakeServletExchange exchange = handle("GET", "/items");
+        Assertions.assertEquals(200, exchange.getStatus());
+        Assertions.assertTrue(exchange.getBody().contains("\"foo\""), exchange.getBody());
+    }
+
+    @Test
+    public void testHeadSendsHeadersButNoBody() {
+        FakeServletExchange get = handle("GET", "/items");
+        FakeServletExchange head = handle("HEAD", "/items");
+        Assertions.assertEquals(200, head.getStatus());
+        Assertions.assertEquals(get.getHeader("Content-Type"), head.getHeader("Content-Type"));
+        Assertions.assertEquals("", head.getBody());
+        Assertions.assertEquals(get.getBody().getBytes(StandardCharsets.UTF_8).length, head.getContentLength());
+    }
+
+    @Test
+    public void testHeadForRawBody() {
+        FakeServletExchange head = handle("HEAD", "/raw");
+        Assertions.assertEquals(200, head.getStatus());
+        Assertions.assertEquals("text/plain", head.getHeader("Content-Type"));
+        Assertions.assertEquals("", head.getBody());
+        Assertions.assertEquals("raw body".length(), head.getContentLength());
+    }
+
+    @Test
+    public void testHeadWithSerializationError() {
+        FakeServletExchange get = handle("GET", "/broken");
+        FakeServletExchange head = handle("HEAD", "/broken");
+        Assertions.assertEquals(500, get.getStatus());
+        Assertions.assertEquals(500, head.getStatus());
+        Assertions.assertEquals("", head.getBody());
+        Assertions.assertEquals(get.getBody().getBytes(StandardCharsets.UTF_8).length, head.getContentLength());
+    }
+
+    @Test
+    public void testOptions() {
+        FakeServletExchange exchange = handle("OPTIONS", "/items");
+        Assertions.assertEquals("GET, HEAD, PATCH, OPTIONS", exchange.getHeader("Allow"));
+        Assertions.assertTrue(exchange.getStatus() / 100 == 2, "status " + exchange.getStatus());
+    }
+
+    @Test
+    public void testMethodNotAllowed() {
+        FakeServletExchange exchange = handle("PUT", "/items");
+        Assertions.assertEquals(405, exchange.getStatus());
+        Assertions.assertEquals("GET, HEAD, PATCH, OPTIONS", exchange.getHeader("Allow"));
+
+        // methods that grumpyrest does not know are not allowed either
+        exchange = handle("PROPFIND", "/items");
+        Assertions.assertEquals(405, exchange.getStatus());
+        Assertions.assertEquals("GET, HEAD, PATCH, OPTIONS", exchange.getHeader("Allow"));
+    }
+
+    @Test
+    public void testUnknownPath() {
+        for (String method : new String[] {"GET", "HEAD", "OPTIONS", "PUT"}) {
+            FakeServletExchange exchange = handle(method, "/unknown");
+            Assertions.assertEquals(404, exchange.getStatus(), method);
+            Assertions.assertNull(exchange.getHeader("Allow"), method);
+        }
+    }
+
+}
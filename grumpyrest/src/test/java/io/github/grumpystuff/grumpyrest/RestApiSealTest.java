@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.deserialize.CustomJsonDeserializer;
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import io.github.grumpystuff.grumpyjson.serialize.CustomJsonSerializer;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class RestApiSealTest {
+
+    private static final SimpleHandler HANDLER = request -> null;
+
+    // no converter can be auto-generated for this
+    private static final class Unconvertible {
+        private final String text;
+        private Unconvertible(String text) {
+            this.text = text;
+        }
+    }
+
+    private record Wrapper(Unconvertible value) {}
+
+    private record Item(String name, int count) {}
+
+    @Test
+    public void testPreparesDeclaredTypes() {
+        RestApi api = new RestApi(new GsonBasedJsonEngine());
+        api.addRoute(HttpMethod.POST, "/items", RouteTypes.NONE.withRequestBody(Item.class)
+                .withResponse(new TypeToken<List<Item>>() {}), HANDLER);
+        api.seal();
+    }
+
+    @Test
+    public void testMissingConverter() {
+        RestApi api = new RestApi(new GsonBasedJsonEngine());
+        api.addRoute(HttpMethod.POST, "/wrappers", RouteTypes.NONE.withRequestBody(Wrapper.class), HANDLER);
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, api::seal);
+        Assertions.assertTrue(e.getMessage().contains(Unconvertible.class.getName()), e.getMessage());
+    }
+
+    @Test
+    public void testCustomConverterForRecordWithUnconvertibleComponent() {
+        RestApi api = new RestApi(new GsonBasedJsonEngine());
+        api.registerSerializer(CustomJsonSerializer.from(Wrapper.class, wrapper -> JsonString.of(wrapper.value().text)));
+        api.registerDeserializer(CustomJsonDeserializer.from(Wrapper.class,
+                json -> new Wrapper(new Unconvertible(json.deserializerExpectsString()))));
+        api.addRoute(HttpMethod.POST, "/wrappers", RouteTypes.NONE.withRequestBody(Wrapper.class)
+                .withResponse(new TypeToken<List<Wrapper>>() {}), HANDLER);
+
+        // the custom converter does not need a converter for the component
+        api.seal();
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.request.PathArgument;
+import io.github.grumpystuff.grumpyrest.request.path.Path;
+import io.github.grumpystuff.grumpyrest.request.path.PathSegment;
+import io.github.grumpystuff.grumpyrest.request.path.RequestPath;
+import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class RoutingTrieTest {
+
+    private static final ComplexHandler HANDLER = requestCycle -> null;
+
+    private final FromStringParserRegistry parseFromStringService = new FromStringParserRegistry();
+
+    public RoutingTrieTest() {
+        parseFromStringService.seal();
+    }
+
+    private static Route route(HttpMethod method, String path) {
+        return new Route(method, path, HANDLER);
+    }
+
+    private void assertMatch(RoutingTrie trie, String method, String path, Route expectedRoute, String... arguments) {
+        RouteMatchResult result = trie.match(method, RequestPath.of(path), parseFromStringService);
+        Assertions.assertNotNull(result);
+        Assertions.assertSame(expectedRoute, result.route());
+        List<String> actualArguments = new ArrayList<>();
+        for (PathArgument argument : result.pathArguments()) {
+            actualArguments.add(argument.getName() + "=" + argument.getText());
+        }
+        Assertions.assertEquals(List.of(arguments), actualArguments);
+    }
+
+    private void assertNoMatch(RoutingTrie trie, String method, String path) {
+        Assertions.assertNull(trie.match(method, RequestPath.of(path), parseFromStringService));
+    }
+
+    @Test
+    public void testLiteralAndVariableSegments() {
+        Route list = route(HttpMethod.GET, "/products");
+        Route get = route(HttpMethod.GET, "/products/:id");
+        Route delete = route(HttpMethod.DELETE, "/products/:productId");
+        Route cart = route(HttpMethod.POST, "/cart/:userId/add");
+        RoutingTrie trie = new RoutingTrie(List.of(list, get, delete, cart));
+
+        assertMatch(trie, "GET", "products", list);
+        assertMatch(trie, "GET", "products/5", get, "id=5");
+        assertMatch(trie, "DELETE", "products/5", delete, "productId=5");
+        assertMatch(trie, "post", "cart/7/add", cart, "userId=7");
+        assertNoMatch(trie, "PUT", "products/5");
+        assertNoMatch(trie, "GET", "products/5/x");
+        assertNoMatch(trie, "GET", "cart/7/add");
+        assertNoMatch(trie, "PATCH", "products");
+    }
+
+    @Test
+    public void testFirstAddedRouteWins() {
+        Route variable = route(HttpMethod.GET, "/a/:x/c");
+        Route literal = route(HttpMethod.GET, "/a/b/c");
+        Route catchAll = route(HttpMethod.GET, "/:p/:q/:r");
+        RoutingTrie trie = new RoutingTrie(List.of(variable, literal, catchAll));
+
+        // the literal route was added later, so the variable route wins
+        assertMatch(trie, "GET", "a/b/c", variable, "x=b");
+        assertMatch(trie, "GET", "x/b/c", catchAll, "p=x", "q=b", "r=c");
+
+        // duplicates: the first one wins
+        Route first = route(HttpMethod.GET, "/d");
+        Route second = route(HttpMethod.GET, "/d");
+        assertMatch(new RoutingTrie(List.of(first, second)), "GET", "d", first);
+    }
+
+    @Test
+    public void testCustomSegment() {
+        PathSegment digits = new PathSegment() {
+            @Override
+            public boolean matches(String segment) {
+                return segment.chars().allMatch(Character::isDigit);
+            }
+        };
+        Route numeric = new Route(HttpMethod.GET, new Path(List.of(PathSegment.parse("n"), digits)), HANDLER);
+        Route other = route(HttpMethod.GET, "/n/:name");
+        RoutingTrie trie = new RoutingTrie(List.of(numeric, other));
+
+        assertMatch(trie, "GET", "n/123", numeric);
+        assertMatch(trie, "GET", "n/abc", other, "name=abc");
+    }
+
+    @Test
+    public void testTypedVariables() throws Exception {
+        Route byId = route(HttpMethod.GET, "/users/:id<int>");
+        Route me = route(HttpMethod.GET, "/users/me");
+        Route byName = route(HttpMethod.GET, "/users/:name");
+        RoutingTrie trie = new RoutingTrie(List.of(byId, me, byName));
+
+        assertMatch(trie, "GET", "users/42", byId, "id=42");
+        assertMatch(trie, "GET", "users/me", me);
+        assertMatch(trie, "GET", "users/bob", byName, "name=bob");
+
+        // the value parsed during routing is used, without asking the registry
+        RouteMatchResult result = trie.match("GET", RequestPath.of("users/42"), (text, type) -> {
+            throw new AssertionError("unexpected registry lookup");
+        });
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(42, result.pathArguments().get(0).getValue(Integer.class));
+    }
+
+    @Test
+    public void testAllowedMethods() {
+        Route list = route(HttpMethod.GET, "/products");
+        Route create = route(HttpMethod.POST, "/products");
+        Route get = route(HttpMethod.GET, "/products/:id<int>");
+        Route patch = route(HttpMethod.PATCH, "/products/:id");
+        Route delete = route(HttpMethod.DELETE, "/products/:id<int>");
+        RoutingTrie trie = new RoutingTrie(List.of(list, create, get, patch, delete));
+
+        Assertions.assertEquals(EnumSet.of(HttpMethod.GET, HttpMethod.POST),
+                trie.getAllowedMethods(RequestPath.of("products")));
+        Assertions.assertEquals(EnumSet.of(HttpMethod.GET, HttpMethod.PATCH, HttpMethod.DELETE),
+                trie.getAllowedMethods(RequestPath.of("products/5")));
+        Assertions.assertEquals(EnumSet.of(HttpMethod.PATCH), trie.getAllowedMethods(RequestPath.of("products/x")));
+        Assertions.assertEquals(EnumSet.noneOf(HttpMethod.class), trie.getAllowedMethods(RequestPath.of("orders")));
+        assertMatch(trie, "PATCH", "products/5", patch, "id=5");
+        assertNoMatch(trie, "PUT", "products/5");
+    }
+
+    @Test
+    public void testSameResultAsLinearMatching() {
+        Random random = new Random(42);
+        String[] literals = {"a", "b", "1"};
+        HttpMethod[] methods = HttpMethod.values();
+        for (int round = 0; round < 200; round++) {
+            List<Route> routes = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                StringBuilder path = new StringBuilder();
+                int length = random.nextInt(4);
+                for (int j = 0; j < length; j++) {
+                    int kind = random.nextInt(4);
+                    path.append('/').append(kind == 0 ? ":v" + j : kind == 1 ? ":t" + j + "<int>" :
+                            literals[random.nextInt(3)]);
+                }
+                routes.add(route(methods[random.nextInt(methods.length)], path.toString()));
+            }
+            RoutingTrie trie = new RoutingTrie(routes);
+            for (int k = 0; k < 50; k++) {
+                List<String> segments = new ArrayList<>();
+                int length = random.nextInt(4);
+                for (int j = 0; j < length; j++) {
+                    segments.add(literals[random.nextInt(3)]);
+                }
+                if (segments.isEmpty()) {
+                    // this is what Path.parse("/") yields, and what the request cycle yields for the root path
+                    segments.add("");
+                }
+                String method = methods[random.nextInt(methods.length)].name();
+                Route expected = null;
+                Set<HttpMethod> expectedAllowedMethods = EnumSet.noneOf(HttpMethod.class);
+                for (Route route : routes) {
+                    if (route.path().match(segments, parseFromStringService) != null) {
+                        expectedAllowedMethods.add(route.method());
+                        if (expected == null && route.method().matches(method)) {
+                            expected = route;
+                        }
+                    }
+                }
+                RequestPath requestPath = RequestPath.of(String.join("/", segments));
+                RouteMatchResult result = trie.match(method, requestPath, parseFromStringService);
+                Assertions.assertSame(expected, result == null ? null : result.route());
+                Assertions.assertEquals(expectedAllowedMethods, trie.getAllowedMethods(requestPath));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.request.path;
+
+import io.github.grumpystuff.grumpyrest.request.PathArgument;
+import io.github.grumpystuff.grumpyrest.request.stringparser.ParseFromStringService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+public class PathTest {
+
+    // typed path parameters must not need the registry
+    private static final ParseFromStringService NO_REGISTRY = (text, type) -> {
+        throw new AssertionError("unexpected registry lookup");
+    };
+
+    @Test
+    public void testParseTypedSegments() {
+        Path path = Path.parse("/users/:id<int>/orders/:orderId<uuid>/:rest");
+        Assertions.assertEquals("/users/:id<int>/orders/:orderId<uuid>/:rest", path.toString());
+        VariablePathSegment id = (VariablePathSegment) path.segments().get(1);
+        Assertions.assertEquals("id", id.getVariableName());
+        Assertions.assertSame(PathVariableType.INT, id.getType());
+        Assertions.assertSame(PathVariableType.UUID_TYPE, ((VariablePathSegment) path.segments().get(3)).getType());
+        Assertions.assertNull(((VariablePathSegment) path.segments().get(4)).getType());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Path.parse("/users/:id<float>"));
+    }
+
+    @Test
+    public void testMatchTypedSegments() throws Exception {
+        Path path = Path.parse("/users/:id<long>/orders/:orderId<uuid>");
+        String uuidText = "123e4567-e89b-12d3-a456-426614174000";
+
+        List<PathArgument> arguments = path.match(List.of("users", "42", "orders", uuidText), NO_REGISTRY);
+        Assertions.assertNotNull(arguments);
+        Assertions.assertEquals(42L, arguments.get(0).getValue(Long.class));
+        Assertions.assertEquals("42", arguments.get(0).getText());
+        Assertions.assertEquals(UUID.fromString(uuidText), arguments.get(1).getValue(UUID.class));
+
+        Assertions.assertNull(path.match(List.of("users", "me", "orders", uuidText), NO_REGISTRY));
+        Assertions.assertNull(path.match(List.of("users", "42", "orders", "latest"), NO_REGISTRY));
+    }
+
+}
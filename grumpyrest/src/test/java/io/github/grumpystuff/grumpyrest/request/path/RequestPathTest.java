@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.request.path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class RequestPathTest {
+
+    private static void assertSegments(RequestPath path, String... expected) {
+        Assertions.assertEquals(List.of(expected), path);
+        for (int i = 0; i < expected.length; i++) {
+            Assertions.assertTrue(path.segmentEquals(i, expected[i]));
+            Assertions.assertFalse(path.segmentEquals(i, expected[i] + "x"));
+            Assertions.assertEquals(expected[i].hashCode(), path.segmentHashCode(i));
+        }
+    }
+
+    @Test
+    public void testSingleParts() {
+        assertSegments(RequestPath.of("foo"), "foo");
+        assertSegments(RequestPath.of("/foo/bar/"), "foo", "bar");
+        assertSegments(RequestPath.of("//foo//bar//"), "foo", "", "bar");
+        assertSegments(RequestPath.of("/"), "");
+        assertSegments(RequestPath.of(""), "");
+        assertSegments(RequestPath.of((String) null), "");
+    }
+
+    @Test
+    public void testMultipleParts() {
+        assertSegments(RequestPath.of("/ctx", "/servlet", "/a/b"), "ctx", "servlet", "a", "b");
+        assertSegments(RequestPath.of(null, "/", "/a/b/"), "a", "b");
+        assertSegments(RequestPath.of("", null, null), "");
+    }
+
+    @Test
+    public void testSameSegmentsAsPathUtil() {
+        String[][] cases = {
+                {"/ctx", "/servlet", "/info"},
+                {"", "/api", null},
+                {"/a//b", "//", "c/d/"},
+                {null, null, "/x"},
+        };
+        for (String[] parts : cases) {
+            StringBuilder merged = new StringBuilder();
+            for (String part : parts) {
+                if (part != null) {
+                    String trimmed = PathUtil.trimSlashes(part);
+                    if (!trimmed.isEmpty()) {
+                        merged.append(merged.isEmpty() ? "" : "/").append(trimmed);
+                    }
+                }
+            }
+            Assertions.assertEquals(List.of(PathUtil.splitIntoSegments(merged.toString())), RequestPath.of(parts));
+        }
+    }
+
+    @Test
+    public void testIndexOutOfBounds() {
+        RequestPath path = RequestPath.of("a/b");
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> path.get(2));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> path.segmentEquals(-1, "a"));
+    }
+
+}
@@ -7,6 +7,7 @@
 package io.github.grumpystuff.grumpyrest.request.querystring;
 
 import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalField;
+import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
 import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserRegistry;
 import io.github.grumpystuff.grumpyrest.request.stringparser.standard.IntegerFromStringParser;
 import io.github.grumpystuff.grumpyrest.request.stringparser.standard.OptionalFieldParser;
@@ -14,6 +15,7 @@ import io.github.grumpystuff.grumpyrest.request.stringparser.standard.StringFrom
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 public class QuerystringParserRegistryTest {
@@ -72,4 +74,17 @@ public class QuerystringParserRegistryTest {
         );
     }
 
+    @Test
+    public void testPrepare() throws Exception {
+        record Foo(int x, String y) {}
+        record Bar(int x, LocalDate y) {}
+        QuerystringParserRegistry registry = new QuerystringParserRegistry(fromStringParserRegistry);
+        registry.seal();
+        registry.get(Foo.class).prepare(Foo.class);
+        Assertions.assertThrows(
+            NotRegisteredException.class,
+            () -> registry.get(Bar.class).prepare(Bar.class)
+        );
+    }
+
 }
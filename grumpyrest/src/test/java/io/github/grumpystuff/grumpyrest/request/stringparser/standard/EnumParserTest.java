@@ -6,6 +6,7 @@
  */
 package io.github.grumpystuff.grumpyrest.request.stringparser.standard;
 
+import io.github.grumpystuff.grumpyjson.builtin.EnumNameMapping;
 import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserException;
 import org.junit.jupiter.api.Test;
 
@@ -42,4 +43,11 @@ public class EnumParserTest {
         assertThrows(FromStringParserException.class, () -> parser.parseFromAbsentString(Integer.class));
     }
 
+    @Test
+    public void testNameMapping() throws Exception {
+        EnumParser<MyEnum> kebabCaseParser = new EnumParser<>(MyEnum.class, EnumNameMapping.KEBAB_CASE);
+        assertEquals(MyEnum.FOO_BAR, kebabCaseParser.parseFromString("foo-bar", MyEnum.class));
+        assertThrows(FromStringParserException.class, () -> kebabCaseParser.parseFromString("FOO_BAR", MyEnum.class));
+    }
+
 }
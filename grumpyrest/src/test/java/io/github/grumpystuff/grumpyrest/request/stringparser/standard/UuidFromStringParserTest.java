@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.request.stringparser.standard;
+
+import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserException;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidFromStringParserTest {
+
+    private static final UuidFromStringParser parser = new UuidFromStringParser();
+
+    @Test
+    public void test() throws Exception {
+        assertTrue(parser.supportsType(UUID.class));
+        assertFalse(parser.supportsType(String.class));
+
+        UUID uuid = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+        assertEquals(uuid, parser.parseFromString("123e4567-e89b-12d3-a456-426614174000", UUID.class));
+        assertEquals(uuid, parser.parseFromString("123E4567-E89B-12D3-A456-426614174000", UUID.class));
+
+        assertThrows(FromStringParserException.class, () -> parser.parseFromString("1-2-3-4-5", UUID.class));
+        assertThrows(FromStringParserException.class, () -> parser.parseFromString("me", UUID.class));
+        assertThrows(FromStringParserException.class,
+                () -> parser.parseFromString("123e4567-e89b-12d3-a456-42661417400x", UUID.class));
+
+        assertThrows(FromStringParserException.class, () -> parser.parseFromAbsentString(UUID.class));
+    }
+
+}
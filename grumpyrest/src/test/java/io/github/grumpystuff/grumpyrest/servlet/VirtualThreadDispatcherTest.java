@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.servlet;
+
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.FakeServletExchange;
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Virtual threads are not available on the Java version that grumpyrest is built for, so most of these tests pass a
+ * platform thread executor instead.
+ */
+public class VirtualThreadDispatcherTest {
+
+    private final RestApi api = new RestApi(new GsonBasedJsonEngine());
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    // handlers wait for this, so tests can keep requests in flight
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    public VirtualThreadDispatcherTest() {
+        api.addRoute(HttpMethod.GET, "/thread", request -> Thread.currentThread().getName());
+        api.addRoute(HttpMethod.GET, "/blocking", request -> release.await(10, TimeUnit.SECONDS));
+        api.seal();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private FakeServletExchange service(RestServlet servlet, String path, boolean asyncSupported) {
+        FakeServletExchange exchange = new FakeServletExchange("GET", path, asyncSupported);
+        servlet.service(exchange.getRequest(), exchange.getResponse());
+        return exchange;
+    }
+
+    private RestServlet createServlet(ExecutorService executor, int maxInFlightRequests) {
+        VirtualThreadDispatcher dispatcher = new VirtualThreadDispatcher(executor, maxInFlightRequests);
+        return new RestServlet(api, RequestPathSourcingStrategy.STARTING_WITH_CONTEXT_PATH, dispatcher);
+    }
+
+    private static String callingThread() {
+        return "\"" + Thread.currentThread().getName() + "\"";
+    }
+
+    @Test
+    public void testIsSupported() {
+        int feature = Runtime.version().feature();
+        if (feature < 19) {
+            Assertions.assertFalse(VirtualThreadDispatcher.isSupported());
+        } else if (feature >= 21) {
+            Assertions.assertTrue(VirtualThreadDispatcher.isSupported());
+        }
+
+        // whether supported or not, creating a dispatcher works
+        Assertions.assertEquals(5, new VirtualThreadDispatcher(5).getMaxInFlightRequests());
+    }
+
+    @Test
+    public void testDispatch() throws Exception {
+        FakeServletExchange exchange = service(createServlet(executor, 10), "/thread", true);
+        Assertions.assertTrue(exchange.isAsyncStarted());
+        Assertions.assertEquals(0, exchange.getAsyncTimeout());
+        exchange.awaitAsyncCompletion();
+        Assertions.assertEquals(200, exchange.getStatus());
+        Assertions.assertNotEquals(callingThread(), exchange.getBody());
+    }
+
+    @Test
+    public void testFallbackWithoutVirtualThreads() {
+        FakeServletExchange exchange = service(createServlet(null, 10), "/thread", true);
+        Assertions.assertFalse(exchange.isAsyncStarted());
+        Assertions.assertEquals(callingThread(), exchange.getBody());
+    }
+
+    @Test
+    public void testFallbackIfAsyncNotSupported() {
+        FakeServletExchange exchange = service(createServlet(executor, 10), "/thread", false);
+        Assertions.assertFalse(exchange.isAsyncStarted());
+        Assertions.assertEquals(callingThread(), exchange.getBody());
+    }
+
+    @Test
+    public void testFallbackIfTooManyRequestsInFlight() throws Exception {
+        RestServlet servlet = createServlet(executor, 1);
+        FakeServletExchange blocked = service(servlet, "/blocking", true);
+        Assertions.assertTrue(blocked.isAsyncStarted());
+
+        FakeServletExchange exchange = service(servlet, "/thread", true);
+        Assertions.assertFalse(exchange.isAsyncStarted());
+        Assertions.assertEquals(callingThread(), exchange.getBody());
+
+        // the permit is returned when the first request is done
+        release.countDown();
+        blocked.awaitAsyncCompletion();
+        Assertions.assertEquals("true", blocked.getBody());
+        exchange = service(servlet, "/thread", true);
+        Assertions.assertTrue(exchange.isAsyncStarted());
+        exchange.awaitAsyncCompletion();
+    }
+
+    @Test
+    public void testRunsOnCallingThreadAfterShutdown() throws Exception {
+        RestServlet servlet = createServlet(executor, 10);
+        servlet.destroy();
+        FakeServletExchange exchange = service(servlet, "/thread", true);
+        Assertions.assertTrue(exchange.isAsyncCompleted());
+        Assertions.assertEquals(callingThread(), exchange.getBody());
+    }
+
+}